@@ -35,11 +35,28 @@ android {
     }
     buildFeatures {
         viewBinding = true
+        // BuildConfig.DEBUG gates developer-only actions such as generating test data
+        buildConfig = true
     }
     lint {
         baseline = file("lint-baseline.xml")
         abortOnError = false
     }
+    testOptions {
+        unitTests {
+            isIncludeAndroidResources = true
+            all {
+                // Database performance suite: -PdbPerf, optionally -PdbPerfRows=10000,100000
+                it.systemProperty("dbPerf", project.hasProperty("dbPerf"))
+                project.findProperty("dbPerfRows")?.let { rows -> it.systemProperty("dbPerf.rows", rows) }
+                it.systemProperty("dbPerf.reportDir", layout.buildDirectory.dir("reports/db-perf").get().asFile.path)
+                if (project.hasProperty("dbPerf")) {
+                    // A million seeded rows plus the lists read back from them
+                    it.maxHeapSize = "3g"
+                }
+            }
+        }
+    }
 }
 
 dependencies {
@@ -54,6 +71,7 @@ dependencies {
     implementation("androidx.navigation:navigation-fragment-ktx:2.7.6")
     implementation("androidx.navigation:navigation-ui-ktx:2.7.6")
     testImplementation("junit:junit:4.13.2")
+    testImplementation("org.robolectric:robolectric:4.14.1")
     androidTestImplementation("androidx.test.ext:junit:1.1.5")
     androidTestImplementation("androidx.test.espresso:espresso-core:3.5.1")
 }
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.example.expensetracker;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * AppExecutors: Shared executors for moving work off the main thread
+ * Features:
+ * - Single background thread for database and file work, so writes stay ordered
+ * - Separate background thread for CPU-bound work such as list diffing
+ * - Main thread executor for posting results back to the UI
+ */
+public final class AppExecutors {
+    private static final ExecutorService DISK_IO = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "expense-tracker-io");
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        return thread;
+    });
+    private static final ExecutorService COMPUTATION = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "expense-tracker-compute");
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        return thread;
+    });
+    private static final Executor MAIN_THREAD = new MainThreadExecutor();
+
+    private AppExecutors() {
+    }
+
+    /**
+     * @return Executor for database and file operations
+     */
+    public static Executor diskIO() {
+        return DISK_IO;
+    }
+
+    /**
+     * @return Executor for CPU-bound work that must not queue behind database I/O
+     */
+    public static Executor computation() {
+        return COMPUTATION;
+    }
+
+    /**
+     * @return Executor that runs tasks on the main thread
+     */
+    public static Executor mainThread() {
+        return MAIN_THREAD;
+    }
+
+    private static class MainThreadExecutor implements Executor {
+        private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public void execute(@NonNull Runnable command) {
+            mainHandler.post(command);
+        }
+    }
+}
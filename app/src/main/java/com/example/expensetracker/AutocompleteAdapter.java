@@ -0,0 +1,67 @@
+package com.example.expensetracker;
+
+import android.content.Context;
+import android.widget.ArrayAdapter;
+import android.widget.AutoCompleteTextView;
+import android.widget.Filter;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Drop-down adapter that completes a text field from {@link AutocompleteIndex}
+ */
+public class AutocompleteAdapter extends ArrayAdapter<String> {
+    private static final int MAX_COMPLETIONS = 6;
+
+    private final AutocompleteIndex index;
+    private final int field;
+    private final Filter filter = new Filter() {
+        @Override
+        protected FilterResults performFiltering(CharSequence constraint) {
+            FilterResults results = new FilterResults();
+            List<String> completions = constraint == null
+                    ? new ArrayList<>()
+                    : index.complete(field, constraint.toString(), MAX_COMPLETIONS);
+            results.values = completions;
+            results.count = completions.size();
+            return results;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void publishResults(CharSequence constraint, FilterResults results) {
+            setNotifyOnChange(false);
+            clear();
+            if (results.values != null) {
+                addAll((List<String>) results.values);
+            }
+            notifyDataSetChanged();
+        }
+    };
+
+    private AutocompleteAdapter(Context context, AutocompleteIndex index, int field) {
+        super(context, android.R.layout.simple_dropdown_item_1line, new ArrayList<>());
+        this.index = index;
+        this.field = field;
+    }
+
+    /**
+     * Attaches completions to a text field
+     * @param view Field to complete
+     * @param field {@link AutocompleteIndex#FIELD_TITLE} or {@link AutocompleteIndex#FIELD_NOTE}
+     */
+    public static void attach(AutoCompleteTextView view, int field) {
+        Context context = view.getContext();
+        view.setAdapter(new AutocompleteAdapter(context, AutocompleteIndex.getInstance(context), field));
+        view.setThreshold(1);
+    }
+
+    @NonNull
+    @Override
+    public Filter getFilter() {
+        return filter;
+    }
+}
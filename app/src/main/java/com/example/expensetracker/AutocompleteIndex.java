@@ -0,0 +1,91 @@
+package com.example.expensetracker;
+
+import android.content.Context;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * AutocompleteIndex: Completes titles and notes from earlier entries
+ * Features:
+ * - One prefix index per field, built from distinct values off the main thread
+ * - Each saved transaction is added to the indexes as it is written
+ * - Edits and deletes rebuild the indexes in the background, so removed
+ *   values stop being offered
+ */
+public class AutocompleteIndex implements DatabaseHelper.OnDataChangedListener {
+    public static final int FIELD_TITLE = 0;
+    public static final int FIELD_NOTE = 1;
+
+    private static AutocompleteIndex instance;
+
+    // Added to in place under this object's lock
+    private final BackgroundIndex<Fields> fields;
+
+    /**
+     * Prefix indexes of both fields, built together
+     */
+    private static final class Fields {
+        final PrefixIndex titles;
+        final PrefixIndex notes;
+
+        Fields(DatabaseHelper dbHelper) {
+            titles = dbHelper.loadPrefixIndex(DatabaseHelper.COLUMN_CATEGORY);
+            notes = dbHelper.loadPrefixIndex(DatabaseHelper.COLUMN_NOTE);
+        }
+    }
+
+    private AutocompleteIndex(DatabaseHelper dbHelper) {
+        this.fields = new BackgroundIndex<>(dbHelper, () -> new Fields(dbHelper));
+        dbHelper.addOnDataChangedListener(this);
+        fields.scheduleBuild();
+    }
+
+    /**
+     * Gets the shared index; the first call starts building it in the background
+     * @param context Any context
+     * @return Shared index
+     */
+    public static synchronized AutocompleteIndex getInstance(Context context) {
+        if (instance == null) {
+            instance = new AutocompleteIndex(DatabaseHelper.getInstance(context));
+        }
+        return instance;
+    }
+
+    /**
+     * Completes a value. Fast enough to call on every keystroke
+     * @param field {@link #FIELD_TITLE} or {@link #FIELD_NOTE}
+     * @param prefix Text typed so far
+     * @param maxResults Maximum number of completions
+     * @return Completions, best first; empty while the index is being built
+     */
+    public synchronized List<String> complete(int field, String prefix, int maxResults) {
+        Fields current = fields.get();
+        if (current == null) {
+            return Collections.emptyList();
+        }
+        PrefixIndex index = field == FIELD_NOTE ? current.notes : current.titles;
+        return index.lookup(prefix, maxResults, EpochDays.today());
+    }
+
+    @Override
+    public synchronized void onTransactionAdded(Transaction transaction, long dataVersion) {
+        Fields current = fields.getForChange(dataVersion);
+        if (current == null) {
+            // Not built yet, or built after this row was written; the build has it
+            return;
+        }
+        int day = EpochDays.parse(transaction.getDate());
+        if (day == EpochDays.INVALID) {
+            day = EpochDays.today();
+        }
+        current.titles.add(transaction.getCategory(), day);
+        current.notes.add(transaction.getDescription(), day);
+    }
+
+    @Override
+    public void onDataInvalidated(long dataVersion) {
+        fields.scheduleBuild();
+    }
+}
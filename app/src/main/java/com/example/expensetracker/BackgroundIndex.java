@@ -0,0 +1,107 @@
+package com.example.expensetracker;
+
+import java.util.function.Supplier;
+
+/**
+ * In-memory state derived from the database, loaded on the disk thread
+ * Readers keep the previous value while a new one loads, and a load that
+ * overlapped a write is repeated, so a finished build never misses rows.
+ * Loads are timed by the DatabaseHelper calls they make, see {@link DbMetrics}.
+ * Owners update the value in place for single-row changes, through
+ * {@link #getForChange(long)} so a value loaded after the change is not
+ * patched twice, and call {@link #scheduleBuild()} when the data is invalidated
+ * @param <T> Type of the loaded value
+ */
+final class BackgroundIndex<T> {
+    private final DatabaseHelper dbHelper;
+    private final Supplier<T> loader;
+
+    // Guarded by this; null until the first load finishes or after clear
+    private T value;
+    // Data version read before the value was loaded; it holds every change up to it
+    private long builtVersion;
+    private boolean buildPending;
+
+    /**
+     * @param dbHelper Database the value is derived from, for its data version
+     * @param loader Reads a fresh value; called on the disk thread, or by {@link #require()}
+     */
+    BackgroundIndex(DatabaseHelper dbHelper, Supplier<T> loader) {
+        this.dbHelper = dbHelper;
+        this.loader = loader;
+    }
+
+    /**
+     * @return Current value, or null while the first load is still running
+     */
+    synchronized T get() {
+        return value;
+    }
+
+    /**
+     * Gets the value to apply a single-row change to. The database bumps the
+     * data version before calling its listeners, so a load can already hold
+     * the change its listener is about to apply
+     * @param dataVersion Data version after the change, as passed to the listener
+     * @return Current value, or null if none is loaded or it already holds the change
+     */
+    synchronized T getForChange(long dataVersion) {
+        return dataVersion > builtVersion ? value : null;
+    }
+
+    /**
+     * Gets the value, loading it on the calling thread if no load has finished
+     * @return Current value
+     */
+    T require() {
+        T current = get();
+        if (current != null) {
+            return current;
+        }
+        long version = dbHelper.getDataVersion();
+        // Loaded outside the lock, so get() never waits for it
+        T loaded = loader.get();
+        synchronized (this) {
+            if (value == null) {
+                value = loaded;
+                builtVersion = version;
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Drops the value, so the next {@link #require()} loads it again
+     */
+    synchronized void clear() {
+        value = null;
+    }
+
+    /**
+     * Loads a new value on the disk thread. Calls made while a load is queued share it
+     */
+    synchronized void scheduleBuild() {
+        if (buildPending) {
+            return;
+        }
+        buildPending = true;
+        AppExecutors.diskIO().execute(this::build);
+    }
+
+    private void build() {
+        synchronized (this) {
+            buildPending = false;
+        }
+        long version = dbHelper.getDataVersion();
+        // Loaded outside the lock; readers keep using the previous value meanwhile
+        T built = loader.get();
+        synchronized (this) {
+            value = built;
+            builtVersion = version;
+        }
+        if (dbHelper.getDataVersion() != version) {
+            // Rows written while loading may be missing from the new value
+            scheduleBuild();
+        }
+    }
+}
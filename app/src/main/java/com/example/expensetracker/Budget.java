@@ -0,0 +1,77 @@
+package com.example.expensetracker;
+
+/**
+ * Monthly spending limit for one category, with the amount spent so far in
+ * the current period. Spend is maintained incrementally by
+ * {@link DatabaseHelper} on every write, so reading it never sums transactions
+ */
+public final class Budget {
+    /** Alert thresholds, as percentages of the limit */
+    public static final int WARNING_PERCENT = 80;
+    public static final int EXCEEDED_PERCENT = 100;
+
+    private final String category;
+    private final double monthlyLimit;
+    private final double spent;
+    private final int periodMonthKey;
+
+    /**
+     * @param category Category the budget applies to
+     * @param monthlyLimit Spending limit per month
+     * @param spent Amount spent in the period
+     * @param periodMonthKey Period the spend belongs to, as yyyyMM
+     */
+    public Budget(String category, double monthlyLimit, double spent, int periodMonthKey) {
+        this.category = category;
+        this.monthlyLimit = monthlyLimit;
+        this.spent = spent;
+        this.periodMonthKey = periodMonthKey;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public double getMonthlyLimit() {
+        return monthlyLimit;
+    }
+
+    public double getSpent() {
+        return spent;
+    }
+
+    public int getPeriodMonthKey() {
+        return periodMonthKey;
+    }
+
+    /**
+     * @return Spend as a percentage of the limit
+     */
+    public int getPercentUsed() {
+        if (monthlyLimit <= 0) {
+            return 0;
+        }
+        return (int) Math.floor(spent * 100 / monthlyLimit);
+    }
+
+    /**
+     * Determines which alert threshold, if any, a change in spend crossed upwards
+     * @param oldSpent Spend before the write
+     * @param newSpent Spend after the write
+     * @param limit Monthly limit
+     * @return {@link #EXCEEDED_PERCENT}, {@link #WARNING_PERCENT}, or 0 if none was crossed
+     */
+    public static int crossedThreshold(double oldSpent, double newSpent, double limit) {
+        if (limit <= 0 || newSpent <= oldSpent) {
+            return 0;
+        }
+        if (oldSpent < limit && newSpent >= limit) {
+            return EXCEEDED_PERCENT;
+        }
+        double warning = limit * WARNING_PERCENT / 100.0;
+        if (oldSpent < warning && newSpent >= warning) {
+            return WARNING_PERCENT;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.expensetracker;
+
+import android.os.Bundle;
+import android.text.InputType;
+import android.view.MenuItem;
+import android.view.View;
+import android.widget.ArrayAdapter;
+import android.widget.Button;
+import android.widget.EditText;
+import android.widget.LinearLayout;
+import android.widget.ListView;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.annotation.NonNull;
+import androidx.appcompat.app.AlertDialog;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.appcompat.widget.Toolbar;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * BudgetActivity: Manages monthly spending limits per category
+ * Features:
+ * - Lists budgets with this month's spend, read from the tracked totals
+ * - Sets or replaces a budget for a category
+ * - Long press removes a budget
+ */
+public class BudgetActivity extends AppCompatActivity {
+    private ListView budgetList;
+    private TextView emptyView;
+    private ArrayAdapter<String> listAdapter;
+    private final List<Budget> budgets = new ArrayList<>();
+    private DatabaseHelper dbHelper;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_budget);
+
+        // Set up toolbar
+        Toolbar toolbar = findViewById(R.id.toolbar);
+        setSupportActionBar(toolbar);
+        getSupportActionBar().setDisplayHomeAsUpEnabled(true);
+        setTitle("Budgets");
+
+        dbHelper = DatabaseHelper.getInstance(this);
+
+        budgetList = findViewById(R.id.budgetList);
+        emptyView = findViewById(R.id.emptyView);
+        listAdapter = new ArrayAdapter<>(this, android.R.layout.simple_list_item_1, new ArrayList<>());
+        budgetList.setAdapter(listAdapter);
+
+        budgetList.setOnItemClickListener((parent, view, position, id) ->
+                showBudgetDialog(budgets.get(position)));
+        budgetList.setOnItemLongClickListener((parent, view, position, id) -> {
+            confirmDelete(budgets.get(position));
+            return true;
+        });
+
+        Button addButton = findViewById(R.id.addBudgetButton);
+        addButton.setOnClickListener(v -> showBudgetDialog(null));
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        loadBudgets();
+    }
+
+    private void loadBudgets() {
+        AppExecutors.diskIO().execute(() -> {
+            List<Budget> loaded = dbHelper.getBudgets();
+            AppExecutors.mainThread().execute(() -> showBudgets(loaded));
+        });
+    }
+
+    private void showBudgets(List<Budget> loaded) {
+        if (isFinishing() || isDestroyed()) {
+            return;
+        }
+        budgets.clear();
+        budgets.addAll(loaded);
+
+        List<String> rows = new ArrayList<>(loaded.size());
+        for (Budget budget : loaded) {
+            rows.add(String.format(Locale.UK, "%s\n%s of %s (%d%%)", budget.getCategory(),
+                    Money.format(budget.getSpent()), Money.format(budget.getMonthlyLimit()), budget.getPercentUsed()));
+        }
+        listAdapter.clear();
+        listAdapter.addAll(rows);
+
+        emptyView.setVisibility(loaded.isEmpty() ? View.VISIBLE : View.GONE);
+        budgetList.setVisibility(loaded.isEmpty() ? View.GONE : View.VISIBLE);
+    }
+
+    /**
+     * Shows the dialog for setting a budget
+     * @param existing Budget to edit, or null to add a new one
+     */
+    private void showBudgetDialog(Budget existing) {
+        int padding = (int) (16 * getResources().getDisplayMetrics().density);
+        LinearLayout form = new LinearLayout(this);
+        form.setOrientation(LinearLayout.VERTICAL);
+        form.setPadding(padding, padding / 2, padding, 0);
+
+        EditText categoryInput = new EditText(this);
+        categoryInput.setHint("Category");
+        categoryInput.setInputType(InputType.TYPE_CLASS_TEXT | InputType.TYPE_TEXT_FLAG_CAP_SENTENCES);
+        EditText limitInput = new EditText(this);
+        limitInput.setHint("Monthly limit");
+        limitInput.setInputType(InputType.TYPE_CLASS_NUMBER | InputType.TYPE_NUMBER_FLAG_DECIMAL);
+        if (existing != null) {
+            categoryInput.setText(existing.getCategory());
+            categoryInput.setEnabled(false);
+            limitInput.setText(String.format(Locale.UK, "%.2f", existing.getMonthlyLimit()));
+        }
+        form.addView(categoryInput);
+        form.addView(limitInput);
+
+        new AlertDialog.Builder(this)
+                .setTitle(R.string.budget_set)
+                .setView(form)
+                .setPositiveButton("Save", (dialog, which) ->
+                        saveBudget(categoryInput.getText().toString().trim(), limitInput.getText().toString()))
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    private void saveBudget(String category, String limitStr) {
+        if (category.isEmpty() || limitStr.isEmpty()) {
+            Toast.makeText(this, "Please fill all fields", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        double limit;
+        try {
+            limit = Double.parseDouble(limitStr);
+        } catch (NumberFormatException e) {
+            Toast.makeText(this, "Invalid amount", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        if (limit <= 0) {
+            Toast.makeText(this, "Amount must be greater than 0", Toast.LENGTH_SHORT).show();
+            return;
+        }
+
+        AppExecutors.diskIO().execute(() -> {
+            // Sums this month's spend once; later writes keep it up to date
+            boolean saved = dbHelper.setBudget(category, limit);
+            List<Budget> loaded = dbHelper.getBudgets();
+            AppExecutors.mainThread().execute(() -> {
+                if (!saved) {
+                    Toast.makeText(this, "Failed to save budget", Toast.LENGTH_SHORT).show();
+                }
+                showBudgets(loaded);
+            });
+        });
+    }
+
+    private void confirmDelete(Budget budget) {
+        new AlertDialog.Builder(this)
+                .setTitle("Delete Budget")
+                .setMessage("Remove the budget for " + budget.getCategory() + "?")
+                .setPositiveButton("Delete", (dialog, which) -> AppExecutors.diskIO().execute(() -> {
+                    dbHelper.deleteBudget(budget.getCategory());
+                    List<Budget> loaded = dbHelper.getBudgets();
+                    AppExecutors.mainThread().execute(() -> showBudgets(loaded));
+                }))
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(@NonNull MenuItem item) {
+        if (item.getItemId() == android.R.id.home) {
+            onBackPressed();
+            return true;
+        }
+        return super.onOptionsItemSelected(item);
+    }
+}
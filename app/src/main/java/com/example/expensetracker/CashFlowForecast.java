@@ -0,0 +1,47 @@
+package com.example.expensetracker;
+
+/**
+ * Projected balances at fixed horizons, as computed by {@link CashFlowForecaster}
+ */
+public final class CashFlowForecast {
+    /** Horizons shown on the summary card, in days */
+    public static final int[] HORIZONS = {30, 90, 365};
+
+    private final long dataVersion;
+    private final int day;
+    private final double balance;
+    private final double[] projectedBalances;
+
+    /**
+     * @param dataVersion Data version the forecast was computed from
+     * @param day Epoch day the forecast starts from
+     * @param balance Current balance
+     * @param projectedBalances Projected balance for each of {@link #HORIZONS}
+     */
+    public CashFlowForecast(long dataVersion, int day, double balance, double[] projectedBalances) {
+        this.dataVersion = dataVersion;
+        this.day = day;
+        this.balance = balance;
+        this.projectedBalances = projectedBalances;
+    }
+
+    public long getDataVersion() {
+        return dataVersion;
+    }
+
+    public int getDay() {
+        return day;
+    }
+
+    public double getBalance() {
+        return balance;
+    }
+
+    /**
+     * @param horizonIndex Index into {@link #HORIZONS}
+     * @return Projected balance at that horizon
+     */
+    public double getProjectedBalance(int horizonIndex) {
+        return projectedBalances[horizonIndex];
+    }
+}
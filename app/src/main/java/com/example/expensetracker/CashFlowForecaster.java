@@ -0,0 +1,126 @@
+package com.example.expensetracker;
+
+import android.content.Context;
+
+import java.util.List;
+
+/**
+ * CashFlowForecaster: Projects the balance 30, 90 and 365 days ahead
+ * Features:
+ * - Exponentially weighted daily rate per category and type, built once from
+ *   daily totals and then updated per saved transaction in O(1)
+ * - Known recurring rules are projected exactly instead of being averaged
+ * - The last forecast is cached until the data version or the day changes
+ */
+public class CashFlowForecaster implements DatabaseHelper.OnDataChangedListener {
+    // Recent behaviour dominates: an amount counts half as much after this many days
+    private static final double HALF_LIFE_DAYS = 60;
+
+    private static CashFlowForecaster instance;
+
+    private final DatabaseHelper dbHelper;
+
+    // Updated in place under this object's lock; cleared on invalidation
+    private final BackgroundIndex<Model> model;
+    // Guarded by this
+    private CashFlowForecast cachedForecast;
+
+    /**
+     * Everything a forecast is computed from, read from the database together
+     */
+    private static final class Model {
+        final EwmaRateModel rateModel;
+        final List<RecurrenceRule> rules;
+        double balance;
+
+        Model(DatabaseHelper dbHelper) {
+            // Rows written by recurring rules are left out; the rules themselves are projected exactly
+            rateModel = dbHelper.loadRateModel(HALF_LIFE_DAYS);
+            balance = dbHelper.getFinancialSummary().getBalance();
+            rules = dbHelper.getRecurringRules();
+        }
+    }
+
+    private CashFlowForecaster(DatabaseHelper dbHelper) {
+        this.dbHelper = dbHelper;
+        this.model = new BackgroundIndex<>(dbHelper, () -> new Model(dbHelper));
+        dbHelper.addOnDataChangedListener(this);
+    }
+
+    /**
+     * Gets the shared forecaster, which follows every write made through the shared database helper
+     * @param context Any context
+     * @return Shared forecaster
+     */
+    public static synchronized CashFlowForecaster getInstance(Context context) {
+        if (instance == null) {
+            instance = new CashFlowForecaster(DatabaseHelper.getInstance(context));
+        }
+        return instance;
+    }
+
+    /**
+     * Gets the forecast, computing it only if the data or the day changed since
+     * the last call. The first call reads daily totals from the database, so
+     * call it on a background thread
+     * @return Current forecast
+     */
+    public synchronized CashFlowForecast getForecast() {
+        int today = EpochDays.today();
+        long version = dbHelper.getDataVersion();
+        if (cachedForecast != null && cachedForecast.getDataVersion() == version && cachedForecast.getDay() == today) {
+            return cachedForecast;
+        }
+        Model current = model.require();
+
+        double dailyRate = current.rateModel.totalDailyRate(today);
+        double[] projected = new double[CashFlowForecast.HORIZONS.length];
+        for (int i = 0; i < projected.length; i++) {
+            int horizon = CashFlowForecast.HORIZONS[i];
+            projected[i] = current.balance + dailyRate * horizon + recurringTotal(current.rules, today + 1, today + horizon);
+        }
+        cachedForecast = new CashFlowForecast(version, today, current.balance, projected);
+        return cachedForecast;
+    }
+
+    private static double recurringTotal(List<RecurrenceRule> rules, int fromDay, int untilDay) {
+        double total = 0;
+        for (RecurrenceRule rule : rules) {
+            total += signedAmount(rule.getType(), rule.getAmount()) * rule.projectedCount(fromDay, untilDay);
+        }
+        return total;
+    }
+
+    /**
+     * Key of the rate series a transaction belongs to
+     */
+    static String seriesKey(String type, String category) {
+        return type + '\u0000' + (category == null ? "" : category.toLowerCase(java.util.Locale.ROOT));
+    }
+
+    static double signedAmount(String type, double amount) {
+        return "income".equalsIgnoreCase(type) ? Math.abs(amount) : -Math.abs(amount);
+    }
+
+    @Override
+    public synchronized void onTransactionAdded(Transaction transaction, long dataVersion) {
+        Model current = model.getForChange(dataVersion);
+        if (current == null) {
+            // Not built yet, or built after this row was written; the model has it
+            return;
+        }
+        // In the base currency, like the balance it was seeded from and the rate model
+        double amount = signedAmount(transaction.getType(), dbHelper.toBaseAmount(transaction));
+        current.balance += amount;
+        int day = EpochDays.parse(transaction.getDate());
+        if (day != EpochDays.INVALID) {
+            current.rateModel.add(seriesKey(transaction.getType(), transaction.getCategory()), amount, day);
+        }
+    }
+
+    @Override
+    public synchronized void onDataInvalidated(long dataVersion) {
+        model.clear();
+        cachedForecast = null;
+    }
+}
@@ -0,0 +1,382 @@
+package com.example.expensetracker;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Multinomial naive Bayes over hashed word and word-pair features
+ * Features are hashed into a fixed number of buckets, and only the
+ * (bucket, label) pairs that have actually been seen are stored, chained per
+ * bucket in flat int arrays. Classifying walks just the chains of the text's
+ * own features, so it only touches labels that share a word with the text.
+ * The number of stored pairs is capped; when the cap is reached the rarest
+ * pairs are dropped, which keeps the model at a few hundred KB however many
+ * rows it has been trained on
+ */
+public final class CategoryClassifier {
+    private static final int MAGIC = 0x45544e42; // "ETNB"
+    private static final int FORMAT_VERSION = 1;
+    // Laplace smoothing
+    private static final double ALPHA = 0.5;
+    private static final double LOG_ALPHA = Math.log(ALPHA);
+    private static final int MAX_FEATURES = 64;
+    private static final int NO_ENTRY = -1;
+
+    private final int bucketBits;
+    private final int bucketMask;
+    private final int maxPairs;
+
+    private final List<String> labels = new ArrayList<>();
+    private final Map<String, Integer> labelIds = new HashMap<>();
+    private int[] labelDocs = new int[16];
+    private long[] labelFeatures = new long[16];
+    private int totalDocs;
+
+    // Pair storage: each bucket heads a chain of (label, count) entries
+    private final int[] bucketHeads;
+    private int[] entryLabels = new int[1024];
+    private int[] entryCounts = new int[1024];
+    private int[] entryNext = new int[1024];
+    private int size;
+
+    // Scratch buffers, reused by every call
+    private final int[] features = new int[MAX_FEATURES];
+    private double[] matchScores = new double[16];
+    private int[] matchCounts = new int[16];
+    private int[] touched = new int[16];
+
+    /**
+     * @param bucketBits Number of hash bits per feature; 2^bucketBits buckets
+     * @param maxPairs Maximum number of (feature, label) pairs kept
+     */
+    public CategoryClassifier(int bucketBits, int maxPairs) {
+        if (bucketBits < 4 || bucketBits > 20) {
+            throw new IllegalArgumentException("bucketBits must be between 4 and 20");
+        }
+        if (maxPairs < 16) {
+            throw new IllegalArgumentException("maxPairs must be at least 16");
+        }
+        this.bucketBits = bucketBits;
+        this.bucketMask = (1 << bucketBits) - 1;
+        this.maxPairs = maxPairs;
+        this.bucketHeads = new int[1 << bucketBits];
+        Arrays.fill(bucketHeads, NO_ENTRY);
+    }
+
+    /**
+     * Learns that a text belongs to a label
+     * @param text Free text, such as a transaction note
+     * @param label Label, such as a category
+     */
+    public void train(String text, String label) {
+        if (label == null || label.isEmpty()) {
+            return;
+        }
+        int count = extractFeatures(text);
+        if (count == 0) {
+            return;
+        }
+        int labelId = labelId(label);
+        labelDocs[labelId]++;
+        labelFeatures[labelId] += count;
+        totalDocs++;
+        for (int i = 0; i < count; i++) {
+            increment(features[i], labelId);
+        }
+        if (size > maxPairs) {
+            prune();
+        }
+    }
+
+    /**
+     * Ranks labels for a text
+     * @param text Free text
+     * @param maxResults Maximum number of labels to return
+     * @param labelPrefix Only labels starting with this are considered; empty for all
+     * @return Most likely labels first; empty if the text has no usable words
+     */
+    public List<String> classify(String text, int maxResults, String labelPrefix) {
+        int count = extractFeatures(text);
+        List<String> result = new ArrayList<>(maxResults);
+        if (count == 0 || totalDocs == 0 || maxResults <= 0) {
+            return result;
+        }
+
+        // Sum log(count + alpha) - log(alpha) over the features each label has seen;
+        // unseen features contribute log(alpha) to every label alike
+        int touchedCount = 0;
+        for (int i = 0; i < count; i++) {
+            for (int entry = bucketHeads[features[i]]; entry != NO_ENTRY; entry = entryNext[entry]) {
+                int labelId = entryLabels[entry];
+                if (matchCounts[labelId] == 0) {
+                    touched[touchedCount++] = labelId;
+                }
+                matchCounts[labelId]++;
+                matchScores[labelId] += Math.log(entryCounts[entry] + ALPHA) - LOG_ALPHA;
+            }
+        }
+
+        // Bounded insertion sort over the best scores; maxResults is tiny
+        int[] bestIds = new int[maxResults];
+        double[] bestScores = new double[maxResults];
+        Arrays.fill(bestScores, Double.NEGATIVE_INFINITY);
+        int found = 0;
+        double vocabulary = 1 << bucketBits;
+        for (int t = 0; t < touchedCount; t++) {
+            int labelId = touched[t];
+            double matched = matchScores[labelId];
+            matchScores[labelId] = 0;
+            matchCounts[labelId] = 0;
+            if (!labels.get(labelId).startsWith(labelPrefix)) {
+                continue;
+            }
+            // The shared log(total docs) term is left out; it does not change the ranking
+            double score = Math.log(labelDocs[labelId] + 1) + matched
+                    + count * (LOG_ALPHA - Math.log(labelFeatures[labelId] + ALPHA * vocabulary));
+            if (score <= bestScores[maxResults - 1]) {
+                continue;
+            }
+            int position = Math.min(found, maxResults - 1);
+            while (position > 0 && bestScores[position - 1] < score) {
+                bestScores[position] = bestScores[position - 1];
+                bestIds[position] = bestIds[position - 1];
+                position--;
+            }
+            bestScores[position] = score;
+            bestIds[position] = labelId;
+            found = Math.min(found + 1, maxResults);
+        }
+        for (int i = 0; i < found; i++) {
+            result.add(labels.get(bestIds[i]));
+        }
+        return result;
+    }
+
+    /**
+     * @return Number of distinct labels
+     */
+    public int getLabelCount() {
+        return labels.size();
+    }
+
+    /**
+     * @return Number of texts trained on
+     */
+    public int getTrainedCount() {
+        return totalDocs;
+    }
+
+    /**
+     * @return Number of (feature, label) pairs stored
+     */
+    public int getPairCount() {
+        return size;
+    }
+
+    /**
+     * @return Approximate size of the model's arrays in bytes
+     */
+    public long getFootprintBytes() {
+        return bucketHeads.length * 4L + entryLabels.length * 12L + labelDocs.length * 12L
+                + matchScores.length * 16L;
+    }
+
+    /**
+     * Hashes lower-cased words and adjacent word pairs into {@link #features}
+     * without creating substrings
+     * @return Number of features written
+     */
+    private int extractFeatures(String text) {
+        if (text == null) {
+            return 0;
+        }
+        int count = 0;
+        int hash = 0;
+        int length = 0;
+        int previousWord = 0;
+        boolean hasPrevious = false;
+        for (int i = 0, n = text.length(); i <= n && count < MAX_FEATURES - 1; i++) {
+            char c = i < n ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                hash = 31 * hash + Character.toLowerCase(c);
+                length++;
+                continue;
+            }
+            if (length >= 2) {
+                features[count++] = bucket(hash);
+                if (hasPrevious) {
+                    features[count++] = bucket(previousWord * 0x9E3779B1 ^ hash);
+                }
+                previousWord = hash;
+                hasPrevious = true;
+            }
+            hash = 0;
+            length = 0;
+        }
+        return count;
+    }
+
+    private int bucket(int hash) {
+        // Murmur3 finalizer spreads similar words across buckets
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash & bucketMask;
+    }
+
+    private int labelId(String label) {
+        Integer id = labelIds.get(label);
+        if (id != null) {
+            return id;
+        }
+        int newId = labels.size();
+        labels.add(label);
+        labelIds.put(label, newId);
+        if (newId >= labelDocs.length) {
+            int capacity = labelDocs.length * 2;
+            labelDocs = Arrays.copyOf(labelDocs, capacity);
+            labelFeatures = Arrays.copyOf(labelFeatures, capacity);
+            matchScores = new double[capacity];
+            matchCounts = new int[capacity];
+            touched = new int[capacity];
+        }
+        return newId;
+    }
+
+    private void increment(int bucket, int labelId) {
+        for (int entry = bucketHeads[bucket]; entry != NO_ENTRY; entry = entryNext[entry]) {
+            if (entryLabels[entry] == labelId) {
+                entryCounts[entry]++;
+                return;
+            }
+        }
+        addEntry(bucket, labelId, 1);
+    }
+
+    private void addEntry(int bucket, int labelId, int count) {
+        if (size == entryLabels.length) {
+            int capacity = size * 2;
+            entryLabels = Arrays.copyOf(entryLabels, capacity);
+            entryCounts = Arrays.copyOf(entryCounts, capacity);
+            entryNext = Arrays.copyOf(entryNext, capacity);
+        }
+        entryLabels[size] = labelId;
+        entryCounts[size] = count;
+        entryNext[size] = bucketHeads[bucket];
+        bucketHeads[bucket] = size;
+        size++;
+    }
+
+    /**
+     * Drops the rarest pairs until at most three quarters of the cap are used
+     * Pairs seen once or twice carry almost no evidence, so this barely changes rankings
+     */
+    private void prune() {
+        int target = maxPairs * 3 / 4;
+        int threshold = 1;
+        while (countAbove(threshold) > target) {
+            threshold++;
+        }
+        int[] heads = bucketHeads.clone();
+        int[] labelsCopy = entryLabels;
+        int[] countsCopy = entryCounts;
+        int[] nextCopy = entryNext;
+        Arrays.fill(bucketHeads, NO_ENTRY);
+        entryLabels = new int[entryLabels.length];
+        entryCounts = new int[entryCounts.length];
+        entryNext = new int[entryNext.length];
+        size = 0;
+        for (int bucket = 0; bucket < heads.length; bucket++) {
+            for (int entry = heads[bucket]; entry != NO_ENTRY; entry = nextCopy[entry]) {
+                if (countsCopy[entry] > threshold) {
+                    addEntry(bucket, labelsCopy[entry], countsCopy[entry]);
+                }
+            }
+        }
+    }
+
+    private int countAbove(int threshold) {
+        int above = 0;
+        for (int i = 0; i < size; i++) {
+            if (entryCounts[i] > threshold) {
+                above++;
+            }
+        }
+        return above;
+    }
+
+    /**
+     * Writes the model in a compact binary form
+     * @param out Stream to write to; not closed
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(FORMAT_VERSION);
+        data.writeInt(bucketBits);
+        data.writeInt(maxPairs);
+        data.writeInt(totalDocs);
+        data.writeInt(labels.size());
+        for (int i = 0; i < labels.size(); i++) {
+            data.writeUTF(labels.get(i));
+            data.writeInt(labelDocs[i]);
+            data.writeLong(labelFeatures[i]);
+        }
+        data.writeInt(size);
+        for (int bucket = 0; bucket < bucketHeads.length; bucket++) {
+            for (int entry = bucketHeads[bucket]; entry != NO_ENTRY; entry = entryNext[entry]) {
+                data.writeInt(bucket);
+                data.writeInt(entryLabels[entry]);
+                data.writeInt(entryCounts[entry]);
+            }
+        }
+        data.flush();
+    }
+
+    /**
+     * Reads a model written by {@link #writeTo(OutputStream)}
+     * @param in Stream to read from; not closed
+     * @return The model
+     * @throws IOException If the data is not a model of this format
+     */
+    public static CategoryClassifier readFrom(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC || data.readInt() != FORMAT_VERSION) {
+            throw new IOException("Not a category model");
+        }
+        CategoryClassifier model;
+        try {
+            model = new CategoryClassifier(data.readInt(), data.readInt());
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt category model", e);
+        }
+        model.totalDocs = data.readInt();
+        int labelCount = data.readInt();
+        for (int i = 0; i < labelCount; i++) {
+            int id = model.labelId(data.readUTF());
+            model.labelDocs[id] = data.readInt();
+            model.labelFeatures[id] = data.readLong();
+        }
+        int pairs = data.readInt();
+        for (int i = 0; i < pairs; i++) {
+            int bucket = data.readInt();
+            int labelId = data.readInt();
+            int count = data.readInt();
+            if (bucket < 0 || bucket > model.bucketMask || labelId < 0 || labelId >= labelCount) {
+                throw new IOException("Corrupt category model");
+            }
+            model.addEntry(bucket, labelId, count);
+        }
+        return model;
+    }
+}
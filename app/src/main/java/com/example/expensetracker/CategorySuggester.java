@@ -0,0 +1,196 @@
+package com.example.expensetracker;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * CategorySuggester: Suggests categories from the note being typed
+ * Features:
+ * - Naive Bayes model over hashed note words, kept in a small binary file
+ * - Trained from existing transactions the first time, off the main thread
+ * - Learns from every new transaction as it is saved
+ * - Suggestions are computed on the calling thread in microseconds
+ */
+public class CategorySuggester implements DatabaseHelper.OnDataChangedListener {
+    private static final String TAG = "CategorySuggester";
+    private static final String MODEL_FILE = "category_model.bin";
+    // 16k feature buckets and at most 24k stored pairs keep the model around 300 KB
+    private static final int BUCKET_BITS = 14;
+    private static final int MAX_PAIRS = 24_000;
+
+    private static CategorySuggester instance;
+
+    private final Context appContext;
+    private final DatabaseHelper dbHelper;
+
+    // Trained in place under this object's lock
+    private final BackgroundIndex<CategoryClassifier> model;
+    // Guarded by this
+    private boolean saveScheduled;
+
+    private CategorySuggester(Context context) {
+        this.appContext = context.getApplicationContext();
+        this.dbHelper = DatabaseHelper.getInstance(context);
+        this.model = new BackgroundIndex<>(dbHelper, this::load);
+        dbHelper.addOnDataChangedListener(this);
+        model.scheduleBuild();
+    }
+
+    /**
+     * Gets the shared suggester and starts loading its model in the background
+     * @param context Any context
+     * @return Shared suggester
+     */
+    public static synchronized CategorySuggester getInstance(Context context) {
+        if (instance == null) {
+            instance = new CategorySuggester(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Reads the saved model, training and saving one the first time.
+     * Runs on the disk thread, so typing is never blocked by the first training pass
+     */
+    private CategoryClassifier load() {
+        CategoryClassifier current = model.get();
+        if (current != null) {
+            // Loaded again because a row was saved during the first load; the
+            // live model already learns online and may be ahead of the file
+            return current;
+        }
+        CategoryClassifier loaded = readModel();
+        if (loaded == null) {
+            loaded = trainFromHistory();
+            // Not shared with suggest() yet, so no lock is needed to serialize it
+            writeModel(toBytes(loaded));
+        }
+        return loaded;
+    }
+
+    /**
+     * Suggests categories for a note
+     * @param type 'income' or 'expense'; only categories used with this type are suggested
+     * @param note Note text typed so far
+     * @param maxResults Maximum number of suggestions
+     * @return Categories, most likely first; empty while the model is loading
+     */
+    public synchronized List<String> suggest(String type, String note, int maxResults) {
+        CategoryClassifier current = model.get();
+        if (current == null) {
+            return Collections.emptyList();
+        }
+        String prefix = labelPrefix(type);
+        List<String> labels = current.classify(note, maxResults, prefix);
+        List<String> categories = new ArrayList<>(labels.size());
+        for (String label : labels) {
+            categories.add(label.substring(prefix.length()));
+        }
+        return categories;
+    }
+
+    private static String labelPrefix(String type) {
+        return (type == null ? "" : type.toLowerCase(Locale.ROOT)) + ':';
+    }
+
+    private CategoryClassifier trainFromHistory() {
+        CategoryClassifier trained = new CategoryClassifier(BUCKET_BITS, MAX_PAIRS);
+        Cursor cursor = dbHelper.getCategoryTrainingCursor();
+        if (cursor != null) {
+            while (cursor.moveToNext()) {
+                trained.train(cursor.getString(2), labelPrefix(cursor.getString(0)) + cursor.getString(1));
+            }
+            cursor.close();
+        }
+        return trained;
+    }
+
+    private CategoryClassifier readModel() {
+        File file = new File(appContext.getFilesDir(), MODEL_FILE);
+        if (!file.exists()) {
+            return null;
+        }
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            return CategoryClassifier.readFrom(in);
+        } catch (IOException e) {
+            Log.e(TAG, "Discarding unreadable model: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Serializes the model in memory, so a caller holding the lock never waits for the disk
+     */
+    private static byte[] toBytes(CategoryClassifier toWrite) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            toWrite.writeTo(bytes);
+        } catch (IOException e) {
+            // A ByteArrayOutputStream does not throw
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private void writeModel(byte[] data) {
+        File file = new File(appContext.getFilesDir(), MODEL_FILE);
+        File temp = new File(appContext.getFilesDir(), MODEL_FILE + ".tmp");
+        try (OutputStream out = new FileOutputStream(temp)) {
+            out.write(data);
+        } catch (IOException e) {
+            Log.e(TAG, "Failed to save model: " + e.getMessage());
+            return;
+        }
+        // Replace in one step so a crash never leaves a half-written model
+        if (!temp.renameTo(file)) {
+            Log.e(TAG, "Failed to replace model file");
+        }
+    }
+
+    @Override
+    public void onTransactionAdded(Transaction transaction, long dataVersion) {
+        synchronized (this) {
+            // Not getForChange: a reload keeps the live model, so a change is
+            // only in it once trained here; a row seen twice only adds evidence
+            CategoryClassifier current = model.get();
+            if (current == null) {
+                // Still loading; the history pass reads this row from the table
+                return;
+            }
+            current.train(transaction.getDescription(), labelPrefix(transaction.getType()) + transaction.getCategory());
+            if (saveScheduled) {
+                return;
+            }
+            saveScheduled = true;
+        }
+        // Several quick saves share one write
+        AppExecutors.diskIO().execute(() -> {
+            byte[] snapshot;
+            synchronized (this) {
+                saveScheduled = false;
+                snapshot = toBytes(model.get());
+            }
+            // Written outside the lock, so suggest() on the main thread never waits for the file
+            writeModel(snapshot);
+        });
+    }
+
+    @Override
+    public void onDataInvalidated(long dataVersion) {
+        // Edits and deletes are not unlearned; the model only ever adds evidence
+    }
+}
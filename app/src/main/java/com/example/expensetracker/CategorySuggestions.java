@@ -0,0 +1,76 @@
+package com.example.expensetracker;
+
+import android.content.Context;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.view.View;
+import android.widget.EditText;
+
+import com.google.android.material.chip.Chip;
+import com.google.android.material.chip.ChipGroup;
+
+import java.util.List;
+
+/**
+ * Category suggestion chips shared by the income and expense forms
+ * Features:
+ * - Suggests up to three categories as the description is typed
+ * - Tapping a suggestion fills the title field
+ * - Hides itself when there is nothing to suggest
+ */
+public class CategorySuggestions {
+    private static final int MAX_SUGGESTIONS = 3;
+
+    private final Context context;
+    private final ChipGroup chipGroup;
+    private final EditText titleField;
+    private final String type;
+    private final CategorySuggester suggester;
+
+    /**
+     * @param context Form context
+     * @param chipGroup Group the suggestions are shown in
+     * @param descriptionField Field the suggestions are computed from
+     * @param titleField Field a chosen suggestion is written to
+     * @param type 'income' or 'expense'
+     */
+    public CategorySuggestions(Context context, ChipGroup chipGroup, EditText descriptionField,
+                               EditText titleField, String type) {
+        this.context = context;
+        this.chipGroup = chipGroup;
+        this.titleField = titleField;
+        this.type = type;
+        this.suggester = CategorySuggester.getInstance(context);
+
+        descriptionField.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                showSuggestions(s.toString());
+            }
+        });
+    }
+
+    private void showSuggestions(String description) {
+        // Classifying is a few microseconds, so it runs on every keystroke
+        List<String> categories = suggester.suggest(type, description, MAX_SUGGESTIONS);
+        chipGroup.removeAllViews();
+        for (String category : categories) {
+            Chip chip = new Chip(context);
+            chip.setText(category);
+            chip.setOnClickListener(v -> {
+                titleField.setText(category);
+                titleField.setSelection(category.length());
+            });
+            chipGroup.addView(chip);
+        }
+        chipGroup.setVisibility(categories.isEmpty() ? View.GONE : View.VISIBLE);
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.expensetracker;
+
+import android.graphics.Color;
+import android.os.Bundle;
+import android.view.MenuItem;
+
+import androidx.annotation.NonNull;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.appcompat.widget.Toolbar;
+
+import com.github.mikephil.charting.charts.BarChart;
+import com.github.mikephil.charting.charts.LineChart;
+import com.github.mikephil.charting.charts.PieChart;
+import com.github.mikephil.charting.components.XAxis;
+import com.github.mikephil.charting.data.BarData;
+import com.github.mikephil.charting.data.BarDataSet;
+import com.github.mikephil.charting.data.BarEntry;
+import com.github.mikephil.charting.data.Entry;
+import com.github.mikephil.charting.data.LineData;
+import com.github.mikephil.charting.data.LineDataSet;
+import com.github.mikephil.charting.data.PieData;
+import com.github.mikephil.charting.data.PieDataSet;
+import com.github.mikephil.charting.data.PieEntry;
+import com.github.mikephil.charting.formatter.ValueFormatter;
+import com.github.mikephil.charting.utils.ColorTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * ChartsActivity: Dashboard of balance, category and monthly charts
+ * Features:
+ * - Balance over time, built from one aggregated net amount per day
+ * - Spend by category and income vs expense per month from GROUP BY queries
+ * - Long timelines downsampled with LTTB to a fixed point budget per screen width
+ * - All queries and series building run on a background thread
+ */
+public class ChartsActivity extends AppCompatActivity {
+    // Screen pixels per plotted point; more points than this cannot be told apart
+    private static final int PIXELS_PER_POINT = 2;
+    // Remaining categories are merged into "Other" to keep the pie readable
+    private static final int MAX_PIE_SLICES = 8;
+
+    private LineChart balanceChart;
+    private PieChart categoryChart;
+    private BarChart monthlyChart;
+    private DatabaseHelper dbHelper;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_charts);
+
+        // Set up toolbar
+        Toolbar toolbar = findViewById(R.id.toolbar);
+        setSupportActionBar(toolbar);
+        getSupportActionBar().setDisplayHomeAsUpEnabled(true);
+        setTitle("Charts");
+
+        dbHelper = DatabaseHelper.getInstance(this);
+
+        balanceChart = findViewById(R.id.balanceChart);
+        categoryChart = findViewById(R.id.categoryChart);
+        monthlyChart = findViewById(R.id.monthlyChart);
+        balanceChart.getDescription().setEnabled(false);
+        categoryChart.getDescription().setEnabled(false);
+        monthlyChart.getDescription().setEnabled(false);
+
+        loadCharts();
+    }
+
+    private void loadCharts() {
+        final int pointBudget = Math.max(3, getResources().getDisplayMetrics().widthPixels / PIXELS_PER_POINT);
+        AppExecutors.diskIO().execute(() -> {
+            LineData balanceData = buildBalanceData(dbHelper.getDailyNetSeries(), pointBudget);
+            PieData categoryData = buildCategoryData(dbHelper.getCategoryTotals("expense"));
+            MonthlyTotals monthlyTotals = dbHelper.getMonthlyTotals();
+            BarData monthlyData = buildMonthlyData(monthlyTotals);
+
+            AppExecutors.mainThread().execute(() -> {
+                if (isDestroyed()) {
+                    return;
+                }
+                showBalanceChart(balanceData);
+                showCategoryChart(categoryData);
+                showMonthlyChart(monthlyData, monthlyTotals);
+            });
+        });
+    }
+
+    /**
+     * Builds the balance line from daily net amounts, downsampled to the point budget
+     */
+    private LineData buildBalanceData(DailySeries dailyNet, int pointBudget) {
+        DailySeries balance = dailyNet.cumulative();
+        double[] x = new double[balance.size()];
+        double[] y = new double[balance.size()];
+        for (int i = 0; i < balance.size(); i++) {
+            x[i] = balance.getEpochDay(i);
+            y[i] = balance.getValue(i);
+        }
+
+        int[] kept = Lttb.downsample(x, y, pointBudget);
+        List<Entry> entries = new ArrayList<>(kept.length);
+        for (int index : kept) {
+            entries.add(new Entry((float) x[index], (float) y[index]));
+        }
+
+        LineDataSet dataSet = new LineDataSet(entries, "Balance");
+        dataSet.setDrawCircles(false);
+        dataSet.setDrawValues(false);
+        dataSet.setLineWidth(2f);
+        dataSet.setColor(Color.rgb(33, 150, 243));
+        return new LineData(dataSet);
+    }
+
+    private PieData buildCategoryData(Map<String, Double> categoryTotals) {
+        List<PieEntry> entries = new ArrayList<>();
+        double other = 0;
+        for (Map.Entry<String, Double> total : categoryTotals.entrySet()) {
+            if (entries.size() < MAX_PIE_SLICES) {
+                entries.add(new PieEntry(total.getValue().floatValue(), total.getKey()));
+            } else {
+                other += total.getValue();
+            }
+        }
+        if (other > 0) {
+            entries.add(new PieEntry((float) other, "Other"));
+        }
+
+        PieDataSet dataSet = new PieDataSet(entries, "Spend by category");
+        dataSet.setColors(ColorTemplate.MATERIAL_COLORS);
+        dataSet.setValueTextSize(12f);
+        return new PieData(dataSet);
+    }
+
+    private BarData buildMonthlyData(MonthlyTotals totals) {
+        List<BarEntry> income = new ArrayList<>(totals.size());
+        List<BarEntry> expense = new ArrayList<>(totals.size());
+        for (int i = 0; i < totals.size(); i++) {
+            income.add(new BarEntry(i, (float) totals.getIncome(i)));
+            expense.add(new BarEntry(i, (float) totals.getExpense(i)));
+        }
+
+        BarDataSet incomeSet = new BarDataSet(income, "Income");
+        incomeSet.setColor(Color.GREEN);
+        BarDataSet expenseSet = new BarDataSet(expense, "Expense");
+        expenseSet.setColor(Color.RED);
+        BarData data = new BarData(incomeSet, expenseSet);
+        data.setDrawValues(false);
+        return data;
+    }
+
+    private void showBalanceChart(LineData data) {
+        XAxis xAxis = balanceChart.getXAxis();
+        xAxis.setPosition(XAxis.XAxisPosition.BOTTOM);
+        xAxis.setValueFormatter(new ValueFormatter() {
+            @Override
+            public String getFormattedValue(float value) {
+                int dayKey = EpochDays.toDayKey((int) value);
+                return String.format(Locale.UK, "%02d/%d", dayKey / 100 % 100, dayKey / 10000);
+            }
+        });
+        balanceChart.setData(data);
+        balanceChart.invalidate();
+    }
+
+    private void showCategoryChart(PieData data) {
+        categoryChart.setData(data);
+        categoryChart.invalidate();
+    }
+
+    private void showMonthlyChart(BarData data, MonthlyTotals totals) {
+        // Two bars per month: (barWidth + barSpace) * 2 + groupSpace must equal 1
+        float groupSpace = 0.2f;
+        float barSpace = 0.02f;
+        data.setBarWidth(0.38f);
+
+        XAxis xAxis = monthlyChart.getXAxis();
+        xAxis.setPosition(XAxis.XAxisPosition.BOTTOM);
+        xAxis.setGranularity(1f);
+        xAxis.setCenterAxisLabels(true);
+        xAxis.setAxisMinimum(0f);
+        xAxis.setAxisMaximum(totals.size());
+        xAxis.setValueFormatter(new ValueFormatter() {
+            @Override
+            public String getFormattedValue(float value) {
+                int index = (int) value;
+                if (index < 0 || index >= totals.size()) {
+                    return "";
+                }
+                int monthKey = totals.getMonthKey(index);
+                return String.format(Locale.UK, "%02d/%02d", monthKey % 100, monthKey / 100 % 100);
+            }
+        });
+
+        monthlyChart.setData(data);
+        if (totals.size() > 0) {
+            monthlyChart.groupBars(0f, groupSpace, barSpace);
+        }
+        monthlyChart.setVisibleXRangeMaximum(12f);
+        monthlyChart.moveViewToX(Math.max(0, totals.size() - 12));
+        monthlyChart.invalidate();
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(@NonNull MenuItem item) {
+        if (item.getItemId() == android.R.id.home) {
+            onBackPressed();
+            return true;
+        }
+        return super.onOptionsItemSelected(item);
+    }
+}
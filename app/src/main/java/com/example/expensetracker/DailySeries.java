@@ -0,0 +1,39 @@
+package com.example.expensetracker;
+
+/**
+ * Time series with one value per epoch day, in ascending day order
+ */
+public final class DailySeries {
+    private final int[] epochDays;
+    private final double[] values;
+
+    public DailySeries(int[] epochDays, double[] values) {
+        this.epochDays = epochDays;
+        this.values = values;
+    }
+
+    public int size() {
+        return epochDays.length;
+    }
+
+    public int getEpochDay(int index) {
+        return epochDays[index];
+    }
+
+    public double getValue(int index) {
+        return values[index];
+    }
+
+    /**
+     * @return Series of running totals, e.g. daily net amounts to balance over time
+     */
+    public DailySeries cumulative() {
+        double[] running = new double[values.length];
+        double total = 0;
+        for (int i = 0; i < values.length; i++) {
+            total += values[i];
+            running[i] = total;
+        }
+        return new DailySeries(epochDays, running);
+    }
+}
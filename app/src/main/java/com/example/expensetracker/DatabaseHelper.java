@@ -5,6 +5,7 @@ import android.content.Context;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
 import android.media.MediaScannerConnection;
 import android.os.Environment;
 import android.util.Log;
@@ -12,9 +13,16 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * DatabaseHelper: Manages all database operations for the Expense Tracker app
@@ -23,22 +31,36 @@ import java.util.Locale;
  * - CRUD operations for transactions
  * - Data aggregation and filtering
  * - CSV export functionality
+ * - Budgets and recurring transaction rules
+ * - Per-transaction currencies and an exchange rate table
  */
 public class DatabaseHelper extends SQLiteOpenHelper {
     // Database metadata
     private static final String DATABASE_NAME = "ExpenseTracker.db";
-    private static final int DATABASE_VERSION = 1;
-    private static final String TABLE_TRANSACTIONS = "transactions";
+    private static final int DATABASE_VERSION = 5;
+    static final String TABLE_TRANSACTIONS = "transactions";
+    private static final String TABLE_BUDGETS = "budgets";
+    private static final String TABLE_RECURRING = "recurring_rules";
+    private static final String TABLE_CATEGORY_STATS = "category_stats";
+    private static final String TABLE_FX_RATES = "fx_rates";
 
     // Column names for the transactions table
-    private static final String COLUMN_ID = "id";
-    private static final String COLUMN_AMOUNT = "amount";
-    private static final String COLUMN_TYPE = "type";
-    private static final String COLUMN_CATEGORY = "category";
-    private static final String COLUMN_DATE = "date";
-    private static final String COLUMN_NOTE = "note";
-
-    // SQL query to create the transactions table
+    static final String COLUMN_ID = "id";
+    static final String COLUMN_AMOUNT = "amount";
+    static final String COLUMN_TYPE = "type";
+    static final String COLUMN_CATEGORY = "category";
+    static final String COLUMN_DATE = "date";
+    static final String COLUMN_NOTE = "note";
+    // Set on rows written by a recurring rule: the rule and the occurrence number
+    private static final String COLUMN_RULE_ID = "rule_id";
+    private static final String COLUMN_OCCURRENCE = "occurrence";
+    // 1 if the expense was far above its category's usual amount when saved
+    static final String COLUMN_ANOMALY = "anomaly";
+    // ISO 4217 code of the amount
+    static final String COLUMN_CURRENCY = "currency";
+
+    // SQL query to create the transactions table (version 1 layout; later
+    // columns are added by onUpgrade)
     private static final String CREATE_TABLE_TRANSACTIONS = "CREATE TABLE " + TABLE_TRANSACTIONS + "("
             + COLUMN_ID + " INTEGER PRIMARY KEY AUTOINCREMENT,"  // Unique identifier
             + COLUMN_AMOUNT + " REAL,"                          // Transaction amount
@@ -48,265 +70,2000 @@ public class DatabaseHelper extends SQLiteOpenHelper {
             + COLUMN_NOTE + " TEXT"                            // Optional note
             + ")";
 
+    // Column names for the budgets table
+    private static final String COLUMN_BUDGET_CATEGORY = "category";
+    private static final String COLUMN_BUDGET_LIMIT = "monthly_limit";
+    private static final String COLUMN_BUDGET_PERIOD = "period";
+    private static final String COLUMN_BUDGET_SPENT = "spent";
+
+    // SQL query to create the budgets table
+    private static final String CREATE_TABLE_BUDGETS = "CREATE TABLE " + TABLE_BUDGETS + "("
+            + COLUMN_BUDGET_CATEGORY + " TEXT PRIMARY KEY COLLATE NOCASE,"  // One budget per category
+            + COLUMN_BUDGET_LIMIT + " REAL NOT NULL,"                       // Monthly limit
+            + COLUMN_BUDGET_PERIOD + " INTEGER NOT NULL,"                   // Tracked month as yyyyMM
+            + COLUMN_BUDGET_SPENT + " REAL NOT NULL DEFAULT 0"              // Spend in that month
+            + ")";
+
+    // Column names for the recurring rules table
+    private static final String COLUMN_RULE_UNIT = "unit";
+    private static final String COLUMN_RULE_INTERVAL = "interval_count";
+    private static final String COLUMN_RULE_START_DAY = "start_day";
+    private static final String COLUMN_RULE_END_DAY = "end_day";
+    private static final String COLUMN_RULE_NEXT_INDEX = "next_index";
+    private static final String COLUMN_RULE_NEXT_DAY = "next_day";
+
+    // SQL query to create the recurring rules table
+    private static final String CREATE_TABLE_RECURRING = "CREATE TABLE " + TABLE_RECURRING + "("
+            + COLUMN_ID + " INTEGER PRIMARY KEY AUTOINCREMENT,"
+            + COLUMN_AMOUNT + " REAL NOT NULL,"
+            + COLUMN_TYPE + " TEXT NOT NULL,"
+            + COLUMN_CATEGORY + " TEXT,"
+            + COLUMN_NOTE + " TEXT,"
+            + COLUMN_RULE_UNIT + " INTEGER NOT NULL,"           // Day, week or month
+            + COLUMN_RULE_INTERVAL + " INTEGER NOT NULL,"       // Units between occurrences
+            + COLUMN_RULE_START_DAY + " INTEGER NOT NULL,"      // Epoch day of occurrence 0
+            + COLUMN_RULE_END_DAY + " INTEGER,"                 // Last allowed epoch day, or NULL
+            + COLUMN_RULE_NEXT_INDEX + " INTEGER NOT NULL,"     // First occurrence not yet written
+            + COLUMN_RULE_NEXT_DAY + " INTEGER"                 // Its epoch day, or NULL once ended
+            + ")";
+
+    // Column names for the per-category expense statistics table
+    private static final String COLUMN_STATS_COUNT = "count";
+    private static final String COLUMN_STATS_MEAN = "mean";
+    private static final String COLUMN_STATS_M2 = "m2";
+
+    // SQL query to create the per-category expense statistics table
+    private static final String CREATE_TABLE_CATEGORY_STATS = "CREATE TABLE " + TABLE_CATEGORY_STATS + "("
+            + COLUMN_CATEGORY + " TEXT PRIMARY KEY COLLATE NOCASE,"
+            + COLUMN_STATS_COUNT + " INTEGER NOT NULL,"         // Number of expenses
+            + COLUMN_STATS_MEAN + " REAL NOT NULL,"             // Mean expense amount
+            + COLUMN_STATS_M2 + " REAL NOT NULL"                // Sum of squared deviations (Welford)
+            + ")";
+
+    // Column names for the exchange rate table
+    private static final String COLUMN_FX_DAY = "day";
+    private static final String COLUMN_FX_RATE = "rate";
+
+    // SQL query to create the exchange rate table
+    private static final String CREATE_TABLE_FX_RATES = "CREATE TABLE " + TABLE_FX_RATES + "("
+            + COLUMN_CURRENCY + " TEXT NOT NULL,"
+            + COLUMN_FX_DAY + " INTEGER NOT NULL,"              // Epoch day the rate applies from
+            + COLUMN_FX_RATE + " REAL NOT NULL,"                // Base currency units per unit
+            + "PRIMARY KEY (" + COLUMN_CURRENCY + ", " + COLUMN_FX_DAY + ")"
+            + ")";
+
+    // Sortable yyyyMMdd key for a row's date. Dates are normally stored as dd/MM/yyyy,
+    // but rows edited by hand may hold yyyy-MM-dd, so both layouts are handled
+    static final String DAY_KEY_EXPR = "CAST(CASE WHEN substr(" + COLUMN_DATE + ", 5, 1) = '-'"
+            + " THEN substr(" + COLUMN_DATE + ", 1, 4) || substr(" + COLUMN_DATE + ", 6, 2) || substr(" + COLUMN_DATE + ", 9, 2)"
+            + " ELSE substr(" + COLUMN_DATE + ", 7, 4) || substr(" + COLUMN_DATE + ", 4, 2) || substr(" + COLUMN_DATE + ", 1, 2)"
+            + " END AS INTEGER)";
+
+    // Newest first by calendar date, then by insertion order
+    static final String ORDER_NEWEST_FIRST = DAY_KEY_EXPR + " DESC, " + COLUMN_ID + " DESC";
+
+    // Shared instance, so every screen reuses one open database connection
+    private static DatabaseHelper instance;
+
+    private final Context appContext;
+
+    // Incremented after every committed change to transactions or recurring rules;
+    // caches compare it to know whether their results are still current
+    private final AtomicLong dataVersion = new AtomicLong();
+    private final List<OnDataChangedListener> dataChangedListeners = new CopyOnWriteArrayList<>();
+
+    // Exchange rates, loaded on first use and replaced when rates are imported
+    private volatile FxRates fxRates;
+
+    // Filter results by data version; about 1 MB of rows at most
+    private static final int MAX_CACHED_ROWS = 5000;
+    private final QueryResultCache resultCache = new QueryResultCache(MAX_CACHED_ROWS);
+
+    /**
+     * Latency metrics and trace sections of the public operations, see {@link DbMetrics}
+     * Methods that only forward to another public method are not timed, so
+     * each call, row and nanosecond is counted once, by the method doing the work
+     */
+    private static final class Metrics {
+        static final OperationMetrics ON_CREATE = of("onCreate");
+        static final OperationMetrics ON_UPGRADE = of("onUpgrade");
+        static final OperationMetrics ADD_TRANSACTION = of("addTransaction");
+        static final OperationMetrics DELETE_TRANSACTION = of("deleteTransaction");
+        static final OperationMetrics UPDATE_TRANSACTION = of("updateTransaction");
+        static final OperationMetrics SET_BUDGET = of("setBudget");
+        static final OperationMetrics DELETE_BUDGET = of("deleteBudget");
+        static final OperationMetrics GET_BUDGET = of("getBudget");
+        static final OperationMetrics GET_BUDGETS = of("getBudgets");
+        static final OperationMetrics ADD_RECURRING_RULE = of("addRecurringRule");
+        static final OperationMetrics ADD_RECURRING_TRANSACTION = of("addRecurringTransaction");
+        static final OperationMetrics DELETE_RECURRING_RULE = of("deleteRecurringRule");
+        static final OperationMetrics GET_RECURRING_RULES = of("getRecurringRules");
+        static final OperationMetrics MATERIALIZE_RECURRING = of("materializeRecurring");
+        static final OperationMetrics GET_FX_RATES = of("getFxRates");
+        static final OperationMetrics IMPORT_FX_RATES = of("importFxRates");
+        static final OperationMetrics LOAD_NEAR_MATCH_INDEX = of("loadNearMatchIndex");
+        static final OperationMetrics IMPORT_TRANSACTIONS = of("importTransactions");
+        static final OperationMetrics INSERT_TRANSACTIONS = of("insertTransactions");
+        static final OperationMetrics GET_PROJECTED_TRANSACTIONS = of("getProjectedTransactions");
+        static final OperationMetrics GET_TRANSACTIONS_WITH_PROJECTIONS = of("getTransactionsWithProjections");
+        static final OperationMetrics GET_PROJECTED_FINANCIAL_SUMMARY = of("getFinancialSummary(untilDay)");
+        static final OperationMetrics GET_CATEGORY_STATS = of("getCategoryStats");
+        static final OperationMetrics GET_TRANSACTION_BY_ID = of("getTransactionById");
+        static final OperationMetrics GET_TRANSACTIONS = of("getTransactions");
+        static final OperationMetrics GET_TRANSACTIONS_CURSOR = of("getTransactionsCursor");
+        static final OperationMetrics GET_MONTH_INDEX = of("getMonthIndex");
+        static final OperationMetrics GET_FINANCIAL_SUMMARY = of("getFinancialSummary");
+        static final OperationMetrics GET_SPENDING_INSIGHTS = of("getSpendingInsights");
+        static final OperationMetrics GET_DAILY_NET_SERIES = of("getDailyNetSeries");
+        static final OperationMetrics GET_CATEGORY_TOTALS = of("getCategoryTotals");
+        static final OperationMetrics GET_MONTHLY_TOTALS = of("getMonthlyTotals");
+        static final OperationMetrics LOAD_LEDGER_COLUMNS = of("loadLedgerColumns");
+        static final OperationMetrics LOAD_RATE_MODEL = of("loadRateModel");
+        static final OperationMetrics LOAD_RANGE_SUM_INDEX = of("loadRangeSumIndex");
+        static final OperationMetrics LOAD_PREFIX_INDEX = of("loadPrefixIndex");
+        static final OperationMetrics GET_CATEGORY_TRAINING_CURSOR = of("getCategoryTrainingCursor");
+        static final OperationMetrics EXPORT_TO_CSV = of("exportToCSV");
+
+        private static OperationMetrics of(String method) {
+            return DbMetrics.operation("DatabaseHelper." + method);
+        }
+    }
+
+    /**
+     * Interface for keeping derived state in step with the transactions table
+     * Called on the writing thread after the change has been committed
+     */
+    public interface OnDataChangedListener {
+        /**
+         * A single transaction was inserted; incremental state can absorb it
+         * @param transaction The inserted row
+         * @param dataVersion Data version after the insert
+         */
+        void onTransactionAdded(Transaction transaction, long dataVersion);
+
+        /**
+         * A single transaction was edited. Listeners that cannot patch their
+         * state in place rebuild it as for any other change
+         * @param before The row before the edit
+         * @param after The row after the edit
+         * @param dataVersion Data version after the edit
+         */
+        default void onTransactionUpdated(Transaction before, Transaction after, long dataVersion) {
+            onDataInvalidated(dataVersion);
+        }
+
+        /**
+         * A single transaction was deleted. Listeners that cannot patch their
+         * state in place rebuild it as for any other change
+         * @param deleted The deleted row
+         * @param dataVersion Data version after the delete
+         */
+        default void onTransactionDeleted(Transaction deleted, long dataVersion) {
+            onDataInvalidated(dataVersion);
+        }
+
+        /**
+         * Rows were updated, deleted or written in bulk; derived state must be rebuilt
+         * @param dataVersion Data version after the change
+         */
+        void onDataInvalidated(long dataVersion);
+    }
+
+    /**
+     * Constructor - creates a new database helper
+     * Prefer {@link #getInstance(Context)}, which shares one open connection
+     * @param context The application context
+     */
+    public DatabaseHelper(Context context) {
+        this(context, DATABASE_NAME);
+    }
+
+    /**
+     * Creates a helper for a separate database, such as for tests that must
+     * not leave rows in the user's data
+     * @param context The application context
+     * @param name Database file name, or null for an in-memory database
+     */
+    DatabaseHelper(Context context, String name) {
+        super(context, name, null, DATABASE_VERSION);
+        this.appContext = context.getApplicationContext();
+    }
+
+    /**
+     * Gets the shared database helper, creating it on first use
+     * The database itself is only opened by the first query
+     * @param context Any context; the application context is retained
+     * @return Shared database helper
+     */
+    public static synchronized DatabaseHelper getInstance(Context context) {
+        if (instance == null) {
+            instance = new DatabaseHelper(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * @return Current data version; changes whenever the data changes
+     */
+    public long getDataVersion() {
+        return dataVersion.get();
+    }
+
+    public void addOnDataChangedListener(OnDataChangedListener listener) {
+        dataChangedListeners.add(listener);
+    }
+
+    public void removeOnDataChangedListener(OnDataChangedListener listener) {
+        dataChangedListeners.remove(listener);
+    }
+
+    private void notifyTransactionAdded(Transaction transaction) {
+        long version = dataVersion.incrementAndGet();
+        resultCache.applyWrite(null, transaction, version);
+        for (OnDataChangedListener listener : dataChangedListeners) {
+            listener.onTransactionAdded(transaction, version);
+        }
+    }
+
+    private void notifyTransactionUpdated(Transaction before, Transaction after) {
+        long version = dataVersion.incrementAndGet();
+        resultCache.applyWrite(before, after, version);
+        for (OnDataChangedListener listener : dataChangedListeners) {
+            listener.onTransactionUpdated(before, after, version);
+        }
+    }
+
+    private void notifyTransactionDeleted(Transaction deleted) {
+        long version = dataVersion.incrementAndGet();
+        resultCache.applyWrite(deleted, null, version);
+        for (OnDataChangedListener listener : dataChangedListeners) {
+            listener.onTransactionDeleted(deleted, version);
+        }
+    }
+
+    private void notifyDataInvalidated() {
+        long version = dataVersion.incrementAndGet();
+        // Stale already by version; cleared only to release the memory
+        resultCache.clear();
+        for (OnDataChangedListener listener : dataChangedListeners) {
+            listener.onDataInvalidated(version);
+        }
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        long start = DbMetrics.begin(Metrics.ON_CREATE);
+        try {
+            // Create the version 1 table, then run every migration so new and
+            // upgraded databases always end up with the same schema
+            db.execSQL(CREATE_TABLE_TRANSACTIONS);
+            onUpgrade(db, 1, DATABASE_VERSION);
+        } finally {
+            DbMetrics.end(Metrics.ON_CREATE, start);
+        }
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        long start = DbMetrics.begin(Metrics.ON_UPGRADE);
+        try {
+            // Migrate step by step so existing transactions are kept
+            if (oldVersion < 2) {
+                db.execSQL(CREATE_TABLE_BUDGETS);
+            }
+            if (oldVersion < 3) {
+                db.execSQL(CREATE_TABLE_RECURRING);
+                db.execSQL("ALTER TABLE " + TABLE_TRANSACTIONS + " ADD COLUMN " + COLUMN_RULE_ID + " INTEGER");
+                db.execSQL("ALTER TABLE " + TABLE_TRANSACTIONS + " ADD COLUMN " + COLUMN_OCCURRENCE + " INTEGER");
+                // Each occurrence can only be written once, which makes catching up idempotent
+                db.execSQL("CREATE UNIQUE INDEX idx_transactions_occurrence ON " + TABLE_TRANSACTIONS
+                        + "(" + COLUMN_RULE_ID + ", " + COLUMN_OCCURRENCE + ")");
+                db.execSQL("CREATE INDEX idx_recurring_next_day ON " + TABLE_RECURRING + "(" + COLUMN_RULE_NEXT_DAY + ")");
+            }
+            if (oldVersion < 4) {
+                db.execSQL(CREATE_TABLE_CATEGORY_STATS);
+                db.execSQL("ALTER TABLE " + TABLE_TRANSACTIONS + " ADD COLUMN " + COLUMN_ANOMALY + " INTEGER NOT NULL DEFAULT 0");
+            }
+            if (oldVersion < 5) {
+                // Existing rows were all entered in the base currency
+                db.execSQL("ALTER TABLE " + TABLE_TRANSACTIONS + " ADD COLUMN " + COLUMN_CURRENCY
+                        + " TEXT NOT NULL DEFAULT '" + Money.BASE_CURRENCY + "'");
+                db.execSQL(CREATE_TABLE_FX_RATES);
+            }
+            if (oldVersion < 4) {
+                // The only full pass over history; afterwards every write updates the statistics in O(1).
+                // Runs last, once the currency column and rate table exist
+                rebuildCategoryStats(db, readFxRates(db));
+            }
+        } finally {
+            DbMetrics.end(Metrics.ON_UPGRADE, start);
+        }
+    }
+
+    /**
+     * Recomputes every category's expense statistics from the stored rows
+     * Amounts are converted to the base currency at the latest rate, the same
+     * way {@link #applyCategoryStats} converts each write
+     * @param db Open database
+     * @param rates Rates to convert with; read from db when called during an upgrade
+     */
+    private void rebuildCategoryStats(SQLiteDatabase db, FxRates rates) {
+        Map<String, RunningStats> statsByKey = new LinkedHashMap<>();
+        Map<String, String> names = new LinkedHashMap<>();
+        // One rate lookup per currency rather than per row
+        Map<String, Double> rateByCurrency = new HashMap<>();
+        Cursor cursor = db.query(TABLE_TRANSACTIONS, new String[]{COLUMN_CATEGORY, COLUMN_AMOUNT, COLUMN_CURRENCY},
+                COLUMN_TYPE + " = 'expense' AND " + COLUMN_CATEGORY + " IS NOT NULL", null, null, null, COLUMN_ID);
+        if (cursor != null) {
+            while (cursor.moveToNext()) {
+                String currency = cursor.getString(2);
+                Double rate = rateByCurrency.get(currency);
+                if (rate == null) {
+                    double latest = rates.latestRate(currency);
+                    rate = Double.isNaN(latest) ? 1 : latest;
+                    rateByCurrency.put(currency, rate);
+                }
+                String category = cursor.getString(0);
+                String key = category.toLowerCase(Locale.ROOT);
+                RunningStats stats = statsByKey.get(key);
+                if (stats == null) {
+                    stats = new RunningStats();
+                    statsByKey.put(key, stats);
+                    names.put(key, category);
+                }
+                stats.add(Math.abs(cursor.getDouble(1) * rate));
+            }
+            cursor.close();
+        }
+        for (Map.Entry<String, RunningStats> entry : statsByKey.entrySet()) {
+            writeCategoryStats(db, names.get(entry.getKey()), entry.getValue());
+        }
+    }
+
+    /**
+     * Adds a new transaction to the database
+     * @param amount Transaction amount
+     * @param type Transaction type ('income' or 'expense')
+     * @param category Transaction category
+     * @param note Optional note
+     * @return Row ID of the newly inserted transaction, or -1 if error
+     */
+    public long addTransaction(double amount, String type, String category, String note) {
+        // Call the overloaded method with the current date
+        return addTransaction(amount, type, category, note, EpochDays.format(EpochDays.today()));
+    }
+    
+    /**
+     * Adds a new transaction to the database with a specific date
+     * @param amount Transaction amount
+     * @param type Transaction type ('income' or 'expense')
+     * @param category Transaction category
+     * @param note Optional note
+     * @param date Transaction date, dd/MM/yyyy or yyyy-MM-dd
+     * @return Row ID of the newly inserted transaction, or -1 if error
+     */
+    public long addTransaction(double amount, String type, String category, String note, String date) {
+        return addTransaction(amount, type, category, note, date, Money.BASE_CURRENCY);
+    }
+
+    /**
+     * Adds a new transaction in a given currency
+     * @param amount Transaction amount, in {@code currency}
+     * @param type Transaction type ('income' or 'expense')
+     * @param category Transaction category
+     * @param note Optional note
+     * @param date Transaction date, dd/MM/yyyy or yyyy-MM-dd
+     * @param currency ISO 4217 code of the amount
+     * @return Row ID of the newly inserted transaction, or -1 if error
+     */
+    public long addTransaction(double amount, String type, String category, String note, String date, String currency) {
+        long start = DbMetrics.begin(Metrics.ADD_TRANSACTION);
+        try {
+            // Every row is stored as dd/MM/yyyy, whichever format the caller used
+            String formattedDate = EpochDays.normalize(date);
+            if (formattedDate == null) {
+                Log.e("DatabaseHelper", "Invalid date: " + date);
+                return -1;
+            }
+            SQLiteDatabase db = this.getWritableDatabase();
+            ContentValues values = new ContentValues();
+        
+            // Prepare values for insertion
+            values.put(COLUMN_AMOUNT, amount);
+            values.put(COLUMN_TYPE, type);
+            values.put(COLUMN_CATEGORY, category);
+            values.put(COLUMN_DATE, formattedDate);
+            values.put(COLUMN_NOTE, note);
+        
+            long id;
+            Transaction inserted = new Transaction(-1, amount, type, category, formattedDate, note);
+            inserted.setCurrency(currency);
+            values.put(COLUMN_CURRENCY, inserted.getCurrency());
+            Budget alert = null;
+            db.beginTransaction();
+            try {
+                // One primary key lookup and one upsert: the check costs no more than the insert itself
+                inserted.setAnomaly(applyCategoryStats(db, null, inserted));
+                values.put(COLUMN_ANOMALY, inserted.isAnomaly() ? 1 : 0);
+                id = db.insert(TABLE_TRANSACTIONS, null, values);
+                if (id != -1) {
+                    inserted.setId(id);
+                    alert = applyBudgetChange(db, null, inserted);
+                    db.setTransactionSuccessful();
+                }
+            } finally {
+                db.endTransaction();
+            }
+            if (id != -1) {
+                notifyTransactionAdded(inserted);
+                if (inserted.isAnomaly()) {
+                    notifyAnomaly(inserted);
+                }
+            }
+            notifyBudgetAlert(alert);
+            return id;
+        } finally {
+            DbMetrics.end(Metrics.ADD_TRANSACTION, start);
+        }
+    }
+
+    /**
+     * Deletes a transaction from the database
+     * @param id ID of the transaction to delete
+     * @return true if successful, false otherwise
+     */
+    public boolean deleteTransaction(long id) {
+        long start = DbMetrics.begin(Metrics.DELETE_TRANSACTION);
+        try {
+            SQLiteDatabase db = this.getWritableDatabase();
+            boolean deleted;
+            Transaction old;
+            db.beginTransaction();
+            try {
+                old = getTransactionById(id);
+                deleted = db.delete(TABLE_TRANSACTIONS, COLUMN_ID + " = ?",
+                        new String[]{String.valueOf(id)}) > 0;
+                if (deleted && old != null) {
+                    applyBudgetChange(db, old, null);
+                    applyCategoryStats(db, old, null);
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+            if (deleted && old != null) {
+                notifyTransactionDeleted(old);
+            } else if (deleted) {
+                notifyDataInvalidated();
+            }
+            return deleted;
+        } finally {
+            DbMetrics.end(Metrics.DELETE_TRANSACTION, start);
+        }
+    }
+    
+    /**
+     * Updates an existing transaction in the database
+     * @param id Transaction ID
+     * @param amount New amount
+     * @param type New type ('income' or 'expense')
+     * @param category New category
+     * @param note New note
+     * @param date New date, dd/MM/yyyy or yyyy-MM-dd
+     * @return true if successful, false otherwise (including an invalid date)
+     */
+    public boolean updateTransaction(long id, double amount, String type, String category, String note, String date) {
+        long start = DbMetrics.begin(Metrics.UPDATE_TRANSACTION);
+        try {
+            // Stored in the same format as inserts, whatever was typed
+            String storedDate = EpochDays.normalize(date);
+            if (storedDate == null) {
+                Log.e("DatabaseHelper", "Invalid date: " + date);
+                return false;
+            }
+            SQLiteDatabase db = this.getWritableDatabase();
+            ContentValues values = new ContentValues();
+        
+            // Prepare updated values
+            values.put(COLUMN_AMOUNT, amount);
+            values.put(COLUMN_TYPE, type);
+            values.put(COLUMN_CATEGORY, category);
+            values.put(COLUMN_DATE, storedDate);
+            values.put(COLUMN_NOTE, note);
+        
+            boolean updated;
+            Budget alert = null;
+            Transaction old;
+            Transaction edited = new Transaction(id, amount, type, category, storedDate, note);
+            db.beginTransaction();
+            try {
+                old = getTransactionById(id);
+                if (old != null) {
+                    // The currency is not edited
+                    edited.setCurrency(old.getCurrency());
+                    edited.setAnomaly(applyCategoryStats(db, old, edited));
+                    values.put(COLUMN_ANOMALY, edited.isAnomaly() ? 1 : 0);
+                }
+                updated = db.update(TABLE_TRANSACTIONS, values, COLUMN_ID + " = ?",
+                        new String[]{String.valueOf(id)}) > 0;
+                if (updated) {
+                    alert = applyBudgetChange(db, old, edited);
+                    db.setTransactionSuccessful();
+                }
+            } finally {
+                db.endTransaction();
+            }
+            if (updated && old != null) {
+                notifyTransactionUpdated(old, edited);
+            } else if (updated) {
+                notifyDataInvalidated();
+            }
+            notifyBudgetAlert(alert);
+            return updated;
+        } finally {
+            DbMetrics.end(Metrics.UPDATE_TRANSACTION, start);
+        }
+    }
+
+    /**
+     * Sets the monthly budget for a category, replacing any existing one
+     * The current month's spend is summed once here; afterwards it is kept up
+     * to date incrementally by the write paths
+     * @param category Category to budget
+     * @param monthlyLimit Spending limit per month
+     * @return true if successful, false otherwise
+     */
+    public boolean setBudget(String category, double monthlyLimit) {
+        long start = DbMetrics.begin(Metrics.SET_BUDGET);
+        try {
+            SQLiteDatabase db = this.getWritableDatabase();
+            int period = EpochDays.toMonthKey(EpochDays.today());
+            ContentValues values = new ContentValues();
+            values.put(COLUMN_BUDGET_CATEGORY, category);
+            values.put(COLUMN_BUDGET_LIMIT, monthlyLimit);
+            values.put(COLUMN_BUDGET_PERIOD, period);
+            values.put(COLUMN_BUDGET_SPENT, sumCategorySpend(db, category, period));
+            return db.insertWithOnConflict(TABLE_BUDGETS, null, values, SQLiteDatabase.CONFLICT_REPLACE) != -1;
+        } finally {
+            DbMetrics.end(Metrics.SET_BUDGET, start);
+        }
+    }
+
+    /**
+     * Removes the budget for a category
+     * @param category Budgeted category
+     * @return true if a budget was removed
+     */
+    public boolean deleteBudget(String category) {
+        long start = DbMetrics.begin(Metrics.DELETE_BUDGET);
+        try {
+            SQLiteDatabase db = this.getWritableDatabase();
+            return db.delete(TABLE_BUDGETS, COLUMN_BUDGET_CATEGORY + " = ?", new String[]{category}) > 0;
+        } finally {
+            DbMetrics.end(Metrics.DELETE_BUDGET, start);
+        }
+    }
+
+    /**
+     * Gets the budget for a category with a single primary key lookup
+     * @param category Category name, matched case-insensitively
+     * @return Budget with current-period spend, or null if the category has none
+     */
+    public Budget getBudget(String category) {
+        long start = DbMetrics.begin(Metrics.GET_BUDGET);
+        try {
+            SQLiteDatabase db = this.getWritableDatabase();
+            Budget budget = readBudget(db, category);
+            if (budget != null) {
+                budget = rollOverIfStale(db, budget);
+            }
+            return budget;
+        } finally {
+            DbMetrics.end(Metrics.GET_BUDGET, start);
+        }
+    }
+
+    /**
+     * Gets all budgets with their current-period spend
+     * @return List of budgets ordered by category
+     */
+    public List<Budget> getBudgets() {
+        long start = DbMetrics.begin(Metrics.GET_BUDGETS);
+        try {
+            SQLiteDatabase db = this.getWritableDatabase();
+            List<Budget> budgets = new ArrayList<>();
+            Cursor cursor = db.query(TABLE_BUDGETS, null, null, null, null, null, COLUMN_BUDGET_CATEGORY);
+            if (cursor != null) {
+                while (cursor.moveToNext()) {
+                    budgets.add(cursorToBudget(cursor));
+                }
+                cursor.close();
+            }
+            for (int i = 0; i < budgets.size(); i++) {
+                budgets.set(i, rollOverIfStale(db, budgets.get(i)));
+            }
+            return Metrics.GET_BUDGETS.countRows(budgets);
+        } finally {
+            DbMetrics.end(Metrics.GET_BUDGETS, start);
+        }
+    }
+
+    private Budget readBudget(SQLiteDatabase db, String category) {
+        Budget budget = null;
+        Cursor cursor = db.query(TABLE_BUDGETS, null, COLUMN_BUDGET_CATEGORY + " = ?",
+                new String[]{category}, null, null, null);
+        if (cursor != null) {
+            if (cursor.moveToFirst()) {
+                budget = cursorToBudget(cursor);
+            }
+            cursor.close();
+        }
+        return budget;
+    }
+
+    private Budget cursorToBudget(Cursor cursor) {
+        return new Budget(
+                cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_BUDGET_CATEGORY)),
+                cursor.getDouble(cursor.getColumnIndexOrThrow(COLUMN_BUDGET_LIMIT)),
+                cursor.getDouble(cursor.getColumnIndexOrThrow(COLUMN_BUDGET_SPENT)),
+                cursor.getInt(cursor.getColumnIndexOrThrow(COLUMN_BUDGET_PERIOD)));
+    }
+
+    /**
+     * Moves a budget into the current month. Spend is re-summed once per month
+     * per budget, which also picks up entries dated ahead of time
+     */
+    private Budget rollOverIfStale(SQLiteDatabase db, Budget budget) {
+        int period = EpochDays.toMonthKey(EpochDays.today());
+        if (budget.getPeriodMonthKey() == period) {
+            return budget;
+        }
+        double spent = sumCategorySpend(db, budget.getCategory(), period);
+        writeBudgetSpend(db, budget.getCategory(), period, spent);
+        return new Budget(budget.getCategory(), budget.getMonthlyLimit(), spent, period);
+    }
+
+    private double sumCategorySpend(SQLiteDatabase db, String category, int monthKey) {
+        // One sum per currency, each converted once
+        Map<String, Double> sums = new HashMap<>();
+        Cursor cursor = db.rawQuery("SELECT " + COLUMN_CURRENCY + ", SUM(ABS(" + COLUMN_AMOUNT + ")) FROM " + TABLE_TRANSACTIONS
+                        + " WHERE " + COLUMN_TYPE + " = 'expense' AND " + COLUMN_CATEGORY + " = ? COLLATE NOCASE"
+                        + " AND " + DAY_KEY_EXPR + " / 100 = ?"
+                        + " GROUP BY " + COLUMN_CURRENCY,
+                new String[]{category, String.valueOf(monthKey)});
+        if (cursor != null) {
+            while (cursor.moveToNext()) {
+                sums.put(cursor.getString(0), cursor.getDouble(1));
+            }
+            cursor.close();
+        }
+        return getFxRates().convertSums(sums);
+    }
+
+    /**
+     * Converts one transaction's amount to the base currency at the latest
+     * rate, matching how per-currency sums are converted
+     */
+    double toBaseAmount(Transaction transaction) {
+        double rate = getFxRates().latestRate(transaction.getCurrency());
+        return transaction.getAmount() * (Double.isNaN(rate) ? 1 : rate);
+    }
+
+    private void writeBudgetSpend(SQLiteDatabase db, String category, int period, double spent) {
+        ContentValues values = new ContentValues();
+        values.put(COLUMN_BUDGET_PERIOD, period);
+        values.put(COLUMN_BUDGET_SPENT, spent);
+        db.update(TABLE_BUDGETS, values, COLUMN_BUDGET_CATEGORY + " = ?", new String[]{category});
+    }
+
+    /**
+     * Applies a write to the affected budgets' current-period spend
+     * Runs inside the write's database transaction and only touches budget rows
+     * by primary key, so it never scans the transactions table (apart from the
+     * once-a-month roll over)
+     * @param db Database, inside a transaction
+     * @param before Row before the write, or null for an insert
+     * @param after Row after the write, or null for a delete
+     * @return Budget whose alert threshold was crossed, or null
+     */
+    private Budget applyBudgetChange(SQLiteDatabase db, Transaction before, Transaction after) {
+        double[] change = new double[2];
+        Budget removedFrom = before != null ? adjustBudget(db, before, -1, change) : null;
+        double spentBeforeWrite = change[0];
+        Budget addedTo = after != null ? adjustBudget(db, after, 1, change) : null;
+        if (addedTo == null) {
+            return null;
+        }
+        // An edit within one category is judged against the spend before the edit
+        if (removedFrom == null || !removedFrom.getCategory().equalsIgnoreCase(addedTo.getCategory())) {
+            spentBeforeWrite = change[0];
+        }
+        return Budget.crossedThreshold(spentBeforeWrite, addedTo.getSpent(), addedTo.getMonthlyLimit()) > 0
+                ? addedTo : null;
+    }
+
+    /**
+     * Adds or removes one transaction's amount from its category's budget
+     * @param change Receives the spend before and after the adjustment
+     * @return Updated budget, or null if no tracked budget was affected
+     */
+    private Budget adjustBudget(SQLiteDatabase db, Transaction transaction, int sign, double[] change) {
+        if (!"expense".equalsIgnoreCase(transaction.getType()) || transaction.getCategory() == null) {
+            return null;
+        }
+        int period = EpochDays.toMonthKey(EpochDays.today());
+        int epochDay = EpochDays.parse(transaction.getDate());
+        if (epochDay == EpochDays.INVALID || EpochDays.toMonthKey(epochDay) != period) {
+            // Only the current month is tracked
+            return null;
+        }
+        Budget budget = readBudget(db, transaction.getCategory());
+        if (budget == null) {
+            return null;
+        }
+        if (budget.getPeriodMonthKey() != period) {
+            // The roll over sum already includes this write
+            rollOverIfStale(db, budget);
+            return null;
+        }
+
+        double oldSpent = budget.getSpent();
+        double newSpent = Math.max(0, oldSpent + sign * Math.abs(toBaseAmount(transaction)));
+        writeBudgetSpend(db, budget.getCategory(), period, newSpent);
+        change[0] = oldSpent;
+        change[1] = newSpent;
+        return new Budget(budget.getCategory(), budget.getMonthlyLimit(), newSpent, period);
+    }
+
+    /**
+     * Saves a recurring rule
+     * @param rule Rule to save; its next index says which occurrences are already recorded
+     * @return Row ID of the new rule, or -1 if error
+     */
+    public long addRecurringRule(RecurrenceRule rule) {
+        long start = DbMetrics.begin(Metrics.ADD_RECURRING_RULE);
+        try {
+            SQLiteDatabase db = this.getWritableDatabase();
+            long id = db.insert(TABLE_RECURRING, null, ruleValues(rule));
+            if (id != -1) {
+                notifyDataInvalidated();
+            }
+            return id;
+        } finally {
+            DbMetrics.end(Metrics.ADD_RECURRING_RULE, start);
+        }
+    }
+
+    /**
+     * Saves a recurring rule together with its first occurrence, in one
+     * database transaction. The occurrence is written as occurrence 0 of the
+     * rule, so it is never written again by {@link #materializeRecurring} and
+     * is treated as scheduled rather than as history by the forecasts
+     * @param rule Rule to save, in the base currency; its next index must be 1
+     * @return Row ID of the new rule, or -1 if nothing was saved
+     */
+    public long addRecurringTransaction(RecurrenceRule rule) {
+        long start = DbMetrics.begin(Metrics.ADD_RECURRING_TRANSACTION);
+        try {
+            SQLiteDatabase db = this.getWritableDatabase();
+            Transaction first = rule.toTransaction(0);
+            long ruleId = -1;
+            Budget alert = null;
+            db.beginTransaction();
+            try {
+                long id = db.insert(TABLE_RECURRING, null, ruleValues(rule));
+                if (id != -1) {
+                    first.setAnomaly(applyCategoryStats(db, null, first));
+                    ContentValues values = new ContentValues();
+                    values.put(COLUMN_AMOUNT, first.getAmount());
+                    values.put(COLUMN_TYPE, first.getType());
+                    values.put(COLUMN_CATEGORY, first.getCategory());
+                    values.put(COLUMN_DATE, first.getDate());
+                    values.put(COLUMN_NOTE, first.getDescription());
+                    values.put(COLUMN_CURRENCY, first.getCurrency());
+                    values.put(COLUMN_ANOMALY, first.isAnomaly() ? 1 : 0);
+                    values.put(COLUMN_RULE_ID, id);
+                    values.put(COLUMN_OCCURRENCE, 0);
+                    long transactionId = db.insert(TABLE_TRANSACTIONS, null, values);
+                    if (transactionId != -1) {
+                        first.setId(transactionId);
+                        alert = applyBudgetChange(db, null, first);
+                        db.setTransactionSuccessful();
+                        ruleId = id;
+                    }
+                }
+            } finally {
+                db.endTransaction();
+            }
+            if (ruleId != -1) {
+                // Not reported as a single added row: listeners that patch in
+                // place would count it as history on top of the rule's projection
+                notifyDataInvalidated();
+                if (first.isAnomaly()) {
+                    notifyAnomaly(first);
+                }
+            }
+            notifyBudgetAlert(alert);
+            return ruleId;
+        } finally {
+            DbMetrics.end(Metrics.ADD_RECURRING_TRANSACTION, start);
+        }
+    }
+
+    private static ContentValues ruleValues(RecurrenceRule rule) {
+        ContentValues values = new ContentValues();
+        values.put(COLUMN_AMOUNT, rule.getAmount());
+        values.put(COLUMN_TYPE, rule.getType());
+        values.put(COLUMN_CATEGORY, rule.getCategory());
+        values.put(COLUMN_NOTE, rule.getNote());
+        values.put(COLUMN_RULE_UNIT, rule.getUnit());
+        values.put(COLUMN_RULE_INTERVAL, rule.getInterval());
+        values.put(COLUMN_RULE_START_DAY, rule.getStartDay());
+        if (rule.hasEnd()) {
+            values.put(COLUMN_RULE_END_DAY, rule.getEndDay());
+        } else {
+            values.putNull(COLUMN_RULE_END_DAY);
+        }
+        putNextOccurrence(values, rule);
+        return values;
+    }
+
+    private static void putNextOccurrence(ContentValues values, RecurrenceRule rule) {
+        values.put(COLUMN_RULE_NEXT_INDEX, rule.getNextIndex());
+        int nextDay = rule.nextDueDay();
+        if (nextDay == EpochDays.INVALID) {
+            values.putNull(COLUMN_RULE_NEXT_DAY);
+        } else {
+            values.put(COLUMN_RULE_NEXT_DAY, nextDay);
+        }
+    }
+
+    /**
+     * Deletes a recurring rule. Occurrences already recorded are kept
+     * @param id Rule ID
+     * @return true if the rule was deleted
+     */
+    public boolean deleteRecurringRule(long id) {
+        long start = DbMetrics.begin(Metrics.DELETE_RECURRING_RULE);
+        try {
+            SQLiteDatabase db = this.getWritableDatabase();
+            boolean deleted = db.delete(TABLE_RECURRING, COLUMN_ID + " = ?", new String[]{String.valueOf(id)}) > 0;
+            if (deleted) {
+                notifyDataInvalidated();
+            }
+            return deleted;
+        } finally {
+            DbMetrics.end(Metrics.DELETE_RECURRING_RULE, start);
+        }
+    }
+
+    /**
+     * Gets all recurring rules
+     * @return Rules, soonest next occurrence first
+     */
+    public List<RecurrenceRule> getRecurringRules() {
+        long start = DbMetrics.begin(Metrics.GET_RECURRING_RULES);
+        try {
+            return Metrics.GET_RECURRING_RULES.countRows(readRecurringRules(this.getReadableDatabase(), null, null));
+        } finally {
+            DbMetrics.end(Metrics.GET_RECURRING_RULES, start);
+        }
+    }
+
+    private List<RecurrenceRule> readRecurringRules(SQLiteDatabase db, String selection, String[] selectionArgs) {
+        List<RecurrenceRule> rules = new ArrayList<>();
+        Cursor cursor = db.query(TABLE_RECURRING, null, selection, selectionArgs, null, null,
+                COLUMN_RULE_NEXT_DAY + " IS NULL, " + COLUMN_RULE_NEXT_DAY);
+        if (cursor != null) {
+            int idIndex = cursor.getColumnIndexOrThrow(COLUMN_ID);
+            int amountIndex = cursor.getColumnIndexOrThrow(COLUMN_AMOUNT);
+            int typeIndex = cursor.getColumnIndexOrThrow(COLUMN_TYPE);
+            int categoryIndex = cursor.getColumnIndexOrThrow(COLUMN_CATEGORY);
+            int noteIndex = cursor.getColumnIndexOrThrow(COLUMN_NOTE);
+            int unitIndex = cursor.getColumnIndexOrThrow(COLUMN_RULE_UNIT);
+            int intervalIndex = cursor.getColumnIndexOrThrow(COLUMN_RULE_INTERVAL);
+            int startIndex = cursor.getColumnIndexOrThrow(COLUMN_RULE_START_DAY);
+            int endIndex = cursor.getColumnIndexOrThrow(COLUMN_RULE_END_DAY);
+            int nextIndex = cursor.getColumnIndexOrThrow(COLUMN_RULE_NEXT_INDEX);
+            while (cursor.moveToNext()) {
+                rules.add(new RecurrenceRule(
+                        cursor.getLong(idIndex),
+                        cursor.getDouble(amountIndex),
+                        cursor.getString(typeIndex),
+                        cursor.getString(categoryIndex),
+                        cursor.getString(noteIndex),
+                        cursor.getInt(unitIndex),
+                        cursor.getInt(intervalIndex),
+                        cursor.getInt(startIndex),
+                        cursor.isNull(endIndex) ? EpochDays.INVALID : cursor.getInt(endIndex),
+                        cursor.getInt(nextIndex)));
+            }
+            cursor.close();
+        }
+        return rules;
+    }
+
+    /**
+     * Writes every recurring occurrence due on or before a day
+     * All rules are caught up in one database transaction with a single
+     * compiled insert, so weeks of missed occurrences cost one commit. Running
+     * it again, or after a partial failure, never writes an occurrence twice:
+     * each rule's next index moves in the same transaction, and the unique
+     * (rule_id, occurrence) index ignores anything already present
+     * @param today Epoch day to catch up to, inclusive
+     * @return Number of transactions written
+     */
+    public int materializeRecurring(int today) {
+        long start = DbMetrics.begin(Metrics.MATERIALIZE_RECURRING);
+        try {
+            SQLiteDatabase db = this.getWritableDatabase();
+            int written = 0;
+            Budget alert = null;
+            db.beginTransaction();
+            try {
+                // Only rules with something due are read, via the next_day index
+                List<RecurrenceRule> dueRules = readRecurringRules(db,
+                        COLUMN_RULE_NEXT_DAY + " <= ?", new String[]{String.valueOf(today)});
+                if (!dueRules.isEmpty()) {
+                    SQLiteStatement insert = db.compileStatement("INSERT OR IGNORE INTO " + TABLE_TRANSACTIONS + " ("
+                            + COLUMN_AMOUNT + ", " + COLUMN_TYPE + ", " + COLUMN_CATEGORY + ", " + COLUMN_DATE + ", "
+                            + COLUMN_NOTE + ", " + COLUMN_RULE_ID + ", " + COLUMN_OCCURRENCE + ") VALUES (?, ?, ?, ?, ?, ?, ?)");
+                    ContentValues ruleValues = new ContentValues();
+                    for (RecurrenceRule rule : dueRules) {
+                        int due = rule.countUntil(today);
+                        for (int index = rule.getNextIndex(); index < due; index++) {
+                            Transaction occurrence = rule.toTransaction(index);
+                            insert.clearBindings();
+                            insert.bindDouble(1, occurrence.getAmount());
+                            insert.bindString(2, occurrence.getType());
+                            bindNullable(insert, 3, occurrence.getCategory());
+                            insert.bindString(4, occurrence.getDate());
+                            bindNullable(insert, 5, occurrence.getDescription());
+                            insert.bindLong(6, rule.getId());
+                            insert.bindLong(7, index);
+                            if (insert.executeInsert() != -1) {
+                                written++;
+                                // Scheduled amounts are expected, so they update the statistics without being flagged
+                                applyCategoryStats(db, null, occurrence);
+                                Budget crossed = applyBudgetChange(db, null, occurrence);
+                                if (crossed != null) {
+                                    alert = crossed;
+                                }
+                            }
+                        }
+                        ruleValues.clear();
+                        putNextOccurrence(ruleValues, rule.withNextIndex(Math.max(due, rule.getNextIndex())));
+                        db.update(TABLE_RECURRING, ruleValues, COLUMN_ID + " = ?",
+                                new String[]{String.valueOf(rule.getId())});
+                    }
+                    insert.close();
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+            if (written > 0) {
+                notifyDataInvalidated();
+            }
+            notifyBudgetAlert(alert);
+            Metrics.MATERIALIZE_RECURRING.addRows(written);
+            return written;
+        } finally {
+            DbMetrics.end(Metrics.MATERIALIZE_RECURRING, start);
+        }
+    }
+
+    /**
+     * Gets the exchange rate table, reading it on first use
+     * @return Shared rate table; lookups on it are cached
+     */
+    public FxRates getFxRates() {
+        long start = DbMetrics.begin(Metrics.GET_FX_RATES);
+        try {
+            FxRates rates = fxRates;
+            if (rates == null) {
+                synchronized (this) {
+                    rates = fxRates;
+                    if (rates == null) {
+                        rates = readFxRates(getReadableDatabase());
+                        fxRates = rates;
+                    }
+                }
+            }
+            return rates;
+        } finally {
+            DbMetrics.end(Metrics.GET_FX_RATES, start);
+        }
+    }
+
+    private static FxRates readFxRates(SQLiteDatabase db) {
+        FxRates rates = new FxRates();
+        Cursor cursor = db.query(TABLE_FX_RATES, new String[]{COLUMN_CURRENCY, COLUMN_FX_DAY, COLUMN_FX_RATE},
+                null, null, null, null, COLUMN_CURRENCY + ", " + COLUMN_FX_DAY);
+        if (cursor != null) {
+            while (cursor.moveToNext()) {
+                rates.put(cursor.getString(0), cursor.getInt(1), cursor.getDouble(2));
+            }
+            cursor.close();
+        }
+        return rates;
+    }
+
+    /**
+     * Stores exchange rates, replacing stored rates for the same currency and day
+     * @param imported Rates to store
+     * @return Number of rates stored
+     */
+    public int importFxRates(FxRates imported) {
+        long start = DbMetrics.begin(Metrics.IMPORT_FX_RATES);
+        try {
+            SQLiteDatabase db = this.getWritableDatabase();
+            int[] written = new int[1];
+            db.beginTransaction();
+            try {
+                SQLiteStatement upsert = db.compileStatement("INSERT OR REPLACE INTO " + TABLE_FX_RATES + " ("
+                        + COLUMN_CURRENCY + ", " + COLUMN_FX_DAY + ", " + COLUMN_FX_RATE + ") VALUES (?, ?, ?)");
+                imported.forEach((currency, day, rate) -> {
+                    upsert.bindString(1, currency);
+                    upsert.bindLong(2, day);
+                    upsert.bindDouble(3, rate);
+                    upsert.executeInsert();
+                    written[0]++;
+                });
+                upsert.close();
+                // Budget spend and category statistics are kept in the base currency,
+                // so recompute them at the new rates
+                fxRates = readFxRates(db);
+                rebuildCategoryStats(db, fxRates);
+                for (Budget budget : getBudgets()) {
+                    writeBudgetSpend(db, budget.getCategory(), budget.getPeriodMonthKey(),
+                            sumCategorySpend(db, budget.getCategory(), budget.getPeriodMonthKey()));
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+            if (written[0] > 0) {
+                notifyDataInvalidated();
+            }
+            Metrics.IMPORT_FX_RATES.addRows(written[0]);
+            return written[0];
+        } finally {
+            DbMetrics.end(Metrics.IMPORT_FX_RATES, start);
+        }
+    }
+
+    /**
+     * Indexes every transaction for duplicate lookups
+     * @param windowDays Largest number of days apart two rows may be and still match
+     * @return Index over all rows
+     */
+    public NearMatchIndex loadNearMatchIndex(int windowDays) {
+        long start = DbMetrics.begin(Metrics.LOAD_NEAR_MATCH_INDEX);
+        try {
+            SQLiteDatabase db = this.getReadableDatabase();
+            NearMatchIndex index = new NearMatchIndex(windowDays);
+            Cursor cursor = db.rawQuery("SELECT " + COLUMN_ID + ", " + COLUMN_TYPE + ", " + COLUMN_CATEGORY + ", "
+                    + COLUMN_AMOUNT + ", " + COLUMN_CURRENCY + ", " + DAY_KEY_EXPR + " FROM " + TABLE_TRANSACTIONS, null);
+            if (cursor != null) {
+                while (cursor.moveToNext()) {
+                    int day = EpochDays.fromDayKey(cursor.getInt(5));
+                    if (day != EpochDays.INVALID) {
+                        index.add(cursor.getLong(0), cursor.getString(1), cursor.getString(2), cursor.getDouble(3),
+                                cursor.getString(4), day);
+                    }
+                }
+                cursor.close();
+            }
+            return index;
+        } finally {
+            DbMetrics.end(Metrics.LOAD_NEAR_MATCH_INDEX, start);
+        }
+    }
+
+    /**
+     * Inserts many transactions in one database transaction, leaving out
+     * likely duplicates of existing rows and of rows earlier in the batch
+     * @param rows Transactions to insert; dates in dd/MM/yyyy or yyyy-MM-dd
+     * @param existing Finds duplicates among the existing rows
+     * @param added Empty index that collects the inserted rows, for the caller
+     *              to publish once this returns; left incomplete if it throws
+     * @param mergeDuplicates true to copy an imported note onto a duplicate that has none,
+     *                        false to skip duplicates outright
+     * @return Counts of inserted, skipped and merged rows
+     */
+    public ImportResult importTransactions(List<Transaction> rows, NearMatchIndex.Lookup existing, NearMatchIndex added,
+                                           boolean mergeDuplicates) {
+        long start = DbMetrics.begin(Metrics.IMPORT_TRANSACTIONS);
+        try {
+            SQLiteDatabase db = this.getWritableDatabase();
+            int inserted = 0;
+            int skipped = 0;
+            int merged = 0;
+            db.beginTransaction();
+            try {
+                SQLiteStatement insert = db.compileStatement("INSERT INTO " + TABLE_TRANSACTIONS + " ("
+                        + COLUMN_AMOUNT + ", " + COLUMN_TYPE + ", " + COLUMN_CATEGORY + ", " + COLUMN_DATE + ", "
+                        + COLUMN_NOTE + ", " + COLUMN_CURRENCY + ") VALUES (?, ?, ?, ?, ?, ?)");
+                SQLiteStatement mergeNote = db.compileStatement("UPDATE " + TABLE_TRANSACTIONS + " SET " + COLUMN_NOTE
+                        + " = ? WHERE " + COLUMN_ID + " = ? AND IFNULL(" + COLUMN_NOTE + ", '') = ''");
+                for (Transaction row : rows) {
+                    int day = EpochDays.parse(row.getDate());
+                    if (day == EpochDays.INVALID) {
+                        skipped++;
+                        continue;
+                    }
+                    long match = existing.findMatch(row.getType(), row.getCategory(), row.getAmount(),
+                            row.getCurrency(), day);
+                    if (match == NearMatchIndex.NO_MATCH) {
+                        match = added.findMatch(row.getType(), row.getCategory(), row.getAmount(),
+                                row.getCurrency(), day);
+                    }
+                    if (match != NearMatchIndex.NO_MATCH) {
+                        String note = row.getDescription();
+                        if (mergeDuplicates && note != null && !note.trim().isEmpty()) {
+                            mergeNote.bindString(1, note);
+                            mergeNote.bindLong(2, match);
+                            if (mergeNote.executeUpdateDelete() > 0) {
+                                merged++;
+                                continue;
+                            }
+                        }
+                        skipped++;
+                        continue;
+                    }
+
+                    Transaction normalized = new Transaction(-1, row.getAmount(), row.getType(), row.getCategory(),
+                            EpochDays.format(day), row.getDescription());
+                    normalized.setCurrency(row.getCurrency());
+                    insert.clearBindings();
+                    insert.bindDouble(1, normalized.getAmount());
+                    insert.bindString(2, normalized.getType());
+                    bindNullable(insert, 3, normalized.getCategory());
+                    insert.bindString(4, normalized.getDate());
+                    bindNullable(insert, 5, normalized.getDescription());
+                    insert.bindString(6, normalized.getCurrency());
+                    long id = insert.executeInsert();
+                    if (id == -1) {
+                        skipped++;
+                        continue;
+                    }
+                    inserted++;
+                    added.add(id, normalized.getType(), normalized.getCategory(), normalized.getAmount(),
+                            normalized.getCurrency(), day);
+                    // Imported history updates statistics and budgets without raising alerts
+                    applyCategoryStats(db, null, normalized);
+                    applyBudgetChange(db, null, normalized);
+                }
+                insert.close();
+                mergeNote.close();
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+            if (inserted > 0 || merged > 0) {
+                notifyDataInvalidated();
+            }
+            Metrics.IMPORT_TRANSACTIONS.addRows(inserted);
+            return new ImportResult(inserted, skipped, merged);
+        } finally {
+            DbMetrics.end(Metrics.IMPORT_TRANSACTIONS, start);
+        }
+    }
+
+    /**
+     * Inserts rows as they are, in one database transaction, for loading large
+     * generated or restored ledgers. There are no duplicate checks, anomaly
+     * flags or alerts; category statistics and budget spend are recomputed
+     * once at the end instead of per row
+     * @param batches Rows to insert; their ids are ignored
+     * @return Number of rows inserted
+     */
+    public long insertTransactions(Iterator<TransactionList> batches) {
+        long start = DbMetrics.begin(Metrics.INSERT_TRANSACTIONS);
+        try {
+            SQLiteDatabase db = this.getWritableDatabase();
+            long inserted = 0;
+            db.beginTransaction();
+            try {
+                SQLiteStatement insert = db.compileStatement("INSERT INTO " + TABLE_TRANSACTIONS + " ("
+                        + COLUMN_AMOUNT + ", " + COLUMN_TYPE + ", " + COLUMN_CATEGORY + ", " + COLUMN_DATE + ", "
+                        + COLUMN_NOTE + ", " + COLUMN_CURRENCY + ") VALUES (?, ?, ?, ?, ?, ?)");
+                while (batches.hasNext()) {
+                    TransactionList batch = batches.next();
+                    TransactionList.Row row = batch.row();
+                    for (int i = 0; i < batch.size(); i++) {
+                        row.moveTo(i);
+                        if (row.getEpochDay() == EpochDays.INVALID) {
+                            continue;
+                        }
+                        insert.clearBindings();
+                        insert.bindDouble(1, row.getAmount());
+                        insert.bindString(2, row.getType());
+                        bindNullable(insert, 3, row.getCategory());
+                        insert.bindString(4, row.getDate());
+                        bindNullable(insert, 5, row.getDescription());
+                        insert.bindString(6, row.getCurrency());
+                        if (insert.executeInsert() != -1) {
+                            inserted++;
+                        }
+                    }
+                }
+                insert.close();
+                rebuildCategoryStats(db, getFxRates());
+                // Rows may fall in the current month; re-sum each budget's spend once
+                for (Budget budget : getBudgets()) {
+                    int period = budget.getPeriodMonthKey();
+                    writeBudgetSpend(db, budget.getCategory(), period, sumCategorySpend(db, budget.getCategory(), period));
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+            if (inserted > 0) {
+                notifyDataInvalidated();
+            }
+            Metrics.INSERT_TRANSACTIONS.addRows(inserted);
+            return inserted;
+        } finally {
+            DbMetrics.end(Metrics.INSERT_TRANSACTIONS, start);
+        }
+    }
+
+    private static void bindNullable(SQLiteStatement statement, int index, String value) {
+        if (value == null) {
+            statement.bindNull(index);
+        } else {
+            statement.bindString(index, value);
+        }
+    }
+
+    /**
+     * Lists recurring occurrences that have not been written yet, without
+     * writing them, for showing upcoming transactions
+     * @param type 'income', 'expense', or null for both
+     * @param fromDay First epoch day, inclusive
+     * @param untilDay Last epoch day, inclusive
+     * @return Projected transactions (id -1), soonest first
+     */
+    public List<Transaction> getProjectedTransactions(String type, int fromDay, int untilDay) {
+        long start = DbMetrics.begin(Metrics.GET_PROJECTED_TRANSACTIONS);
+        try {
+            List<Transaction> projected = new ArrayList<>();
+            for (RecurrenceRule rule : getRecurringRules()) {
+                if (type == null || type.equalsIgnoreCase(rule.getType())) {
+                    projected.addAll(rule.project(fromDay, untilDay));
+                }
+            }
+            projected.sort((a, b) -> Integer.compare(EpochDays.parse(a.getDate()), EpochDays.parse(b.getDate())));
+            return Metrics.GET_PROJECTED_TRANSACTIONS.countRows(projected);
+        } finally {
+            DbMetrics.end(Metrics.GET_PROJECTED_TRANSACTIONS, start);
+        }
+    }
+
+    /**
+     * Gets stored transactions merged with projected recurring occurrences up to a day
+     * @param type 'income', 'expense', or null for all
+     * @param untilDay Last epoch day to project to, inclusive
+     * @return Transactions newest first; projected ones have id -1
+     */
+    public TransactionList getTransactionsWithProjections(String type, int untilDay) {
+        long start = DbMetrics.begin(Metrics.GET_TRANSACTIONS_WITH_PROJECTIONS);
+        try {
+            TransactionList stored = type == null ? getAllTransactions() : getTransactionsByType(type);
+            List<Transaction> projected = getProjectedTransactions(type, Integer.MIN_VALUE / 2, untilDay);
+            TransactionList.Builder merged = new TransactionList.Builder(stored.size() + projected.size());
+            // Both lists are already date ordered, so a single merge pass interleaves them
+            int p = projected.size() - 1;
+            for (int i = 0; i < stored.size(); i++) {
+                int day = stored.epochDay(i);
+                while (p >= 0 && EpochDays.parse(projected.get(p).getDate()) >= day) {
+                    merged.add(projected.get(p--));
+                }
+                merged.add(stored, i);
+            }
+            while (p >= 0) {
+                merged.add(projected.get(p--));
+            }
+            return Metrics.GET_TRANSACTIONS_WITH_PROJECTIONS.countRows(merged.build());
+        } finally {
+            DbMetrics.end(Metrics.GET_TRANSACTIONS_WITH_PROJECTIONS, start);
+        }
+    }
+
+    /**
+     * Gets totals including recurring occurrences projected up to a day
+     * Projected amounts are counted per rule arithmetically, without listing occurrences
+     * @param untilDay Last epoch day to project to, inclusive
+     * @return Stored plus projected totals
+     */
+    public FinancialSummary getFinancialSummary(int untilDay) {
+        long start = DbMetrics.begin(Metrics.GET_PROJECTED_FINANCIAL_SUMMARY);
+        try {
+            FinancialSummary stored = getFinancialSummary();
+            double income = stored.getTotalIncome();
+            double expense = stored.getTotalExpense();
+            for (RecurrenceRule rule : getRecurringRules()) {
+                int count = rule.projectedCount(rule.getStartDay(), untilDay);
+                if ("income".equalsIgnoreCase(rule.getType())) {
+                    income += count * Math.abs(rule.getAmount());
+                } else if ("expense".equalsIgnoreCase(rule.getType())) {
+                    expense += count * Math.abs(rule.getAmount());
+                }
+            }
+            return new FinancialSummary(income, expense);
+        } finally {
+            DbMetrics.end(Metrics.GET_PROJECTED_FINANCIAL_SUMMARY, start);
+        }
+    }
+
+    /**
+     * Gets the running expense statistics of a category
+     * @param category Category name, matched case-insensitively
+     * @return Statistics, empty if the category has no expenses
+     */
+    public RunningStats getCategoryStats(String category) {
+        long start = DbMetrics.begin(Metrics.GET_CATEGORY_STATS);
+        try {
+            return readCategoryStats(this.getReadableDatabase(), category);
+        } finally {
+            DbMetrics.end(Metrics.GET_CATEGORY_STATS, start);
+        }
+    }
+
+    private RunningStats readCategoryStats(SQLiteDatabase db, String category) {
+        RunningStats stats = new RunningStats();
+        Cursor cursor = db.query(TABLE_CATEGORY_STATS,
+                new String[]{COLUMN_STATS_COUNT, COLUMN_STATS_MEAN, COLUMN_STATS_M2},
+                COLUMN_CATEGORY + " = ?", new String[]{category}, null, null, null);
+        if (cursor != null) {
+            if (cursor.moveToFirst()) {
+                stats = new RunningStats(cursor.getLong(0), cursor.getDouble(1), cursor.getDouble(2));
+            }
+            cursor.close();
+        }
+        return stats;
+    }
+
+    private void writeCategoryStats(SQLiteDatabase db, String category, RunningStats stats) {
+        ContentValues values = new ContentValues();
+        values.put(COLUMN_CATEGORY, category);
+        values.put(COLUMN_STATS_COUNT, stats.getCount());
+        values.put(COLUMN_STATS_MEAN, stats.getMean());
+        values.put(COLUMN_STATS_M2, stats.getM2());
+        db.insertWithOnConflict(TABLE_CATEGORY_STATS, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
     /**
-     * Constructor - creates a new database helper
-     * @param context The application context
+     * Applies a write to the per-category expense statistics, inside the write's transaction
+     * @param db Database, inside a transaction
+     * @param before Row before the write, or null for an insert
+     * @param after Row after the write, or null for a delete
+     * @return true if the new amount is unusually high for its category
      */
-    public DatabaseHelper(Context context) {
-        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    private boolean applyCategoryStats(SQLiteDatabase db, Transaction before, Transaction after) {
+        boolean anomaly = false;
+        if (isCategorizedExpense(before)) {
+            RunningStats stats = readCategoryStats(db, before.getCategory());
+            stats.remove(Math.abs(toBaseAmount(before)));
+            writeCategoryStats(db, before.getCategory(), stats);
+        }
+        if (isCategorizedExpense(after)) {
+            double value = Math.abs(toBaseAmount(after));
+            RunningStats stats = readCategoryStats(db, after.getCategory());
+            anomaly = stats.isAnomaly(value);
+            stats.add(value);
+            writeCategoryStats(db, after.getCategory(), stats);
+        }
+        return anomaly;
     }
 
-    @Override
-    public void onCreate(SQLiteDatabase db) {
-        // Create the transactions table when database is first created
-        db.execSQL(CREATE_TABLE_TRANSACTIONS);
+    private static boolean isCategorizedExpense(Transaction transaction) {
+        return transaction != null && transaction.getCategory() != null
+                && "expense".equalsIgnoreCase(transaction.getType());
     }
 
-    @Override
-    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        // Simple upgrade policy - drop and recreate table
-        // In a production app, you would want to migrate data
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_TRANSACTIONS);
-        onCreate(db);
+    private void notifyAnomaly(Transaction transaction) {
+        // Posting a notification is a binder call; keep it off the saving thread
+        AppExecutors.diskIO().execute(() -> {
+            RunningStats stats = getCategoryStats(transaction.getCategory());
+            NotificationHelper.showAnomalyAlert(appContext, transaction, stats.getMean());
+        });
     }
 
+    private void notifyBudgetAlert(Budget budget) {
+        if (budget != null) {
+            NotificationHelper.showBudgetAlert(appContext, budget);
+        }
+    }
+    
     /**
-     * Adds a new transaction to the database
-     * @param amount Transaction amount
-     * @param type Transaction type ('income' or 'expense')
-     * @param category Transaction category
-     * @param note Optional note
-     * @return Row ID of the newly inserted transaction, or -1 if error
+     * Gets a transaction by its ID
+     * @param id Transaction ID
+     * @return Transaction object, or null if not found
      */
-    public long addTransaction(double amount, String type, String category, String note) {
-        // Call the overloaded method with the current date
-        SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MM/yyyy", Locale.UK);
-        String currentDate = dateFormat.format(new Date());
-        return addTransaction(amount, type, category, note, currentDate);
+    public Transaction getTransactionById(long id) {
+        long start = DbMetrics.begin(Metrics.GET_TRANSACTION_BY_ID);
+        try {
+            // A primary key lookup is cheap, and writes call this inside their own
+            // transaction, so it always reads the database rather than the result cache
+            TransactionList found = readTransactions(getTransactionsCursor(new TransactionFilter.Builder()
+                    .id(id)
+                    .order(TransactionFilter.ORDER_NONE)
+                    .build()));
+            return found.isEmpty() ? null : found.get(0);
+        } finally {
+            DbMetrics.end(Metrics.GET_TRANSACTION_BY_ID, start);
+        }
     }
-    
+
     /**
-     * Adds a new transaction to the database with a specific date
-     * @param amount Transaction amount
-     * @param type Transaction type ('income' or 'expense')
-     * @param category Transaction category
-     * @param note Optional note
-     * @param date Transaction date in format yyyy-MM-dd
-     * @return Row ID of the newly inserted transaction, or -1 if error
+     * Gets the transactions matching a filter. Results are cached until the
+     * data changes, and single-row writes patch them rather than discard them,
+     * so repeating a filter usually costs no query
+     * @param filter Criteria, order and limit
+     * @return Matching transactions, shared with the cache
      */
-    public long addTransaction(double amount, String type, String category, String note, String date) {
-        SQLiteDatabase db = this.getWritableDatabase();
-        ContentValues values = new ContentValues();
-        
-        // Convert date format from yyyy-MM-dd to dd/MM/yyyy if needed
-        String formattedDate = date;
-        if (date != null && date.matches("\\d{4}-\\d{2}-\\d{2}")) {
-            try {
-                SimpleDateFormat inputFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.UK);
-                SimpleDateFormat outputFormat = new SimpleDateFormat("dd/MM/yyyy", Locale.UK);
-                Date parsedDate = inputFormat.parse(date);
-                if (parsedDate != null) {
-                    formattedDate = outputFormat.format(parsedDate);
-                }
-            } catch (Exception e) {
-                Log.e("DatabaseHelper", "Error parsing date: " + e.getMessage());
+    public TransactionList getTransactions(TransactionFilter filter) {
+        long start = DbMetrics.begin(Metrics.GET_TRANSACTIONS);
+        try {
+            long version = dataVersion.get();
+            TransactionList cached = resultCache.get(filter, version);
+            if (cached != null) {
+                return Metrics.GET_TRANSACTIONS.countRows(cached);
             }
+            TransactionList transactions = readTransactions(getTransactionsCursor(filter));
+            return Metrics.GET_TRANSACTIONS.countRows(resultCache.put(filter, version, transactions));
+        } finally {
+            DbMetrics.end(Metrics.GET_TRANSACTIONS, start);
         }
-        
-        // Prepare values for insertion
-        values.put(COLUMN_AMOUNT, amount);
-        values.put(COLUMN_TYPE, type);
-        values.put(COLUMN_CATEGORY, category);
-        values.put(COLUMN_DATE, formattedDate);
-        values.put(COLUMN_NOTE, note);
-        
-        return db.insert(TABLE_TRANSACTIONS, null, values);
     }
 
     /**
-     * Deletes a transaction from the database
-     * @param id ID of the transaction to delete
-     * @return true if successful, false otherwise
+     * @return Cache of filter results, for reading its hit and patch counters
      */
-    public boolean deleteTransaction(long id) {
-        SQLiteDatabase db = this.getWritableDatabase();
-        return db.delete(TABLE_TRANSACTIONS, COLUMN_ID + " = ?",
-                new String[]{String.valueOf(id)}) > 0;
+    public QueryResultCache getResultCache() {
+        return resultCache;
+    }
+
+    /**
+     * Gets a cursor over the transactions matching a filter, for callers that
+     * bind or stream rows instead of collecting them. The caller owns the
+     * cursor and must close it
+     * @param filter Criteria, order and limit
+     * @return Cursor over the matching transactions
+     */
+    public Cursor getTransactionsCursor(TransactionFilter filter) {
+        long start = DbMetrics.begin(Metrics.GET_TRANSACTIONS_CURSOR);
+        try {
+            return this.getReadableDatabase().rawQuery(filter.toSql(), filter.toArgs());
+        } finally {
+            DbMetrics.end(Metrics.GET_TRANSACTIONS_CURSOR, start);
+        }
     }
     
     /**
-     * Updates an existing transaction in the database
-     * @param id Transaction ID
-     * @param amount New amount
-     * @param type New type ('income' or 'expense')
-     * @param category New category
-     * @param note New note
-     * @param date New date
-     * @return true if successful, false otherwise
+     * Gets all transactions from the database
+     * @return List of all transactions, newest first
      */
-    public boolean updateTransaction(long id, double amount, String type, String category, String note, String date) {
-        SQLiteDatabase db = this.getWritableDatabase();
-        ContentValues values = new ContentValues();
-        
-        // Prepare updated values
-        values.put(COLUMN_AMOUNT, amount);
-        values.put(COLUMN_TYPE, type);
-        values.put(COLUMN_CATEGORY, category);
-        values.put(COLUMN_DATE, date);
-        values.put(COLUMN_NOTE, note);
-        
-        return db.update(TABLE_TRANSACTIONS, values, COLUMN_ID + " = ?",
-                new String[]{String.valueOf(id)}) > 0;
+    public TransactionList getAllTransactions() {
+        return getTransactions(new TransactionFilter.Builder().build());
     }
     
     /**
-     * Gets a transaction by its ID
-     * @param id Transaction ID
-     * @return Transaction object, or null if not found
+     * Gets transactions of a specific type ('income' or 'expense')
+     * @param type Transaction type
+     * @return List of transactions of the specified type, newest first
      */
-    public Transaction getTransactionById(long id) {
-        SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.query(TABLE_TRANSACTIONS, null, COLUMN_ID + " = ?",
-                new String[]{String.valueOf(id)}, null, null, null);
-        
-        Transaction transaction = null;
-        if (cursor != null && cursor.moveToFirst()) {
-            transaction = cursorToTransaction(cursor);
+    public TransactionList getTransactionsByType(String type) {
+        return getTransactions(new TransactionFilter.Builder().type(type).build());
+    }
+
+    /**
+     * Gets one page of transactions, in the same newest-first order as
+     * {@link #getAllTransactions()} and {@link #getMonthIndex(String)}
+     * @param type 'income', 'expense', or null for all transactions
+     * @param offset Position of the first row to return
+     * @param limit Maximum number of rows to return
+     * @return List of at most limit transactions
+     */
+    public TransactionList getTransactionsPage(String type, int offset, int limit) {
+        return getTransactions(new TransactionFilter.Builder()
+                .type(type)
+                .limit(limit, offset)
+                .build());
+    }
+
+    /**
+     * Builds the month section index for the transaction list with a single
+     * GROUP BY count query
+     * @param type 'income', 'expense', or null for all transactions
+     * @return Month index in newest-first order
+     */
+    public MonthIndex getMonthIndex(String type) {
+        long start = DbMetrics.begin(Metrics.GET_MONTH_INDEX);
+        try {
+            SQLiteDatabase db = this.getReadableDatabase();
+
+            TransactionFilter filter = new TransactionFilter.Builder().type(type).build();
+            String query = "SELECT " + DAY_KEY_EXPR + " / 100 AS month, COUNT(*) FROM " + TABLE_TRANSACTIONS
+                    + filter.whereClause()
+                    + " GROUP BY month ORDER BY month DESC";
+            Cursor cursor = db.rawQuery(query, filter.whereArgs());
+            if (cursor == null) {
+                return MonthIndex.empty();
+            }
+
+            int[] monthKeys = new int[cursor.getCount()];
+            int[] counts = new int[cursor.getCount()];
+            int i = 0;
+            while (cursor.moveToNext()) {
+                monthKeys[i] = cursor.getInt(0);
+                counts[i] = cursor.getInt(1);
+                i++;
+            }
             cursor.close();
+
+            return new MonthIndex(monthKeys, counts);
+        } finally {
+            DbMetrics.end(Metrics.GET_MONTH_INDEX, start);
         }
-        
-        return transaction;
     }
     
     /**
-     * Gets all transactions from the database
-     * @return List of all transactions
+     * Gets a cursor over transactions for binding directly in the history
+     * list, in the same newest-first order as {@link #getTransactionsPage}.
+     * The caller owns the cursor and must close it
+     * @param type 'income', 'expense', or null for all transactions
+     * @return Cursor over the matching transactions
      */
-    public List<Transaction> getAllTransactions() {
-        List<Transaction> transactions = new ArrayList<>();
-        SQLiteDatabase db = this.getReadableDatabase();
-        
-        // Query all transactions, ordered by date (newest first)
-        Cursor cursor = db.query(TABLE_TRANSACTIONS, null, null, null, null, null,
-                COLUMN_DATE + " DESC");
-        
-        if (cursor != null && cursor.moveToFirst()) {
+    public Cursor getTransactionsCursor(String type) {
+        return getTransactionsCursor(new TransactionFilter.Builder().type(type).build());
+    }
+
+    /**
+     * Helper method to read every row of a cursor into a compact list
+     * Column positions are resolved once for the whole cursor, and rows go
+     * straight into primitive arrays without a Transaction per row
+     * @param cursor Database cursor over transaction records; closed afterwards
+     * @return The rows read
+     */
+    private TransactionList readTransactions(Cursor cursor) {
+        if (cursor == null) {
+            return TransactionList.empty();
+        }
+        TransactionList.Builder transactions = new TransactionList.Builder(cursor.getCount());
+        if (cursor.moveToFirst()) {
+            TransactionColumns columns = TransactionColumns.of(cursor);
             do {
-                transactions.add(cursorToTransaction(cursor));
+                columns.readInto(cursor, transactions);
             } while (cursor.moveToNext());
-            cursor.close();
         }
-        
-        return transactions;
+        cursor.close();
+        return transactions.build();
     }
     
     /**
-     * Gets transactions of a specific type ('income' or 'expense')
-     * @param type Transaction type
-     * @return List of transactions of the specified type
+     * Gets the total balance (income - expenses)
+     * @return Total balance in the base currency, as in {@link #getFinancialSummary()}
      */
-    public List<Transaction> getTransactionsByType(String type) {
-        List<Transaction> transactions = new ArrayList<>();
-        SQLiteDatabase db = this.getReadableDatabase();
-        
-        // Query transactions by type, ordered by date (newest first)
-        Cursor cursor = db.query(TABLE_TRANSACTIONS, null, COLUMN_TYPE + " = ?",
-                new String[]{type}, null, null, COLUMN_DATE + " DESC");
-        
-        if (cursor != null && cursor.moveToFirst()) {
-            do {
-                transactions.add(cursorToTransaction(cursor));
-            } while (cursor.moveToNext());
+    public double getTotalBalance() {
+        return getFinancialSummary().getBalance();
+    }
+
+    /**
+     * Gets income and expense totals with a single grouped query
+     * Expense amounts are summed by magnitude, since edited expenses are
+     * stored with a negative sign
+     * @return Summary of income, expense and balance
+     */
+    public FinancialSummary getFinancialSummary() {
+        long start = DbMetrics.begin(Metrics.GET_FINANCIAL_SUMMARY);
+        try {
+            SQLiteDatabase db = this.getReadableDatabase();
+            Map<String, Double> incomeByCurrency = new HashMap<>();
+            Map<String, Double> expenseByCurrency = new HashMap<>();
+
+            // Sum per currency in SQL, then convert each sum once rather than each row
+            Cursor cursor = db.rawQuery(
+                    "SELECT " + COLUMN_TYPE + ", " + COLUMN_CURRENCY + ", SUM(ABS(" + COLUMN_AMOUNT + ")) FROM " + TABLE_TRANSACTIONS +
+                            " GROUP BY " + COLUMN_TYPE + ", " + COLUMN_CURRENCY, null);
+            if (cursor != null) {
+                while (cursor.moveToNext()) {
+                    String type = cursor.getString(0);
+                    if ("income".equalsIgnoreCase(type)) {
+                        incomeByCurrency.merge(cursor.getString(1), cursor.getDouble(2), Double::sum);
+                    } else if ("expense".equalsIgnoreCase(type)) {
+                        expenseByCurrency.merge(cursor.getString(1), cursor.getDouble(2), Double::sum);
+                    }
+                }
+                cursor.close();
+            }
+
+            FxRates rates = getFxRates();
+            return new FinancialSummary(rates.convertSums(incomeByCurrency), rates.convertSums(expenseByCurrency));
+        } finally {
+            DbMetrics.end(Metrics.GET_FINANCIAL_SUMMARY, start);
+        }
+    }
+
+    /**
+     * Gathers the largest expenses and the median and 90th percentile spend of a
+     * period in one pass over a cursor. Only the current top rows are kept as
+     * transactions and each percentile is a fixed-size sketch, so memory does
+     * not grow with the number of rows read
+     * @param fromDay First epoch day, inclusive
+     * @param untilDay Last epoch day, inclusive
+     * @param topCount Number of largest expenses to return
+     * @return Insights for the period, in the base currency
+     */
+    public SpendingInsights getSpendingInsights(int fromDay, int untilDay, int topCount) {
+        long start = DbMetrics.begin(Metrics.GET_SPENDING_INSIGHTS);
+        try {
+            FxRates rates = getFxRates();
+            TopN<Transaction> largest = new TopN<>(topCount);
+            P2Quantile median = new P2Quantile(0.5);
+            P2Quantile p90 = new P2Quantile(0.9);
+            // Per category: display name and its two sketches, keyed case-insensitively
+            Map<String, String> categoryNames = new HashMap<>();
+            Map<String, P2Quantile[]> categorySketches = new HashMap<>();
+
+            Cursor cursor = getTransactionsCursor(new TransactionFilter.Builder()
+                    .type("expense")
+                    .dateRange(fromDay, untilDay)
+                    .order(TransactionFilter.ORDER_NONE)
+                    .build());
+            if (cursor != null) {
+                TransactionColumns columns = TransactionColumns.of(cursor);
+                int amountIndex = cursor.getColumnIndexOrThrow(COLUMN_AMOUNT);
+                int categoryIndex = cursor.getColumnIndexOrThrow(COLUMN_CATEGORY);
+                int currencyIndex = cursor.getColumnIndexOrThrow(COLUMN_CURRENCY);
+                while (cursor.moveToNext()) {
+                    double rate = rates.latestRate(cursor.getString(currencyIndex));
+                    double amount = Math.abs(cursor.getDouble(amountIndex)) * (Double.isNaN(rate) ? 1 : rate);
+                    median.add(amount);
+                    p90.add(amount);
+                    // Rows that would be dropped straight away are never built
+                    if (largest.accepts(amount)) {
+                        largest.offer(amount, columns.read(cursor));
+                    }
+
+                    String category = cursor.getString(categoryIndex);
+                    String key = category == null ? "" : category.trim().toLowerCase(Locale.ROOT);
+                    P2Quantile[] sketches = categorySketches.get(key);
+                    if (sketches == null) {
+                        sketches = new P2Quantile[]{new P2Quantile(0.5), new P2Quantile(0.9)};
+                        categorySketches.put(key, sketches);
+                        categoryNames.put(key, category == null ? "" : category.trim());
+                    }
+                    sketches[0].add(amount);
+                    sketches[1].add(amount);
+                }
+                cursor.close();
+            }
+
+            List<SpendingInsights.CategorySpread> spreads = new ArrayList<>(categorySketches.size());
+            for (Map.Entry<String, P2Quantile[]> entry : categorySketches.entrySet()) {
+                P2Quantile[] sketches = entry.getValue();
+                spreads.add(new SpendingInsights.CategorySpread(categoryNames.get(entry.getKey()),
+                        sketches[0].getCount(), sketches[0].getQuantile(), sketches[1].getQuantile()));
+            }
+            spreads.sort((a, b) -> Long.compare(b.getCount(), a.getCount()));
+            return new SpendingInsights(largest.toList(), median.getCount(),
+                    median.getQuantile(), p90.getQuantile(), spreads);
+        } finally {
+            DbMetrics.end(Metrics.GET_SPENDING_INSIGHTS, start);
+        }
+    }
+
+    /**
+     * Gets the net amount (income minus expense) for every day that has
+     * transactions, aggregated in SQLite so only one row per day and currency
+     * is read. Each currency's daily sum is converted to the base currency at
+     * the latest rate, matching {@link #getFinancialSummary()}
+     * @return Daily net amounts in ascending date order; undated rows are skipped
+     */
+    public DailySeries getDailyNetSeries() {
+        long start = DbMetrics.begin(Metrics.GET_DAILY_NET_SERIES);
+        try {
+            SQLiteDatabase db = this.getReadableDatabase();
+            FxRates rates = getFxRates();
+            Cursor cursor = db.rawQuery(
+                    "SELECT " + DAY_KEY_EXPR + " AS day, SUM(CASE WHEN " + COLUMN_TYPE + " = 'income'"
+                            + " THEN ABS(" + COLUMN_AMOUNT + ") ELSE -ABS(" + COLUMN_AMOUNT + ") END), " + COLUMN_CURRENCY
+                            + " FROM " + TABLE_TRANSACTIONS + " GROUP BY day, " + COLUMN_CURRENCY + " ORDER BY day", null);
+            if (cursor == null) {
+                return new DailySeries(new int[0], new double[0]);
+            }
+
+            int[] days = new int[cursor.getCount()];
+            double[] values = new double[cursor.getCount()];
+            int count = 0;
+            while (cursor.moveToNext()) {
+                int epochDay = EpochDays.fromDayKey(cursor.getInt(0));
+                if (epochDay == EpochDays.INVALID) {
+                    continue;
+                }
+                double rate = rates.latestRate(cursor.getString(2));
+                double value = cursor.getDouble(1) * (Double.isNaN(rate) ? 1 : rate);
+                // Rows are ordered by day, so one day's currencies are adjacent
+                if (count > 0 && days[count - 1] == epochDay) {
+                    values[count - 1] += value;
+                } else {
+                    days[count] = epochDay;
+                    values[count] = value;
+                    count++;
+                }
+            }
             cursor.close();
+
+            return new DailySeries(Arrays.copyOf(days, count), Arrays.copyOf(values, count));
+        } finally {
+            DbMetrics.end(Metrics.GET_DAILY_NET_SERIES, start);
         }
-        
-        return transactions;
     }
-    
+
     /**
-     * Helper method to convert a cursor to a Transaction object
-     * @param cursor Database cursor positioned at a transaction record
-     * @return Transaction object
-     */
-    private Transaction cursorToTransaction(Cursor cursor) {
-        long id = cursor.getLong(cursor.getColumnIndexOrThrow(COLUMN_ID));
-        double amount = cursor.getDouble(cursor.getColumnIndexOrThrow(COLUMN_AMOUNT));
-        String type = cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_TYPE));
-        String category = cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_CATEGORY));
-        String date = cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_DATE));
-        String note = cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_NOTE));
-        
-        return new Transaction(id, amount, type, category, date, note);
+     * Gets the total amount per category for one transaction type
+     * Each currency's category sum is converted to the base currency at the latest rate
+     * @param type 'income' or 'expense'
+     * @return Category totals in the base currency, largest first
+     */
+    public Map<String, Double> getCategoryTotals(String type) {
+        long start = DbMetrics.begin(Metrics.GET_CATEGORY_TOTALS);
+        try {
+            Map<String, Double> sums = new HashMap<>();
+            SQLiteDatabase db = this.getReadableDatabase();
+            FxRates rates = getFxRates();
+            Cursor cursor = db.rawQuery(
+                    "SELECT " + COLUMN_CATEGORY + ", " + COLUMN_CURRENCY + ", SUM(ABS(" + COLUMN_AMOUNT + "))"
+                            + " FROM " + TABLE_TRANSACTIONS
+                            + " WHERE " + COLUMN_TYPE + " = ? GROUP BY " + COLUMN_CATEGORY + ", " + COLUMN_CURRENCY,
+                    new String[]{type});
+            if (cursor != null) {
+                while (cursor.moveToNext()) {
+                    double rate = rates.latestRate(cursor.getString(1));
+                    sums.merge(cursor.getString(0), cursor.getDouble(2) * (Double.isNaN(rate) ? 1 : rate), Double::sum);
+                }
+                cursor.close();
+            }
+
+            List<Map.Entry<String, Double>> sorted = new ArrayList<>(sums.entrySet());
+            sorted.sort((a, b) -> Double.compare(b.getValue(), a.getValue()));
+            Map<String, Double> totals = new LinkedHashMap<>();
+            for (Map.Entry<String, Double> entry : sorted) {
+                totals.put(entry.getKey(), entry.getValue());
+            }
+            Metrics.GET_CATEGORY_TOTALS.addRows(totals.size());
+            return totals;
+        } finally {
+            DbMetrics.end(Metrics.GET_CATEGORY_TOTALS, start);
+        }
     }
-    
+
     /**
-     * Gets the total balance (income - expenses)
-     * @return Total balance
+     * Gets income and expense totals for every month that has transactions
+     * Each currency's monthly sums are converted to the base currency at the latest rate
+     * @return Monthly totals in ascending month order
      */
-    public double getTotalBalance() {
-        SQLiteDatabase db = this.getReadableDatabase();
-        double totalIncome = 0;
-        double totalExpense = 0;
-        
-        // Get total income
-        Cursor incomeCursor = db.rawQuery(
-                "SELECT SUM(" + COLUMN_AMOUNT + ") FROM " + TABLE_TRANSACTIONS +
-                        " WHERE " + COLUMN_TYPE + " = ?", new String[]{"income"});
-        if (incomeCursor != null && incomeCursor.moveToFirst()) {
-            totalIncome = incomeCursor.getDouble(0);
-            incomeCursor.close();
+    public MonthlyTotals getMonthlyTotals() {
+        long start = DbMetrics.begin(Metrics.GET_MONTHLY_TOTALS);
+        try {
+            SQLiteDatabase db = this.getReadableDatabase();
+            FxRates rates = getFxRates();
+            Cursor cursor = db.rawQuery(
+                    "SELECT " + DAY_KEY_EXPR + " / 100 AS month,"
+                            + " SUM(CASE WHEN " + COLUMN_TYPE + " = 'income' THEN ABS(" + COLUMN_AMOUNT + ") ELSE 0 END),"
+                            + " SUM(CASE WHEN " + COLUMN_TYPE + " = 'expense' THEN ABS(" + COLUMN_AMOUNT + ") ELSE 0 END),"
+                            + " " + COLUMN_CURRENCY
+                            + " FROM " + TABLE_TRANSACTIONS + " GROUP BY month, " + COLUMN_CURRENCY
+                            + " HAVING month > 0 ORDER BY month", null);
+            if (cursor == null) {
+                return new MonthlyTotals(new int[0], new double[0], new double[0]);
+            }
+
+            int[] months = new int[cursor.getCount()];
+            double[] income = new double[cursor.getCount()];
+            double[] expense = new double[cursor.getCount()];
+            int count = 0;
+            while (cursor.moveToNext()) {
+                int month = cursor.getInt(0);
+                double rate = rates.latestRate(cursor.getString(3));
+                if (Double.isNaN(rate)) {
+                    rate = 1;
+                }
+                // Rows are ordered by month, so one month's currencies are adjacent
+                if (count == 0 || months[count - 1] != month) {
+                    months[count] = month;
+                    count++;
+                }
+                income[count - 1] += cursor.getDouble(1) * rate;
+                expense[count - 1] += cursor.getDouble(2) * rate;
+            }
+            cursor.close();
+
+            return new MonthlyTotals(Arrays.copyOf(months, count), Arrays.copyOf(income, count),
+                    Arrays.copyOf(expense, count));
+        } finally {
+            DbMetrics.end(Metrics.GET_MONTHLY_TOTALS, start);
         }
-        
-        // Get total expense
-        Cursor expenseCursor = db.rawQuery(
-                "SELECT SUM(" + COLUMN_AMOUNT + ") FROM " + TABLE_TRANSACTIONS +
-                        " WHERE " + COLUMN_TYPE + " = ?", new String[]{"expense"});
-        if (expenseCursor != null && expenseCursor.moveToFirst()) {
-            totalExpense = expenseCursor.getDouble(0);
-            expenseCursor.close();
+    }
+
+    /**
+     * Loads the whole ledger once into columnar primitive arrays for analytics
+     * Amounts are converted to the base currency at the latest rate as the
+     * cents are built. Rows whose date cannot be parsed are skipped
+     * @return Columnar copy of the transactions table
+     */
+    public LedgerColumns loadLedgerColumns() {
+        long start = DbMetrics.begin(Metrics.LOAD_LEDGER_COLUMNS);
+        try {
+            SQLiteDatabase db = this.getReadableDatabase();
+            Cursor cursor = db.query(TABLE_TRANSACTIONS,
+                    new String[]{COLUMN_DATE, COLUMN_AMOUNT, COLUMN_CATEGORY, COLUMN_TYPE, COLUMN_CURRENCY},
+                    null, null, null, null, null);
+            if (cursor == null) {
+                return new LedgerColumns.Builder(0).build();
+            }
+            FxRates rates = getFxRates();
+
+            LedgerColumns.Builder builder = new LedgerColumns.Builder(cursor.getCount());
+            while (cursor.moveToNext()) {
+                int epochDay = EpochDays.parse(cursor.getString(0));
+                if (epochDay == EpochDays.INVALID) {
+                    continue;
+                }
+                byte type = "income".equalsIgnoreCase(cursor.getString(3))
+                        ? LedgerColumns.TYPE_INCOME : LedgerColumns.TYPE_EXPENSE;
+                double rate = rates.latestRate(cursor.getString(4));
+                builder.add(epochDay, LedgerColumns.toCents(cursor.getDouble(1) * (Double.isNaN(rate) ? 1 : rate)),
+                        cursor.getString(2), type);
+            }
+            cursor.close();
+
+            return builder.build();
+        } finally {
+            DbMetrics.end(Metrics.LOAD_LEDGER_COLUMNS, start);
+        }
+    }
+
+    /**
+     * Builds the forecasting rate model from one total per type, category and day
+     * Rows written by recurring rules are excluded, since the rules are projected separately.
+     * Each currency's daily total is converted to the base currency at the latest rate
+     * @param halfLifeDays Half life of the exponential weighting
+     * @return Rate model keyed by {@link CashFlowForecaster#seriesKey}
+     */
+    public EwmaRateModel loadRateModel(double halfLifeDays) {
+        long start = DbMetrics.begin(Metrics.LOAD_RATE_MODEL);
+        try {
+            SQLiteDatabase db = this.getReadableDatabase();
+            FxRates rates = getFxRates();
+            EwmaRateModel model = new EwmaRateModel(halfLifeDays);
+            Cursor cursor = db.rawQuery(
+                    "SELECT " + COLUMN_TYPE + ", MIN(" + COLUMN_CATEGORY + "), " + DAY_KEY_EXPR + " AS day_key, SUM(ABS(" + COLUMN_AMOUNT + ")), "
+                            + COLUMN_CURRENCY
+                            + " FROM " + TABLE_TRANSACTIONS
+                            + " WHERE " + COLUMN_RULE_ID + " IS NULL"
+                            + " GROUP BY " + COLUMN_TYPE + ", LOWER(" + COLUMN_CATEGORY + "), day_key, " + COLUMN_CURRENCY
+                            + " ORDER BY day_key", null);
+            if (cursor != null) {
+                while (cursor.moveToNext()) {
+                    int epochDay = EpochDays.fromDayKey(cursor.getInt(2));
+                    if (epochDay == EpochDays.INVALID) {
+                        continue;
+                    }
+                    String type = cursor.getString(0);
+                    double rate = rates.latestRate(cursor.getString(4));
+                    model.add(CashFlowForecaster.seriesKey(type, cursor.getString(1)),
+                            CashFlowForecaster.signedAmount(type, cursor.getDouble(3) * (Double.isNaN(rate) ? 1 : rate)),
+                            epochDay);
+                }
+                cursor.close();
+            }
+            return model;
+        } finally {
+            DbMetrics.end(Metrics.LOAD_RATE_MODEL, start);
+        }
+    }
+
+    /**
+     * Loads daily totals per type and category into a range-sum index
+     * Each currency's daily sum is converted to the base currency at the latest
+     * rate, matching {@link #getFinancialSummary()}
+     * @return Index over every transaction with a readable date
+     */
+    public RangeSumIndex loadRangeSumIndex() {
+        long start = DbMetrics.begin(Metrics.LOAD_RANGE_SUM_INDEX);
+        try {
+            SQLiteDatabase db = this.getReadableDatabase();
+            FxRates rates = getFxRates();
+            RangeSumIndex index = new RangeSumIndex();
+            Cursor cursor = db.rawQuery(
+                    "SELECT " + COLUMN_TYPE + ", MIN(" + COLUMN_CATEGORY + "), " + COLUMN_CURRENCY + ", "
+                            + DAY_KEY_EXPR + " AS day_key, SUM(ABS(" + COLUMN_AMOUNT + "))"
+                            + " FROM " + TABLE_TRANSACTIONS
+                            + " GROUP BY " + COLUMN_TYPE + ", LOWER(TRIM(" + COLUMN_CATEGORY + ")), " + COLUMN_CURRENCY + ", day_key"
+                            + " ORDER BY day_key", null);
+            if (cursor != null) {
+                while (cursor.moveToNext()) {
+                    int epochDay = EpochDays.fromDayKey(cursor.getInt(3));
+                    if (epochDay == EpochDays.INVALID) {
+                        continue;
+                    }
+                    double rate = rates.latestRate(cursor.getString(2));
+                    index.add(cursor.getString(0), cursor.getString(1), epochDay,
+                            cursor.getDouble(4) * (Double.isNaN(rate) ? 1 : rate));
+                }
+                cursor.close();
+            }
+            return index;
+        } finally {
+            DbMetrics.end(Metrics.LOAD_RANGE_SUM_INDEX, start);
+        }
+    }
+
+    /**
+     * Loads how often and how recently each distinct value of a text column was used
+     * @param column {@link #COLUMN_CATEGORY} or {@link #COLUMN_NOTE}
+     * @return Index over the column's values
+     */
+    public PrefixIndex loadPrefixIndex(String column) {
+        long start = DbMetrics.begin(Metrics.LOAD_PREFIX_INDEX);
+        try {
+            SQLiteDatabase db = this.getReadableDatabase();
+            PrefixIndex index = new PrefixIndex();
+            // Sorted by key so the index is filled by appending
+            Cursor cursor = db.rawQuery(
+                    "SELECT MAX(" + column + "), COUNT(*), MAX(" + DAY_KEY_EXPR + ")"
+                            + " FROM " + TABLE_TRANSACTIONS
+                            + " WHERE " + column + " IS NOT NULL AND TRIM(" + column + ") != ''"
+                            + " GROUP BY LOWER(TRIM(" + column + "))"
+                            + " ORDER BY LOWER(TRIM(" + column + "))", null);
+            if (cursor != null) {
+                while (cursor.moveToNext()) {
+                    int lastDay = EpochDays.fromDayKey(cursor.getInt(2));
+                    // Rows with unreadable dates still count, as if used long ago
+                    index.add(cursor.getString(0), cursor.getInt(1), lastDay == EpochDays.INVALID ? 0 : lastDay);
+                }
+                cursor.close();
+            }
+            return index;
+        } finally {
+            DbMetrics.end(Metrics.LOAD_PREFIX_INDEX, start);
+        }
+    }
+
+    /**
+     * Gets a cursor over the columns the category suggester learns from
+     * @return Cursor of type, category and note for every categorized row; the caller closes it
+     */
+    public Cursor getCategoryTrainingCursor() {
+        long start = DbMetrics.begin(Metrics.GET_CATEGORY_TRAINING_CURSOR);
+        try {
+            SQLiteDatabase db = this.getReadableDatabase();
+            return db.query(TABLE_TRANSACTIONS, new String[]{COLUMN_TYPE, COLUMN_CATEGORY, COLUMN_NOTE},
+                    COLUMN_CATEGORY + " IS NOT NULL AND " + COLUMN_NOTE + " IS NOT NULL", null, null, null, COLUMN_ID);
+        } finally {
+            DbMetrics.end(Metrics.GET_CATEGORY_TRAINING_CURSOR, start);
         }
-        
-        return totalIncome - totalExpense;
     }
 
     /**
      * Gets the total income from all transactions
-     * @return Total income amount
+     * @return Total income amount in the base currency
      */
     public double getTotalIncome() {
-        SQLiteDatabase db = this.getReadableDatabase();
-        double totalIncome = 0;
-        
-        String query = "SELECT SUM(" + COLUMN_AMOUNT + ") FROM " + TABLE_TRANSACTIONS + 
-                       " WHERE " + COLUMN_TYPE + " = 'income'";
-        Cursor cursor = db.rawQuery(query, null);
-        
-        if (cursor != null && cursor.moveToFirst()) {
-            totalIncome = cursor.getDouble(0);
-            cursor.close();
-        }
-        
-        return totalIncome;
+        return getFinancialSummary().getTotalIncome();
     }
 
     /**
      * Gets the total expenses from all transactions
-     * @return Total expense amount (as a positive value)
+     * @return Total expense amount in the base currency (as a positive value)
      */
     public double getTotalExpense() {
-        SQLiteDatabase db = this.getReadableDatabase();
-        double totalExpense = 0;
-        
-        String query = "SELECT SUM(" + COLUMN_AMOUNT + ") FROM " + TABLE_TRANSACTIONS + 
-                       " WHERE " + COLUMN_TYPE + " = 'expense'";
-        Cursor cursor = db.rawQuery(query, null);
-        
-        if (cursor != null && cursor.moveToFirst()) {
-            totalExpense = Math.abs(cursor.getDouble(0));
-            cursor.close();
-        }
-        
-        return totalExpense;
+        return getFinancialSummary().getTotalExpense();
     }
 
     /**
@@ -314,8 +2071,9 @@ public class DatabaseHelper extends SQLiteOpenHelper {
      * @return true if export was successful, false otherwise
      */
     public boolean exportToCSV() {
+        long start = DbMetrics.begin(Metrics.EXPORT_TO_CSV);
         try {
-            List<Transaction> transactions = getAllTransactions();
+            TransactionList transactions = getAllTransactions();
             if (transactions.isEmpty()) {
                 return false;
             }
@@ -333,31 +2091,19 @@ public class DatabaseHelper extends SQLiteOpenHelper {
             java.io.File exportFile = new java.io.File(downloadsDir, fileName);
             
             FileWriter fw = new FileWriter(exportFile);
-            // Write CSV header
-            fw.append("ID,Type,Category,Amount,Date,Note\n");
-            
-            // Write transaction data
-            for (Transaction transaction : transactions) {
-                fw.append(String.valueOf(transaction.getId())).append(",");
-                fw.append(transaction.getType()).append(",");
-                fw.append(transaction.getCategory()).append(",");
-                fw.append(String.format(Locale.UK, "€%.2f", transaction.getAmount())).append(",");
-                fw.append(transaction.getDate()).append(",");
-                
-                // Handle notes that might contain commas by enclosing in quotes
-                String note = transaction.getDescription();
-                if (note != null && !note.isEmpty()) {
-                    fw.append("\"").append(note.replace("\"", "\"\"")).append("\"");
-                }
-                fw.append("\n");
-            }
+            // Write the header and transaction data, reading each row in place
+            TransactionCsvWriter.write(fw, transactions);
             
             fw.flush();
             fw.close();
+            Metrics.EXPORT_TO_CSV.addRows(transactions.size());
+            Metrics.EXPORT_TO_CSV.addBytes(exportFile.length());
             return true;
         } catch (IOException e) {
             Log.e("DatabaseHelper", "Error exporting data: " + e.getMessage());
             return false;
+        } finally {
+            DbMetrics.end(Metrics.EXPORT_TO_CSV, start);
         }
     }
 
@@ -367,8 +2113,9 @@ public class DatabaseHelper extends SQLiteOpenHelper {
      * @return The path to the exported file, or null if export failed
      */
     public String exportToCSV(Context context) {
+        long start = DbMetrics.begin(Metrics.EXPORT_TO_CSV);
         try {
-            List<Transaction> transactions = getAllTransactions();
+            TransactionList transactions = getAllTransactions();
             if (transactions.isEmpty()) {
                 return null;
             }
@@ -386,27 +2133,13 @@ public class DatabaseHelper extends SQLiteOpenHelper {
             java.io.File exportFile = new java.io.File(downloadsDir, fileName);
             
             FileWriter fw = new FileWriter(exportFile);
-            // Write CSV header
-            fw.append("ID,Type,Category,Amount,Date,Note\n");
-            
-            // Write transaction data
-            for (Transaction transaction : transactions) {
-                fw.append(String.valueOf(transaction.getId())).append(",");
-                fw.append(transaction.getType()).append(",");
-                fw.append(transaction.getCategory()).append(",");
-                fw.append(String.format(Locale.UK, "€%.2f", transaction.getAmount())).append(",");
-                fw.append(transaction.getDate()).append(",");
-                
-                // Handle notes that might contain commas by enclosing in quotes
-                String note = transaction.getDescription();
-                if (note != null && !note.isEmpty()) {
-                    fw.append("\"").append(note.replace("\"", "\"\"")).append("\"");
-                }
-                fw.append("\n");
-            }
+            // Write the header and transaction data, reading each row in place
+            TransactionCsvWriter.write(fw, transactions);
             
             fw.flush();
             fw.close();
+            Metrics.EXPORT_TO_CSV.addRows(transactions.size());
+            Metrics.EXPORT_TO_CSV.addBytes(exportFile.length());
             
             // Notify the system about the new file so it shows up in file browsers
             MediaScannerConnection.scanFile(context, new String[]{exportFile.getAbsolutePath()}, null, null);
@@ -415,101 +2148,39 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         } catch (IOException e) {
             Log.e("DatabaseHelper", "Error exporting data: " + e.getMessage());
             return null;
+        } finally {
+            DbMetrics.end(Metrics.EXPORT_TO_CSV, start);
         }
     }
 
     /**
-     * Formats a timestamp into a readable date string
-     * @param timestamp Timestamp in milliseconds
-     * @return Formatted date string
+     * Gets transactions within a date range
+     * @param startDate Start date in milliseconds, UTC midnight as returned by date range pickers
+     * @param endDate End date in milliseconds, inclusive
+     * @return List of transactions within the range
      */
-    private String formatDate(long timestamp) {
-        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
-        return dateFormat.format(new Date(timestamp));
+    public TransactionList getTransactionsByDateRange(long startDate, long endDate) {
+        return getTransactionsByDateRange(EpochDays.fromMillis(startDate), EpochDays.fromMillis(endDate));
     }
 
     /**
      * Gets transactions within a date range
-     * @param startDate Start date in milliseconds
-     * @param endDate End date in milliseconds
-     * @return List of transactions within the range
+     * @param fromDay First epoch day, inclusive
+     * @param untilDay Last epoch day, inclusive
+     * @return List of transactions within the range, newest first
      */
-    public List<Transaction> getTransactionsByDateRange(long startDate, long endDate) {
-        List<Transaction> transactions = new ArrayList<>();
-        SQLiteDatabase db = this.getReadableDatabase();
-        
-        String selection = COLUMN_DATE + " BETWEEN ? AND ?";
-        String[] selectionArgs = {String.valueOf(startDate), String.valueOf(endDate)};
-        
-        Cursor cursor = db.query(TABLE_TRANSACTIONS, null, selection, selectionArgs,
-                null, null, COLUMN_DATE + " DESC");
-        
-        if (cursor != null && cursor.moveToFirst()) {
-            do {
-                int idIndex = cursor.getColumnIndex(COLUMN_ID);
-                int noteIndex = cursor.getColumnIndex(COLUMN_NOTE);
-                int categoryIndex = cursor.getColumnIndex(COLUMN_CATEGORY);
-                int amountIndex = cursor.getColumnIndex(COLUMN_AMOUNT);
-                int dateIndex = cursor.getColumnIndex(COLUMN_DATE);
-                
-                // Only proceed if all required columns are found
-                if (idIndex >= 0 && categoryIndex >= 0 && amountIndex >= 0 && dateIndex >= 0) {
-                    String note = noteIndex >= 0 ? cursor.getString(noteIndex) : "";
-                    Transaction transaction = new Transaction(
-                        note,
-                        cursor.getString(categoryIndex),
-                        cursor.getDouble(amountIndex),
-                        cursor.getString(dateIndex)
-                    );
-                    transaction.setId(cursor.getLong(idIndex));
-                    transactions.add(transaction);
-                }
-            } while (cursor.moveToNext());
-            cursor.close();
-        }
-        
-        return transactions;
+    public TransactionList getTransactionsByDateRange(int fromDay, int untilDay) {
+        return getTransactions(new TransactionFilter.Builder()
+                .dateRange(fromDay, untilDay)
+                .build());
     }
 
     /**
      * Gets transactions by category
-     * @param category Category to filter by
-     * @return List of transactions in the category
+     * @param category Category to filter by, matched case-insensitively
+     * @return List of transactions in the category, newest first
      */
-    public List<Transaction> getTransactionsByCategory(String category) {
-        List<Transaction> transactions = new ArrayList<>();
-        SQLiteDatabase db = this.getReadableDatabase();
-        
-        String selection = COLUMN_CATEGORY + " = ?";
-        String[] selectionArgs = {category};
-        
-        Cursor cursor = db.query(TABLE_TRANSACTIONS, null, selection, selectionArgs,
-                null, null, COLUMN_DATE + " DESC");
-        
-        if (cursor != null && cursor.moveToFirst()) {
-            do {
-                int idIndex = cursor.getColumnIndex(COLUMN_ID);
-                int noteIndex = cursor.getColumnIndex(COLUMN_NOTE);
-                int categoryIndex = cursor.getColumnIndex(COLUMN_CATEGORY);
-                int amountIndex = cursor.getColumnIndex(COLUMN_AMOUNT);
-                int dateIndex = cursor.getColumnIndex(COLUMN_DATE);
-                
-                // Only proceed if all required columns are found
-                if (idIndex >= 0 && categoryIndex >= 0 && amountIndex >= 0 && dateIndex >= 0) {
-                    String note = noteIndex >= 0 ? cursor.getString(noteIndex) : "";
-                    Transaction transaction = new Transaction(
-                        note,
-                        cursor.getString(categoryIndex),
-                        cursor.getDouble(amountIndex),
-                        cursor.getString(dateIndex)
-                    );
-                    transaction.setId(cursor.getLong(idIndex));
-                    transactions.add(transaction);
-                }
-            } while (cursor.moveToNext());
-            cursor.close();
-        }
-        
-        return transactions;
+    public TransactionList getTransactionsByCategory(String category) {
+        return getTransactions(new TransactionFilter.Builder().category(category).build());
     }
 }
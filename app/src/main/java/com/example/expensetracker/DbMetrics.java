@@ -0,0 +1,96 @@
+package com.example.expensetracker;
+
+import android.os.Trace;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * DbMetrics: Process-wide latency metrics for database calls, list binding and export
+ * Features:
+ * - One {@link OperationMetrics} per named operation, registered once and kept in a field
+ * - Every timed call is also an android.os.Trace section, visible in Perfetto/systrace captures
+ * - Snapshot API for debug screens and a log dump for bug reports
+ *
+ * Usage, where OPERATION is a static field:
+ * <pre>
+ * long start = DbMetrics.begin(OPERATION);
+ * try {
+ *     ...
+ * } finally {
+ *     DbMetrics.end(OPERATION, start);
+ * }
+ * </pre>
+ */
+public final class DbMetrics {
+    private static final String TAG = "DbMetrics";
+
+    private static final ConcurrentMap<String, OperationMetrics> OPERATIONS = new ConcurrentHashMap<>();
+
+    private DbMetrics() {
+    }
+
+    /**
+     * Gets the metrics of an operation, registering it on first use
+     * Look it up once and keep it; the lookup is not meant for every call
+     * @param name Operation name, such as "DatabaseHelper.addTransaction"
+     * @return Shared metrics for the name
+     */
+    public static OperationMetrics operation(String name) {
+        return OPERATIONS.computeIfAbsent(name, OperationMetrics::new);
+    }
+
+    /**
+     * Starts timing a call and opens its trace section
+     * Must be paired with {@link #end} on the same thread
+     * @param operation Operation being called
+     * @return Start time to pass to {@link #end}
+     */
+    public static long begin(OperationMetrics operation) {
+        Trace.beginSection(operation.getName());
+        return System.nanoTime();
+    }
+
+    /**
+     * Records a call's latency and closes its trace section
+     * @param operation Operation passed to {@link #begin}
+     * @param start Value returned by {@link #begin}
+     */
+    public static void end(OperationMetrics operation, long start) {
+        operation.record(System.nanoTime() - start);
+        Trace.endSection();
+    }
+
+    /**
+     * @return Current counters of every registered operation, most total time first
+     */
+    public static List<OperationMetrics.Snapshot> snapshot() {
+        List<OperationMetrics.Snapshot> snapshots = new ArrayList<>(OPERATIONS.size());
+        for (OperationMetrics operation : OPERATIONS.values()) {
+            snapshots.add(operation.snapshot());
+        }
+        snapshots.sort((a, b) -> Long.compare(b.getLatency().getTotalNanos(), a.getLatency().getTotalNanos()));
+        return snapshots;
+    }
+
+    /**
+     * Writes the current counters to the log, one line per operation
+     */
+    public static void dump() {
+        for (String line : OperationMetrics.format(snapshot()).split("\n")) {
+            Log.i(TAG, line);
+        }
+    }
+
+    /**
+     * Clears every operation's counters; registrations are kept
+     */
+    public static void reset() {
+        for (OperationMetrics operation : OPERATIONS.values()) {
+            operation.reset();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.expensetracker;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import java.util.List;
+
+/**
+ * DuplicateDetector: Spots transactions that were probably entered twice
+ * Features:
+ * - In-memory hash index on type, category, currency, amount and day, so each check is O(1)
+ * - Warns before a single save that matches an existing row
+ * - Skips or merges duplicates during batch imports
+ * - Kept current on every insert; edits and deletes rebuild it in the background
+ */
+public class DuplicateDetector implements DatabaseHelper.OnDataChangedListener {
+    private static final String PREFS_NAME = "ExpenseTrackerPrefs";
+    // Days apart two entries may be and still count as the same one
+    public static final String WINDOW_DAYS_KEY = "duplicateWindowDays";
+    private static final int DEFAULT_WINDOW_DAYS = 1;
+
+    private static DuplicateDetector instance;
+
+    private final DatabaseHelper dbHelper;
+    private final int windowDays;
+    // Read and added to under this object's lock
+    private final BackgroundIndex<NearMatchIndex> index;
+
+    private DuplicateDetector(Context context) {
+        this.dbHelper = DatabaseHelper.getInstance(context);
+        SharedPreferences prefs = context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        this.windowDays = Math.max(0, prefs.getInt(WINDOW_DAYS_KEY, DEFAULT_WINDOW_DAYS));
+        this.index = new BackgroundIndex<>(dbHelper, () -> dbHelper.loadNearMatchIndex(windowDays));
+        dbHelper.addOnDataChangedListener(this);
+        index.scheduleBuild();
+    }
+
+    /**
+     * Gets the shared detector; the first call starts indexing in the background
+     * @param context Any context
+     * @return Shared detector
+     */
+    public static synchronized DuplicateDetector getInstance(Context context) {
+        if (instance == null) {
+            instance = new DuplicateDetector(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Looks for an existing transaction the new one probably duplicates
+     * Never touches the database; while the index is still being built no
+     * duplicate is reported
+     * @param type 'income' or 'expense'
+     * @param category Category
+     * @param amount Amount
+     * @param currency Currency code of the amount
+     * @param date Date in dd/MM/yyyy or yyyy-MM-dd
+     * @return The matching transaction, or null
+     */
+    public Transaction findDuplicate(String type, String category, double amount, String currency, String date) {
+        int day = EpochDays.parse(date);
+        long match;
+        synchronized (this) {
+            NearMatchIndex current = index.get();
+            if (current == null || day == EpochDays.INVALID) {
+                return null;
+            }
+            match = current.findMatch(type, category, amount, currency, day);
+        }
+        return match == NearMatchIndex.NO_MATCH ? null : dbHelper.getTransactionById(match);
+    }
+
+    /**
+     * Imports transactions, leaving out duplicates. Reads and writes the
+     * database, so call it on a background thread. The lock is only held for
+     * each lookup, so duplicate checks on the main thread are not held up by
+     * the import; imported rows join the index once they are committed
+     * @param rows Transactions to import
+     * @param mergeDuplicates true to copy notes onto existing duplicates, false to skip them
+     * @return Counts of inserted, skipped and merged rows
+     */
+    public ImportResult importTransactions(List<Transaction> rows, boolean mergeDuplicates) {
+        NearMatchIndex existing = index.require();
+        NearMatchIndex added = new NearMatchIndex(windowDays);
+        ImportResult result = dbHelper.importTransactions(rows, (type, category, amount, currency, day) -> {
+            synchronized (this) {
+                return existing.findMatch(type, category, amount, currency, day);
+            }
+        }, added, mergeDuplicates);
+        synchronized (this) {
+            // Covers the gap until the rebuild queued by the import's change notification
+            NearMatchIndex current = index.get();
+            if (current != null) {
+                current.addAll(added);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void onTransactionAdded(Transaction transaction, long dataVersion) {
+        NearMatchIndex current = index.getForChange(dataVersion);
+        if (current == null) {
+            // Not built yet, or built after this row was written; the build has it
+            return;
+        }
+        int day = EpochDays.parse(transaction.getDate());
+        if (day != EpochDays.INVALID) {
+            current.add(transaction.getId(), transaction.getType(), transaction.getCategory(), transaction.getAmount(),
+                    transaction.getCurrency(), day);
+        }
+    }
+
+    @Override
+    public void onDataInvalidated(long dataVersion) {
+        index.scheduleBuild();
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.expensetracker;
+
+/**
+ * Conversions between calendar dates and epoch days (days since 1970-01-01)
+ * Pure arithmetic on the proleptic Gregorian calendar, so it works on every
+ * API level and needs no SimpleDateFormat or Calendar instances. This is the
+ * one place dates are parsed and formatted: rows are stored as dd/MM/yyyy,
+ * forms show yyyy-MM-dd, and everything else works on epoch days. Parsing
+ * allocates nothing; formatting allocates only the resulting string
+ */
+public final class EpochDays {
+    /** Returned by the parse methods when the text is not a valid date */
+    public static final int INVALID = Integer.MIN_VALUE;
+
+    private EpochDays() {
+    }
+
+    /**
+     * Converts a calendar date to an epoch day
+     * @param year Year, e.g. 2024
+     * @param month Month, 1-12
+     * @param day Day of month, 1-31
+     * @return Days since 1970-01-01
+     */
+    public static int of(int year, int month, int day) {
+        // Days-from-civil, counting years from March so the leap day is last
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * Converts a sortable yyyyMMdd integer to an epoch day
+     * @param dayKey Date as yyyyMMdd
+     * @return Days since 1970-01-01, or {@link #INVALID}
+     */
+    public static int fromDayKey(int dayKey) {
+        int year = dayKey / 10000;
+        int month = dayKey / 100 % 100;
+        int day = dayKey % 100;
+        if (!isValid(year, month, day)) {
+            return INVALID;
+        }
+        return of(year, month, day);
+    }
+
+    /**
+     * Converts an epoch day to a sortable yyyyMMdd integer
+     * @param epochDay Days since 1970-01-01
+     * @return Date as yyyyMMdd
+     */
+    public static int toDayKey(int epochDay) {
+        // Civil-from-days, the inverse of of()
+        int z = epochDay + 719468;
+        int era = Math.floorDiv(z, 146097);
+        int dayOfEra = z - era * 146097;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int mp = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return year * 10000 + month * 100 + day;
+    }
+
+    /**
+     * Formats an epoch day in the stored dd/MM/yyyy format
+     * @param epochDay Days since 1970-01-01
+     * @return Date text
+     */
+    public static String format(int epochDay) {
+        int dayKey = toDayKey(epochDay);
+        char[] text = new char[10];
+        writeDigits(text, 0, dayKey % 100, 2);
+        text[2] = '/';
+        writeDigits(text, 3, dayKey / 100 % 100, 2);
+        text[5] = '/';
+        writeDigits(text, 6, dayKey / 10000, 4);
+        return new String(text);
+    }
+
+    /**
+     * Formats an epoch day as yyyy-MM-dd, the format shown in the forms
+     * @param epochDay Days since 1970-01-01
+     * @return Date text
+     */
+    public static String formatIso(int epochDay) {
+        int dayKey = toDayKey(epochDay);
+        char[] text = new char[10];
+        writeDigits(text, 0, dayKey / 10000, 4);
+        text[4] = '-';
+        writeDigits(text, 5, dayKey / 100 % 100, 2);
+        text[7] = '-';
+        writeDigits(text, 8, dayKey % 100, 2);
+        return new String(text);
+    }
+
+    private static void writeDigits(char[] text, int start, int value, int width) {
+        for (int i = start + width - 1; i >= start; i--) {
+            text[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    /**
+     * Converts a date in either accepted format to the stored dd/MM/yyyy format
+     * @param text Date text, dd/MM/yyyy or yyyy-MM-dd
+     * @return Stored date text, or null if the text is not a valid date
+     */
+    public static String normalize(CharSequence text) {
+        int epochDay = parse(text);
+        return epochDay == INVALID ? null : format(epochDay);
+    }
+
+    /**
+     * Parses a stored date, accepting both dd/MM/yyyy and yyyy-MM-dd
+     * @param text Date text; any CharSequence, so form fields need no toString()
+     * @return Days since 1970-01-01, or {@link #INVALID}
+     */
+    public static int parse(CharSequence text) {
+        if (text == null || text.length() != 10) {
+            return INVALID;
+        }
+        int year;
+        int month;
+        int day;
+        if (text.charAt(2) == '/' && text.charAt(5) == '/') {
+            day = digits(text, 0, 2);
+            month = digits(text, 3, 5);
+            year = digits(text, 6, 10);
+        } else if (text.charAt(4) == '-' && text.charAt(7) == '-') {
+            year = digits(text, 0, 4);
+            month = digits(text, 5, 7);
+            day = digits(text, 8, 10);
+        } else {
+            return INVALID;
+        }
+        if (!isValid(year, month, day)) {
+            return INVALID;
+        }
+        return of(year, month, day);
+    }
+
+    private static int digits(CharSequence text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static boolean isValid(int year, int month, int day) {
+        return year > 0 && month >= 1 && month <= 12 && day >= 1 && day <= daysInMonth(year, month);
+    }
+
+    /**
+     * @param year Year
+     * @param month Month, 1-12
+     * @return Number of days in the month
+     */
+    public static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * @param epochDay Days since 1970-01-01
+     * @return Month as yyyyMM
+     */
+    public static int toMonthKey(int epochDay) {
+        return toDayKey(epochDay) / 100;
+    }
+
+    /**
+     * @param utcMillis Milliseconds since the epoch, such as the UTC midnight a date picker returns
+     * @return Epoch day containing the instant in UTC
+     */
+    public static int fromMillis(long utcMillis) {
+        return (int) Math.floorDiv(utcMillis, 86_400_000L);
+    }
+
+    /**
+     * @return Today's epoch day in the device's time zone
+     */
+    public static int today() {
+        long now = System.currentTimeMillis();
+        long offset = java.util.TimeZone.getDefault().getOffset(now);
+        return (int) Math.floorDiv(now + offset, 86_400_000L);
+    }
+}
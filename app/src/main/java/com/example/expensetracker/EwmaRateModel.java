@@ -0,0 +1,104 @@
+package com.example.expensetracker;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Exponentially weighted daily rates for a set of series, such as spending per category
+ * Each series keeps one decayed sum and the day it was last decayed to, so
+ * adding an amount is O(1) and never revisits history. Recent days weigh
+ * more than old ones, halving in weight every {@code halfLifeDays}
+ */
+public final class EwmaRateModel {
+    private final double decayPerDay;
+    private final double lambda;
+    private final Map<String, Series> series = new HashMap<>();
+    private int firstDay = Integer.MAX_VALUE;
+
+    /**
+     * Weighted sum of one series, valid at {@code refDay}
+     */
+    private static final class Series {
+        double weight;
+        int refDay;
+
+        Series(int refDay) {
+            this.refDay = refDay;
+        }
+    }
+
+    /**
+     * @param halfLifeDays Age in days at which an amount counts half as much
+     */
+    public EwmaRateModel(double halfLifeDays) {
+        if (halfLifeDays <= 0) {
+            throw new IllegalArgumentException("Half life must be positive");
+        }
+        this.lambda = Math.log(2) / halfLifeDays;
+        this.decayPerDay = Math.exp(-lambda);
+    }
+
+    /**
+     * Adds an amount to a series
+     * @param key Series key
+     * @param amount Amount, signed as it should count towards the total rate
+     * @param day Epoch day of the amount
+     */
+    public void add(String key, double amount, int day) {
+        Series s = series.get(key);
+        if (s == null) {
+            s = new Series(day);
+            series.put(key, s);
+        }
+        if (day >= s.refDay) {
+            s.weight = s.weight * Math.exp(-lambda * (day - s.refDay)) + amount;
+            s.refDay = day;
+        } else {
+            // Back-dated entry: discount it to the series' current reference day
+            s.weight += amount * Math.exp(-lambda * (s.refDay - day));
+        }
+        if (day < firstDay) {
+            firstDay = day;
+        }
+    }
+
+    /**
+     * Gets the weighted average amount per day of one series
+     * A series that has been constant for the whole history returns exactly
+     * that constant, however short the history is
+     * @param key Series key
+     * @param today Epoch day to evaluate at
+     * @return Average amount per day, or 0 for an unknown series
+     */
+    public double dailyRate(String key, int today) {
+        Series s = series.get(key);
+        return s == null ? 0 : rateOf(s, today);
+    }
+
+    /**
+     * @param today Epoch day to evaluate at
+     * @return Sum of every series' daily rate
+     */
+    public double totalDailyRate(int today) {
+        double total = 0;
+        for (Series s : series.values()) {
+            total += rateOf(s, today);
+        }
+        return total;
+    }
+
+    private double rateOf(Series s, int today) {
+        double decayed = s.weight * Math.exp(-lambda * Math.max(0, today - s.refDay));
+        // Normalize by the total weight of the days observed, so a short history is not under-counted
+        int span = Math.max(1, today - firstDay + 1);
+        double totalWeight = (1 - Math.pow(decayPerDay, span)) / (1 - decayPerDay);
+        return decayed / totalWeight;
+    }
+
+    /**
+     * @return Number of series
+     */
+    public int getSeriesCount() {
+        return series.size();
+    }
+}
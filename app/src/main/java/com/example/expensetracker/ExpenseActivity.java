@@ -2,18 +2,18 @@ package com.example.expensetracker;
 
 import android.app.DatePickerDialog;
 import android.os.Bundle;
+import android.widget.ArrayAdapter;
 import android.widget.Toast;
+import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import com.example.expensetracker.databinding.ActivityExpenseBinding;
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
-import java.util.Date;
-import java.util.Locale;
+import java.util.ArrayList;
+import java.util.List;
 
 public class ExpenseActivity extends AppCompatActivity {
     private ActivityExpenseBinding binding;
-    private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
-    private Calendar selectedDate = Calendar.getInstance();
+    private int selectedDay = EpochDays.today();
+    private RepeatOptions repeatOptions;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -26,35 +26,58 @@ public class ExpenseActivity extends AppCompatActivity {
         
         // Set up date picker dialog
         binding.dateEditText.setOnClickListener(v -> showDatePickerDialog());
+        repeatOptions = new RepeatOptions(this, binding.repeatOptions);
+        AutocompleteAdapter.attach(binding.titleEditText, AutocompleteIndex.FIELD_TITLE);
+        AutocompleteAdapter.attach(binding.descriptionEditText, AutocompleteIndex.FIELD_NOTE);
+        // Start indexing existing entries now so the duplicate check on save is instant
+        DuplicateDetector.getInstance(this);
+        new CategorySuggestions(this, binding.categorySuggestions, binding.descriptionEditText,
+                binding.titleEditText, "expense");
+        loadCurrencies();
 
         binding.saveButton.setOnClickListener(v -> saveExpense());
     }
 
     private void showDatePickerDialog() {
+        int dayKey = EpochDays.toDayKey(selectedDay);
+        // The dialog counts months from 0
         DatePickerDialog datePickerDialog = new DatePickerDialog(
                 this,
                 (view, year, month, dayOfMonth) -> {
-                    selectedDate.set(Calendar.YEAR, year);
-                    selectedDate.set(Calendar.MONTH, month);
-                    selectedDate.set(Calendar.DAY_OF_MONTH, dayOfMonth);
+                    selectedDay = EpochDays.of(year, month + 1, dayOfMonth);
                     updateDateDisplay();
                 },
-                selectedDate.get(Calendar.YEAR),
-                selectedDate.get(Calendar.MONTH),
-                selectedDate.get(Calendar.DAY_OF_MONTH)
+                dayKey / 10000,
+                dayKey / 100 % 100 - 1,
+                dayKey % 100
         );
         datePickerDialog.show();
     }
     
+    private void loadCurrencies() {
+        DatabaseHelper dbHelper = DatabaseHelper.getInstance(this);
+        AppExecutors.diskIO().execute(() -> {
+            List<String> currencies = new ArrayList<>(dbHelper.getFxRates().getCurrencies());
+            AppExecutors.mainThread().execute(() -> {
+                if (isFinishing() || isDestroyed()) {
+                    return;
+                }
+                ArrayAdapter<String> adapter = new ArrayAdapter<>(this, android.R.layout.simple_spinner_item, currencies);
+                adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+                binding.currencySpinner.setAdapter(adapter);
+            });
+        });
+    }
+
     private void updateDateDisplay() {
-        binding.dateEditText.setText(dateFormat.format(selectedDate.getTime()));
+        binding.dateEditText.setText(EpochDays.formatIso(selectedDay));
     }
 
     private void saveExpense() {
         String title = binding.titleEditText.getText().toString();
         String description = binding.descriptionEditText.getText().toString();
         String amountStr = binding.amountEditText.getText().toString();
-        String date = dateFormat.format(selectedDate.getTime());
+        String date = EpochDays.format(selectedDay);
 
         if (title.isEmpty() || description.isEmpty() || amountStr.isEmpty() || date.isEmpty()) {
             Toast.makeText(this, "Please fill all fields", Toast.LENGTH_SHORT).show();
@@ -68,19 +91,58 @@ public class ExpenseActivity extends AppCompatActivity {
                 return;
             }
 
-            // Create and save transaction to database with negative amount for expense
-            DatabaseHelper dbHelper = new DatabaseHelper(this);
-            long result = dbHelper.addTransaction(amount, "expense", title, description, date);
-            
-            if (result != -1) {
-                Toast.makeText(this, "Expense saved successfully", Toast.LENGTH_SHORT).show();
-                finish();
-            } else {
-                Toast.makeText(this, "Failed to save expense", Toast.LENGTH_SHORT).show();
+            RecurrenceRule rule = repeatOptions.buildRule(amount, "expense", title, description, selectedDay);
+            if (repeatOptions.isRepeating() && rule == null) {
+                Toast.makeText(this, "Invalid repeat settings", Toast.LENGTH_SHORT).show();
+                return;
             }
+            Object selectedCurrency = binding.currencySpinner.getSelectedItem();
+            String currency = selectedCurrency == null ? Money.BASE_CURRENCY : selectedCurrency.toString();
+            if (rule != null && !Money.isBase(currency)) {
+                // Recurring rules are kept in the base currency
+                Toast.makeText(this, "Repeating entries must be in " + Money.BASE_CURRENCY, Toast.LENGTH_SHORT).show();
+                return;
+            }
+
+            // A matching entry close to this date is most likely a double save
+            Transaction duplicate = DuplicateDetector.getInstance(this)
+                    .findDuplicate("expense", title, amount, currency, date);
+            if (duplicate != null) {
+                new AlertDialog.Builder(this)
+                        .setTitle("Possible Duplicate")
+                        .setMessage(duplicate.getCategory() + " of "
+                                + Money.format(Math.abs(duplicate.getAmount()), duplicate.getCurrency())
+                                + " on " + duplicate.getDate() + " is already recorded. Save anyway?")
+                        .setPositiveButton("Save", (dialog, which) -> insertExpense(amount, title, description, date, currency, rule))
+                        .setNegativeButton("Cancel", null)
+                        .show();
+                return;
+            }
+            insertExpense(amount, title, description, date, currency, rule);
         } catch (NumberFormatException e) {
             Toast.makeText(this, "Invalid amount", Toast.LENGTH_SHORT).show();
         }
     }
 
+    private void insertExpense(double amount, String title, String description, String date, String currency,
+                               RecurrenceRule rule) {
+        // Create and save transaction to database with negative amount for expense
+        DatabaseHelper dbHelper = DatabaseHelper.getInstance(this);
+        long result;
+        if (rule != null) {
+            // This entry is occurrence 0 of the rule, saved with it in one transaction;
+            // later ones are written as they fall due
+            result = dbHelper.addRecurringTransaction(rule);
+        } else {
+            result = dbHelper.addTransaction(amount, "expense", title, description, date, currency);
+        }
+        
+        if (result != -1) {
+            Toast.makeText(this, "Expense saved successfully", Toast.LENGTH_SHORT).show();
+            finish();
+        } else {
+            Toast.makeText(this, "Failed to save expense", Toast.LENGTH_SHORT).show();
+        }
+    }
+
 }
@@ -0,0 +1,30 @@
+package com.example.expensetracker;
+
+/**
+ * Income, expense and balance totals for the summary card
+ */
+public final class FinancialSummary {
+    private final double totalIncome;
+    private final double totalExpense;
+
+    /**
+     * @param totalIncome Sum of income amounts
+     * @param totalExpense Sum of expense amounts, as a positive value
+     */
+    public FinancialSummary(double totalIncome, double totalExpense) {
+        this.totalIncome = totalIncome;
+        this.totalExpense = totalExpense;
+    }
+
+    public double getTotalIncome() {
+        return totalIncome;
+    }
+
+    public double getTotalExpense() {
+        return totalExpense;
+    }
+
+    public double getBalance() {
+        return totalIncome - totalExpense;
+    }
+}
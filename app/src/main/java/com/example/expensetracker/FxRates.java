@@ -0,0 +1,250 @@
+package com.example.expensetracker;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Table of exchange rates into the base currency, one per currency and day
+ * The rate for a day is the latest one published on or before it (or the
+ * earliest one, for days before the table starts). Each currency's rates are
+ * kept sorted, so a lookup is a binary search; recent (currency, day) lookups
+ * are also cached, since a screen of transactions repeats the same few pairs
+ */
+public final class FxRates {
+    // Enough for every (currency, day) pair on a few screens of history
+    private static final int CACHE_SIZE = 1024;
+
+    private final Map<String, Series> series = new HashMap<>();
+    private final Map<Long, Double> cache = new LinkedHashMap<Long, Double>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Double> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+    private int size;
+    private int cacheHits;
+    private int cacheMisses;
+
+    /**
+     * Rates of one currency, sorted by day
+     */
+    private static final class Series {
+        final int id;
+        int[] days = new int[8];
+        double[] rates = new double[8];
+        int size;
+
+        Series(int id) {
+            this.id = id;
+        }
+
+        /**
+         * @return Index of the last day on or before {@code day}, or -1
+         */
+        int floor(int day) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (days[mid] <= day) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return high;
+        }
+    }
+
+    /**
+     * Called for every stored rate by {@link #forEach}
+     */
+    public interface RateVisitor {
+        void visit(String currency, int day, double rate);
+    }
+
+    /**
+     * Sets a rate, replacing any rate for the same currency and day
+     * @param currency ISO 4217 code
+     * @param day Epoch day the rate applies from
+     * @param rate Base currency units per unit of {@code currency}; must be positive
+     */
+    public synchronized void put(String currency, int day, double rate) {
+        if (!(rate > 0) || Double.isInfinite(rate)) {
+            throw new IllegalArgumentException("Rate must be positive");
+        }
+        String code = Money.normalize(currency);
+        Series s = series.get(code);
+        if (s == null) {
+            s = new Series(series.size());
+            series.put(code, s);
+        }
+        int position = s.floor(day);
+        if (position >= 0 && s.days[position] == day) {
+            s.rates[position] = rate;
+        } else {
+            position++;
+            if (s.size == s.days.length) {
+                s.days = Arrays.copyOf(s.days, s.size * 2);
+                s.rates = Arrays.copyOf(s.rates, s.size * 2);
+            }
+            System.arraycopy(s.days, position, s.days, position + 1, s.size - position);
+            System.arraycopy(s.rates, position, s.rates, position + 1, s.size - position);
+            s.days[position] = day;
+            s.rates[position] = rate;
+            s.size++;
+            size++;
+        }
+        cache.clear();
+    }
+
+    /**
+     * Gets the rate for a currency on a day
+     * @param currency ISO 4217 code
+     * @param day Epoch day
+     * @return Base currency units per unit of {@code currency}; 1 for the base
+     *         currency; NaN if no rate is known for the currency
+     */
+    public synchronized double rateOn(String currency, int day) {
+        String code = Money.normalize(currency);
+        if (Money.BASE_CURRENCY.equals(code)) {
+            return 1;
+        }
+        Series s = series.get(code);
+        if (s == null) {
+            return Double.NaN;
+        }
+        Long key = ((long) s.id << 32) | (day & 0xFFFFFFFFL);
+        Double cached = cache.get(key);
+        if (cached != null) {
+            cacheHits++;
+            return cached;
+        }
+        cacheMisses++;
+        int position = Math.max(0, s.floor(day));
+        double rate = s.rates[position];
+        cache.put(key, rate);
+        return rate;
+    }
+
+    /**
+     * @param currency ISO 4217 code
+     * @return Most recent rate for the currency; 1 for the base currency; NaN if unknown
+     */
+    public synchronized double latestRate(String currency) {
+        String code = Money.normalize(currency);
+        if (Money.BASE_CURRENCY.equals(code)) {
+            return 1;
+        }
+        Series s = series.get(code);
+        return s == null ? Double.NaN : s.rates[s.size - 1];
+    }
+
+    /**
+     * Converts an amount at the rate of its day
+     * @return Amount in the base currency, or NaN if no rate is known
+     */
+    public double convert(double amount, String currency, int day) {
+        return amount * rateOn(currency, day);
+    }
+
+    /**
+     * Converts per-currency sums at each currency's latest rate, one
+     * multiplication per currency. Currencies without a rate count at face
+     * value until one is imported
+     * @param sums Sum of amounts by currency code
+     * @return Total in the base currency
+     */
+    public double convertSums(Map<String, Double> sums) {
+        double total = 0;
+        for (Map.Entry<String, Double> entry : sums.entrySet()) {
+            double rate = latestRate(entry.getKey());
+            total += entry.getValue() * (Double.isNaN(rate) ? 1 : rate);
+        }
+        return total;
+    }
+
+    /**
+     * @return Currencies with at least one rate, plus the base currency, base first then alphabetical
+     */
+    public synchronized Set<String> getCurrencies() {
+        Set<String> currencies = new LinkedHashSet<>();
+        currencies.add(Money.BASE_CURRENCY);
+        currencies.addAll(new TreeSet<>(series.keySet()));
+        return currencies;
+    }
+
+    /**
+     * Visits every stored rate
+     */
+    public synchronized void forEach(RateVisitor visitor) {
+        for (Map.Entry<String, Series> entry : series.entrySet()) {
+            Series s = entry.getValue();
+            for (int i = 0; i < s.size; i++) {
+                visitor.visit(entry.getKey(), s.days[i], s.rates[i]);
+            }
+        }
+    }
+
+    /**
+     * @return Number of stored rates
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @return Lookups answered from the cache
+     */
+    public synchronized int getCacheHits() {
+        return cacheHits;
+    }
+
+    /**
+     * @return Lookups that needed a binary search
+     */
+    public synchronized int getCacheMisses() {
+        return cacheMisses;
+    }
+
+    /**
+     * Reads rates from CSV lines of currency, date and rate, such as
+     * "USD,2024-01-31,0.92". A header line and unreadable lines are skipped
+     * @param reader CSV text; not closed
+     * @return Rates read
+     * @throws IOException If the text cannot be read
+     */
+    public static FxRates readCsv(Reader reader) throws IOException {
+        FxRates rates = new FxRates();
+        BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        String line;
+        while ((line = lines.readLine()) != null) {
+            String[] fields = line.split(",");
+            if (fields.length < 3) {
+                continue;
+            }
+            String currency = fields[0].trim();
+            int day = EpochDays.parse(fields[1].trim());
+            if (currency.length() != 3 || day == EpochDays.INVALID) {
+                continue;
+            }
+            try {
+                double rate = Double.parseDouble(fields[2].trim());
+                if (rate > 0 && !Double.isInfinite(rate)) {
+                    rates.put(currency, day, rate);
+                }
+            } catch (NumberFormatException e) {
+                // Not a rate line
+            }
+        }
+        return rates;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.expensetracker;
+
+/**
+ * Result of a grouped sum over {@link LedgerColumns}
+ * Groups are dense integer keys; for category-by-month grouping the key is
+ * {@code categoryId * monthSpan + (monthOrdinal - firstMonthOrdinal)}
+ */
+public final class GroupedSums {
+    private final long[] sums;
+    private final int[] counts;
+    private final int monthSpan;
+    private final int firstMonthOrdinal;
+
+    GroupedSums(long[] sums, int[] counts, int monthSpan, int firstMonthOrdinal) {
+        this.sums = sums;
+        this.counts = counts;
+        this.monthSpan = monthSpan;
+        this.firstMonthOrdinal = firstMonthOrdinal;
+    }
+
+    public int keyCount() {
+        return sums.length;
+    }
+
+    /**
+     * @param key Group key
+     * @return Sum of amounts in cents for the group
+     */
+    public long sum(int key) {
+        return sums[key];
+    }
+
+    /**
+     * @param key Group key
+     * @return Number of rows in the group
+     */
+    public int count(int key) {
+        return counts[key];
+    }
+
+    /**
+     * @param categoryId Category dictionary id
+     * @param monthOrdinal Month ordinal, see {@link LedgerColumns#monthOrdinal(int, int)}
+     * @return Sum in cents for the category and month of a category-by-month grouping
+     */
+    public long sum(int categoryId, int monthOrdinal) {
+        int month = monthOrdinal - firstMonthOrdinal;
+        if (monthSpan == 0 || month < 0 || month >= monthSpan) {
+            return 0;
+        }
+        return sums[categoryId * monthSpan + month];
+    }
+
+    public int getMonthSpan() {
+        return monthSpan;
+    }
+
+    public int getFirstMonthOrdinal() {
+        return firstMonthOrdinal;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.expensetracker;
+
+/**
+ * Outcome of a batch import
+ */
+public class ImportResult {
+    private final int inserted;
+    private final int skipped;
+    private final int merged;
+
+    public ImportResult(int inserted, int skipped, int merged) {
+        this.inserted = inserted;
+        this.skipped = skipped;
+        this.merged = merged;
+    }
+
+    /**
+     * @return Rows written as new transactions
+     */
+    public int getInserted() {
+        return inserted;
+    }
+
+    /**
+     * @return Duplicate rows that were left out
+     */
+    public int getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * @return Duplicate rows whose note was merged into the existing transaction
+     */
+    public int getMerged() {
+        return merged;
+    }
+}
@@ -0,0 +1,299 @@
+package com.example.expensetracker;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Filter, group, sum and top-N operators over {@link LedgerColumns}
+ * Operators take an optional selection of row indices (null means every row)
+ * and run sequentially on small inputs or split across the common fork/join
+ * pool once the input exceeds {@link #PARALLEL_THRESHOLD} rows. Grouping uses
+ * dense arrays indexed by key, so there is no hashing or boxing per row
+ */
+public final class LedgerAnalytics {
+    /** Inputs of at least this many rows are processed in parallel */
+    public static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private LedgerAnalytics() {
+    }
+
+    /**
+     * Row filter over the columns
+     */
+    public interface RowPredicate {
+        boolean test(LedgerColumns columns, int row);
+    }
+
+    /**
+     * Maps a row to a dense group key in [0, keyCount)
+     */
+    private interface KeyFunction {
+        int key(LedgerColumns columns, int row);
+    }
+
+    public static RowPredicate ofType(byte type) {
+        return (columns, row) -> columns.type(row) == type;
+    }
+
+    /**
+     * @param fromEpochDay First day, inclusive
+     * @param toEpochDay Last day, inclusive
+     */
+    public static RowPredicate inDayRange(int fromEpochDay, int toEpochDay) {
+        return (columns, row) -> {
+            int day = columns.epochDay(row);
+            return day >= fromEpochDay && day <= toEpochDay;
+        };
+    }
+
+    public static RowPredicate inCategory(int categoryId) {
+        return (columns, row) -> columns.categoryId(row) == categoryId;
+    }
+
+    public static RowPredicate and(RowPredicate first, RowPredicate second) {
+        return (columns, row) -> first.test(columns, row) && second.test(columns, row);
+    }
+
+    /**
+     * Selects the rows matching a predicate
+     * @param columns Ledger columns
+     * @param predicate Row filter
+     * @return Indices of matching rows, ascending
+     */
+    public static int[] filter(LedgerColumns columns, RowPredicate predicate) {
+        if (columns.size() < PARALLEL_THRESHOLD) {
+            return filterRange(columns, predicate, 0, columns.size());
+        }
+        return ForkJoinPool.commonPool().invoke(new FilterTask(columns, predicate, 0, columns.size()));
+    }
+
+    private static int[] filterRange(LedgerColumns columns, RowPredicate predicate, int from, int to) {
+        int[] rows = new int[to - from];
+        int count = 0;
+        for (int row = from; row < to; row++) {
+            if (predicate.test(columns, row)) {
+                rows[count++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    /**
+     * @param columns Ledger columns
+     * @param rows Selected rows, or null for all rows
+     * @return Sum of amounts in cents
+     */
+    public static long sum(LedgerColumns columns, int[] rows) {
+        GroupedSums total = group(columns, rows, 1, (c, row) -> 0, 0, 0);
+        return total.sum(0);
+    }
+
+    /**
+     * @param columns Ledger columns
+     * @param rows Selected rows, or null for all rows
+     * @return Sums keyed by category id
+     */
+    public static GroupedSums sumByCategory(LedgerColumns columns, int[] rows) {
+        return group(columns, rows, columns.categoryCount(), (c, row) -> c.categoryId(row), 0, 0);
+    }
+
+    /**
+     * @param columns Ledger columns
+     * @param rows Selected rows, or null for all rows
+     * @return Sums keyed by month ordinal minus {@link LedgerColumns#firstMonthOrdinal()}
+     */
+    public static GroupedSums sumByMonth(LedgerColumns columns, int[] rows) {
+        final int firstMonth = columns.firstMonthOrdinal();
+        return group(columns, rows, columns.monthSpan(), (c, row) -> c.monthOrdinal(row) - firstMonth,
+                columns.monthSpan(), firstMonth);
+    }
+
+    /**
+     * @param columns Ledger columns
+     * @param rows Selected rows, or null for all rows
+     * @return Sums keyed by category and month, see {@link GroupedSums#sum(int, int)}
+     */
+    public static GroupedSums sumByCategoryAndMonth(LedgerColumns columns, int[] rows) {
+        final int firstMonth = columns.firstMonthOrdinal();
+        final int monthSpan = columns.monthSpan();
+        return group(columns, rows, columns.categoryCount() * monthSpan,
+                (c, row) -> c.categoryId(row) * monthSpan + c.monthOrdinal(row) - firstMonth,
+                monthSpan, firstMonth);
+    }
+
+    private static GroupedSums group(LedgerColumns columns, int[] rows, int keyCount, KeyFunction keys,
+                                     int monthSpan, int firstMonth) {
+        int length = rows == null ? columns.size() : rows.length;
+        Partial partial;
+        if (length < PARALLEL_THRESHOLD) {
+            partial = new Partial(keyCount);
+            partial.accumulate(columns, rows, keys, 0, length);
+        } else {
+            partial = ForkJoinPool.commonPool().invoke(new GroupTask(columns, rows, keyCount, keys, 0, length));
+        }
+        return new GroupedSums(partial.sums, partial.counts, monthSpan, firstMonth);
+    }
+
+    /**
+     * Finds the rows with the largest amounts using a bounded min-heap
+     * @param columns Ledger columns
+     * @param rows Selected rows, or null for all rows
+     * @param n Number of rows to return
+     * @return Up to n row indices, largest amount first
+     */
+    public static int[] topN(LedgerColumns columns, int[] rows, int n) {
+        int length = rows == null ? columns.size() : rows.length;
+        int[] heap = new int[Math.min(n, length)];
+        int heapSize = 0;
+        for (int i = 0; i < length; i++) {
+            int row = rows == null ? i : rows[i];
+            if (heapSize < heap.length) {
+                heap[heapSize] = row;
+                siftUp(columns, heap, heapSize++);
+            } else if (heapSize > 0 && columns.amountCents(row) > columns.amountCents(heap[0])) {
+                heap[0] = row;
+                siftDown(columns, heap, heapSize);
+            }
+        }
+
+        // Drain the min-heap from the back so the result is largest first
+        int[] result = new int[heapSize];
+        for (int i = heapSize - 1; i >= 0; i--) {
+            result[i] = heap[0];
+            heap[0] = heap[--heapSize];
+            siftDown(columns, heap, heapSize);
+        }
+        return result;
+    }
+
+    private static void siftUp(LedgerColumns columns, int[] heap, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (columns.amountCents(heap[index]) >= columns.amountCents(heap[parent])) {
+                return;
+            }
+            swap(heap, index, parent);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(LedgerColumns columns, int[] heap, int size) {
+        int index = 0;
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= size) {
+                return;
+            }
+            int smallest = left;
+            int right = left + 1;
+            if (right < size && columns.amountCents(heap[right]) < columns.amountCents(heap[left])) {
+                smallest = right;
+            }
+            if (columns.amountCents(heap[index]) <= columns.amountCents(heap[smallest])) {
+                return;
+            }
+            swap(heap, index, smallest);
+            index = smallest;
+        }
+    }
+
+    private static void swap(int[] array, int i, int j) {
+        int tmp = array[i];
+        array[i] = array[j];
+        array[j] = tmp;
+    }
+
+    /**
+     * Per-task accumulator for grouped sums
+     */
+    private static final class Partial {
+        final long[] sums;
+        final int[] counts;
+
+        Partial(int keyCount) {
+            sums = new long[keyCount];
+            counts = new int[keyCount];
+        }
+
+        void accumulate(LedgerColumns columns, int[] rows, KeyFunction keys, int from, int to) {
+            for (int i = from; i < to; i++) {
+                int row = rows == null ? i : rows[i];
+                int key = keys.key(columns, row);
+                sums[key] += columns.amountCents(row);
+                counts[key]++;
+            }
+        }
+
+        Partial merge(Partial other) {
+            for (int key = 0; key < sums.length; key++) {
+                sums[key] += other.sums[key];
+                counts[key] += other.counts[key];
+            }
+            return this;
+        }
+    }
+
+    private static final class GroupTask extends RecursiveTask<Partial> {
+        private final LedgerColumns columns;
+        private final int[] rows;
+        private final int keyCount;
+        private final KeyFunction keys;
+        private final int from;
+        private final int to;
+
+        GroupTask(LedgerColumns columns, int[] rows, int keyCount, KeyFunction keys, int from, int to) {
+            this.columns = columns;
+            this.rows = rows;
+            this.keyCount = keyCount;
+            this.keys = keys;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                Partial partial = new Partial(keyCount);
+                partial.accumulate(columns, rows, keys, from, to);
+                return partial;
+            }
+            int mid = (from + to) >>> 1;
+            GroupTask left = new GroupTask(columns, rows, keyCount, keys, from, mid);
+            GroupTask right = new GroupTask(columns, rows, keyCount, keys, mid, to);
+            left.fork();
+            Partial rightResult = right.compute();
+            return left.join().merge(rightResult);
+        }
+    }
+
+    private static final class FilterTask extends RecursiveTask<int[]> {
+        private final LedgerColumns columns;
+        private final RowPredicate predicate;
+        private final int from;
+        private final int to;
+
+        FilterTask(LedgerColumns columns, RowPredicate predicate, int from, int to) {
+            this.columns = columns;
+            this.predicate = predicate;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                return filterRange(columns, predicate, from, to);
+            }
+            int mid = (from + to) >>> 1;
+            FilterTask left = new FilterTask(columns, predicate, from, mid);
+            FilterTask right = new FilterTask(columns, predicate, mid, to);
+            left.fork();
+            int[] rightRows = right.compute();
+            int[] leftRows = left.join();
+            int[] merged = Arrays.copyOf(leftRows, leftRows.length + rightRows.length);
+            System.arraycopy(rightRows, 0, merged, leftRows.length, rightRows.length);
+            return merged;
+        }
+    }
+}
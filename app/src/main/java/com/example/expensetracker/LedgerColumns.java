@@ -0,0 +1,207 @@
+package com.example.expensetracker;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Columnar, in-memory copy of the ledger held in parallel primitive arrays
+ * One row per transaction: epoch day, amount in cents, dictionary-encoded
+ * category and a type byte. Categories are stored once in a dictionary, so a
+ * million rows cost about 17 bytes each instead of a Transaction object with
+ * its own strings. Pure Java with no android.* dependencies, so it can be
+ * unit-tested and benchmarked on the JVM
+ */
+public final class LedgerColumns {
+    public static final byte TYPE_INCOME = 0;
+    public static final byte TYPE_EXPENSE = 1;
+
+    private final int size;
+    private final int[] epochDays;
+    private final int[] monthOrdinals;   // year * 12 + (month - 1), derived from epochDays
+    private final long[] amountCents;    // always positive; the type gives the direction
+    private final int[] categoryIds;
+    private final byte[] types;
+    private final String[] categoryNames;
+    private final int firstMonthOrdinal;
+    private final int lastMonthOrdinal;
+
+    private LedgerColumns(int size, int[] epochDays, int[] monthOrdinals, long[] amountCents,
+                          int[] categoryIds, byte[] types, String[] categoryNames,
+                          int firstMonthOrdinal, int lastMonthOrdinal) {
+        this.size = size;
+        this.firstMonthOrdinal = firstMonthOrdinal;
+        this.lastMonthOrdinal = lastMonthOrdinal;
+        this.epochDays = epochDays;
+        this.monthOrdinals = monthOrdinals;
+        this.amountCents = amountCents;
+        this.categoryIds = categoryIds;
+        this.types = types;
+        this.categoryNames = categoryNames;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int epochDay(int row) {
+        return epochDays[row];
+    }
+
+    public int monthOrdinal(int row) {
+        return monthOrdinals[row];
+    }
+
+    public long amountCents(int row) {
+        return amountCents[row];
+    }
+
+    public int categoryId(int row) {
+        return categoryIds[row];
+    }
+
+    public byte type(int row) {
+        return types[row];
+    }
+
+    /**
+     * @return Smallest month ordinal of any row, or 0 if empty
+     */
+    public int firstMonthOrdinal() {
+        return firstMonthOrdinal;
+    }
+
+    /**
+     * @return Number of months from the earliest to the latest row, inclusive
+     */
+    public int monthSpan() {
+        return size == 0 ? 0 : lastMonthOrdinal - firstMonthOrdinal + 1;
+    }
+
+    public int categoryCount() {
+        return categoryNames.length;
+    }
+
+    public String categoryName(int categoryId) {
+        return categoryNames[categoryId];
+    }
+
+    /**
+     * @param category Category name
+     * @return Dictionary id of the category, or -1 if no row has it
+     */
+    public int categoryId(String category) {
+        for (int i = 0; i < categoryNames.length; i++) {
+            if (categoryNames[i].equals(category)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param year Year
+     * @param month Month, 1-12
+     * @return Month ordinal as used by {@link #monthOrdinal(int)}
+     */
+    public static int monthOrdinal(int year, int month) {
+        return year * 12 + month - 1;
+    }
+
+    /**
+     * Converts a currency amount to whole cents
+     * @param amount Amount in currency units
+     * @return Magnitude of the amount in cents
+     */
+    public static long toCents(double amount) {
+        return Math.round(Math.abs(amount) * 100);
+    }
+
+    /**
+     * Appends rows and encodes categories; grows its arrays geometrically
+     */
+    public static final class Builder {
+        private int size;
+        private int[] epochDays;
+        private long[] amountCents;
+        private int[] categoryIds;
+        private byte[] types;
+        private final Map<String, Integer> categoryLookup = new HashMap<>();
+        private String[] categoryNames = new String[16];
+
+        public Builder() {
+            this(1024);
+        }
+
+        /**
+         * @param expectedRows Initial capacity, e.g. the cursor's row count
+         */
+        public Builder(int expectedRows) {
+            int capacity = Math.max(16, expectedRows);
+            epochDays = new int[capacity];
+            amountCents = new long[capacity];
+            categoryIds = new int[capacity];
+            types = new byte[capacity];
+        }
+
+        /**
+         * @param epochDay Transaction date as days since 1970-01-01
+         * @param cents Amount magnitude in cents
+         * @param category Category name
+         * @param type {@link #TYPE_INCOME} or {@link #TYPE_EXPENSE}
+         * @return This builder
+         */
+        public Builder add(int epochDay, long cents, String category, byte type) {
+            if (size == epochDays.length) {
+                int capacity = size + (size >> 1);
+                epochDays = Arrays.copyOf(epochDays, capacity);
+                amountCents = Arrays.copyOf(amountCents, capacity);
+                categoryIds = Arrays.copyOf(categoryIds, capacity);
+                types = Arrays.copyOf(types, capacity);
+            }
+            epochDays[size] = epochDay;
+            amountCents[size] = cents;
+            categoryIds[size] = encodeCategory(category == null ? "" : category);
+            types[size] = type;
+            size++;
+            return this;
+        }
+
+        private int encodeCategory(String category) {
+            Integer id = categoryLookup.get(category);
+            if (id == null) {
+                id = categoryLookup.size();
+                if (id == categoryNames.length) {
+                    categoryNames = Arrays.copyOf(categoryNames, id * 2);
+                }
+                categoryNames[id] = category;
+                categoryLookup.put(category, id);
+            }
+            return id;
+        }
+
+        public LedgerColumns build() {
+            int[] months = new int[size];
+            int first = Integer.MAX_VALUE;
+            int last = Integer.MIN_VALUE;
+            for (int i = 0; i < size; i++) {
+                int dayKey = EpochDays.toDayKey(epochDays[i]);
+                months[i] = monthOrdinal(dayKey / 10000, dayKey / 100 % 100);
+                first = Math.min(first, months[i]);
+                last = Math.max(last, months[i]);
+            }
+            if (size == 0) {
+                first = 0;
+                last = 0;
+            }
+            return new LedgerColumns(size,
+                    Arrays.copyOf(epochDays, size),
+                    months,
+                    Arrays.copyOf(amountCents, size),
+                    Arrays.copyOf(categoryIds, size),
+                    Arrays.copyOf(types, size),
+                    Arrays.copyOf(categoryNames, categoryLookup.size()),
+                    first, last);
+        }
+    }
+}
@@ -0,0 +1,396 @@
+package com.example.expensetracker;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * Deterministic generator of realistic multi-year ledgers for load testing
+ * Features:
+ * - Monthly salary with a yearly raise and a December bonus, plus occasional freelance invoices and refunds
+ * - Recurring bills on fixed days: rent, utilities that peak in winter, phone, internet, subscriptions, insurance
+ * - Day-to-day spending over a long tail of categories (weights fall off as 1/rank), busier at weekends,
+ *   with seasonal peaks such as gifts in December, travel in summer and gardening in spring
+ * - Log-normal amounts per category and notes built from merchant names and details
+ * - The same seed, start day and size always give the same rows, whatever the batch size
+ * Rows are produced day by day in {@link TransactionList} batches, so memory stays bounded
+ * however many rows are generated. Dates run from the start day for as long as the
+ * requested number of rows takes at the configured density
+ */
+public final class LedgerGenerator {
+    private static final String INCOME = "income";
+    private static final String EXPENSE = "expense";
+    private static final double NO_NOTE_SHARE = 0.25;
+
+    private final long seed;
+    private final int startDay;
+    private final int rows;
+    private final int years;
+
+    /**
+     * One category of day-to-day spending
+     */
+    private static final class Spend {
+        final String category;
+        final double median;
+        final double sigma;
+        final String[] merchants;
+        final String[] details;
+        final double[] monthFactors;   // by month 1-12 at index 0-11; null for no season
+
+        Spend(String category, double median, double sigma, String[] merchants, String[] details,
+              double[] monthFactors) {
+            this.category = category;
+            this.median = median;
+            this.sigma = sigma;
+            this.merchants = merchants;
+            this.details = details;
+            this.monthFactors = monthFactors;
+        }
+    }
+
+    private static double[] season(int... peaks) {
+        // Pairs of (month, factor); other months are 1
+        double[] factors = {1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1};
+        for (int i = 0; i < peaks.length; i += 2) {
+            factors[peaks[i] - 1] = peaks[i + 1];
+        }
+        return factors;
+    }
+
+    private static String[] words(String... words) {
+        return words;
+    }
+
+    // Most frequent first; the weight of each is 1 / rank
+    private static final Spend[] SPENDING = {
+            new Spend("Groceries", 35, 0.6, words("Tesco", "Lidl", "Aldi", "SuperValu", "Dunnes", "Spar"),
+                    words("weekly shop", "top-up", "milk and bread", "dinner ingredients"), null),
+            new Spend("Eating out", 22, 0.5, words("Milano", "Thai Garden", "Nando's", "Bombay Pantry", "the local"),
+                    words("lunch", "dinner with friends", "takeaway", "birthday dinner"), null),
+            new Spend("Transport", 8, 0.7, words("Leap card", "Irish Rail", "Bus Eireann", "Dublin Bus"),
+                    words("top-up", "return ticket", "weekly ticket"), null),
+            new Spend("Coffee", 3.6, 0.3, words("Starbucks", "Insomnia", "Costa", "campus cafe"),
+                    words("flat white", "latte", "coffee and scone"), null),
+            new Spend("Shopping", 40, 0.9, words("Amazon", "Penneys", "Argos", "IKEA", "TK Maxx"),
+                    words("household bits", "online order", "storage boxes"), season(11, 2, 12, 2)),
+            new Spend("Fuel", 55, 0.3, words("Circle K", "Applegreen", "Maxol"),
+                    words("full tank", "diesel"), null),
+            new Spend("Health", 30, 0.8, words("Boots", "pharmacy", "GP", "dentist"),
+                    words("prescription", "check-up", "cold and flu"), season(1, 2, 2, 2)),
+            new Spend("Entertainment", 25, 0.7, words("Odeon", "Ticketmaster", "Steam", "bowling alley"),
+                    words("cinema", "concert tickets", "new game", "night out"), null),
+            new Spend("Clothing", 45, 0.8, words("Zara", "H&M", "Penneys", "Next"),
+                    words("new jeans", "winter coat", "sale", "shoes"), season(1, 3, 7, 2)),
+            new Spend("Gifts", 30, 0.9, words("Eason", "Brown Thomas", "Etsy", "Amazon"),
+                    words("birthday present", "Christmas presents", "wedding gift"), season(11, 2, 12, 5)),
+            new Spend("Travel", 180, 1.0, words("Ryanair", "Aer Lingus", "Booking.com", "Airbnb"),
+                    words("flights", "hotel", "weekend away", "summer holiday"), season(6, 2, 7, 3, 8, 3, 12, 2)),
+            new Spend("Home", 35, 1.0, words("Woodie's", "B&Q", "Homebase", "Harvey Norman"),
+                    words("paint", "light bulbs", "new kettle", "repairs"), season(4, 2, 5, 2)),
+            new Spend("Personal care", 25, 0.5, words("hairdresser", "barber", "Boots"),
+                    words("haircut", "toiletries"), null),
+            new Spend("Pets", 28, 0.6, words("Maxi Zoo", "vet", "Petmania"),
+                    words("dog food", "vaccinations", "cat litter"), null),
+            new Spend("Books", 14, 0.4, words("Eason", "Dubray", "Kindle store"),
+                    words("novel", "cookbook", "ebook"), null),
+            new Spend("Charity", 20, 0.5, words("Focus Ireland", "Trocaire", "Irish Cancer Society"),
+                    words("donation", "sponsored run"), season(12, 3)),
+            new Spend("Education", 60, 0.8, words("university", "Coursera", "bookshop"),
+                    words("course fee", "textbooks", "exam fee"), season(9, 4, 1, 2)),
+            new Spend("Sports", 30, 0.7, words("Elverys", "5-a-side", "swimming pool"),
+                    words("match fee", "new boots", "swim pass"), null),
+            new Spend("Garden", 25, 0.8, words("Woodie's", "garden centre"),
+                    words("plants", "compost", "lawnmower service"), season(4, 3, 5, 3, 6, 2)),
+            new Spend("Electronics", 120, 0.9, words("Currys", "Harvey Norman", "Apple", "Amazon"),
+                    words("headphones", "phone case", "charger", "monitor"), season(11, 3, 12, 2)),
+            new Spend("Parking", 4, 0.5, words("ParkMagic", "city car park", "hospital car park"),
+                    words("", "two hours"), null),
+            new Spend("Taxi", 18, 0.5, words("Free Now", "Uber", "local taxi"),
+                    words("taxi home", "airport run"), season(12, 2)),
+            new Spend("Postage", 6, 0.5, words("An Post"), words("parcel", "stamps", "registered post"), season(12, 3)),
+            new Spend("Photography", 40, 1.0, words("Camera Centre", "photo lab"),
+                    words("prints", "lens filter"), season(7, 2)),
+            new Spend("Music", 25, 0.6, words("music school", "Spotify", "guitar shop"),
+                    words("lesson", "new strings"), null),
+    };
+
+    // Cumulative 1/rank weights per month, for picking a category by binary search
+    private static final double[][] CUMULATIVE_WEIGHTS = new double[12][];
+
+    static {
+        for (int month = 0; month < 12; month++) {
+            double[] cumulative = new double[SPENDING.length];
+            double total = 0;
+            for (int i = 0; i < SPENDING.length; i++) {
+                double factor = SPENDING[i].monthFactors == null ? 1 : SPENDING[i].monthFactors[month];
+                total += factor / (i + 1);
+                cumulative[i] = total;
+            }
+            CUMULATIVE_WEIGHTS[month] = cumulative;
+        }
+    }
+
+    private static final String[] EMPLOYERS = {"Acme Software Ltd", "Northwind Analytics", "Shannon Logistics"};
+    private static final String[] CLIENTS = {"Brightwater Design", "Kerry Foods", "O'Neill & Co", "Limerick Events"};
+    private static final String[] MONTHS = {
+            "January", "February", "March", "April", "May", "June",
+            "July", "August", "September", "October", "November", "December"};
+    // Day-to-day spending by day of week, Monday first; the mean is 1
+    private static final double[] WEEKDAY_FACTORS = {0.8, 0.85, 0.9, 0.95, 1.15, 1.3, 1.05};
+    // Rows from the fixed schedule: 7 every month, plus a bonus and an insurance renewal every year
+    private static final double SCHEDULED_PER_DAY = (7 * 12 + 2) / 365.25;
+
+    private LedgerGenerator(Builder builder) {
+        this.seed = builder.seed;
+        this.startDay = builder.startDay;
+        this.rows = builder.rows;
+        this.years = builder.years;
+    }
+
+    /**
+     * Configures a generator; every setting has a default except the number of rows
+     */
+    public static final class Builder {
+        private long seed = 42;
+        private int startDay = EpochDays.of(2020, 1, 1);
+        private int rows = 10_000;
+        private int years = 5;
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * @param startDay Epoch day of the first row
+         * @return This builder
+         */
+        public Builder startDay(int startDay) {
+            this.startDay = startDay;
+            return this;
+        }
+
+        /**
+         * @param rows Number of rows to generate
+         * @return This builder
+         */
+        public Builder rows(int rows) {
+            if (rows < 0) {
+                throw new IllegalArgumentException("Rows must not be negative");
+            }
+            this.rows = rows;
+            return this;
+        }
+
+        /**
+         * @param years Years the rows should span; sets the daily density
+         * @return This builder
+         */
+        public Builder years(int years) {
+            if (years < 1) {
+                throw new IllegalArgumentException("Years must be at least 1");
+            }
+            this.years = years;
+            return this;
+        }
+
+        public LedgerGenerator build() {
+            return new LedgerGenerator(this);
+        }
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * @return Every row in one list, ids 1 to n in date order
+     */
+    public TransactionList generate() {
+        TransactionList.Builder all = new TransactionList.Builder(rows);
+        new Run(all, Integer.MAX_VALUE).fillBatch();
+        return all.build();
+    }
+
+    /**
+     * Streams the rows in batches; a day is never split across batches, so a
+     * batch may run a few rows over the size
+     * @param batchSize Rows per batch
+     * @return Batches in date order, ids 1 to n
+     */
+    public Iterator<TransactionList> batches(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        return new Iterator<TransactionList>() {
+            private final Run run = new Run(null, batchSize);
+
+            @Override
+            public boolean hasNext() {
+                return !run.isDone();
+            }
+
+            @Override
+            public TransactionList next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                run.batch = new TransactionList.Builder(batchSize + 64);
+                run.fillBatch();
+                return run.batch.build();
+            }
+        };
+    }
+
+    /**
+     * Writes every row as CSV in the export layout
+     * @param out Destination; not flushed or closed
+     * @param batchSize Rows held in memory at a time
+     * @throws IOException If writing fails
+     */
+    public void writeCsv(Appendable out, int batchSize) throws IOException {
+        out.append(TransactionCsvWriter.HEADER);
+        Iterator<TransactionList> batches = batches(batchSize);
+        while (batches.hasNext()) {
+            TransactionList batch = batches.next();
+            TransactionList.Row row = batch.row();
+            for (int i = 0; i < batch.size(); i++) {
+                TransactionCsvWriter.writeRow(out, row.moveTo(i));
+            }
+        }
+    }
+
+    /**
+     * Generation state: one pass over the days, resumable batch by batch
+     */
+    private final class Run {
+        private final Random random = new Random(seed);
+        private final int batchSize;
+        private final double dailySpendRate;
+        private final String employer = EMPLOYERS[(int) ((seed & Long.MAX_VALUE) % EMPLOYERS.length)];
+        TransactionList.Builder batch;
+        private int day = startDay;
+        private long nextId = 1;
+        private int invoice = 1000;
+
+        Run(TransactionList.Builder batch, int batchSize) {
+            this.batch = batch;
+            this.batchSize = batchSize;
+            double days = years * 365.25;
+            // Day-to-day rows make up whatever the schedule does not
+            this.dailySpendRate = Math.max(0, rows / days - SCHEDULED_PER_DAY);
+        }
+
+        boolean isDone() {
+            return nextId > rows;
+        }
+
+        void fillBatch() {
+            int start = batch.size();
+            while (!isDone() && batch.size() - start < batchSize) {
+                generateDay();
+                day++;
+            }
+        }
+
+        private void generateDay() {
+            int dayKey = EpochDays.toDayKey(day);
+            int year = dayKey / 10000;
+            int month = dayKey / 100 % 100;
+            int dayOfMonth = dayKey % 100;
+            int yearsIn = Math.max(0, year - EpochDays.toDayKey(startDay) / 10000);
+
+            // Fixed schedule first, as a bank statement would list it
+            double salary = round(3200 * Math.pow(1.03, yearsIn));
+            if (dayOfMonth == 1) {
+                add(EXPENSE, "Rent", round(1250 * Math.pow(1.04, yearsIn)), "Rent - " + MONTHS[month - 1]);
+            }
+            if (dayOfMonth == 3) {
+                add(EXPENSE, "Subscriptions", 39, "Gym membership");
+            }
+            if (dayOfMonth == 5) {
+                // Heating makes winter bills about three times the summer ones
+                double winter = 1 + 0.5 * Math.cos((month - 1) / 12.0 * 2 * Math.PI);
+                add(EXPENSE, "Utilities", round(90 * winter * (0.9 + 0.2 * random.nextDouble())),
+                        "Electricity and gas");
+            }
+            if (dayOfMonth == 8) {
+                add(EXPENSE, "Subscriptions", 13.99, "Netflix");
+            }
+            if (dayOfMonth == 12) {
+                add(EXPENSE, "Phone", 25, "Mobile bill");
+            }
+            if (dayOfMonth == 15) {
+                add(EXPENSE, "Utilities", 45, "Broadband");
+                if (month == 12) {
+                    add(INCOME, "Bonus", round(salary * 0.5), "Annual bonus");
+                }
+            }
+            if (dayOfMonth == 10 && month == 3) {
+                add(EXPENSE, "Insurance", round(480 * Math.pow(1.05, yearsIn)), "Car insurance renewal");
+            }
+            if (dayOfMonth == 25) {
+                add(INCOME, "Salary", salary, "Salary - " + employer);
+            }
+
+            // Occasional extra income
+            if (random.nextDouble() < 0.02) {
+                add(INCOME, "Freelance", logNormal(400, 0.6),
+                        "Invoice #" + invoice++ + " - " + CLIENTS[random.nextInt(CLIENTS.length)]);
+            }
+            if (random.nextDouble() < 0.01) {
+                add(INCOME, "Refund", logNormal(25, 0.8), "Refund - Amazon");
+            }
+
+            // Day-to-day spending
+            double expected = dailySpendRate * WEEKDAY_FACTORS[Math.floorMod(day + 3, 7)];
+            int count = (int) expected + (random.nextDouble() < expected - (int) expected ? 1 : 0);
+            double[] cumulative = CUMULATIVE_WEIGHTS[month - 1];
+            for (int i = 0; i < count; i++) {
+                Spend spend = SPENDING[pick(cumulative)];
+                add(EXPENSE, spend.category, logNormal(spend.median, spend.sigma), note(spend));
+            }
+        }
+
+        private void add(String type, String category, double amount, String note) {
+            if (isDone()) {
+                return;
+            }
+            batch.add(nextId++, day, amount, type, category, note, Money.BASE_CURRENCY, false);
+        }
+
+        private int pick(double[] cumulative) {
+            double target = random.nextDouble() * cumulative[cumulative.length - 1];
+            int low = 0;
+            int high = cumulative.length - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cumulative[mid] <= target) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private double logNormal(double median, double sigma) {
+            return Math.max(0.5, round(median * Math.exp(sigma * random.nextGaussian())));
+        }
+
+        private String note(Spend spend) {
+            if (random.nextDouble() < NO_NOTE_SHARE) {
+                return "";
+            }
+            String merchant = spend.merchants[random.nextInt(spend.merchants.length)];
+            String detail = spend.details[random.nextInt(spend.details.length)];
+            return detail.isEmpty() || random.nextBoolean() ? merchant : merchant + " - " + detail;
+        }
+    }
+
+    private static double round(double amount) {
+        return Math.round(amount * 100) / 100.0;
+    }
+}
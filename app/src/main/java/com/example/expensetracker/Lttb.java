@@ -0,0 +1,71 @@
+package com.example.expensetracker;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling for chart series
+ * Picks the points that best preserve the visual shape of a line, so a
+ * ten-year series can be drawn with the same number of points as a one-month
+ * one. Runs in O(n) over the input
+ */
+public final class Lttb {
+    private Lttb() {
+    }
+
+    /**
+     * Selects the points to keep
+     * @param x X values, ascending
+     * @param y Y values, same length as x
+     * @param threshold Maximum number of points to keep
+     * @return Indices of the kept points, ascending; all indices if the
+     *         series already fits the threshold
+     */
+    public static int[] downsample(double[] x, double[] y, int threshold) {
+        int length = x.length;
+        if (threshold >= length || threshold < 3) {
+            int[] all = new int[length];
+            for (int i = 0; i < length; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        int[] sampled = new int[threshold];
+        int sampledCount = 0;
+        // Buckets exclude the first and last points, which are always kept
+        double bucketSize = (double) (length - 2) / (threshold - 2);
+        int a = 0;
+        sampled[sampledCount++] = a;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // Average of the next bucket is the third vertex of the triangle
+            int nextStart = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, length);
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += x[i];
+                avgY += y[i];
+            }
+            int nextCount = Math.max(1, nextEnd - nextStart);
+            avgX /= nextCount;
+            avgY /= nextCount;
+
+            // Keep the point in this bucket with the largest triangle area
+            int start = (int) Math.floor(bucket * bucketSize) + 1;
+            int end = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            double maxArea = -1;
+            int maxIndex = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((x[a] - avgX) * (y[i] - y[a]) - (x[a] - x[i]) * (avgY - y[a]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    maxIndex = i;
+                }
+            }
+            sampled[sampledCount++] = maxIndex;
+            a = maxIndex;
+        }
+
+        sampled[sampledCount] = length - 1;
+        return sampled;
+    }
+}
@@ -4,28 +4,47 @@ import android.content.Context;
 import android.content.Intent;
 import android.content.SharedPreferences;
 import android.content.pm.PackageManager;
+import android.graphics.Typeface;
+import android.net.Uri;
 import android.os.Build;
 import android.os.Bundle;
+import android.util.Log;
+import android.util.TypedValue;
 import android.view.Menu;
 import android.view.MenuItem;
+import android.view.View;
+import android.widget.HorizontalScrollView;
+import android.widget.ScrollView;
 import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.activity.result.ActivityResultLauncher;
 import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.NonNull;
+import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.app.AppCompatDelegate;
 import androidx.appcompat.widget.Toolbar;
 import androidx.core.content.ContextCompat;
+import androidx.core.util.Pair;
 
 import com.google.android.material.card.MaterialCardView;
+import com.google.android.material.datepicker.MaterialDatePicker;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Locale;
 
 public class MainActivity extends AppCompatActivity {
     // UI Elements
     private TextView totalBalanceText, totalIncomeText, totalExpenseText;
+    private TextView forecastText;
+    private TextView insightsText;
+    private MaterialCardView insightsCard;
     private MaterialCardView incomeCard, expenseCard;
     private MaterialCardView darkModeCard, exportCard;
     private MaterialCardView historyCard, incomeHistoryCard, expenseHistoryCard;
@@ -36,15 +55,36 @@ public class MainActivity extends AppCompatActivity {
     // Constants for SharedPreferences
     private static final String PREFS_NAME = "ExpenseTrackerPrefs";
     private static final String DARK_MODE_KEY = "darkMode";
+    // Last computed totals in cents, shown on the first frame before the database is read.
+    // A float cannot hold every cent of larger totals, so the first frame would not match the query
+    private static final String CACHED_INCOME_KEY = "cachedTotalIncomeCents";
+    private static final String CACHED_EXPENSE_KEY = "cachedTotalExpenseCents";
+    // Largest expenses listed per period, and categories listed with their spread
+    private static final int INSIGHT_TOP_COUNT = 3;
+    private static final int INSIGHT_CATEGORY_COUNT = 3;
+    // Test data from the debug-only menu action
+    private static final int[] GENERATED_LEDGER_SIZES = {10_000, 100_000, 1_000_000};
+    private static final int GENERATED_LEDGER_YEARS = 5;
+    private static final long GENERATED_LEDGER_SEED = 42;
+    private static final int GENERATE_BATCH_SIZE = 10_000;
     
     // Permission request
     private ActivityResultLauncher<String> requestPermissionLauncher;
+    private ActivityResultLauncher<String[]> importFileLauncher;
+    private ActivityResultLauncher<String[]> importRatesLauncher;
     private String pendingPermission = null;
     private boolean pendingExport = false;
     private String lastExportedFilePath = null;
 
+    /**
+     * Startup runs in stages so nothing slow happens before the first frame:
+     * 1. onCreate inflates the layout and shows cached totals
+     * 2. onResume opens the database and aggregates on a background thread
+     * 3. Notification permission and the tutorial run after the first draw
+     */
     @Override
     protected void onCreate(Bundle savedInstanceState) {
+        StartupTracer.beginSection("MainActivity.onCreate");
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
         
@@ -52,13 +92,16 @@ public class MainActivity extends AppCompatActivity {
         Toolbar toolbar = findViewById(R.id.toolbar);
         setSupportActionBar(toolbar);
         
-        // Initialize database helper
-        dbHelper = new DatabaseHelper(this);
+        // Get the shared database helper; the database is opened by the first background query
+        dbHelper = DatabaseHelper.getInstance(this);
         
         // Initialize UI elements
         totalBalanceText = findViewById(R.id.totalBalanceText);
         totalIncomeText = findViewById(R.id.totalIncomeText);
         totalExpenseText = findViewById(R.id.totalExpenseText);
+        forecastText = findViewById(R.id.forecastText);
+        insightsText = findViewById(R.id.insightsText);
+        insightsCard = findViewById(R.id.insightsCard);
         
         incomeCard = findViewById(R.id.incomeCard);
         expenseCard = findViewById(R.id.expenseCard);
@@ -94,19 +137,43 @@ public class MainActivity extends AppCompatActivity {
             }
         );
         
-        // Check and request notification permission
-        checkNotificationPermission();
+        // Pick a CSV file to import
+        importFileLauncher = registerForActivityResult(
+            new ActivityResultContracts.OpenDocument(),
+            uri -> {
+                if (uri != null) {
+                    confirmImport(uri);
+                }
+            }
+        );
+        
+        // Pick an exchange rate file to import
+        importRatesLauncher = registerForActivityResult(
+            new ActivityResultContracts.OpenDocument(),
+            uri -> {
+                if (uri != null) {
+                    importRates(uri);
+                }
+            }
+        );
         
         // Set up click listeners
         setupClickListeners();
         
-        // Load financial data
-        updateFinancialSummary();
+        // Show the last known totals until the database has been read
+        showCachedFinancialSummary();
+        
+        // Check notification permission (and show the tutorial) once the first frame is drawn
+        if (savedInstanceState == null) {
+            StartupTracer.onFirstDraw(totalBalanceText, this::checkNotificationPermission);
+        }
+        StartupTracer.endSection();
     }
     
     @Override
     protected void onResume() {
         super.onResume();
+        // Load financial data
         updateFinancialSummary();
     }
     
@@ -145,25 +212,106 @@ public class MainActivity extends AppCompatActivity {
         });
     }
     
+    private void showCachedFinancialSummary() {
+        SharedPreferences prefs = getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        if (prefs.contains(CACHED_INCOME_KEY)) {
+            showFinancialSummary(new FinancialSummary(
+                    prefs.getLong(CACHED_INCOME_KEY, 0) / 100.0,
+                    prefs.getLong(CACHED_EXPENSE_KEY, 0) / 100.0));
+        }
+    }
+    
     private void updateFinancialSummary() {
-        double balance = dbHelper.getTotalBalance();
-        double totalIncome = 0;
-        double totalExpense = 0;
-        
-        // Get all transactions to calculate income and expense totals
-        List<Transaction> transactions = dbHelper.getAllTransactions();
-        for (Transaction transaction : transactions) {
-            if ("income".equalsIgnoreCase(transaction.getType())) {
-                totalIncome += transaction.getAmount();
-            } else if ("expense".equalsIgnoreCase(transaction.getType())) {
-                totalExpense += transaction.getAmount();
+        StartupTracer.beginTimeToData();
+        AppExecutors.diskIO().execute(() -> {
+            // Opening the database and aggregating both happen off the main thread.
+            // Recurring occurrences that fell due are written first so the totals include them
+            dbHelper.materializeRecurring(EpochDays.today());
+            FinancialSummary summary = dbHelper.getFinancialSummary();
+            getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE).edit()
+                    .putLong(CACHED_INCOME_KEY, Math.round(summary.getTotalIncome() * 100))
+                    .putLong(CACHED_EXPENSE_KEY, Math.round(summary.getTotalExpense() * 100))
+                    .apply();
+            AppExecutors.mainThread().execute(() -> {
+                if (isDestroyed()) {
+                    return;
+                }
+                showFinancialSummary(summary);
+                StartupTracer.endTimeToData();
+            });
+
+            // The forecast follows the totals; after the first build it is
+            // updated incrementally and served from cache until the data changes
+            CashFlowForecast forecast = CashFlowForecaster.getInstance(this).getForecast();
+            AppExecutors.mainThread().execute(() -> {
+                if (!isDestroyed()) {
+                    showForecast(forecast);
+                }
+            });
+
+            int today = EpochDays.today();
+            int todayKey = EpochDays.toDayKey(today);
+            int monthStart = EpochDays.of(todayKey / 10000, todayKey / 100 % 100, 1);
+            int yearStart = EpochDays.of(todayKey / 10000, 1, 1);
+            SpendingInsights month = dbHelper.getSpendingInsights(monthStart, today, INSIGHT_TOP_COUNT);
+            SpendingInsights year = dbHelper.getSpendingInsights(yearStart, today, INSIGHT_TOP_COUNT);
+            AppExecutors.mainThread().execute(() -> {
+                if (!isDestroyed()) {
+                    showInsights(month, year);
+                }
+            });
+        });
+    }
+    
+    private void showFinancialSummary(FinancialSummary summary) {
+        // Totals are converted to the base currency
+        totalBalanceText.setText(Money.format(summary.getBalance()));
+        totalIncomeText.setText(Money.format(summary.getTotalIncome()));
+        totalExpenseText.setText(Money.format(summary.getTotalExpense()));
+    }
+    
+    private void showForecast(CashFlowForecast forecast) {
+        forecastText.setText("Forecast: 30d " + Money.format(forecast.getProjectedBalance(0))
+                + " · 90d " + Money.format(forecast.getProjectedBalance(1))
+                + " · 1y " + Money.format(forecast.getProjectedBalance(2)));
+        forecastText.setVisibility(View.VISIBLE);
+    }
+    
+    private void showInsights(SpendingInsights month, SpendingInsights year) {
+        if (year.getCount() == 0) {
+            insightsCard.setVisibility(View.GONE);
+            return;
+        }
+        StringBuilder text = new StringBuilder();
+        if (month.getCount() > 0) {
+            text.append("Largest this month: ").append(describeLargest(month.getLargest())).append('\n');
+        }
+        text.append("Largest this year: ").append(describeLargest(year.getLargest()));
+        if (month.getCount() > 0) {
+            text.append("\nThis month: median ").append(Money.format(month.getMedian()))
+                    .append(" · p90 ").append(Money.format(month.getP90()));
+            List<SpendingInsights.CategorySpread> categories = month.getCategories();
+            for (int i = 0; i < Math.min(INSIGHT_CATEGORY_COUNT, categories.size()); i++) {
+                SpendingInsights.CategorySpread spread = categories.get(i);
+                text.append('\n').append(spread.getCategory())
+                        .append(": median ").append(Money.format(spread.getMedian()))
+                        .append(" · p90 ").append(Money.format(spread.getP90()));
             }
         }
-        
-        // Format with Euro symbol
-        totalBalanceText.setText(String.format("€%.2f", balance));
-        totalIncomeText.setText(String.format("€%.2f", totalIncome));
-        totalExpenseText.setText(String.format("€%.2f", Math.abs(totalExpense)));
+        insightsText.setText(text);
+        insightsCard.setVisibility(View.VISIBLE);
+    }
+
+    private static String describeLargest(List<Transaction> largest) {
+        StringBuilder text = new StringBuilder();
+        for (Transaction transaction : largest) {
+            if (text.length() > 0) {
+                text.append(" · ");
+            }
+            text.append(transaction.getCategory()).append(' ')
+                    .append(Money.format(Math.abs(transaction.getAmount()), transaction.getCurrency()));
+        }
+        return text.toString();
     }
     
     private void toggleDarkMode() {
@@ -178,15 +326,13 @@ public class MainActivity extends AppCompatActivity {
         editor.putBoolean(DARK_MODE_KEY, isDarkMode);
         editor.apply();
         
-        // Apply theme
+        // Apply theme; AppCompat recreates started activities itself, so an
+        // extra recreate() here would run the whole startup twice
         if (isDarkMode) {
             AppCompatDelegate.setDefaultNightMode(AppCompatDelegate.MODE_NIGHT_YES);
         } else {
             AppCompatDelegate.setDefaultNightMode(AppCompatDelegate.MODE_NIGHT_NO);
         }
-        
-        // Recreate activity to apply theme
-        recreate();
     }
     
     private void exportData() {
@@ -235,6 +381,165 @@ public class MainActivity extends AppCompatActivity {
         startActivity(Intent.createChooser(shareIntent, "Share exported CSV"));
     }
 
+    private void confirmImport(Uri uri) {
+        String[] choices = {"Skip duplicates", "Merge notes into duplicates"};
+        new androidx.appcompat.app.AlertDialog.Builder(this)
+                .setTitle("Import Transactions")
+                .setItems(choices, (dialog, which) -> importData(uri, which == 1))
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    private void importData(Uri uri, boolean mergeDuplicates) {
+        DuplicateDetector detector = DuplicateDetector.getInstance(this);
+        AppExecutors.diskIO().execute(() -> {
+            String message;
+            try (InputStream in = getContentResolver().openInputStream(uri)) {
+                if (in == null) {
+                    throw new IOException("Cannot open " + uri);
+                }
+                TransactionCsvReader csvReader = new TransactionCsvReader();
+                List<Transaction> rows = csvReader.read(
+                        new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+                ImportResult result = detector.importTransactions(rows, mergeDuplicates);
+                message = "Imported " + result.getInserted() + " transactions";
+                if (result.getSkipped() > 0) {
+                    message += ", skipped " + result.getSkipped() + " duplicates";
+                }
+                if (result.getMerged() > 0) {
+                    message += ", merged " + result.getMerged() + " duplicates";
+                }
+                if (csvReader.getInvalidCount() > 0) {
+                    message += ", " + csvReader.getInvalidCount() + " unreadable rows";
+                }
+            } catch (IOException e) {
+                Log.e("MainActivity", "Error importing data: " + e.getMessage());
+                message = "Failed to import data";
+            }
+            String toast = message;
+            AppExecutors.mainThread().execute(() -> {
+                Toast.makeText(this, toast, Toast.LENGTH_LONG).show();
+                updateFinancialSummary();
+            });
+        });
+    }
+
+    private void importRates(Uri uri) {
+        AppExecutors.diskIO().execute(() -> {
+            String message;
+            try (InputStream in = getContentResolver().openInputStream(uri)) {
+                if (in == null) {
+                    throw new IOException("Cannot open " + uri);
+                }
+                FxRates rates = FxRates.readCsv(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+                int stored = dbHelper.importFxRates(rates);
+                message = stored == 0 ? "No exchange rates found in file" : "Imported " + stored + " exchange rates";
+            } catch (IOException e) {
+                Log.e("MainActivity", "Error importing rates: " + e.getMessage());
+                message = "Failed to import exchange rates";
+            }
+            String toast = message;
+            AppExecutors.mainThread().execute(() -> {
+                Toast.makeText(this, toast, Toast.LENGTH_LONG).show();
+                updateFinancialSummary();
+            });
+        });
+    }
+
+    private void confirmGenerateLedger() {
+        String[] choices = new String[GENERATED_LEDGER_SIZES.length];
+        for (int i = 0; i < choices.length; i++) {
+            choices[i] = String.format(Locale.getDefault(), "%,d transactions", GENERATED_LEDGER_SIZES[i]);
+        }
+        new AlertDialog.Builder(this)
+                .setTitle("Generate Test Data")
+                .setItems(choices, (dialog, which) -> generateLedger(GENERATED_LEDGER_SIZES[which]))
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    /**
+     * Adds a synthetic ledger ending today, for trying the app with realistic volumes
+     */
+    private void generateLedger(int rows) {
+        Toast.makeText(this, "Generating test data...", Toast.LENGTH_SHORT).show();
+        AppExecutors.diskIO().execute(() -> {
+            LedgerGenerator generator = new LedgerGenerator.Builder()
+                    .seed(GENERATED_LEDGER_SEED)
+                    .rows(rows)
+                    .years(GENERATED_LEDGER_YEARS)
+                    .startDay(EpochDays.today() - GENERATED_LEDGER_YEARS * 365)
+                    .build();
+            long start = System.nanoTime();
+            long inserted = dbHelper.insertTransactions(generator.batches(GENERATE_BATCH_SIZE));
+            double seconds = (System.nanoTime() - start) / 1e9;
+            String message = String.format(Locale.getDefault(), "Generated %,d transactions in %.1f s", inserted, seconds);
+            AppExecutors.mainThread().execute(() -> {
+                Toast.makeText(this, message, Toast.LENGTH_LONG).show();
+                updateFinancialSummary();
+            });
+        });
+    }
+
+    /**
+     * Shows the latency of every database operation since startup, for debug builds
+     */
+    private void showDbMetrics() {
+        TextView table = new TextView(this);
+        table.setTypeface(Typeface.MONOSPACE);
+        table.setTextSize(TypedValue.COMPLEX_UNIT_SP, 10);
+        table.setText(OperationMetrics.format(DbMetrics.snapshot()));
+        int padding = (int) (16 * getResources().getDisplayMetrics().density);
+        table.setPadding(padding, padding, padding, padding);
+        // The table is wider than the screen; scroll both ways rather than wrap
+        HorizontalScrollView horizontal = new HorizontalScrollView(this);
+        horizontal.addView(table);
+        ScrollView vertical = new ScrollView(this);
+        vertical.addView(horizontal);
+        new AlertDialog.Builder(this)
+                .setTitle("Database Metrics")
+                .setView(vertical)
+                .setPositiveButton("Log", (dialog, which) -> {
+                    DbMetrics.dump();
+                    Toast.makeText(this, "Metrics written to the log", Toast.LENGTH_SHORT).show();
+                })
+                .setNeutralButton("Reset", (dialog, which) -> DbMetrics.reset())
+                .setNegativeButton("Close", null)
+                .show();
+    }
+
+    private void showRangePicker() {
+        MaterialDatePicker<Pair<Long, Long>> picker = MaterialDatePicker.Builder.dateRangePicker()
+                .setTitleText("Totals between dates")
+                .build();
+        picker.addOnPositiveButtonClickListener(selection -> {
+            if (selection.first == null || selection.second == null) {
+                return;
+            }
+            // The picker returns UTC midnight of each chosen day
+            int fromDay = EpochDays.fromMillis(selection.first);
+            int untilDay = EpochDays.fromMillis(selection.second);
+            AppExecutors.diskIO().execute(() -> {
+                FinancialSummary totals = RangeTotals.getInstance(this).getTotals(fromDay, untilDay);
+                AppExecutors.mainThread().execute(() -> showRangeTotals(fromDay, untilDay, totals));
+            });
+        });
+        picker.show(getSupportFragmentManager(), "range_totals");
+    }
+
+    private void showRangeTotals(int fromDay, int untilDay, FinancialSummary totals) {
+        if (isFinishing() || isDestroyed()) {
+            return;
+        }
+        new AlertDialog.Builder(this)
+                .setTitle(EpochDays.format(fromDay) + " to " + EpochDays.format(untilDay))
+                .setMessage("Income: " + Money.format(totals.getTotalIncome())
+                        + "\nExpenses: " + Money.format(totals.getTotalExpense())
+                        + "\nBalance: " + Money.format(totals.getBalance()))
+                .setPositiveButton("OK", null)
+                .show();
+    }
+
     private void checkAndShowTutorial() {
         TutorialHelper tutorialHelper = new TutorialHelper(this);
         if (tutorialHelper.isFirstLaunch()) {
@@ -259,6 +564,8 @@ public class MainActivity extends AppCompatActivity {
     @Override
     public boolean onCreateOptionsMenu(Menu menu) {
         getMenuInflater().inflate(R.menu.menu_main, menu);
+        menu.findItem(R.id.action_generate_ledger).setVisible(BuildConfig.DEBUG);
+        menu.findItem(R.id.action_db_metrics).setVisible(BuildConfig.DEBUG);
         return true;
     }
     
@@ -266,6 +573,46 @@ public class MainActivity extends AppCompatActivity {
     public boolean onOptionsItemSelected(@NonNull MenuItem item) {
         int id = item.getItemId();
         
+        if (id == R.id.action_charts) {
+            startActivity(new Intent(this, ChartsActivity.class));
+            return true;
+        }
+        
+        if (id == R.id.action_budgets) {
+            startActivity(new Intent(this, BudgetActivity.class));
+            return true;
+        }
+        
+        if (id == R.id.action_recurring) {
+            startActivity(new Intent(this, RecurringActivity.class));
+            return true;
+        }
+        
+        if (id == R.id.action_range_totals) {
+            showRangePicker();
+            return true;
+        }
+        
+        if (id == R.id.action_import) {
+            importFileLauncher.launch(new String[]{"text/csv", "text/comma-separated-values", "text/plain"});
+            return true;
+        }
+        
+        if (id == R.id.action_import_rates) {
+            importRatesLauncher.launch(new String[]{"text/csv", "text/comma-separated-values", "text/plain"});
+            return true;
+        }
+        
+        if (id == R.id.action_generate_ledger && BuildConfig.DEBUG) {
+            confirmGenerateLedger();
+            return true;
+        }
+
+        if (id == R.id.action_db_metrics && BuildConfig.DEBUG) {
+            showDbMetrics();
+            return true;
+        }
+
         if (id == R.id.action_settings) {
             // Open settings
             return true;
@@ -0,0 +1,122 @@
+package com.example.expensetracker;
+
+import java.util.Currency;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Formatting of amounts in a currency
+ * Totals are reported in {@link #BASE_CURRENCY}; single transactions keep
+ * the currency they were entered in
+ */
+public final class Money {
+    // Currency every total and budget is expressed in
+    public static final String BASE_CURRENCY = "EUR";
+    // Beyond this a double no longer holds whole cents, so formatting falls back to String.format
+    private static final double MAX_CENTS_AMOUNT = 1e15;
+
+    // Symbols of currencies without a literal case below, looked up once per code
+    private static final Map<String, String> OTHER_SYMBOLS = new ConcurrentHashMap<>();
+
+    private Money() {
+    }
+
+    /**
+     * @param amount Amount in the base currency
+     * @return Amount with the base currency's symbol, such as "€12.50"
+     */
+    public static String format(double amount) {
+        return format(amount, BASE_CURRENCY);
+    }
+
+    /**
+     * @param amount Amount
+     * @param currency ISO 4217 code; null means the base currency
+     * @return Amount with the currency's symbol, such as "$12.50"
+     */
+    public static String format(double amount, String currency) {
+        StringBuilder out = new StringBuilder(16);
+        appendTo(out, amount, currency);
+        return out.toString();
+    }
+
+    /**
+     * Appends an amount as {@link #format(double, String)} does, without
+     * allocating for the common currencies, so list rows can bind into a reused buffer
+     * @param out Builder to append to
+     * @param amount Amount, rounded half up to whole cents
+     * @param currency ISO 4217 code; null means the base currency
+     */
+    public static void appendTo(StringBuilder out, double amount, String currency) {
+        out.append(symbol(currency));
+        if (Double.isNaN(amount) || Math.abs(amount) >= MAX_CENTS_AMOUNT) {
+            out.append(String.format(Locale.UK, "%.2f", amount));
+            return;
+        }
+        long cents = Math.round(Math.abs(amount) * 100);
+        if (amount < 0 && cents != 0) {
+            out.append('-');
+        }
+        out.append(cents / 100).append('.');
+        long fraction = cents % 100;
+        if (fraction < 10) {
+            out.append('0');
+        }
+        out.append(fraction);
+    }
+
+    /**
+     * @param currency ISO 4217 code; null means the base currency
+     * @return Short symbol, or the code followed by a space if the currency has no common symbol
+     */
+    public static String symbol(String currency) {
+        String code = normalize(currency);
+        switch (code) {
+            case "EUR":
+                return "€";
+            case "USD":
+                return "$";
+            case "GBP":
+                return "£";
+            case "JPY":
+                return "¥";
+            default:
+                break;
+        }
+        String symbol = OTHER_SYMBOLS.get(code);
+        if (symbol == null) {
+            symbol = lookUpSymbol(code);
+            OTHER_SYMBOLS.put(code, symbol);
+        }
+        return symbol;
+    }
+
+    private static String lookUpSymbol(String code) {
+        try {
+            String symbol = Currency.getInstance(code).getSymbol(Locale.UK);
+            return symbol.equals(code) ? code + " " : symbol;
+        } catch (IllegalArgumentException e) {
+            return code + " ";
+        }
+    }
+
+    /**
+     * @param currency Currency code as entered
+     * @return Upper case code, or the base currency for a blank code
+     */
+    public static String normalize(String currency) {
+        if (currency == null || currency.trim().isEmpty()) {
+            return BASE_CURRENCY;
+        }
+        return currency.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * @param currency Currency code
+     * @return true if the code is the base currency
+     */
+    public static boolean isBase(String currency) {
+        return BASE_CURRENCY.equals(normalize(currency));
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.expensetracker;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.util.AttributeSet;
+import android.util.TypedValue;
+import android.view.MotionEvent;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Fast-scroll thumb for the transaction history that jumps month by month
+ * While dragging, a bubble shows the label of the month under the thumb and
+ * the list is scrolled straight to that month's offset from the {@link MonthIndex}
+ */
+public class MonthFastScroller extends View {
+    /**
+     * Callback for jumping the list to a month section
+     */
+    public interface OnMonthSelectedListener {
+        void onMonthSelected(int section);
+    }
+
+    private final Paint thumbPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint bubblePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint labelPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final RectF thumbRect = new RectF();
+    private final RectF bubbleRect = new RectF();
+    private final float thumbWidth;
+    private final float thumbHeight;
+    private final float bubblePadding;
+
+    private MonthIndex monthIndex = MonthIndex.empty();
+    private OnMonthSelectedListener listener;
+    private float thumbFraction;
+    private int draggingSection = -1;
+
+    private final RecyclerView.OnScrollListener scrollListener = new RecyclerView.OnScrollListener() {
+        @Override
+        public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+            if (draggingSection >= 0 || monthIndex.getTotalCount() == 0) {
+                return;
+            }
+            RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
+            if (layoutManager instanceof LinearLayoutManager) {
+                int first = ((LinearLayoutManager) layoutManager).findFirstVisibleItemPosition();
+                thumbFraction = Math.max(0, first) / (float) Math.max(1, monthIndex.getTotalCount() - 1);
+                invalidate();
+            }
+        }
+    };
+
+    public MonthFastScroller(Context context) {
+        this(context, null);
+    }
+
+    public MonthFastScroller(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+        float density = context.getResources().getDisplayMetrics().density;
+        thumbWidth = 6 * density;
+        thumbHeight = 48 * density;
+        bubblePadding = 12 * density;
+
+        TypedValue value = new TypedValue();
+        context.getTheme().resolveAttribute(androidx.appcompat.R.attr.colorPrimary, value, true);
+        thumbPaint.setColor(value.data);
+        bubblePaint.setColor(value.data);
+        labelPaint.setColor(0xFFFFFFFF);
+        labelPaint.setTextSize(16 * context.getResources().getDisplayMetrics().scaledDensity);
+        labelPaint.setTextAlign(Paint.Align.RIGHT);
+    }
+
+    /**
+     * Tracks the list's scroll position to place the thumb
+     * @param recyclerView List driven by this scroller
+     */
+    public void attachTo(RecyclerView recyclerView) {
+        recyclerView.addOnScrollListener(scrollListener);
+    }
+
+    public void setMonthIndex(MonthIndex monthIndex) {
+        this.monthIndex = monthIndex;
+        // Only worth showing when there is more than a single month to jump between
+        setVisibility(monthIndex.getSectionCount() > 1 ? VISIBLE : GONE);
+        invalidate();
+    }
+
+    public void setOnMonthSelectedListener(OnMonthSelectedListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if (monthIndex.getTotalCount() == 0) {
+            return false;
+        }
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                if (event.getX() < getWidth() - 4 * thumbWidth) {
+                    return false;
+                }
+                getParent().requestDisallowInterceptTouchEvent(true);
+                // Fall through to handle the initial position as a move
+            case MotionEvent.ACTION_MOVE:
+                float usable = Math.max(1, getHeight() - thumbHeight);
+                thumbFraction = Math.min(1f, Math.max(0f, (event.getY() - thumbHeight / 2) / usable));
+                int position = Math.round(thumbFraction * (monthIndex.getTotalCount() - 1));
+                int section = monthIndex.sectionForPosition(position);
+                if (section != draggingSection && section >= 0) {
+                    draggingSection = section;
+                    if (listener != null) {
+                        listener.onMonthSelected(section);
+                    }
+                }
+                invalidate();
+                return true;
+            case MotionEvent.ACTION_UP:
+            case MotionEvent.ACTION_CANCEL:
+                draggingSection = -1;
+                invalidate();
+                return true;
+            default:
+                return super.onTouchEvent(event);
+        }
+    }
+
+    @Override
+    protected void onDraw(@NonNull Canvas canvas) {
+        super.onDraw(canvas);
+        if (monthIndex.getTotalCount() == 0) {
+            return;
+        }
+        float top = thumbFraction * (getHeight() - thumbHeight);
+        float right = getWidth() - thumbWidth / 2;
+        thumbRect.set(right - thumbWidth, top, right, top + thumbHeight);
+        canvas.drawRoundRect(thumbRect, thumbWidth / 2, thumbWidth / 2, thumbPaint);
+
+        if (draggingSection >= 0) {
+            String label = monthIndex.getLabel(draggingSection);
+            float textWidth = labelPaint.measureText(label);
+            float bubbleRight = thumbRect.left - bubblePadding;
+            float bubbleHeight = labelPaint.getTextSize() + 2 * bubblePadding;
+            float bubbleTop = Math.max(0, thumbRect.centerY() - bubbleHeight / 2);
+            bubbleRect.set(bubbleRight - textWidth - 2 * bubblePadding, bubbleTop, bubbleRight, bubbleTop + bubbleHeight);
+            canvas.drawRoundRect(bubbleRect, bubblePadding, bubblePadding, bubblePaint);
+            canvas.drawText(label, bubbleRight - bubblePadding,
+                    bubbleTop + bubblePadding + labelPaint.getTextSize() * 0.85f, labelPaint);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.expensetracker;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.util.TypedValue;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Draws a month header above the first row of every month, plus a sticky
+ * header for the month at the top of the list. Month boundaries come from a
+ * {@link MonthIndex}, so headers work even for rows whose page is not loaded
+ */
+public class MonthHeaderDecoration extends RecyclerView.ItemDecoration {
+    private final int headerHeight;
+    private final int textPadding;
+    private final Paint backgroundPaint = new Paint();
+    private final Paint textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Rect textBounds = new Rect();
+    private MonthIndex monthIndex = MonthIndex.empty();
+
+    public MonthHeaderDecoration(Context context) {
+        float density = context.getResources().getDisplayMetrics().density;
+        headerHeight = Math.round(32 * density);
+        textPadding = Math.round(16 * density);
+
+        TypedValue value = new TypedValue();
+        context.getTheme().resolveAttribute(android.R.attr.colorBackground, value, true);
+        backgroundPaint.setColor(value.data);
+        context.getTheme().resolveAttribute(androidx.appcompat.R.attr.colorPrimary, value, true);
+        textPaint.setColor(value.data);
+        textPaint.setTextSize(14 * context.getResources().getDisplayMetrics().scaledDensity);
+        textPaint.setFakeBoldText(true);
+    }
+
+    /**
+     * @param monthIndex Index matching the adapter's current list
+     */
+    public void setMonthIndex(MonthIndex monthIndex) {
+        this.monthIndex = monthIndex;
+    }
+
+    @Override
+    public void getItemOffsets(@NonNull Rect outRect, @NonNull View view, @NonNull RecyclerView parent,
+                               @NonNull RecyclerView.State state) {
+        int position = parent.getChildAdapterPosition(view);
+        if (position != RecyclerView.NO_POSITION && monthIndex.isSectionStart(position)) {
+            outRect.top = headerHeight;
+        } else {
+            outRect.setEmpty();
+        }
+    }
+
+    @Override
+    public void onDraw(@NonNull Canvas canvas, @NonNull RecyclerView parent, @NonNull RecyclerView.State state) {
+        for (int i = 0; i < parent.getChildCount(); i++) {
+            View child = parent.getChildAt(i);
+            int position = parent.getChildAdapterPosition(child);
+            if (position != RecyclerView.NO_POSITION && monthIndex.isSectionStart(position)) {
+                int bottom = child.getTop() - ((RecyclerView.LayoutParams) child.getLayoutParams()).topMargin;
+                drawHeader(canvas, parent, monthIndex.sectionForPosition(position), bottom - headerHeight);
+            }
+        }
+    }
+
+    @Override
+    public void onDrawOver(@NonNull Canvas canvas, @NonNull RecyclerView parent, @NonNull RecyclerView.State state) {
+        if (parent.getChildCount() == 0) {
+            return;
+        }
+        int topPosition = parent.getChildAdapterPosition(parent.getChildAt(0));
+        int section = monthIndex.sectionForPosition(topPosition);
+        if (section < 0) {
+            return;
+        }
+
+        // Push the sticky header up as the next month's header reaches it
+        int top = parent.getPaddingTop();
+        if (section + 1 < monthIndex.getSectionCount()) {
+            RecyclerView.ViewHolder next = parent.findViewHolderForAdapterPosition(monthIndex.getOffset(section + 1));
+            if (next != null) {
+                int nextHeaderTop = next.itemView.getTop() - headerHeight;
+                top = Math.min(top, nextHeaderTop - headerHeight);
+            }
+        }
+        drawHeader(canvas, parent, section, top);
+    }
+
+    private void drawHeader(Canvas canvas, RecyclerView parent, int section, int top) {
+        canvas.drawRect(parent.getPaddingLeft(), top, parent.getWidth() - parent.getPaddingRight(),
+                top + headerHeight, backgroundPaint);
+        String label = monthIndex.getLabel(section);
+        textPaint.getTextBounds(label, 0, label.length(), textBounds);
+        float baseline = top + (headerHeight + textBounds.height()) / 2f;
+        canvas.drawText(label, parent.getPaddingLeft() + textPadding, baseline, textPaint);
+    }
+}
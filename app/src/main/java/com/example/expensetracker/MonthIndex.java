@@ -0,0 +1,111 @@
+package com.example.expensetracker;
+
+import java.text.DateFormatSymbols;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Month section index for a transaction list ordered newest first
+ * Built from one GROUP BY count per month, it maps every month to the adapter
+ * offset of its first row. Construction is O(months); position lookups are a
+ * binary search over the month offsets, so no row ever needs to be loaded
+ */
+public final class MonthIndex {
+    private static final MonthIndex EMPTY = new MonthIndex(new int[0], new int[0]);
+
+    private final int[] monthKeys;   // yyyyMM, newest first; 0 for rows without a valid date
+    private final int[] offsets;     // adapter position of each month's first row
+    private final String[] labels;
+    private final int totalCount;
+
+    /**
+     * @param monthKeys Month keys as yyyyMM integers, in list order
+     * @param counts Number of rows in each month
+     */
+    public MonthIndex(int[] monthKeys, int[] counts) {
+        if (monthKeys.length != counts.length) {
+            throw new IllegalArgumentException("monthKeys and counts must have the same length");
+        }
+        this.monthKeys = monthKeys.clone();
+        this.offsets = new int[monthKeys.length];
+        this.labels = new String[monthKeys.length];
+
+        String[] monthNames = new DateFormatSymbols(Locale.getDefault()).getShortMonths();
+        int offset = 0;
+        for (int i = 0; i < monthKeys.length; i++) {
+            offsets[i] = offset;
+            offset += counts[i];
+            labels[i] = formatLabel(monthKeys[i], monthNames);
+        }
+        this.totalCount = offset;
+    }
+
+    /**
+     * @return Index with no sections
+     */
+    public static MonthIndex empty() {
+        return EMPTY;
+    }
+
+    private static String formatLabel(int monthKey, String[] monthNames) {
+        int year = monthKey / 100;
+        int month = monthKey % 100;
+        if (year <= 0 || month < 1 || month > 12) {
+            return "Undated";
+        }
+        return monthNames[month - 1] + " " + year;
+    }
+
+    public int getSectionCount() {
+        return monthKeys.length;
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    public int getMonthKey(int section) {
+        return monthKeys[section];
+    }
+
+    public String getLabel(int section) {
+        return labels[section];
+    }
+
+    /**
+     * @param section Section index
+     * @return Adapter position of the first row in the section
+     */
+    public int getOffset(int section) {
+        return offsets[section];
+    }
+
+    /**
+     * Finds the section containing an adapter position
+     * @param position Adapter position
+     * @return Section index, or -1 if the index is empty or position is out of range
+     */
+    public int sectionForPosition(int position) {
+        if (position < 0 || position >= totalCount) {
+            return -1;
+        }
+        int found = Arrays.binarySearch(offsets, position);
+        if (found >= 0) {
+            // Skip over empty sections that share the same offset
+            while (found + 1 < offsets.length && offsets[found + 1] == position) {
+                found++;
+            }
+            return found;
+        }
+        return -found - 2;
+    }
+
+    /**
+     * @param position Adapter position
+     * @return true if the row at this position is the first of its month
+     */
+    public boolean isSectionStart(int position) {
+        int section = sectionForPosition(position);
+        return section >= 0 && offsets[section] == position;
+    }
+}
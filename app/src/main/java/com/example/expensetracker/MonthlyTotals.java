@@ -0,0 +1,37 @@
+package com.example.expensetracker;
+
+/**
+ * Income and expense totals per month, in ascending month order
+ */
+public final class MonthlyTotals {
+    private final int[] monthKeys;
+    private final double[] income;
+    private final double[] expense;
+
+    /**
+     * @param monthKeys Months as yyyyMM
+     * @param income Income total for each month
+     * @param expense Expense total for each month, as positive values
+     */
+    public MonthlyTotals(int[] monthKeys, double[] income, double[] expense) {
+        this.monthKeys = monthKeys;
+        this.income = income;
+        this.expense = expense;
+    }
+
+    public int size() {
+        return monthKeys.length;
+    }
+
+    public int getMonthKey(int index) {
+        return monthKeys[index];
+    }
+
+    public double getIncome(int index) {
+        return income[index];
+    }
+
+    public double getExpense(int index) {
+        return expense[index];
+    }
+}
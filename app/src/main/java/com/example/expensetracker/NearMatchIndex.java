@@ -0,0 +1,182 @@
+package com.example.expensetracker;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Hash index for finding likely duplicate transactions
+ * Rows are keyed on (type, category, currency, amount in cents, day bucket), where a
+ * bucket spans {@code windowDays + 1} days. A row within the window of another
+ * can only sit in the same or a neighbouring bucket, so a lookup probes three
+ * hash slots whatever the number of rows
+ */
+public final class NearMatchIndex {
+    public static final long NO_MATCH = -1;
+
+    private final int windowDays;
+    private final Map<Long, Entry> slots = new HashMap<>();
+    private int size;
+
+    /**
+     * One indexed row; rows sharing a slot are chained
+     */
+    private static final class Entry {
+        final long id;
+        final long cents;
+        final String key;
+        final int day;
+        Entry next;
+
+        Entry(long id, long cents, String key, int day, Entry next) {
+            this.id = id;
+            this.cents = cents;
+            this.key = key;
+            this.day = day;
+            this.next = next;
+        }
+    }
+
+    /**
+     * Source of likely duplicates for an import, such as an index that is
+     * only read under its owner's lock
+     */
+    public interface Lookup {
+        /**
+         * @return Id of the closest matching row, or {@link NearMatchIndex#NO_MATCH}
+         * @see NearMatchIndex#findMatch(String, String, double, String, int)
+         */
+        long findMatch(String type, String category, double amount, String currency, int day);
+    }
+
+    /**
+     * @param windowDays Largest number of days apart two rows may be and still match; 0 for the same day only
+     */
+    public NearMatchIndex(int windowDays) {
+        if (windowDays < 0) {
+            throw new IllegalArgumentException("Window must not be negative");
+        }
+        this.windowDays = windowDays;
+    }
+
+    /**
+     * Adds a row
+     * @param id Row id
+     * @param type 'income' or 'expense'
+     * @param category Category
+     * @param amount Amount; the sign is ignored
+     * @param currency Currency code of the amount
+     * @param day Epoch day
+     */
+    public void add(long id, String type, String category, double amount, String currency, int day) {
+        long cents = toCents(amount);
+        String key = key(type, category, currency);
+        Long slot = slot(cents, key, bucketOf(day));
+        slots.put(slot, new Entry(id, cents, key, day, slots.get(slot)));
+        size++;
+    }
+
+    /**
+     * Adds every row of another index
+     * @param other Index with the same window
+     */
+    public void addAll(NearMatchIndex other) {
+        if (other.windowDays != windowDays) {
+            throw new IllegalArgumentException("Window " + other.windowDays + " differs from " + windowDays);
+        }
+        for (Map.Entry<Long, Entry> chain : other.slots.entrySet()) {
+            Long slot = chain.getKey();
+            for (Entry entry = chain.getValue(); entry != null; entry = entry.next) {
+                slots.put(slot, new Entry(entry.id, entry.cents, entry.key, entry.day, slots.get(slot)));
+                size++;
+            }
+        }
+    }
+
+    /**
+     * Removes a row added with the same values
+     * @return true if the row was found
+     */
+    public boolean remove(long id, String type, String category, double amount, String currency, int day) {
+        long cents = toCents(amount);
+        String key = key(type, category, currency);
+        Long slot = slot(cents, key, bucketOf(day));
+        Entry previous = null;
+        for (Entry entry = slots.get(slot); entry != null; previous = entry, entry = entry.next) {
+            if (entry.id == id) {
+                if (previous != null) {
+                    previous.next = entry.next;
+                } else if (entry.next != null) {
+                    slots.put(slot, entry.next);
+                } else {
+                    slots.remove(slot);
+                }
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds a row with the same type, category, currency and amount within the day window
+     * @param type 'income' or 'expense'
+     * @param category Category, compared ignoring case
+     * @param amount Amount, compared to the cent; the sign is ignored
+     * @param currency Currency code; 10 EUR never matches 10 USD
+     * @param day Epoch day
+     * @return Id of the closest matching row, or {@link #NO_MATCH}
+     */
+    public long findMatch(String type, String category, double amount, String currency, int day) {
+        long cents = toCents(amount);
+        String key = key(type, category, currency);
+        int bucket = bucketOf(day);
+        long bestId = NO_MATCH;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int b = bucket - 1; b <= bucket + 1; b++) {
+            for (Entry entry = slots.get(slot(cents, key, b)); entry != null; entry = entry.next) {
+                int distance = Math.abs(entry.day - day);
+                if (distance <= windowDays && distance < bestDistance
+                        && entry.cents == cents && entry.key.equals(key)) {
+                    bestId = entry.id;
+                    bestDistance = distance;
+                }
+            }
+        }
+        return bestId;
+    }
+
+    /**
+     * @return Number of indexed rows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Largest number of days apart two matching rows may be
+     */
+    public int getWindowDays() {
+        return windowDays;
+    }
+
+    private int bucketOf(int day) {
+        return Math.floorDiv(day, windowDays + 1);
+    }
+
+    private static long toCents(double amount) {
+        return Math.round(Math.abs(amount) * 100);
+    }
+
+    private static String key(String type, String category, String currency) {
+        String normalizedType = type == null ? "" : type.toLowerCase(Locale.ROOT);
+        String normalizedCategory = category == null ? "" : category.trim().toLowerCase(Locale.ROOT);
+        return normalizedType + '\u0000' + normalizedCategory + '\u0000' + Money.normalize(currency);
+    }
+
+    private static Long slot(long cents, String key, int bucket) {
+        // Collisions are harmless: every candidate is compared in full
+        long hash = cents * 0x9E3779B97F4A7C15L + key.hashCode();
+        return hash * 31 + bucket;
+    }
+}
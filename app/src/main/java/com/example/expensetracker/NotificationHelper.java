@@ -22,6 +22,9 @@ import com.example.expensetracker.DatabaseHelper;
  * - Handles notification display and click actions
  * - Supports Android's notification permission system
  * - Provides methods to cancel scheduled notifications
+ * - Shows budget threshold alerts
+ * - Shows alerts for unusually large expenses, unless turned off
+ * - Writes due recurring transactions when the reminder fires
  */
 public class NotificationHelper extends BroadcastReceiver {
     // Notification configuration constants
@@ -29,6 +32,12 @@ public class NotificationHelper extends BroadcastReceiver {
     private static final String CHANNEL_NAME = "Expense Tracker";
     private static final String CHANNEL_DESC = "Daily expense tracking reminders";
     private static final int NOTIFICATION_ID = 1;
+    // Budget alerts use one notification per category, so a newer alert replaces an older one
+    private static final int BUDGET_NOTIFICATION_ID_BASE = 1000;
+    private static final int ANOMALY_NOTIFICATION_ID = 3;
+    // Boolean in ExpenseTrackerPrefs; unusual expenses are always marked in the list either way
+    public static final String PREFS_NAME = "ExpenseTrackerPrefs";
+    public static final String ANOMALY_ALERTS_KEY = "anomalyAlerts";
     private static final String ACTION_SHOW_NOTIFICATION = "com.example.expensetracker.SHOW_NOTIFICATION";
     private static final String TAG = "NotificationHelper";
 
@@ -41,6 +50,16 @@ public class NotificationHelper extends BroadcastReceiver {
         if (ACTION_SHOW_NOTIFICATION.equals(intent.getAction())) {
             createNotificationChannel(context);
             showNotification(context);
+
+            // Catch up recurring transactions while the app is not open
+            PendingResult pendingResult = goAsync();
+            AppExecutors.diskIO().execute(() -> {
+                try {
+                    DatabaseHelper.getInstance(context).materializeRecurring(EpochDays.today());
+                } finally {
+                    pendingResult.finish();
+                }
+            });
         }
     }
 
@@ -127,16 +146,19 @@ public class NotificationHelper extends BroadcastReceiver {
         }
 
         // Get financial data
-        DatabaseHelper dbHelper = new DatabaseHelper(context);
-        double totalIncome = dbHelper.getTotalIncome();
-        double totalExpense = dbHelper.getTotalExpense();
-        double balance = totalIncome - totalExpense;
+        DatabaseHelper dbHelper = DatabaseHelper.getInstance(context);
+        FinancialSummary summary = dbHelper.getFinancialSummary();
+        double totalIncome = summary.getTotalIncome();
+        double totalExpense = summary.getTotalExpense();
+        double balance = summary.getBalance();
 
         // Create notification style with expanded layout
         NotificationCompat.BigTextStyle bigTextStyle = new NotificationCompat.BigTextStyle()
             .setBigContentTitle("Your Financial Summary")
-            .bigText(String.format("Current Balance: $%.2f\nTotal Income: $%.2f\nTotal Expenses: $%.2f\n\nTap to track your expenses!", 
-                balance, totalIncome, totalExpense));
+            .bigText("Current Balance: " + Money.format(balance)
+                + "\nTotal Income: " + Money.format(totalIncome)
+                + "\nTotal Expenses: " + Money.format(totalExpense)
+                + "\n\nTap to track your expenses!");
 
         // Create main intent
         Intent mainIntent = new Intent(context, ExpenseActivity.class);
@@ -162,7 +184,7 @@ public class NotificationHelper extends BroadcastReceiver {
         NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID)
             .setSmallIcon(R.drawable.ic_launcher_foreground)
             .setContentTitle("Welcome to Expense Tracker")
-            .setContentText(String.format("Current Balance: $%.2f", balance))
+            .setContentText("Current Balance: " + Money.format(balance))
             .setStyle(bigTextStyle)
             .setPriority(NotificationCompat.PRIORITY_HIGH)
             .setAutoCancel(true)
@@ -181,6 +203,103 @@ public class NotificationHelper extends BroadcastReceiver {
         }
     }
 
+    /**
+     * Shows an alert that a category's spend crossed a budget threshold
+     * Called after the transaction that crossed it has been committed
+     * @param context Any context; only the application context is kept
+     * @param budget Budget with its updated spend
+     */
+    public static void showBudgetAlert(Context context, Budget budget) {
+        createNotificationChannel(context);
+
+        // Check for notification permission on Android 13+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
+            if (context.checkSelfPermission(android.Manifest.permission.POST_NOTIFICATIONS) != android.content.pm.PackageManager.PERMISSION_GRANTED) {
+                Log.e(TAG, "Notification permission not granted");
+                return;
+            }
+        }
+
+        int percent = budget.getPercentUsed();
+        String title = percent >= Budget.EXCEEDED_PERCENT
+                ? "Budget exceeded: " + budget.getCategory()
+                : "Budget warning: " + budget.getCategory();
+        String text = percent + "% used - " + Money.format(budget.getSpent()) + " of "
+                + Money.format(budget.getMonthlyLimit()) + " this month";
+
+        Intent intent = new Intent(context, BudgetActivity.class);
+        intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+        PendingIntent pendingIntent = PendingIntent.getActivity(
+            context,
+            2,
+            intent,
+            PendingIntent.FLAG_IMMUTABLE | PendingIntent.FLAG_UPDATE_CURRENT
+        );
+
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID)
+            .setSmallIcon(R.drawable.ic_launcher_foreground)
+            .setContentTitle(title)
+            .setContentText(text)
+            .setPriority(NotificationCompat.PRIORITY_HIGH)
+            .setAutoCancel(true)
+            .setContentIntent(pendingIntent);
+
+        int notificationId = BUDGET_NOTIFICATION_ID_BASE
+                + (budget.getCategory().toLowerCase(java.util.Locale.ROOT).hashCode() & 0xffff);
+        try {
+            NotificationManagerCompat.from(context).notify(notificationId, builder.build());
+        } catch (SecurityException e) {
+            Log.e(TAG, "Failed to show budget alert: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Shows an alert for an expense far above its category's usual amount
+     * Does nothing if the user turned these alerts off
+     * @param context Any context
+     * @param transaction The unusual expense
+     * @param categoryMean Mean expense of the category
+     */
+    public static void showAnomalyAlert(Context context, Transaction transaction, double categoryMean) {
+        if (!context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE).getBoolean(ANOMALY_ALERTS_KEY, true)) {
+            return;
+        }
+        createNotificationChannel(context);
+
+        // Check for notification permission on Android 13+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
+            if (context.checkSelfPermission(android.Manifest.permission.POST_NOTIFICATIONS) != android.content.pm.PackageManager.PERMISSION_GRANTED) {
+                Log.e(TAG, "Notification permission not granted");
+                return;
+            }
+        }
+
+        Intent intent = new Intent(context, TransactionEditActivity.class);
+        intent.putExtra("transaction_id", transaction.getId());
+        intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+        PendingIntent pendingIntent = PendingIntent.getActivity(
+            context,
+            3,
+            intent,
+            PendingIntent.FLAG_IMMUTABLE | PendingIntent.FLAG_UPDATE_CURRENT
+        );
+
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID)
+            .setSmallIcon(R.drawable.ic_launcher_foreground)
+            .setContentTitle("Unusual expense: " + transaction.getCategory())
+            .setContentText(Money.format(Math.abs(transaction.getAmount()), transaction.getCurrency())
+                + ", usually around " + Money.format(categoryMean))
+            .setPriority(NotificationCompat.PRIORITY_DEFAULT)
+            .setAutoCancel(true)
+            .setContentIntent(pendingIntent);
+
+        try {
+            NotificationManagerCompat.from(context).notify(ANOMALY_NOTIFICATION_ID, builder.build());
+        } catch (SecurityException e) {
+            Log.e(TAG, "Failed to show anomaly alert: " + e.getMessage());
+        }
+    }
+
     /**
      * Schedules a daily notification reminder at 8:00 PM
      * Uses different scheduling methods based on Android version for optimal battery performance
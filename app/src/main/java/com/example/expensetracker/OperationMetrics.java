@@ -0,0 +1,132 @@
+package com.example.expensetracker;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * OperationMetrics: Latency and volume counters for one named operation
+ * Features:
+ * - Latency histogram, call count, rows returned or written and bytes written
+ * - Lock-free recording, cheap enough for every database call and row bind
+ * - Snapshots rendered as a fixed-width table for logs and debug screens
+ */
+public final class OperationMetrics {
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+
+    /**
+     * @param name Operation name; also used as its trace section, so at most 127 characters
+     */
+    public OperationMetrics(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Records one call
+     * @param nanos Time the call took
+     */
+    public void record(long nanos) {
+        latency.record(nanos);
+    }
+
+    /**
+     * @param count Rows the operation returned or wrote
+     */
+    public void addRows(long count) {
+        rows.add(count);
+    }
+
+    /**
+     * @param count Bytes the operation wrote
+     */
+    public void addBytes(long count) {
+        bytes.add(count);
+    }
+
+    /**
+     * Counts a result's size as rows returned
+     * @param result Rows returned by the operation
+     * @return The same result, so a return statement can be wrapped
+     */
+    public <T extends Collection<?>> T countRows(T result) {
+        rows.add(result.size());
+        return result;
+    }
+
+    /**
+     * Clears every counter
+     */
+    public void reset() {
+        latency.reset();
+        rows.reset();
+        bytes.reset();
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(name, latency.snapshot(), rows.sum(), bytes.sum());
+    }
+
+    /**
+     * Renders snapshots one line per operation, with a header
+     * Times are in milliseconds; operations never called are left out
+     * @param snapshots Operations to list, in the order given
+     * @return Table text, one line per row
+     */
+    public static String format(List<Snapshot> snapshots) {
+        StringBuilder table = new StringBuilder(String.format(Locale.ROOT, "%-48s %8s %9s %9s %9s %9s %10s %11s %11s\n",
+                "operation", "count", "p50 ms", "p90 ms", "p99 ms", "max ms", "total ms", "rows", "bytes"));
+        for (Snapshot snapshot : snapshots) {
+            LatencyHistogram.Snapshot latency = snapshot.getLatency();
+            if (latency.getCount() == 0) {
+                continue;
+            }
+            table.append(String.format(Locale.ROOT, "%-48s %8d %9.3f %9.3f %9.3f %9.3f %10.1f %11d %11d\n",
+                    snapshot.getName(), latency.getCount(),
+                    latency.getPercentileNanos(0.5) / 1e6, latency.getPercentileNanos(0.9) / 1e6,
+                    latency.getPercentileNanos(0.99) / 1e6, latency.getMaxNanos() / 1e6,
+                    latency.getTotalNanos() / 1e6, snapshot.getRows(), snapshot.getBytes()));
+        }
+        return table.toString();
+    }
+
+    /**
+     * Immutable copy of one operation's counters
+     */
+    public static final class Snapshot {
+        private final String name;
+        private final LatencyHistogram.Snapshot latency;
+        private final long rows;
+        private final long bytes;
+
+        private Snapshot(String name, LatencyHistogram.Snapshot latency, long rows, long bytes) {
+            this.name = name;
+            this.latency = latency;
+            this.rows = rows;
+            this.bytes = bytes;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public LatencyHistogram.Snapshot getLatency() {
+            return latency;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.expensetracker;
+
+import java.util.Arrays;
+
+/**
+ * Streaming estimate of one quantile, such as the median or the 90th percentile,
+ * using the P² algorithm (Jain and Chlamtac, 1985)
+ * Five markers track the minimum, the quantile, the maximum and two points in
+ * between; each value nudges the markers with a piecewise-parabolic fit. Memory
+ * is constant and each value costs O(1). Up to five values give the exact
+ * quantile; after that the estimate is typically within a few percent
+ */
+public final class P2Quantile {
+    private final double p;
+    // Marker heights, actual positions, desired positions and desired position increments
+    private final double[] heights = new double[5];
+    private final int[] positions = new int[5];
+    private final double[] desired = new double[5];
+    private final double[] increments = new double[5];
+    private long count;
+
+    /**
+     * @param p Quantile to estimate, between 0 and 1 (0.5 for the median)
+     */
+    public P2Quantile(double p) {
+        if (!(p >= 0 && p <= 1)) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1");
+        }
+        this.p = p;
+    }
+
+    /**
+     * Adds one observation
+     * @param x Value to add; NaN is ignored
+     */
+    public void add(double x) {
+        if (Double.isNaN(x)) {
+            return;
+        }
+        if (count < 5) {
+            heights[(int) count++] = x;
+            if (count == 5) {
+                Arrays.sort(heights);
+                for (int i = 0; i < 5; i++) {
+                    positions[i] = i;
+                }
+                desired[0] = 0;
+                desired[1] = 2 * p;
+                desired[2] = 4 * p;
+                desired[3] = 2 + 2 * p;
+                desired[4] = 4;
+                increments[0] = 0;
+                increments[1] = p / 2;
+                increments[2] = p;
+                increments[3] = (1 + p) / 2;
+                increments[4] = 1;
+            }
+            return;
+        }
+        count++;
+
+        // Find the cell the value falls in, widening the ends if needed
+        int cell;
+        if (x < heights[0]) {
+            heights[0] = x;
+            cell = 0;
+        } else if (x >= heights[4]) {
+            heights[4] = x;
+            cell = 3;
+        } else {
+            cell = 0;
+            while (x >= heights[cell + 1]) {
+                cell++;
+            }
+        }
+        for (int i = cell + 1; i < 5; i++) {
+            positions[i]++;
+        }
+        for (int i = 0; i < 5; i++) {
+            desired[i] += increments[i];
+        }
+
+        // Move the three middle markers towards their desired positions
+        for (int i = 1; i <= 3; i++) {
+            double offset = desired[i] - positions[i];
+            if ((offset >= 1 && positions[i + 1] - positions[i] > 1)
+                    || (offset <= -1 && positions[i - 1] - positions[i] < -1)) {
+                int step = offset > 0 ? 1 : -1;
+                double candidate = parabolic(i, step);
+                if (heights[i - 1] < candidate && candidate < heights[i + 1]) {
+                    heights[i] = candidate;
+                } else {
+                    heights[i] = linear(i, step);
+                }
+                positions[i] += step;
+            }
+        }
+    }
+
+    private double parabolic(int i, int step) {
+        double below = positions[i] - positions[i - 1];
+        double above = positions[i + 1] - positions[i];
+        return heights[i] + step / (double) (positions[i + 1] - positions[i - 1])
+                * ((below + step) * (heights[i + 1] - heights[i]) / above
+                + (above - step) * (heights[i] - heights[i - 1]) / below);
+    }
+
+    private double linear(int i, int step) {
+        return heights[i] + step * (heights[i + step] - heights[i]) / (positions[i + step] - positions[i]);
+    }
+
+    /**
+     * @return Estimated quantile, or NaN if nothing was added
+     */
+    public double getQuantile() {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (count > 5) {
+            return heights[2];
+        }
+        // Exact, interpolating between the two nearest of the few values seen
+        double[] seen = Arrays.copyOf(heights, (int) count);
+        Arrays.sort(seen);
+        double rank = p * (count - 1);
+        int lower = (int) Math.floor(rank);
+        int upper = Math.min(lower + 1, seen.length - 1);
+        return seen[lower] + (rank - lower) * (seen[upper] - seen[lower]);
+    }
+
+    /**
+     * @return Number of values added
+     */
+    public long getCount() {
+        return count;
+    }
+}
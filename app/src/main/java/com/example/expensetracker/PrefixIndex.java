@@ -0,0 +1,155 @@
+package com.example.expensetracker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Prefix lookup over previously entered values, such as titles or notes
+ * Values are kept in sorted parallel arrays keyed by their lower case form,
+ * so a lookup is a binary search followed by a scan of the matching run.
+ * Matches are ranked by how often a value was used, discounted by how long
+ * ago it was last used
+ */
+public final class PrefixIndex {
+    // A value last used this many days ago ranks as if used half as often
+    private static final double RECENCY_DAYS = 30;
+
+    private String[] keys = new String[16];
+    private String[] values = new String[16];
+    private int[] counts = new int[16];
+    private int[] lastDays = new int[16];
+    private int size;
+
+    /**
+     * Records one use of a value
+     * @param value Value as entered; blank values are ignored
+     * @param day Epoch day of the use
+     */
+    public void add(String value, int day) {
+        add(value, 1, day);
+    }
+
+    /**
+     * Records several uses of a value. Adding values in key order, as when
+     * loading a sorted query, appends without moving existing entries
+     * @param value Value as entered; blank values are ignored
+     * @param count Number of uses
+     * @param lastDay Epoch day of the latest use
+     */
+    public void add(String value, int count, int lastDay) {
+        if (value == null || count <= 0) {
+            return;
+        }
+        String trimmed = value.trim();
+        if (trimmed.isEmpty()) {
+            return;
+        }
+        String key = trimmed.toLowerCase(Locale.ROOT);
+
+        int position;
+        if (size > 0 && keys[size - 1].compareTo(key) < 0) {
+            position = size;
+        } else {
+            position = lowerBound(key);
+            if (position < size && keys[position].equals(key)) {
+                counts[position] += count;
+                if (lastDay >= lastDays[position]) {
+                    // The latest spelling is the one offered back
+                    lastDays[position] = lastDay;
+                    values[position] = trimmed;
+                }
+                return;
+            }
+        }
+
+        if (size == keys.length) {
+            int capacity = size * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+            lastDays = Arrays.copyOf(lastDays, capacity);
+        }
+        int tail = size - position;
+        if (tail > 0) {
+            System.arraycopy(keys, position, keys, position + 1, tail);
+            System.arraycopy(values, position, values, position + 1, tail);
+            System.arraycopy(counts, position, counts, position + 1, tail);
+            System.arraycopy(lastDays, position, lastDays, position + 1, tail);
+        }
+        keys[position] = key;
+        values[position] = trimmed;
+        counts[position] = count;
+        lastDays[position] = lastDay;
+        size++;
+    }
+
+    /**
+     * Finds values starting with a prefix, ignoring case
+     * @param prefix Text typed so far; a blank prefix matches nothing
+     * @param maxResults Maximum number of values to return
+     * @param today Epoch day recency is measured from
+     * @return Best ranked values first
+     */
+    public List<String> lookup(String prefix, int maxResults, int today) {
+        List<String> result = new ArrayList<>(Math.max(0, maxResults));
+        if (prefix == null || maxResults <= 0) {
+            return result;
+        }
+        String key = prefix.trim().toLowerCase(Locale.ROOT);
+        if (key.isEmpty()) {
+            return result;
+        }
+
+        // Bounded insertion sort over the matching run; maxResults is small
+        int[] best = new int[maxResults];
+        double[] bestScores = new double[maxResults];
+        int found = 0;
+        for (int i = lowerBound(key); i < size && keys[i].startsWith(key); i++) {
+            double score = score(i, today);
+            if (found == maxResults && score <= bestScores[maxResults - 1]) {
+                continue;
+            }
+            int position = Math.min(found, maxResults - 1);
+            while (position > 0 && bestScores[position - 1] < score) {
+                bestScores[position] = bestScores[position - 1];
+                best[position] = best[position - 1];
+                position--;
+            }
+            bestScores[position] = score;
+            best[position] = i;
+            found = Math.min(found + 1, maxResults);
+        }
+        for (int i = 0; i < found; i++) {
+            result.add(values[best[i]]);
+        }
+        return result;
+    }
+
+    private double score(int i, int today) {
+        int age = Math.max(0, today - lastDays[i]);
+        return counts[i] / (1 + age / RECENCY_DAYS);
+    }
+
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return Number of distinct values
+     */
+    public int size() {
+        return size;
+    }
+}
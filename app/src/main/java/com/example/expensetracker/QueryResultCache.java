@@ -0,0 +1,219 @@
+package com.example.expensetracker;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Results of transaction filters, each valid for one data version
+ * A lookup only hits if the entry was stored or last patched at the current
+ * version, so any write invalidates every entry just by bumping the version.
+ * Single-row writes instead patch the entries they affect in place and carry
+ * the rest forward, so "this month's expenses" stays cached while expenses
+ * are added. Total cached rows are bounded; the least recently used results
+ * are evicted first. Results are kept as compact {@link TransactionList}s
+ */
+public final class QueryResultCache {
+    private final int maxRows;
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private int cachedRows;
+    private long hits;
+    private long misses;
+    private long patches;
+    private long evictions;
+
+    private static final class Entry {
+        final TransactionFilter filter;
+        long version;
+        // Immutable; patches replace it, so readers can keep iterating
+        TransactionList rows;
+
+        Entry(TransactionFilter filter, long version, TransactionList rows) {
+            this.filter = filter;
+            this.version = version;
+            this.rows = rows;
+        }
+    }
+
+    /**
+     * @param maxRows Maximum number of rows held across all results
+     */
+    public QueryResultCache(int maxRows) {
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * @param filter Filter that was run
+     * @param version Current data version
+     * @return Cached rows, or null if there is no result for this version
+     */
+    public synchronized TransactionList get(TransactionFilter filter, long version) {
+        Entry entry = entries.get(filter.cacheKey());
+        if (entry != null && entry.version == version) {
+            hits++;
+            return entry.rows;
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Stores a result. Results larger than the whole cache are not kept
+     * @param filter Filter that was run
+     * @param version Data version read before running it
+     * @param rows Rows it returned
+     * @return The rows as stored
+     */
+    public synchronized TransactionList put(TransactionFilter filter, long version, List<Transaction> rows) {
+        TransactionList stored = TransactionList.copyOf(rows);
+        if (stored.size() > maxRows) {
+            return stored;
+        }
+        Entry previous = entries.put(filter.cacheKey(), new Entry(filter, version, stored));
+        if (previous != null) {
+            cachedRows -= previous.rows.size();
+        }
+        cachedRows += stored.size();
+        evictToFit();
+        return stored;
+    }
+
+    private void evictToFit() {
+        Iterator<Entry> eldestFirst = entries.values().iterator();
+        while (cachedRows > maxRows && eldestFirst.hasNext()) {
+            cachedRows -= eldestFirst.next().rows.size();
+            eldestFirst.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Applies a single-row write made at {@code version}. Entries current at the
+     * previous version are patched or carried forward; a filter that only
+     * returns a page cannot be patched, so it is dropped if the row touches it
+     * @param before Row before the write, or null for an insert
+     * @param after Row after the write, or null for a delete
+     * @param version Data version after the write
+     */
+    public synchronized void applyWrite(Transaction before, Transaction after, long version) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.version == version) {
+                // Read after the write and stored under its version; already includes it
+                continue;
+            }
+            if (entry.version != version - 1) {
+                // Already stale; it can never be served again
+                cachedRows -= entry.rows.size();
+                iterator.remove();
+                continue;
+            }
+            boolean removes = before != null && entry.filter.matches(before);
+            boolean adds = after != null && entry.filter.matches(after);
+            if (!removes && !adds) {
+                entry.version = version;
+                continue;
+            }
+            if (entry.filter.isLimited()) {
+                cachedRows -= entry.rows.size();
+                iterator.remove();
+                continue;
+            }
+            // Drop the row by id even when only adding it: a result read just after the
+            // write committed, but stored under the previous version, already holds it
+            long removedId = before != null ? before.getId() : after.getId();
+            long addedId = after != null ? after.getId() : removedId;
+            TransactionList rows = entry.rows;
+            // Removing rows keeps the rest in order, so the insertion point can be found first
+            int insertAt = adds ? insertionPoint(rows, after, entry.filter.comparator()) : -1;
+            TransactionList.Builder patched = new TransactionList.Builder(rows.size() + 1);
+            for (int i = 0; i < rows.size(); i++) {
+                if (i == insertAt) {
+                    patched.add(after);
+                }
+                long id = rows.id(i);
+                if (id != removedId && id != addedId) {
+                    patched.add(rows, i);
+                }
+            }
+            if (insertAt == rows.size()) {
+                patched.add(after);
+            }
+            cachedRows += patched.size() - rows.size();
+            entry.rows = patched.build();
+            entry.version = version;
+            patches++;
+        }
+        evictToFit();
+    }
+
+    /**
+     * @return Position after the last row that sorts at or before {@code row};
+     *         binary search materializes only O(log n) rows
+     */
+    private static int insertionPoint(TransactionList rows, Transaction row, Comparator<Transaction> order) {
+        if (order == null) {
+            return rows.size();
+        }
+        int low = 0;
+        int high = rows.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (order.compare(rows.get(mid), row) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Drops every result, after a bulk write that cannot be patched
+     */
+    public synchronized void clear() {
+        entries.clear();
+        cachedRows = 0;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return Number of results patched in place after a write
+     */
+    public synchronized long getPatches() {
+        return patches;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return Share of lookups served from the cache, 0 before the first lookup
+     */
+    public synchronized double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * @return Number of rows held across all results
+     */
+    public synchronized int getCachedRows() {
+        return cachedRows;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
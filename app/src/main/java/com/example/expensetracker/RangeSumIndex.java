@@ -0,0 +1,183 @@
+package com.example.expensetracker;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Totals per epoch day for each transaction type and each type and category pair,
+ * kept in Fenwick trees so the total between any two days is found in O(log n)
+ * Adding or removing an amount is also O(log n); only adding a day far outside
+ * the days seen so far costs a one-off resize of that series
+ */
+public final class RangeSumIndex {
+    private final Map<String, DayFenwickTree> series = new HashMap<>();
+
+    /**
+     * Fenwick tree over a window of consecutive epoch days
+     */
+    static final class DayFenwickTree {
+        private int originDay;
+        // 1-based: tree[i] covers the (i & -i) days ending at originDay + i - 1
+        private double[] tree;
+
+        DayFenwickTree(int day) {
+            // Start with about two months either side of the first day seen
+            this.originDay = day - 64;
+            this.tree = new double[129];
+        }
+
+        private int capacity() {
+            return tree.length - 1;
+        }
+
+        void add(int day, double amount) {
+            if (day < originDay || day >= originDay + capacity()) {
+                growToInclude(day);
+            }
+            for (int i = day - originDay + 1; i < tree.length; i += i & -i) {
+                tree[i] += amount;
+            }
+        }
+
+        /**
+         * @return Sum of the days from the window start up to and including the day
+         */
+        double prefixSum(int day) {
+            if (day < originDay) {
+                return 0;
+            }
+            double sum = 0;
+            for (int i = Math.min(day - originDay + 1, capacity()); i > 0; i -= i & -i) {
+                sum += tree[i];
+            }
+            return sum;
+        }
+
+        double rangeSum(int fromDay, int untilDay) {
+            if (untilDay < fromDay) {
+                return 0;
+            }
+            return prefixSum(untilDay) - prefixSum(fromDay - 1);
+        }
+
+        /**
+         * Doubles the window until it covers the day, then refills the tree
+         * from its daily values in linear time
+         */
+        private void growToInclude(int day) {
+            int capacity = capacity();
+            double[] daily = new double[capacity];
+            for (int i = 1; i <= capacity; i++) {
+                daily[i - 1] = tree[i] - childrenSum(i);
+            }
+            int newOrigin = originDay;
+            int newCapacity = capacity;
+            while (day < newOrigin || day >= newOrigin + newCapacity) {
+                // Extend towards the new day so repeated back-dating stays amortised
+                if (day < newOrigin) {
+                    newOrigin -= newCapacity;
+                }
+                newCapacity *= 2;
+            }
+            double[] grown = new double[newCapacity + 1];
+            int offset = originDay - newOrigin;
+            for (int i = 0; i < capacity; i++) {
+                grown[offset + i + 1] = daily[i];
+            }
+            // Linear construction: push each node's total up to its parent
+            for (int i = 1; i <= newCapacity; i++) {
+                int parent = i + (i & -i);
+                if (parent <= newCapacity) {
+                    grown[parent] += grown[i];
+                }
+            }
+            originDay = newOrigin;
+            tree = grown;
+        }
+
+        /**
+         * @return Sum of the children of node i, which with tree[i] make up its span
+         */
+        private double childrenSum(int i) {
+            double sum = 0;
+            int lowest = i & -i;
+            for (int step = 1; step < lowest; step <<= 1) {
+                sum += tree[i - step];
+            }
+            return sum;
+        }
+
+        int getOriginDay() {
+            return originDay;
+        }
+
+        int getCapacity() {
+            return capacity();
+        }
+    }
+
+    private static String typeKey(String type) {
+        return type == null ? "" : type.toLowerCase(Locale.ROOT);
+    }
+
+    private static String categoryKey(String type, String category) {
+        return typeKey(type) + '\u0000' + (category == null ? "" : category.trim().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Adds an amount to its type's series and its category's series
+     * @param type 'income' or 'expense'
+     * @param category Category, matched case-insensitively
+     * @param day Epoch day of the amount
+     * @param amount Amount to add; negative to take a removed row back out
+     */
+    public void add(String type, String category, int day, double amount) {
+        addTo(typeKey(type), day, amount);
+        addTo(categoryKey(type, category), day, amount);
+    }
+
+    private void addTo(String key, int day, double amount) {
+        DayFenwickTree tree = series.get(key);
+        if (tree == null) {
+            tree = new DayFenwickTree(day);
+            series.put(key, tree);
+        }
+        tree.add(day, amount);
+    }
+
+    /**
+     * Gets the total of one type between two days
+     * @param type 'income' or 'expense'
+     * @param fromDay First epoch day, inclusive
+     * @param untilDay Last epoch day, inclusive
+     * @return Total, or 0 if nothing of the type is recorded
+     */
+    public double sum(String type, int fromDay, int untilDay) {
+        return sumOf(typeKey(type), fromDay, untilDay);
+    }
+
+    /**
+     * Gets the total of one category between two days
+     * @param type 'income' or 'expense'
+     * @param category Category, matched case-insensitively
+     * @param fromDay First epoch day, inclusive
+     * @param untilDay Last epoch day, inclusive
+     * @return Total, or 0 if nothing of the category is recorded
+     */
+    public double sum(String type, String category, int fromDay, int untilDay) {
+        return sumOf(categoryKey(type, category), fromDay, untilDay);
+    }
+
+    private double sumOf(String key, int fromDay, int untilDay) {
+        DayFenwickTree tree = series.get(key);
+        return tree == null ? 0 : tree.rangeSum(fromDay, untilDay);
+    }
+
+    /**
+     * @return Number of series, counting each type and each category once
+     */
+    public int getSeriesCount() {
+        return series.size();
+    }
+}
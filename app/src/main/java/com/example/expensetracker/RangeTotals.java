@@ -0,0 +1,113 @@
+package com.example.expensetracker;
+
+import android.content.Context;
+
+/**
+ * RangeTotals: Income and expense totals between any two dates
+ * Features:
+ * - Fenwick trees over epoch days per type and per category, built once from
+ *   daily totals off the main thread
+ * - Inserts, edits and deletes patch the trees in O(log n) instead of rebuilding
+ * - Any range, even over years of data, is answered without querying the database
+ */
+public class RangeTotals implements DatabaseHelper.OnDataChangedListener {
+    private static RangeTotals instance;
+
+    private final DatabaseHelper dbHelper;
+    // Patched in place under this object's lock
+    private final BackgroundIndex<RangeSumIndex> index;
+
+    private RangeTotals(DatabaseHelper dbHelper) {
+        this.dbHelper = dbHelper;
+        this.index = new BackgroundIndex<>(dbHelper, dbHelper::loadRangeSumIndex);
+        dbHelper.addOnDataChangedListener(this);
+        index.scheduleBuild();
+    }
+
+    /**
+     * Gets the shared totals; the first call starts building them in the background
+     * @param context Any context
+     * @return Shared totals
+     */
+    public static synchronized RangeTotals getInstance(Context context) {
+        if (instance == null) {
+            instance = new RangeTotals(DatabaseHelper.getInstance(context));
+        }
+        return instance;
+    }
+
+    /**
+     * Gets the income and expense totals between two days, in the base currency
+     * The first call may read daily totals from the database, so call it on a
+     * background thread
+     * @param fromDay First epoch day, inclusive
+     * @param untilDay Last epoch day, inclusive
+     * @return Totals for the range
+     */
+    public synchronized FinancialSummary getTotals(int fromDay, int untilDay) {
+        // Waits for the first build if it has not finished, by loading on this thread
+        RangeSumIndex totals = index.require();
+        return new FinancialSummary(totals.sum("income", fromDay, untilDay),
+                totals.sum("expense", fromDay, untilDay));
+    }
+
+    /**
+     * Gets one category's total between two days, in the base currency
+     * @param type 'income' or 'expense'
+     * @param category Category, matched case-insensitively
+     * @param fromDay First epoch day, inclusive
+     * @param untilDay Last epoch day, inclusive
+     * @return Total for the range
+     */
+    public synchronized double getCategoryTotal(String type, String category, int fromDay, int untilDay) {
+        return index.require().sum(type, category, fromDay, untilDay);
+    }
+
+    /**
+     * Adds or takes back one row's amount
+     * @param sign 1 to add the row, -1 to remove it
+     */
+    private void apply(RangeSumIndex totals, Transaction transaction, int sign) {
+        int day = EpochDays.parse(transaction.getDate());
+        if (day == EpochDays.INVALID) {
+            // Unreadable dates are left out of the index, as when it is built
+            return;
+        }
+        double amount = Math.abs(dbHelper.toBaseAmount(transaction));
+        totals.add(transaction.getType(), transaction.getCategory(), day, sign * amount);
+    }
+
+    @Override
+    public synchronized void onTransactionAdded(Transaction transaction, long dataVersion) {
+        RangeSumIndex totals = index.getForChange(dataVersion);
+        if (totals == null) {
+            // Not built yet, or built after this row was written; the build has it
+            return;
+        }
+        apply(totals, transaction, 1);
+    }
+
+    @Override
+    public synchronized void onTransactionUpdated(Transaction before, Transaction after, long dataVersion) {
+        RangeSumIndex totals = index.getForChange(dataVersion);
+        if (totals == null) {
+            return;
+        }
+        apply(totals, before, -1);
+        apply(totals, after, 1);
+    }
+
+    @Override
+    public synchronized void onTransactionDeleted(Transaction deleted, long dataVersion) {
+        RangeSumIndex totals = index.getForChange(dataVersion);
+        if (totals == null) {
+            return;
+        }
+        apply(totals, deleted, -1);
+    }
+
+    @Override
+    public void onDataInvalidated(long dataVersion) {
+        index.scheduleBuild();
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.expensetracker;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A repeating transaction, such as rent, salary or a subscription
+ * Occurrences are numbered from 0 (the start date) and computed arithmetically,
+ * so finding or counting the occurrences in a date range never steps through
+ * them one by one. {@link #getNextIndex()} is the first occurrence that has
+ * not been written to the transactions table yet
+ */
+public final class RecurrenceRule {
+    public static final int UNIT_DAY = 0;
+    public static final int UNIT_WEEK = 1;
+    public static final int UNIT_MONTH = 2;
+
+    private final long id;
+    private final double amount;
+    private final String type;
+    private final String category;
+    private final String note;
+    private final int unit;
+    private final int interval;
+    private final int startDay;
+    private final int endDay;
+    private final int nextIndex;
+
+    /**
+     * @param id Database id, or -1 if not saved yet
+     * @param amount Amount of each occurrence
+     * @param type 'income' or 'expense'
+     * @param category Category of each occurrence
+     * @param note Note of each occurrence
+     * @param unit {@link #UNIT_DAY}, {@link #UNIT_WEEK} or {@link #UNIT_MONTH}
+     * @param interval Number of units between occurrences, at least 1
+     * @param startDay Epoch day of the first occurrence
+     * @param endDay Last epoch day an occurrence may fall on, or {@link EpochDays#INVALID} for no end
+     * @param nextIndex First occurrence not yet materialized
+     */
+    public RecurrenceRule(long id, double amount, String type, String category, String note,
+                          int unit, int interval, int startDay, int endDay, int nextIndex) {
+        if (unit < UNIT_DAY || unit > UNIT_MONTH) {
+            throw new IllegalArgumentException("Unknown unit " + unit);
+        }
+        if (interval < 1) {
+            throw new IllegalArgumentException("Interval must be at least 1");
+        }
+        this.id = id;
+        this.amount = amount;
+        this.type = type;
+        this.category = category;
+        this.note = note;
+        this.unit = unit;
+        this.interval = interval;
+        this.startDay = startDay;
+        this.endDay = endDay;
+        this.nextIndex = nextIndex;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public String getNote() {
+        return note;
+    }
+
+    public int getUnit() {
+        return unit;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    public int getStartDay() {
+        return startDay;
+    }
+
+    public int getEndDay() {
+        return endDay;
+    }
+
+    public boolean hasEnd() {
+        return endDay != EpochDays.INVALID;
+    }
+
+    public int getNextIndex() {
+        return nextIndex;
+    }
+
+    /**
+     * @return Copy of this rule with a different id
+     */
+    public RecurrenceRule withId(long newId) {
+        return new RecurrenceRule(newId, amount, type, category, note, unit, interval, startDay, endDay, nextIndex);
+    }
+
+    /**
+     * @return Copy of this rule with a different next index
+     */
+    public RecurrenceRule withNextIndex(int newNextIndex) {
+        return new RecurrenceRule(id, amount, type, category, note, unit, interval, startDay, endDay, newNextIndex);
+    }
+
+    /**
+     * Computes the date of an occurrence. Monthly rules keep the start's day of
+     * month, clamped to shorter months (the 31st becomes the 30th or 28th)
+     * @param index Occurrence number, from 0
+     * @return Epoch day of the occurrence
+     */
+    public int occurrenceDay(int index) {
+        if (unit == UNIT_DAY) {
+            return startDay + index * interval;
+        }
+        if (unit == UNIT_WEEK) {
+            return startDay + index * interval * 7;
+        }
+        int startKey = EpochDays.toDayKey(startDay);
+        int months = monthOrdinal(startKey) + index * interval;
+        int year = months / 12;
+        int month = months % 12 + 1;
+        int day = Math.min(startKey % 100, EpochDays.daysInMonth(year, month));
+        return EpochDays.of(year, month, day);
+    }
+
+    /**
+     * Counts the occurrences on or before a day, ignoring the end date
+     */
+    private int countThrough(int day) {
+        if (day < startDay) {
+            return 0;
+        }
+        if (unit == UNIT_DAY || unit == UNIT_WEEK) {
+            int step = unit == UNIT_DAY ? interval : interval * 7;
+            return (day - startDay) / step + 1;
+        }
+        int index = (monthOrdinal(EpochDays.toDayKey(day)) - monthOrdinal(EpochDays.toDayKey(startDay))) / interval;
+        // The clamped day of month may fall after the limit within its month
+        if (occurrenceDay(index) > day) {
+            index--;
+        }
+        return index + 1;
+    }
+
+    private static int monthOrdinal(int dayKey) {
+        return (dayKey / 10000) * 12 + (dayKey / 100 % 100) - 1;
+    }
+
+    /**
+     * @param day Epoch day
+     * @return Number of occurrences on or before the day that are within the end date
+     */
+    public int countUntil(int day) {
+        return countThrough(hasEnd() ? Math.min(day, endDay) : day);
+    }
+
+    /**
+     * @param day Epoch day
+     * @return Index of the first occurrence on or after the day
+     */
+    public int firstIndexOnOrAfter(int day) {
+        return countThrough(day - 1);
+    }
+
+    /**
+     * @param day Epoch day
+     * @return Number of occurrences not yet materialized that are due on or before the day
+     */
+    public int dueCount(int day) {
+        return Math.max(0, countUntil(day) - nextIndex);
+    }
+
+    /**
+     * @return Epoch day of the next unmaterialized occurrence, or
+     *         {@link EpochDays#INVALID} once the rule has ended
+     */
+    public int nextDueDay() {
+        int day = occurrenceDay(nextIndex);
+        return hasEnd() && day > endDay ? EpochDays.INVALID : day;
+    }
+
+    /**
+     * Builds the occurrence as a transaction. Occurrences that are not stored
+     * have id -1 and are only used for projections
+     * @param index Occurrence number
+     * @return Transaction for the occurrence
+     */
+    public Transaction toTransaction(int index) {
+        return new Transaction(-1, amount, type, category, EpochDays.format(occurrenceDay(index)), note);
+    }
+
+    /**
+     * Lists occurrences that have not been materialized and fall within a range,
+     * without writing them anywhere
+     * @param fromDay First epoch day, inclusive
+     * @param untilDay Last epoch day, inclusive
+     * @return Projected transactions in date order
+     */
+    public List<Transaction> project(int fromDay, int untilDay) {
+        int first = Math.max(nextIndex, firstIndexOnOrAfter(fromDay));
+        int end = countUntil(untilDay);
+        List<Transaction> occurrences = new ArrayList<>(Math.max(0, end - first));
+        for (int index = first; index < end; index++) {
+            occurrences.add(toTransaction(index));
+        }
+        return occurrences;
+    }
+
+    /**
+     * @param fromDay First epoch day, inclusive
+     * @param untilDay Last epoch day, inclusive
+     * @return Number of unmaterialized occurrences within the range
+     */
+    public int projectedCount(int fromDay, int untilDay) {
+        int first = Math.max(nextIndex, firstIndexOnOrAfter(fromDay));
+        return Math.max(0, countUntil(untilDay) - first);
+    }
+
+    /**
+     * @return Short description such as "Every 2 weeks" or "Monthly"
+     */
+    public String describe() {
+        String[] singular = {"Daily", "Weekly", "Monthly"};
+        String[] plural = {"days", "weeks", "months"};
+        String text = interval == 1 ? singular[unit] : "Every " + interval + " " + plural[unit];
+        if (hasEnd()) {
+            text += " until " + EpochDays.format(endDay);
+        }
+        return text;
+    }
+}
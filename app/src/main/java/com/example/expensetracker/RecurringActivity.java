@@ -0,0 +1,123 @@
+package com.example.expensetracker;
+
+import android.os.Bundle;
+import android.view.MenuItem;
+import android.view.View;
+import android.widget.ArrayAdapter;
+import android.widget.ListView;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.appcompat.app.AlertDialog;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.appcompat.widget.Toolbar;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * RecurringActivity: Lists recurring transaction rules
+ * Features:
+ * - Shows each rule with its schedule and next occurrence
+ * - Shows the balance projected to the end of the month, including
+ *   occurrences that have not been written yet
+ * - Long press stops a rule; occurrences already recorded are kept
+ */
+public class RecurringActivity extends AppCompatActivity {
+    private ListView recurringList;
+    private TextView emptyView;
+    private TextView projectionText;
+    private ArrayAdapter<String> listAdapter;
+    private final List<RecurrenceRule> rules = new ArrayList<>();
+    private DatabaseHelper dbHelper;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_recurring);
+
+        // Set up toolbar
+        Toolbar toolbar = findViewById(R.id.toolbar);
+        setSupportActionBar(toolbar);
+        getSupportActionBar().setDisplayHomeAsUpEnabled(true);
+        setTitle("Recurring");
+
+        dbHelper = DatabaseHelper.getInstance(this);
+
+        recurringList = findViewById(R.id.recurringList);
+        emptyView = findViewById(R.id.emptyView);
+        projectionText = findViewById(R.id.projectionText);
+        listAdapter = new ArrayAdapter<>(this, android.R.layout.simple_list_item_1, new ArrayList<>());
+        recurringList.setAdapter(listAdapter);
+
+        recurringList.setOnItemLongClickListener((parent, view, position, id) -> {
+            confirmDelete(rules.get(position));
+            return true;
+        });
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        loadRules();
+    }
+
+    private void loadRules() {
+        AppExecutors.diskIO().execute(() -> {
+            int today = EpochDays.today();
+            dbHelper.materializeRecurring(today);
+            List<RecurrenceRule> loaded = dbHelper.getRecurringRules();
+
+            int todayKey = EpochDays.toDayKey(today);
+            int monthEnd = EpochDays.of(todayKey / 10000, todayKey / 100 % 100,
+                    EpochDays.daysInMonth(todayKey / 10000, todayKey / 100 % 100));
+            FinancialSummary projected = dbHelper.getFinancialSummary(monthEnd);
+            AppExecutors.mainThread().execute(() -> showRules(loaded, projected));
+        });
+    }
+
+    private void showRules(List<RecurrenceRule> loaded, FinancialSummary projected) {
+        if (isFinishing() || isDestroyed()) {
+            return;
+        }
+        rules.clear();
+        rules.addAll(loaded);
+
+        List<String> rows = new ArrayList<>(loaded.size());
+        for (RecurrenceRule rule : loaded) {
+            int nextDay = rule.nextDueDay();
+            String next = nextDay == EpochDays.INVALID ? "Ended" : "Next: " + EpochDays.format(nextDay);
+            String sign = "income".equalsIgnoreCase(rule.getType()) ? "+" : "-";
+            rows.add(String.format(Locale.UK, "%s  %s%s\n%s · %s",
+                    rule.getCategory(), sign, Money.format(Math.abs(rule.getAmount())), rule.describe(), next));
+        }
+        listAdapter.clear();
+        listAdapter.addAll(rows);
+
+        projectionText.setText("Projected balance at month end: " + Money.format(projected.getBalance()));
+        emptyView.setVisibility(loaded.isEmpty() ? View.VISIBLE : View.GONE);
+        recurringList.setVisibility(loaded.isEmpty() ? View.GONE : View.VISIBLE);
+    }
+
+    private void confirmDelete(RecurrenceRule rule) {
+        new AlertDialog.Builder(this)
+                .setTitle("Stop Repeating")
+                .setMessage("Stop repeating " + rule.getCategory() + "? Entries already recorded are kept.")
+                .setPositiveButton("Stop", (dialog, which) -> AppExecutors.diskIO().execute(() -> {
+                    dbHelper.deleteRecurringRule(rule.getId());
+                    AppExecutors.mainThread().execute(this::loadRules);
+                }))
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(@NonNull MenuItem item) {
+        if (item.getItemId() == android.R.id.home) {
+            onBackPressed();
+            return true;
+        }
+        return super.onOptionsItemSelected(item);
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.expensetracker;
+
+import android.app.DatePickerDialog;
+import android.content.Context;
+import android.view.View;
+import android.widget.AdapterView;
+
+import com.example.expensetracker.databinding.LayoutRepeatOptionsBinding;
+
+/**
+ * Repeat controls shared by the income and expense forms
+ * Features:
+ * - Daily, weekly, monthly or custom interval choice
+ * - Optional end date
+ * - Builds the recurring rule for a saved transaction
+ */
+public class RepeatOptions {
+    // Positions in @array/repeat_options
+    private static final int REPEAT_NONE = 0;
+    private static final int REPEAT_DAILY = 1;
+    private static final int REPEAT_WEEKLY = 2;
+    private static final int REPEAT_MONTHLY = 3;
+    private static final int REPEAT_CUSTOM = 4;
+
+    private final Context context;
+    private final LayoutRepeatOptionsBinding binding;
+    private int endDay = EpochDays.INVALID;
+
+    public RepeatOptions(Context context, LayoutRepeatOptionsBinding binding) {
+        this.context = context;
+        this.binding = binding;
+
+        binding.repeatSpinner.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
+            @Override
+            public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
+                binding.customIntervalRow.setVisibility(position == REPEAT_CUSTOM ? View.VISIBLE : View.GONE);
+                binding.endDateLayout.setVisibility(position == REPEAT_NONE ? View.GONE : View.VISIBLE);
+            }
+
+            @Override
+            public void onNothingSelected(AdapterView<?> parent) {
+            }
+        });
+        binding.endDateEditText.setOnClickListener(v -> showEndDatePicker());
+    }
+
+    private void showEndDatePicker() {
+        int initialKey = EpochDays.toDayKey(endDay != EpochDays.INVALID ? endDay : EpochDays.today());
+        // The dialog counts months from 0
+        DatePickerDialog dialog = new DatePickerDialog(
+                context,
+                (view, year, month, dayOfMonth) -> {
+                    endDay = EpochDays.of(year, month + 1, dayOfMonth);
+                    binding.endDateEditText.setText(EpochDays.format(endDay));
+                },
+                initialKey / 10000,
+                initialKey / 100 % 100 - 1,
+                initialKey % 100
+        );
+        // Clearing the field removes the end date
+        dialog.setButton(DatePickerDialog.BUTTON_NEUTRAL, "No end", (d, which) -> {
+            endDay = EpochDays.INVALID;
+            binding.endDateEditText.setText("");
+        });
+        dialog.show();
+    }
+
+    /**
+     * @return true if a repeat option other than "Does not repeat" is selected
+     */
+    public boolean isRepeating() {
+        return binding.repeatSpinner.getSelectedItemPosition() != REPEAT_NONE;
+    }
+
+    /**
+     * Builds the rule for a transaction that has just been saved. The saved
+     * transaction is occurrence 0, so the rule starts materializing from 1
+     * @param amount Amount of each occurrence
+     * @param type 'income' or 'expense'
+     * @param category Category of each occurrence
+     * @param note Note of each occurrence
+     * @param startDay Epoch day of the saved transaction
+     * @return The rule, or null if repeating is off or the interval is invalid
+     */
+    public RecurrenceRule buildRule(double amount, String type, String category, String note, int startDay) {
+        int unit;
+        int interval = 1;
+        switch (binding.repeatSpinner.getSelectedItemPosition()) {
+            case REPEAT_DAILY:
+                unit = RecurrenceRule.UNIT_DAY;
+                break;
+            case REPEAT_WEEKLY:
+                unit = RecurrenceRule.UNIT_WEEK;
+                break;
+            case REPEAT_MONTHLY:
+                unit = RecurrenceRule.UNIT_MONTH;
+                break;
+            case REPEAT_CUSTOM:
+                // Positions in @array/repeat_units match the unit constants
+                unit = binding.intervalUnitSpinner.getSelectedItemPosition();
+                try {
+                    interval = Integer.parseInt(binding.intervalEditText.getText().toString().trim());
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+                if (interval < 1) {
+                    return null;
+                }
+                break;
+            default:
+                return null;
+        }
+        if (endDay != EpochDays.INVALID && endDay < startDay) {
+            return null;
+        }
+        return new RecurrenceRule(-1, amount, type, category, note, unit, interval, startDay, endDay, 1);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.expensetracker;
+
+/**
+ * Running count, mean and variance of a stream of values (Welford's method)
+ * Adding or removing a value is O(1) and numerically stable, so per-category
+ * statistics can follow every write without rescanning history
+ */
+public final class RunningStats {
+    // Expenses within this many standard deviations of the mean are normal
+    public static final double ANOMALY_SIGMAS = 3.0;
+    // Too few samples give a meaningless spread; don't flag before this many
+    public static final int MIN_SAMPLES = 5;
+
+    private long count;
+    private double mean;
+    private double m2;
+
+    public RunningStats() {
+    }
+
+    /**
+     * @param count Number of values
+     * @param mean Mean of the values
+     * @param m2 Sum of squared differences from the mean
+     */
+    public RunningStats(long count, double mean, double m2) {
+        this.count = count;
+        this.mean = mean;
+        this.m2 = m2;
+    }
+
+    /**
+     * Adds a value
+     * @param value Value to add
+     */
+    public void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+    }
+
+    /**
+     * Removes a value that was previously added
+     * @param value Value to remove
+     */
+    public void remove(double value) {
+        if (count <= 1) {
+            count = 0;
+            mean = 0;
+            m2 = 0;
+            return;
+        }
+        double oldMean = mean;
+        count--;
+        mean = (oldMean * (count + 1) - value) / count;
+        m2 = Math.max(0, m2 - (value - oldMean) * (value - mean));
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double getM2() {
+        return m2;
+    }
+
+    /**
+     * @return Sample variance, or 0 with fewer than two values
+     */
+    public double getVariance() {
+        return count > 1 ? m2 / (count - 1) : 0;
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * Checks whether a value is far above the values seen so far
+     * Only unusually high values are flagged; a cheaper than usual purchase is not a concern
+     * @param value Value to check, before it is added
+     * @return true if the value is an outlier
+     */
+    public boolean isAnomaly(double value) {
+        if (count < MIN_SAMPLES) {
+            return false;
+        }
+        // A floor on the spread stops a category of identical amounts flagging every cent of change
+        double spread = Math.max(getStandardDeviation(), Math.abs(mean) * 0.1);
+        return value > mean + ANOMALY_SIGMAS * spread;
+    }
+}
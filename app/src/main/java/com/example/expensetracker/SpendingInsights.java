@@ -0,0 +1,85 @@
+package com.example.expensetracker;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Largest expenses and typical spend for a period, gathered in one pass over
+ * the period's expenses. Amounts are in the base currency
+ */
+public final class SpendingInsights {
+    private final List<Transaction> largest;
+    private final long count;
+    private final double median;
+    private final double p90;
+    private final List<CategorySpread> categories;
+
+    /**
+     * Median and 90th percentile of one category's expenses
+     */
+    public static final class CategorySpread {
+        private final String category;
+        private final long count;
+        private final double median;
+        private final double p90;
+
+        public CategorySpread(String category, long count, double median, double p90) {
+            this.category = category;
+            this.count = count;
+            this.median = median;
+            this.p90 = p90;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getMedian() {
+            return median;
+        }
+
+        public double getP90() {
+            return p90;
+        }
+    }
+
+    /**
+     * @param largest Largest expenses, largest first
+     * @param count Number of expenses in the period
+     * @param median Median expense, NaN if there were none
+     * @param p90 90th percentile expense, NaN if there were none
+     * @param categories Spread per category, most frequent first
+     */
+    public SpendingInsights(List<Transaction> largest, long count, double median, double p90,
+                            List<CategorySpread> categories) {
+        this.largest = Collections.unmodifiableList(largest);
+        this.count = count;
+        this.median = median;
+        this.p90 = p90;
+        this.categories = Collections.unmodifiableList(categories);
+    }
+
+    public List<Transaction> getLargest() {
+        return largest;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMedian() {
+        return median;
+    }
+
+    public double getP90() {
+        return p90;
+    }
+
+    public List<CategorySpread> getCategories() {
+        return categories;
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.expensetracker;
+
+import android.os.Build;
+import android.os.Process;
+import android.os.SystemClock;
+import android.os.Trace;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+/**
+ * StartupTracer: Marks the stages of MainActivity startup
+ * Features:
+ * - Emits android.os.Trace sections visible in Perfetto/systrace captures
+ * - Measures time-to-first-frame and time-to-data from process start
+ * - Logs one machine-readable line per milestone for CI log/trace parsing
+ */
+public final class StartupTracer {
+    private static final String TAG = "StartupTrace";
+    private static final String SECTION_TIME_TO_DATA = "Startup.timeToData";
+    private static final int TIME_TO_DATA_COOKIE = 1;
+
+    // Main thread only
+    private static boolean timeToDataStarted;
+    private static long firstFrameMillis = -1;
+    private static long dataReadyMillis = -1;
+
+    private StartupTracer() {
+    }
+
+    /**
+     * Opens a synchronous trace section; must be closed on the same thread
+     * @param name Section name
+     */
+    public static void beginSection(String name) {
+        Trace.beginSection(name);
+    }
+
+    /**
+     * Closes the innermost section opened by {@link #beginSection(String)}
+     */
+    public static void endSection() {
+        Trace.endSection();
+    }
+
+    /**
+     * Marks the start of background data loading, which ends on another thread
+     * Only the first call per process opens the section; later loads, such as
+     * on every resume, are not startup
+     */
+    public static void beginTimeToData() {
+        if (timeToDataStarted) {
+            return;
+        }
+        timeToDataStarted = true;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            Trace.beginAsyncSection(SECTION_TIME_TO_DATA, TIME_TO_DATA_COOKIE);
+        }
+    }
+
+    /**
+     * Marks that real data is on screen. Only the first call per process is recorded
+     */
+    public static void endTimeToData() {
+        if (!timeToDataStarted || dataReadyMillis >= 0) {
+            return;
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            Trace.endAsyncSection(SECTION_TIME_TO_DATA, TIME_TO_DATA_COOKIE);
+        }
+        dataReadyMillis = sinceProcessStart();
+        Log.i(TAG, "timeToDataMs=" + dataReadyMillis);
+    }
+
+    /**
+     * Runs an action once, after the view's first frame has been drawn
+     * The first draw is also recorded as time-to-first-frame
+     * @param view Any view in the activity's hierarchy
+     * @param afterFirstDraw Work to defer until the first frame is on screen
+     */
+    public static void onFirstDraw(View view, Runnable afterFirstDraw) {
+        ViewTreeObserver.OnDrawListener drawListener = new ViewTreeObserver.OnDrawListener() {
+            private boolean drawn;
+
+            @Override
+            public void onDraw() {
+                if (drawn) {
+                    return;
+                }
+                drawn = true;
+                ViewTreeObserver.OnDrawListener self = this;
+                // Listeners cannot be removed during dispatch; post the removal and the deferred work
+                view.post(() -> {
+                    view.getViewTreeObserver().removeOnDrawListener(self);
+                    recordFirstFrame();
+                    afterFirstDraw.run();
+                });
+            }
+        };
+        view.getViewTreeObserver().addOnDrawListener(drawListener);
+    }
+
+    private static void recordFirstFrame() {
+        if (firstFrameMillis >= 0) {
+            return;
+        }
+        firstFrameMillis = sinceProcessStart();
+        Log.i(TAG, "timeToFirstFrameMs=" + firstFrameMillis);
+    }
+
+    private static long sinceProcessStart() {
+        return SystemClock.uptimeMillis() - Process.getStartUptimeMillis();
+    }
+
+    /**
+     * Forgets every milestone, as if the process had just started; for tests
+     */
+    static void reset() {
+        timeToDataStarted = false;
+        firstFrameMillis = -1;
+        dataReadyMillis = -1;
+    }
+
+    /**
+     * @return Time from process start to first frame, or -1 if not drawn yet
+     */
+    public static long getFirstFrameMillis() {
+        return firstFrameMillis;
+    }
+
+    /**
+     * @return Time from process start to data on screen, or -1 if not loaded yet
+     */
+    public static long getDataReadyMillis() {
+        return dataReadyMillis;
+    }
+}
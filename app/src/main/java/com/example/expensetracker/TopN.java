@@ -0,0 +1,82 @@
+package com.example.expensetracker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the N values with the largest keys seen in a stream
+ * A min-heap of at most N entries holds the current winners, so memory is
+ * O(N) however long the stream is and each offer costs O(log N). Call
+ * {@link #accepts(double)} first to skip building values that would be dropped
+ * @param <T> Value type
+ */
+public final class TopN<T> {
+    private final int capacity;
+    private final PriorityQueue<Entry<T>> heap;
+
+    private static final class Entry<T> {
+        final double key;
+        final T value;
+
+        Entry(double key, T value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * @param capacity Number of values to keep, at least 1
+     */
+    public TopN(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        this.capacity = capacity;
+        this.heap = new PriorityQueue<>(capacity, (a, b) -> Double.compare(a.key, b.key));
+    }
+
+    /**
+     * @param key Key of a candidate value
+     * @return true if a value with this key would currently be kept
+     */
+    public boolean accepts(double key) {
+        return heap.size() < capacity || key > heap.peek().key;
+    }
+
+    /**
+     * Offers a value; it is kept if its key is among the N largest so far
+     * Ties with the smallest kept key keep the earlier value
+     * @param key Ranking key
+     * @param value Value to keep
+     */
+    public void offer(double key, T value) {
+        if (heap.size() < capacity) {
+            heap.add(new Entry<>(key, value));
+        } else if (key > heap.peek().key) {
+            heap.poll();
+            heap.add(new Entry<>(key, value));
+        }
+    }
+
+    /**
+     * @return Kept values, largest key first
+     */
+    public List<T> toList() {
+        List<Entry<T>> entries = new ArrayList<>(heap);
+        entries.sort((a, b) -> Double.compare(b.key, a.key));
+        List<T> values = new ArrayList<>(entries.size());
+        for (Entry<T> entry : entries) {
+            values.add(entry.value);
+        }
+        return Collections.unmodifiableList(values);
+    }
+
+    /**
+     * @return Number of values kept, at most the capacity
+     */
+    public int size() {
+        return heap.size();
+    }
+}
@@ -8,6 +8,8 @@ public class Transaction {
     private String date;
     private String category;
     private String type; // "income" or "expense"
+    private boolean anomaly; // unusually high for its category when saved
+    private String currency = Money.BASE_CURRENCY; // ISO 4217 code the amount is in
 
     public Transaction(String title, String description, double amount, String date) {
         this.title = title;
@@ -92,4 +94,20 @@ public class Transaction {
     public void setType(String type) {
         this.type = type;
     }
+
+    public boolean isAnomaly() {
+        return anomaly;
+    }
+
+    public void setAnomaly(boolean anomaly) {
+        this.anomaly = anomaly;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = Money.normalize(currency);
+    }
 }
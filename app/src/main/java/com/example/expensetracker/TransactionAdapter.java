@@ -1,25 +1,70 @@
 package com.example.expensetracker;
 
-import android.graphics.Color;
+import android.text.TextUtils;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.expensetracker.R;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Adapter for displaying transaction items in a RecyclerView
+ * Uses stable ids and background diffing so that reloading the list only
+ * animates the rows that actually changed. Rows are bound from precomputed
+ * {@link TransactionDisplayModel}s, so binding does no formatting or allocation.
+ * The list may be a sparse {@link TransactionPages} snapshot, in which case
+ * unloaded rows are bound as placeholders and their page is requested, or a
+ * {@link TransactionCursorList} for very large ledgers, in which case rows
+ * are read straight from the cursor into a reused row view as they are bound
  */
 public class TransactionAdapter extends RecyclerView.Adapter<TransactionAdapter.TransactionViewHolder> {
-    private List<Transaction> transactions = new ArrayList<>();
+    // Time per bound row; rows counts real rows, not placeholders
+    private static final OperationMetrics BIND_METRICS = DbMetrics.operation("TransactionAdapter.onBindViewHolder");
+
+    private List<TransactionDisplayModel> items = Collections.emptyList();
+    private int maxScheduledGeneration;
     private OnTransactionClickListener listener;
+    private OnPageRequestListener pageRequestListener;
+    private RecyclerView recyclerView;
+
+    /**
+     * Single click listener shared by every row; resolves the clicked item
+     * from the holder's adapter position instead of capturing it per bind
+     */
+    private final View.OnClickListener itemClickListener = v -> {
+        if (listener == null || recyclerView == null) {
+            return;
+        }
+        RecyclerView.ViewHolder holder = recyclerView.findContainingViewHolder(v);
+        if (holder == null) {
+            return;
+        }
+        int position = holder.getBindingAdapterPosition();
+        if (position != RecyclerView.NO_POSITION && position < items.size()) {
+            if (items instanceof TransactionCursorList) {
+                listener.onTransactionClick(((TransactionCursorList) items).getTransaction(position));
+                return;
+            }
+            TransactionDisplayModel model = items.get(position);
+            if (model != null) {
+                listener.onTransactionClick(model.getTransaction());
+            }
+        }
+    };
+
+    public TransactionAdapter() {
+        setHasStableIds(true);
+    }
 
     /**
      * Interface for handling transaction click events
@@ -28,6 +73,18 @@ public class TransactionAdapter extends RecyclerView.Adapter<TransactionAdapter.
         void onTransactionClick(Transaction transaction);
     }
 
+    /**
+     * Interface for loading pages of a sparse {@link TransactionPages} list
+     */
+    public interface OnPageRequestListener {
+        /**
+         * Called when a placeholder row is bound
+         * @param generation Generation of the snapshot the page belongs to
+         * @param pageIndex Index of the page to load
+         */
+        void onPageRequested(int generation, int pageIndex);
+    }
+
     /**
      * Sets the transaction click listener
      * @param listener Listener to handle click events
@@ -37,18 +94,177 @@ public class TransactionAdapter extends RecyclerView.Adapter<TransactionAdapter.
     }
 
     /**
-     * Updates the transaction list and refreshes the view
+     * Sets the listener that loads pages for placeholder rows
+     * @param pageRequestListener Listener to handle page requests
+     */
+    public void setOnPageRequestListener(OnPageRequestListener pageRequestListener) {
+        this.pageRequestListener = pageRequestListener;
+    }
+
+    /**
+     * Submits a new transaction list; the difference against the current list
+     * is computed on a background thread and dispatched as item changes.
+     * Prefer {@link #setDisplayModels(List)} with models built off the main thread
      * @param newTransactions New list of transactions to display
      */
     public void setTransactions(List<Transaction> newTransactions) {
         if (newTransactions == null) {
             return;
         }
-        int oldSize = this.transactions.size();
-        this.transactions.clear();
-        notifyItemRangeRemoved(0, oldSize);
-        this.transactions.addAll(newTransactions);
-        notifyItemRangeInserted(0, newTransactions.size());
+        submit(TransactionDisplayModel.fromTransactions(newTransactions));
+    }
+
+    /**
+     * Submits precomputed display models
+     * @param models Display models, typically built on a background thread
+     */
+    public void setDisplayModels(List<TransactionDisplayModel> models) {
+        if (models == null) {
+            return;
+        }
+        submit(models);
+    }
+
+    /**
+     * Submits a sparse page snapshot
+     * @param pages Snapshot with the initially visible pages loaded
+     */
+    public void setPages(TransactionPages pages) {
+        if (pages == null) {
+            return;
+        }
+        submit(pages);
+    }
+
+    /**
+     * Switches to binding directly from a cursor. Diffing would have to read
+     * every row, so the change is dispatched as range notifications over the
+     * old and new sizes; stable ids still let unchanged rows keep their views.
+     * A list at the data version already shown is closed and ignored.
+     * The previous cursor is closed
+     * @param cursorList Cursor-backed list, counted on a background thread
+     */
+    public void setCursorList(TransactionCursorList cursorList) {
+        if (cursorList == null) {
+            return;
+        }
+        if (isShowingDataVersion(cursorList.getDataVersion())) {
+            cursorList.close();
+            return;
+        }
+        List<TransactionDisplayModel> oldItems = items;
+        maxScheduledGeneration++;
+        items = cursorList;
+        dispatchReplaced(oldItems.size(), cursorList.size());
+        closeCursor(oldItems);
+    }
+
+    /**
+     * @param dataVersion Data version from {@link DatabaseHelper#getDataVersion()}
+     * @return true if the list is bound to a cursor read at that version
+     */
+    public boolean isShowingDataVersion(long dataVersion) {
+        return items instanceof TransactionCursorList
+                && ((TransactionCursorList) items).getDataVersion() == dataVersion;
+    }
+
+    private void dispatchReplaced(int oldSize, int newSize) {
+        int common = Math.min(oldSize, newSize);
+        if (common > 0) {
+            notifyItemRangeChanged(0, common);
+        }
+        if (newSize > oldSize) {
+            notifyItemRangeInserted(oldSize, newSize - oldSize);
+        } else if (oldSize > newSize) {
+            notifyItemRangeRemoved(newSize, oldSize - newSize);
+        }
+    }
+
+    /**
+     * Releases the cursor backing the list, if any. Call when the list is destroyed
+     */
+    public void close() {
+        List<TransactionDisplayModel> oldItems = items;
+        items = Collections.emptyList();
+        closeCursor(oldItems);
+    }
+
+    private static void closeCursor(List<TransactionDisplayModel> list) {
+        if (list instanceof TransactionCursorList) {
+            ((TransactionCursorList) list).close();
+        }
+    }
+
+    /**
+     * Fills in a page of the current snapshot. Ignored if the page belongs to
+     * an older snapshot, which happens when the data was reloaded meanwhile
+     * @param generation Generation the page was requested for
+     * @param pageIndex Index of the loaded page
+     * @param rows Rows of the page
+     */
+    public void onPageLoaded(int generation, int pageIndex, List<TransactionDisplayModel> rows) {
+        if (!(items instanceof TransactionPages)) {
+            return;
+        }
+        TransactionPages pages = (TransactionPages) items;
+        if (pages.getGeneration() != generation || pages.isPageLoaded(pageIndex)) {
+            return;
+        }
+        items = pages.withPage(pageIndex, rows);
+        int start = pageIndex * pages.getPageSize();
+        notifyItemRangeChanged(start, Math.min(rows.size(), pages.size() - start));
+    }
+
+    /**
+     * Diffs the new list against the current one on a background thread and
+     * dispatches the result on the main thread. A newer submission supersedes
+     * any diff still in flight
+     */
+    private void submit(List<TransactionDisplayModel> newItems) {
+        final int runGeneration = ++maxScheduledGeneration;
+        final List<TransactionDisplayModel> oldItems = items;
+
+        if (oldItems instanceof TransactionCursorList) {
+            // The cursor cannot be read from the diff thread; replace it by range
+            items = newItems;
+            dispatchReplaced(oldItems.size(), newItems.size());
+            closeCursor(oldItems);
+            return;
+        }
+
+        if (oldItems.isEmpty() || newItems.isEmpty()) {
+            // Nothing to diff against: dispatch the whole range directly
+            items = newItems;
+            if (!oldItems.isEmpty()) {
+                notifyItemRangeRemoved(0, oldItems.size());
+            }
+            if (!newItems.isEmpty()) {
+                notifyItemRangeInserted(0, newItems.size());
+            }
+            return;
+        }
+
+        AppExecutors.computation().execute(() -> {
+            DiffUtil.DiffResult result = DiffUtil.calculateDiff(new TransactionDiffCallback(oldItems, newItems));
+            AppExecutors.mainThread().execute(() -> {
+                if (maxScheduledGeneration == runGeneration) {
+                    items = newItems;
+                    result.dispatchUpdatesTo(TransactionAdapter.this);
+                }
+            });
+        });
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        this.recyclerView = recyclerView;
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+        this.recyclerView = null;
     }
 
     @NonNull
@@ -56,38 +272,118 @@ public class TransactionAdapter extends RecyclerView.Adapter<TransactionAdapter.
     public TransactionViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View itemView = LayoutInflater.from(parent.getContext())
                 .inflate(R.layout.item_transaction, parent, false);
+        itemView.setOnClickListener(itemClickListener);
         return new TransactionViewHolder(itemView);
     }
-    
+
     @Override
     public void onBindViewHolder(@NonNull TransactionViewHolder holder, int position) {
-        Transaction transaction = transactions.get(position);
-        holder.bind(transaction);
-        
-        // Set click listener
-        holder.itemView.setOnClickListener(v -> {
-            if (listener != null) {
-                listener.onTransactionClick(transaction);
+        long start = DbMetrics.begin(BIND_METRICS);
+        try {
+            if (items instanceof TransactionCursorList) {
+                holder.bind(((TransactionCursorList) items).row(position));
+                BIND_METRICS.addRows(1);
+                return;
             }
-        });
+
+            TransactionDisplayModel model = items.get(position);
+            if (model != null) {
+                holder.bind(model);
+                BIND_METRICS.addRows(1);
+                return;
+            }
+
+            holder.bindPlaceholder();
+            if (pageRequestListener != null && items instanceof TransactionPages) {
+                TransactionPages pages = (TransactionPages) items;
+                pageRequestListener.onPageRequested(pages.getGeneration(), pages.pageForPosition(position));
+            }
+        } finally {
+            DbMetrics.end(BIND_METRICS, start);
+        }
     }
-    
+
     @Override
     public int getItemCount() {
-        return transactions.size();
+        return items.size();
     }
-    
+
+    @Override
+    public long getItemId(int position) {
+        if (items instanceof TransactionCursorList) {
+            return ((TransactionCursorList) items).getId(position);
+        }
+        TransactionDisplayModel model = items.get(position);
+        // Placeholders get negative ids, which never collide with database row ids
+        return model != null ? model.getId() : -1L - position;
+    }
+
     /**
      * Removes a transaction at the specified position
      * @param position Position of the transaction to remove
      */
     public void removeItem(int position) {
-        if (position >= 0 && position < transactions.size()) {
-            transactions.remove(position);
+        if (position >= 0 && position < items.size()
+                && !(items instanceof TransactionPages) && !(items instanceof TransactionCursorList)) {
+            List<TransactionDisplayModel> updated = new ArrayList<>(items);
+            updated.remove(position);
+            items = updated;
             notifyItemRemoved(position);
         }
     }
-    
+
+    /**
+     * Diff callback keyed on transaction id, comparing the fields shown in a row.
+     * Placeholder rows ({@code null}) only match other placeholders
+     */
+    private static class TransactionDiffCallback extends DiffUtil.Callback {
+        private final List<TransactionDisplayModel> oldItems;
+        private final List<TransactionDisplayModel> newItems;
+
+        TransactionDiffCallback(List<TransactionDisplayModel> oldItems, List<TransactionDisplayModel> newItems) {
+            this.oldItems = oldItems;
+            this.newItems = newItems;
+        }
+
+        @Override
+        public int getOldListSize() {
+            return oldItems.size();
+        }
+
+        @Override
+        public int getNewListSize() {
+            return newItems.size();
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+            TransactionDisplayModel oldItem = oldItems.get(oldItemPosition);
+            TransactionDisplayModel newItem = newItems.get(newItemPosition);
+            if (oldItem == null || newItem == null) {
+                return oldItem == null && newItem == null;
+            }
+            return oldItem.getId() == newItem.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+            TransactionDisplayModel oldItem = oldItems.get(oldItemPosition);
+            TransactionDisplayModel newItem = newItems.get(newItemPosition);
+            if (oldItem == null || newItem == null) {
+                return oldItem == newItem;
+            }
+            Transaction oldTransaction = oldItem.getTransaction();
+            Transaction newTransaction = newItem.getTransaction();
+            return Double.compare(oldTransaction.getAmount(), newTransaction.getAmount()) == 0
+                    && Objects.equals(oldTransaction.getDate(), newTransaction.getDate())
+                    && Objects.equals(oldTransaction.getCategory(), newTransaction.getCategory())
+                    && Objects.equals(oldTransaction.getDescription(), newTransaction.getDescription())
+                    && Objects.equals(oldTransaction.getType(), newTransaction.getType())
+                    && Objects.equals(oldTransaction.getCurrency(), newTransaction.getCurrency())
+                    && oldTransaction.isAnomaly() == newTransaction.isAnomaly();
+        }
+    }
+
     /**
      * ViewHolder for transaction items
      */
@@ -96,34 +392,61 @@ public class TransactionAdapter extends RecyclerView.Adapter<TransactionAdapter.
         private final TextView transactionDescription;
         private final TextView transactionDate;
         private final TextView transactionAmount;
-        
+        private final TextView transactionFlag;
+        // Owned by this holder's amount view, which keeps showing it after setText
+        private char[] amountChars = new char[32];
+
         TransactionViewHolder(View itemView) {
             super(itemView);
             transactionTitle = itemView.findViewById(R.id.transactionTitle);
             transactionDescription = itemView.findViewById(R.id.transactionDescription);
             transactionDate = itemView.findViewById(R.id.transactionDate);
             transactionAmount = itemView.findViewById(R.id.transactionAmount);
+            transactionFlag = itemView.findViewById(R.id.transactionFlag);
         }
-        
+
         /**
-         * Binds transaction data to the view
-         * @param transaction Transaction to display
+         * Binds precomputed transaction data to the view
+         * @param model Display model to show
          */
-        void bind(Transaction transaction) {
-            transactionTitle.setText(transaction.getCategory());
-            transactionDescription.setText(transaction.getDescription());
-            transactionDate.setText(transaction.getDate());
-            
-            // Set amount with appropriate formatting and Euro symbol
-            double amount = transaction.getAmount();
-            String amountText = String.format("€%.2f", Math.abs(amount));
-            if ("income".equalsIgnoreCase(transaction.getType())) {
-                transactionAmount.setTextColor(Color.GREEN);
-                transactionAmount.setText("+" + amountText);
-            } else if ("expense".equalsIgnoreCase(transaction.getType())) {
-                transactionAmount.setTextColor(Color.RED);
-                transactionAmount.setText("-" + amountText);
+        void bind(TransactionDisplayModel model) {
+            transactionTitle.setText(model.getTitleText());
+            transactionDescription.setText(model.getDescriptionText());
+            transactionDate.setText(model.getDateText());
+            transactionAmount.setTextColor(model.getAmountColor());
+            transactionAmount.setText(model.getAmountText());
+            transactionFlag.setVisibility(model.isAnomaly() ? View.VISIBLE : View.GONE);
+        }
+
+        /**
+         * Binds the current row of a cursor-backed list, without building a model
+         * @param row Shared row view of the cursor list
+         */
+        void bind(TransactionCursorList.Row row) {
+            transactionTitle.setText(row.getTitleText());
+            transactionDescription.setText(row.getDescriptionText());
+            transactionDate.setText(row.getDateText());
+            transactionAmount.setTextColor(row.getAmountColor());
+            // Copied into this holder's buffer: setText(CharSequence) would make a String per bind
+            CharSequence amount = row.getAmountText();
+            int length = amount.length();
+            if (amountChars.length < length) {
+                amountChars = new char[length];
             }
+            TextUtils.getChars(amount, 0, length, amountChars, 0);
+            transactionAmount.setText(amountChars, 0, length);
+            transactionFlag.setVisibility(row.isAnomaly() ? View.VISIBLE : View.GONE);
+        }
+
+        /**
+         * Clears the row while its page is loading
+         */
+        void bindPlaceholder() {
+            transactionTitle.setText("");
+            transactionDescription.setText("");
+            transactionDate.setText("");
+            transactionAmount.setText("");
+            transactionFlag.setVisibility(View.GONE);
         }
     }
 }
@@ -0,0 +1,130 @@
+package com.example.expensetracker;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary file of transactions, for loading large test ledgers quickly
+ * Layout: a magic number and version, then blocks of rows, each starting with
+ * its row count; a count of 0 ends the file. A row is the id, epoch day and
+ * amount, then type, category, note and currency as references into a string
+ * table that is built as the file is written, so each distinct string is
+ * stored once. Anomaly flags are not kept. Written and read in one streaming pass
+ */
+public final class TransactionBinaryFile {
+    private static final int MAGIC = 0x4C454447; // "LEDG"
+    private static final int VERSION = 1;
+    // String references: this for null, the current table size for a new string that follows
+    private static final int NULL_STRING = -1;
+
+    private TransactionBinaryFile() {
+    }
+
+    /**
+     * Writes every batch to a file
+     * @param out Destination; buffered by the caller, flushed but not closed
+     * @param batches Rows to write, in order
+     * @return Number of rows written
+     * @throws IOException If writing fails
+     * @throws IllegalArgumentException If a row's date did not parse
+     */
+    public static long write(OutputStream out, Iterator<TransactionList> batches) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        Map<String, Integer> table = new HashMap<>();
+        long written = 0;
+        while (batches.hasNext()) {
+            TransactionList batch = batches.next();
+            if (batch.isEmpty()) {
+                continue;
+            }
+            data.writeInt(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                if (batch.epochDay(i) == EpochDays.INVALID) {
+                    throw new IllegalArgumentException("Row " + batch.id(i) + " has no valid date");
+                }
+                data.writeLong(batch.id(i));
+                data.writeInt(batch.epochDay(i));
+                data.writeDouble(batch.amount(i));
+                writeString(data, table, batch.type(i));
+                writeString(data, table, batch.category(i));
+                writeString(data, table, batch.note(i));
+                writeString(data, table, batch.currency(i));
+            }
+            written += batch.size();
+        }
+        data.writeInt(0);
+        data.flush();
+        return written;
+    }
+
+    private static void writeString(DataOutputStream data, Map<String, Integer> table, String value)
+            throws IOException {
+        if (value == null) {
+            data.writeInt(NULL_STRING);
+            return;
+        }
+        Integer index = table.get(value);
+        if (index != null) {
+            data.writeInt(index);
+            return;
+        }
+        data.writeInt(table.size());
+        data.writeUTF(value);
+        table.put(value, table.size());
+    }
+
+    /**
+     * Reads a whole file
+     * @param in Source; buffered by the caller, not closed
+     * @return Every row in file order
+     * @throws IOException If the file cannot be read or is not in this format
+     */
+    public static TransactionList read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a transaction file");
+        }
+        int version = data.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported transaction file version " + version);
+        }
+        List<String> table = new ArrayList<>();
+        TransactionList.Builder rows = new TransactionList.Builder();
+        for (int count = data.readInt(); count > 0; count = data.readInt()) {
+            for (int i = 0; i < count; i++) {
+                long id = data.readLong();
+                int epochDay = data.readInt();
+                double amount = data.readDouble();
+                String type = readString(data, table);
+                String category = readString(data, table);
+                String note = readString(data, table);
+                String currency = readString(data, table);
+                rows.add(id, epochDay, amount, type, category, note, currency, false);
+            }
+        }
+        return rows.build();
+    }
+
+    private static String readString(DataInputStream data, List<String> table) throws IOException {
+        int index = data.readInt();
+        if (index == NULL_STRING) {
+            return null;
+        }
+        if (index == table.size()) {
+            table.add(data.readUTF());
+        } else if (index < 0 || index > table.size()) {
+            throw new IOException("Corrupt string reference " + index);
+        }
+        return table.get(index);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.expensetracker;
+
+import android.database.Cursor;
+
+/**
+ * Column positions of a transactions cursor, resolved once per query
+ * Reading rows through this avoids a column name lookup for every field of
+ * every row
+ */
+final class TransactionColumns {
+    private final int id;
+    private final int amount;
+    private final int type;
+    private final int category;
+    private final int date;
+    private final int note;
+    // -1 when the query does not select them
+    private final int anomaly;
+    private final int currency;
+
+    private TransactionColumns(Cursor cursor) {
+        id = cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_ID);
+        amount = cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_AMOUNT);
+        type = cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_TYPE);
+        category = cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_CATEGORY);
+        date = cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_DATE);
+        note = cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_NOTE);
+        anomaly = cursor.getColumnIndex(DatabaseHelper.COLUMN_ANOMALY);
+        currency = cursor.getColumnIndex(DatabaseHelper.COLUMN_CURRENCY);
+    }
+
+    /**
+     * @param cursor Cursor over the transactions table
+     * @return Resolved column positions for this cursor
+     */
+    static TransactionColumns of(Cursor cursor) {
+        return new TransactionColumns(cursor);
+    }
+
+    /**
+     * @param cursor Cursor positioned at a transaction row
+     * @return Id of the current row
+     */
+    long readId(Cursor cursor) {
+        return cursor.getLong(id);
+    }
+
+    /**
+     * @param cursor Cursor positioned at a transaction row
+     * @return Transaction built from the current row
+     */
+    Transaction read(Cursor cursor) {
+        Transaction transaction = new Transaction(
+                cursor.getLong(id),
+                cursor.getDouble(amount),
+                cursor.getString(type),
+                cursor.getString(category),
+                cursor.getString(date),
+                cursor.getString(note));
+        if (anomaly >= 0) {
+            transaction.setAnomaly(cursor.getInt(anomaly) != 0);
+        }
+        if (currency >= 0) {
+            transaction.setCurrency(cursor.getString(currency));
+        }
+        return transaction;
+    }
+
+    /**
+     * Appends the current row to a compact list without building a Transaction
+     * @param cursor Cursor positioned at a transaction row
+     * @param rows Builder to append to
+     */
+    void readInto(Cursor cursor, TransactionList.Builder rows) {
+        rows.add(cursor.getLong(id),
+                cursor.getString(date),
+                cursor.getDouble(amount),
+                cursor.getString(type),
+                cursor.getString(category),
+                cursor.getString(note),
+                currency >= 0 ? cursor.getString(currency) : null,
+                anomaly >= 0 && cursor.getInt(anomaly) != 0);
+    }
+
+    /**
+     * Copies the current row into a reused row view without building a Transaction
+     * @param cursor Cursor positioned at a transaction row
+     * @param row Row view to overwrite
+     */
+    void readInto(Cursor cursor, TransactionCursorList.Row row) {
+        row.set(cursor.getLong(id),
+                cursor.getDouble(amount),
+                cursor.getString(type),
+                cursor.getString(category),
+                cursor.getString(date),
+                cursor.getString(note),
+                currency >= 0 ? cursor.getString(currency) : null,
+                anomaly >= 0 && cursor.getInt(anomaly) != 0);
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.expensetracker;
+
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads transactions from CSV, such as a file written by the CSV export
+ * Features:
+ * - Columns are found by header name (Type, Category, Amount, Date, Note, Currency);
+ *   without a header the export's column order is assumed
+ * - Quoted fields may contain commas, doubled quotes and line breaks
+ * - Amounts may carry a currency symbol; dates may be dd/MM/yyyy or yyyy-MM-dd
+ * - Rows that cannot be read are counted and skipped
+ */
+public class TransactionCsvReader {
+    // Column order written by TransactionCsvWriter
+    private static final String[] EXPORT_HEADER = {"id", "type", "category", "amount", "date", "note", "currency"};
+
+    private int invalidCount;
+
+    /**
+     * Reads every row
+     * @param reader CSV text; not closed
+     * @return Transactions in file order, with id -1
+     * @throws IOException If the text cannot be read
+     */
+    public List<Transaction> read(Reader reader) throws IOException {
+        invalidCount = 0;
+        List<Transaction> transactions = new ArrayList<>();
+        int[] columns = null;
+        List<String> fields = new ArrayList<>();
+        PushbackReader in = new PushbackReader(reader, 1);
+        while (readRecord(in, fields)) {
+            if (fields.size() == 1 && fields.get(0).trim().isEmpty()) {
+                continue;
+            }
+            if (columns == null) {
+                columns = headerColumns(fields);
+                if (columns != null) {
+                    continue;
+                }
+                columns = headerColumns(Arrays.asList(EXPORT_HEADER));
+            }
+            Transaction transaction = toTransaction(fields, columns);
+            if (transaction == null) {
+                invalidCount++;
+            } else {
+                transactions.add(transaction);
+            }
+        }
+        return transactions;
+    }
+
+    /**
+     * @return Number of rows skipped by the last {@link #read} because they could not be parsed
+     */
+    public int getInvalidCount() {
+        return invalidCount;
+    }
+
+    /**
+     * Maps the type, category, amount, date, note and currency columns from a header row
+     * @return Column positions, or null if the row is not a header
+     */
+    private static int[] headerColumns(List<String> header) {
+        String[] names = {"type", "category", "amount", "date", "note", "currency"};
+        int[] columns = new int[names.length];
+        boolean found = false;
+        for (int i = 0; i < names.length; i++) {
+            columns[i] = -1;
+            for (int j = 0; j < header.size(); j++) {
+                if (names[i].equals(header.get(j).trim().toLowerCase(Locale.ROOT))) {
+                    columns[i] = j;
+                    found = true;
+                    break;
+                }
+            }
+        }
+        // Amount and date are required; without them this is a data row
+        return found && columns[2] >= 0 && columns[3] >= 0 ? columns : null;
+    }
+
+    private static Transaction toTransaction(List<String> fields, int[] columns) {
+        String type = field(fields, columns[0]).trim().toLowerCase(Locale.ROOT);
+        String category = field(fields, columns[1]).trim();
+        String amountText = field(fields, columns[2]);
+        int day = EpochDays.parse(field(fields, columns[3]).trim());
+        String note = field(fields, columns[4]);
+        String currency = field(fields, columns[5]).trim();
+
+        double amount;
+        try {
+            amount = Double.parseDouble(amountText.replaceAll("[^0-9.\\-]", ""));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (day == EpochDays.INVALID || Double.isNaN(amount) || Double.isInfinite(amount)) {
+            return null;
+        }
+        if (!"income".equals(type) && !"expense".equals(type)) {
+            // Files without a type column are classified by sign, like older rows
+            type = amount >= 0 ? "income" : "expense";
+        }
+        Transaction transaction = new Transaction(-1, amount, type, category.isEmpty() ? null : category,
+                EpochDays.format(day), note.isEmpty() ? null : note);
+        // Files without a currency column hold base currency amounts
+        transaction.setCurrency(currency);
+        return transaction;
+    }
+
+    private static String field(List<String> fields, int column) {
+        return column >= 0 && column < fields.size() ? fields.get(column) : "";
+    }
+
+    /**
+     * Reads one record, which may span several lines inside quotes
+     * @param fields Receives the record's fields
+     * @return false at the end of the input
+     */
+    private static boolean readRecord(PushbackReader reader, List<String> fields) throws IOException {
+        fields.clear();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean any = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            any = true;
+            if (quoted) {
+                if (c == '"') {
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (next != -1) {
+                            reader.unread(next);
+                        }
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+        if (!any) {
+            return false;
+        }
+        fields.add(field.toString());
+        return true;
+    }
+}
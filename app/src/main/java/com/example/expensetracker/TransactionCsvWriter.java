@@ -0,0 +1,53 @@
+package com.example.expensetracker;
+
+import java.io.IOException;
+
+/**
+ * Writes transactions as CSV in the layout {@link TransactionCsvReader} reads back
+ * Features:
+ * - Header row: ID, Type, Category, Amount, Date, Note, Currency
+ * - Amounts carry their currency symbol; notes are quoted with quotes doubled
+ * - Rows are read in place from a {@link TransactionList}, without a Transaction per row
+ */
+public final class TransactionCsvWriter {
+    public static final String HEADER = "ID,Type,Category,Amount,Date,Note,Currency\n";
+
+    private TransactionCsvWriter() {
+    }
+
+    /**
+     * Writes the header and every row
+     * @param out Destination; not flushed or closed
+     * @param transactions Rows to write, in order
+     * @throws IOException If writing fails
+     */
+    public static void write(Appendable out, TransactionList transactions) throws IOException {
+        out.append(HEADER);
+        TransactionList.Row row = transactions.row();
+        for (int i = 0; i < transactions.size(); i++) {
+            writeRow(out, row.moveTo(i));
+        }
+    }
+
+    /**
+     * Writes one row, ending with a line break
+     * @param out Destination
+     * @param row Row to write
+     * @throws IOException If writing fails
+     */
+    public static void writeRow(Appendable out, TransactionList.Row row) throws IOException {
+        out.append(String.valueOf(row.getId())).append(",");
+        out.append(row.getType()).append(",");
+        out.append(row.getCategory()).append(",");
+        out.append(Money.format(row.getAmount(), row.getCurrency())).append(",");
+        out.append(row.getDate()).append(",");
+
+        // Handle notes that might contain commas by enclosing in quotes
+        String note = row.getDescription();
+        if (note != null && !note.isEmpty()) {
+            out.append("\"").append(note.replace("\"", "\"\"")).append("\"");
+        }
+        out.append(",").append(row.getCurrency());
+        out.append("\n");
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.expensetracker;
+
+import android.database.Cursor;
+
+import java.io.Closeable;
+import java.util.AbstractList;
+
+/**
+ * Transaction list backed directly by a windowed SQLite cursor
+ * Rows are read only when the adapter binds them, so memory for the history
+ * screen follows the viewport (plus one cursor window) instead of the size of
+ * the table. Binding goes through a single reused {@link Row}; a Transaction
+ * is only built when a row is clicked. Must only be read on the main thread
+ * once handed to the adapter; the adapter closes it when it is replaced
+ */
+public final class TransactionCursorList extends AbstractList<TransactionDisplayModel> implements Closeable {
+    private final Cursor cursor;
+    private final TransactionColumns columns;
+    private final int count;
+    private final FxRates rates;
+    private final long dataVersion;
+    private final Row row = new Row();
+
+    /**
+     * Wraps a cursor. Call on a background thread: counting the rows fills
+     * the first cursor window
+     * @param cursor Cursor over the transactions table
+     * @param rates Exchange rates for showing converted amounts, or null
+     * @param dataVersion Data version read before the cursor was queried
+     */
+    public TransactionCursorList(Cursor cursor, FxRates rates, long dataVersion) {
+        this.cursor = cursor;
+        this.rates = rates;
+        this.dataVersion = dataVersion;
+        this.columns = TransactionColumns.of(cursor);
+        this.count = cursor.getCount();
+    }
+
+    /**
+     * Builds a new display model for a row. Binding uses {@link #row(int)} instead
+     */
+    @Override
+    public TransactionDisplayModel get(int position) {
+        return TransactionDisplayModel.from(getTransaction(position), rates);
+    }
+
+    /**
+     * @param position Row position
+     * @return New Transaction with the row's values, such as for a click
+     */
+    public Transaction getTransaction(int position) {
+        moveTo(position);
+        return columns.read(cursor);
+    }
+
+    /**
+     * Points the shared row view at a row. The view is overwritten by the
+     * next call, so read what is needed before moving on
+     * @param position Row position
+     * @return Shared row view, now showing that row
+     */
+    public Row row(int position) {
+        moveTo(position);
+        columns.readInto(cursor, row);
+        return row;
+    }
+
+    /**
+     * Reads only the id of a row, for stable ids without materializing it
+     * @param position Row position
+     * @return Transaction id
+     */
+    public long getId(int position) {
+        moveTo(position);
+        return columns.readId(cursor);
+    }
+
+    /**
+     * @return Data version the rows were read at; the list is current while
+     *         {@link DatabaseHelper#getDataVersion()} still returns it
+     */
+    public long getDataVersion() {
+        return dataVersion;
+    }
+
+    private void moveTo(int position) {
+        if (!cursor.moveToPosition(position)) {
+            throw new IndexOutOfBoundsException("Position " + position + ", size " + count);
+        }
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public void close() {
+        cursor.close();
+    }
+
+    /**
+     * Reused view of the current cursor row, with its amount formatted the
+     * same way as a {@link TransactionDisplayModel}
+     */
+    public final class Row {
+        private long id;
+        private double amount;
+        private String type;
+        private String category;
+        private String date;
+        private String note;
+        private String currency;
+        private boolean anomaly;
+        // Reused by getAmountText, so binding a row does not allocate its text
+        private final StringBuilder amountText = new StringBuilder(32);
+
+        private Row() {
+        }
+
+        void set(long id, double amount, String type, String category, String date, String note,
+                 String currency, boolean anomaly) {
+            this.id = id;
+            this.amount = amount;
+            this.type = type;
+            this.category = category;
+            this.date = date;
+            this.note = note;
+            this.currency = Money.normalize(currency);
+            this.anomaly = anomaly;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getTitleText() {
+            return category;
+        }
+
+        public String getDescriptionText() {
+            return note;
+        }
+
+        public String getDateText() {
+            return date;
+        }
+
+        /**
+         * @return Amount text in a reused buffer, overwritten by the next call;
+         *         copy it out before binding the next row
+         */
+        public CharSequence getAmountText() {
+            // The day only matters for converting other currencies
+            int epochDay = Money.isBase(currency) ? EpochDays.INVALID : EpochDays.parse(date);
+            amountText.setLength(0);
+            TransactionDisplayModel.appendAmountText(amountText, type, amount, currency, epochDay, rates);
+            return amountText;
+        }
+
+        public int getAmountColor() {
+            return TransactionDisplayModel.amountColor(type);
+        }
+
+        public boolean isAnomaly() {
+            return anomaly;
+        }
+    }
+}
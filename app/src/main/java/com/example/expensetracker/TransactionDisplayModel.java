@@ -0,0 +1,186 @@
+package com.example.expensetracker;
+
+import android.graphics.Color;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Precomputed, display-ready view of a transaction
+ * Built once when a page of transactions is loaded (off the main thread),
+ * so binding a row only assigns ready-made strings and colours
+ */
+public final class TransactionDisplayModel {
+    private final Transaction transaction;
+    private final String amountText;
+    private final int amountColor;
+    private final boolean income;
+
+    private TransactionDisplayModel(Transaction transaction, String amountText, int amountColor, boolean income) {
+        this.transaction = transaction;
+        this.amountText = amountText;
+        this.amountColor = amountColor;
+        this.income = income;
+    }
+
+    /**
+     * Builds the display model for a single transaction
+     * @param transaction Transaction to display
+     * @return Display model with formatted amount, sign and colour
+     */
+    public static TransactionDisplayModel from(Transaction transaction) {
+        return from(transaction, null);
+    }
+
+    /**
+     * Builds the display model for a single transaction, showing amounts in
+     * other currencies next to their base currency value on the day
+     * @param transaction Transaction to display
+     * @param rates Exchange rates, or null to show the amount only
+     * @return Display model with formatted amount, sign and colour
+     */
+    public static TransactionDisplayModel from(Transaction transaction, FxRates rates) {
+        return from(transaction, transaction.getType(), transaction.getAmount(), transaction.getCurrency(),
+                EpochDays.parse(transaction.getDate()), rates);
+    }
+
+    private static TransactionDisplayModel from(Transaction transaction, String type, double signedAmount,
+                                                String currency, int epochDay, FxRates rates) {
+        return new TransactionDisplayModel(transaction, amountText(type, signedAmount, currency, epochDay, rates),
+                amountColor(type), "income".equalsIgnoreCase(type));
+    }
+
+    /**
+     * Formats a row's amount with its sign, and its base currency value on
+     * the day when it is in another currency
+     * @param type Transaction type
+     * @param signedAmount Amount as stored
+     * @param currency Currency code of the amount
+     * @param epochDay Day of the transaction, for the exchange rate
+     * @param rates Exchange rates, or null to show the amount only
+     * @return Text for the amount column
+     */
+    static String amountText(String type, double signedAmount, String currency, int epochDay, FxRates rates) {
+        StringBuilder out = new StringBuilder(32);
+        appendAmountText(out, type, signedAmount, currency, epochDay, rates);
+        return out.toString();
+    }
+
+    /**
+     * Appends the text of {@link #amountText}, for binding rows into a reused buffer
+     * @param out Builder to append to
+     */
+    static void appendAmountText(StringBuilder out, String type, double signedAmount, String currency,
+                                 int epochDay, FxRates rates) {
+        if ("income".equalsIgnoreCase(type)) {
+            out.append('+');
+        } else if ("expense".equalsIgnoreCase(type)) {
+            out.append('-');
+        }
+        double amount = Math.abs(signedAmount);
+        Money.appendTo(out, amount, currency);
+        if (rates != null && !Money.isBase(currency)) {
+            // Served from the rate table's (currency, day) cache for most rows
+            double converted = rates.convert(amount, currency, epochDay);
+            if (!Double.isNaN(converted)) {
+                out.append(" (");
+                Money.appendTo(out, converted, Money.BASE_CURRENCY);
+                out.append(')');
+            }
+        }
+    }
+
+    /**
+     * @param type Transaction type
+     * @return Colour of the amount column
+     */
+    static int amountColor(String type) {
+        if ("income".equalsIgnoreCase(type)) {
+            return Color.GREEN;
+        } else if ("expense".equalsIgnoreCase(type)) {
+            return Color.RED;
+        }
+        return Color.GRAY;
+    }
+
+    /**
+     * Builds display models for a whole page of transactions
+     * @param transactions Transactions to display
+     * @return Display models in the same order
+     */
+    public static List<TransactionDisplayModel> fromTransactions(List<Transaction> transactions) {
+        return fromTransactions(transactions, null);
+    }
+
+    /**
+     * Builds display models for a whole page of transactions
+     * @param transactions Transactions to display
+     * @param rates Exchange rates, or null to show amounts only
+     * @return Display models in the same order
+     */
+    public static List<TransactionDisplayModel> fromTransactions(List<Transaction> transactions, FxRates rates) {
+        List<TransactionDisplayModel> models = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            models.add(from(transaction, rates));
+        }
+        return models;
+    }
+
+    /**
+     * Builds display models for a page read into a compact list, formatting
+     * straight from its columns; only the Transaction each model keeps for
+     * click handling is materialized
+     * @param transactions Transactions to display
+     * @param rates Exchange rates, or null to show amounts only
+     * @return Display models in the same order
+     */
+    public static List<TransactionDisplayModel> fromTransactions(TransactionList transactions, FxRates rates) {
+        List<TransactionDisplayModel> models = new ArrayList<>(transactions.size());
+        TransactionList.Row row = transactions.row();
+        for (int i = 0; i < transactions.size(); i++) {
+            row.moveTo(i);
+            models.add(from(row.toTransaction(), row.getType(), row.getAmount(), row.getCurrency(),
+                    row.getEpochDay(), rates));
+        }
+        return models;
+    }
+
+    public Transaction getTransaction() {
+        return transaction;
+    }
+
+    public long getId() {
+        return transaction.getId();
+    }
+
+    public String getTitleText() {
+        return transaction.getCategory();
+    }
+
+    public String getDescriptionText() {
+        return transaction.getDescription();
+    }
+
+    public String getDateText() {
+        return transaction.getDate();
+    }
+
+    public String getAmountText() {
+        return amountText;
+    }
+
+    public int getAmountColor() {
+        return amountColor;
+    }
+
+    public boolean isIncome() {
+        return income;
+    }
+
+    /**
+     * @return true if the expense was flagged as unusually high for its category
+     */
+    public boolean isAnomaly() {
+        return transaction.isAnomaly();
+    }
+}
@@ -3,6 +3,7 @@ package com.example.expensetracker;
 import android.os.Bundle;
 import android.view.MenuItem;
 import android.view.View;
+import android.widget.AutoCompleteTextView;
 import android.widget.Button;
 import android.widget.EditText;
 import android.widget.TextView;
@@ -11,8 +12,6 @@ import androidx.annotation.NonNull;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
-import java.text.SimpleDateFormat;
-import java.util.Date;
 import java.util.Locale;
 
 public class TransactionEditActivity extends AppCompatActivity {
@@ -36,7 +35,7 @@ public class TransactionEditActivity extends AppCompatActivity {
         setTitle("Edit Transaction");
 
         // Initialize database helper
-        dbHelper = new DatabaseHelper(this);
+        dbHelper = DatabaseHelper.getInstance(this);
 
         // Initialize views
         titleEditText = findViewById(R.id.titleEditText);
@@ -47,9 +46,6 @@ public class TransactionEditActivity extends AppCompatActivity {
         deleteButton = findViewById(R.id.deleteButton);
         currencySymbol = findViewById(R.id.currencySymbol);
 
-        // Set Euro currency symbol
-        currencySymbol.setText("€");
-
         // Get transaction ID from intent
         transactionId = getIntent().getLongExtra("transaction_id", -1);
         if (transactionId == -1) {
@@ -61,6 +57,10 @@ public class TransactionEditActivity extends AppCompatActivity {
         // Load transaction data
         loadTransactionData();
 
+        // Attached after the form is filled so the loaded values do not open the completion list
+        AutocompleteAdapter.attach((AutoCompleteTextView) titleEditText, AutocompleteIndex.FIELD_TITLE);
+        AutocompleteAdapter.attach((AutoCompleteTextView) descriptionEditText, AutocompleteIndex.FIELD_NOTE);
+
         // Set up save button
         saveButton.setOnClickListener(v -> saveTransaction());
 
@@ -89,6 +89,9 @@ public class TransactionEditActivity extends AppCompatActivity {
             deleteButton.setText(getString(R.string.delete_expense));
         }
 
+        // Amounts are edited in the currency they were entered in
+        currencySymbol.setText(Money.symbol(currentTransaction.getCurrency()).trim());
+
         // Fill form with transaction data
         titleEditText.setText(currentTransaction.getTitle());
         descriptionEditText.setText(currentTransaction.getDescription());
@@ -112,6 +115,10 @@ public class TransactionEditActivity extends AppCompatActivity {
             Toast.makeText(this, "Please fill all fields", Toast.LENGTH_SHORT).show();
             return;
         }
+        if (EpochDays.parse(date) == EpochDays.INVALID) {
+            Toast.makeText(this, "Enter the date as dd/mm/yyyy", Toast.LENGTH_SHORT).show();
+            return;
+        }
 
         try {
             // Parse amount
@@ -0,0 +1,412 @@
+package com.example.expensetracker;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Which transactions to read, and in what order, as one parameterized SQL statement
+ * Every criterion is optional and they combine with AND, so any combination of
+ * type, categories, date range, amount range and text needs no new query method.
+ * Values are always bound as arguments, so the SQL only depends on which
+ * criteria are set (the filter's shape). SQL is cached per shape, and SQLite's
+ * own statement cache then reuses the prepared statement for every filter of
+ * that shape
+ */
+public final class TransactionFilter {
+    public static final int ORDER_NEWEST_FIRST = 0;
+    public static final int ORDER_OLDEST_FIRST = 1;
+    public static final int ORDER_LARGEST_FIRST = 2;
+    // For aggregating callers that do not care about order; skips the sort
+    public static final int ORDER_NONE = 3;
+
+    private static final String[] ORDER_BY = {
+            DatabaseHelper.ORDER_NEWEST_FIRST,
+            DatabaseHelper.DAY_KEY_EXPR + " ASC, " + DatabaseHelper.COLUMN_ID + " ASC",
+            "ABS(" + DatabaseHelper.COLUMN_AMOUNT + ") DESC, " + DatabaseHelper.ORDER_NEWEST_FIRST,
+            null
+    };
+
+    // Compiled SQL by shape; a handful of shapes are in use at any time
+    private static final int PLAN_CACHE_SIZE = 32;
+    private static final Map<String, String> planCache = new LinkedHashMap<String, String>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > PLAN_CACHE_SIZE;
+        }
+    };
+    private static int planCacheHits;
+    private static int planCacheMisses;
+
+    private final long id;
+    private final String type;
+    private final List<String> categories;
+    private final int fromDay;
+    private final int untilDay;
+    private final double minAmount;
+    private final double maxAmount;
+    private final String text;
+    private final int order;
+    private final int limit;
+    private final int offset;
+
+    private TransactionFilter(Builder builder) {
+        this.id = builder.id;
+        this.type = builder.type;
+        this.categories = Collections.unmodifiableList(new ArrayList<>(builder.categories));
+        this.fromDay = builder.fromDay;
+        this.untilDay = builder.untilDay;
+        this.minAmount = builder.minAmount;
+        this.maxAmount = builder.maxAmount;
+        this.text = builder.text;
+        this.order = builder.order;
+        this.limit = builder.limit;
+        this.offset = builder.offset;
+    }
+
+    /**
+     * Builds a {@link TransactionFilter}; criteria left unset match every row
+     */
+    public static final class Builder {
+        private long id = -1;
+        private String type;
+        private final Set<String> categories = new LinkedHashSet<>();
+        private int fromDay = EpochDays.INVALID;
+        private int untilDay = EpochDays.INVALID;
+        private double minAmount = Double.NaN;
+        private double maxAmount = Double.NaN;
+        private String text;
+        private int order = ORDER_NEWEST_FIRST;
+        private int limit = -1;
+        private int offset;
+
+        /**
+         * @param id Only the row with this id
+         */
+        public Builder id(long id) {
+            this.id = id;
+            return this;
+        }
+
+        /**
+         * @param type 'income', 'expense', or null for both
+         */
+        public Builder type(String type) {
+            this.type = type;
+            return this;
+        }
+
+        /**
+         * Adds a category to match; rows in any of the added categories match
+         * @param category Category, matched case-insensitively
+         */
+        public Builder category(String category) {
+            if (category != null) {
+                categories.add(category.trim().toLowerCase(Locale.ROOT));
+            }
+            return this;
+        }
+
+        /**
+         * @param categories Categories to match, case-insensitively
+         */
+        public Builder categories(Collection<String> categories) {
+            for (String category : categories) {
+                category(category);
+            }
+            return this;
+        }
+
+        /**
+         * @param fromDay First epoch day, inclusive, or {@link EpochDays#INVALID} for no start
+         * @param untilDay Last epoch day, inclusive, or {@link EpochDays#INVALID} for no end
+         */
+        public Builder dateRange(int fromDay, int untilDay) {
+            this.fromDay = fromDay;
+            this.untilDay = untilDay;
+            return this;
+        }
+
+        /**
+         * Matches on the amount's magnitude, since expenses may be stored negative
+         * @param minAmount Smallest amount, inclusive, or NaN for no minimum
+         * @param maxAmount Largest amount, inclusive, or NaN for no maximum
+         */
+        public Builder amountRange(double minAmount, double maxAmount) {
+            this.minAmount = minAmount;
+            this.maxAmount = maxAmount;
+            return this;
+        }
+
+        /**
+         * @param text Text that the title or note must contain, ignoring case; null or blank for any
+         */
+        public Builder text(String text) {
+            this.text = text == null || text.trim().isEmpty() ? null : text.trim();
+            return this;
+        }
+
+        /**
+         * @param order {@link #ORDER_NEWEST_FIRST}, {@link #ORDER_OLDEST_FIRST},
+         *              {@link #ORDER_LARGEST_FIRST} or {@link #ORDER_NONE}
+         */
+        public Builder order(int order) {
+            if (order < ORDER_NEWEST_FIRST || order > ORDER_NONE) {
+                throw new IllegalArgumentException("Unknown order " + order);
+            }
+            this.order = order;
+            return this;
+        }
+
+        /**
+         * @param limit Maximum number of rows, or -1 for all
+         * @param offset Number of rows to skip first
+         */
+        public Builder limit(int limit, int offset) {
+            this.limit = limit;
+            this.offset = offset;
+            return this;
+        }
+
+        public TransactionFilter build() {
+            return new TransactionFilter(this);
+        }
+    }
+
+    /**
+     * Key that is equal for two filters exactly when they compile to the same SQL
+     */
+    String shape() {
+        StringBuilder key = new StringBuilder(16);
+        key.append(id >= 0 ? 'i' : '-')
+                .append(type != null ? 't' : '-')
+                .append(fromDay != EpochDays.INVALID ? 'f' : '-')
+                .append(untilDay != EpochDays.INVALID ? 'u' : '-')
+                .append(!Double.isNaN(minAmount) ? 'm' : '-')
+                .append(!Double.isNaN(maxAmount) ? 'M' : '-')
+                .append(text != null ? 'x' : '-')
+                .append(limit >= 0 ? 'l' : '-')
+                .append(order)
+                .append('c').append(categories.size());
+        return key.toString();
+    }
+
+    /**
+     * Key that is equal for two filters exactly when they select the same rows in the same order
+     */
+    String cacheKey() {
+        return shape() + '\u0000' + String.join("\u0001", toArgs());
+    }
+
+    /**
+     * @return true if only a page of the matching rows is selected
+     */
+    boolean isLimited() {
+        return limit >= 0;
+    }
+
+    /**
+     * Checks a row against the criteria in memory, as the SQL would, so cached
+     * results can be patched after a write without querying again
+     * @param transaction Row to check
+     * @return true if the row matches every criterion
+     */
+    boolean matches(Transaction transaction) {
+        if (id >= 0 && transaction.getId() != id) {
+            return false;
+        }
+        if (type != null && !type.equals(transaction.getType())) {
+            return false;
+        }
+        if (!categories.isEmpty()) {
+            String category = transaction.getCategory();
+            if (category == null || !categories.contains(category.trim().toLowerCase(Locale.ROOT))) {
+                return false;
+            }
+        }
+        if (fromDay != EpochDays.INVALID || untilDay != EpochDays.INVALID) {
+            int day = EpochDays.parse(transaction.getDate());
+            if (day == EpochDays.INVALID
+                    || (fromDay != EpochDays.INVALID && day < fromDay)
+                    || (untilDay != EpochDays.INVALID && day > untilDay)) {
+                return false;
+            }
+        }
+        double amount = Math.abs(transaction.getAmount());
+        if ((!Double.isNaN(minAmount) && amount < minAmount) || (!Double.isNaN(maxAmount) && amount > maxAmount)) {
+            return false;
+        }
+        if (text != null) {
+            // LIKE ignores case
+            String needle = text.toLowerCase(Locale.ROOT);
+            return containsLower(transaction.getCategory(), needle) || containsLower(transaction.getDescription(), needle);
+        }
+        return true;
+    }
+
+    private static boolean containsLower(String value, String needle) {
+        return value != null && value.toLowerCase(Locale.ROOT).contains(needle);
+    }
+
+    /**
+     * @return Row order matching the SQL's ORDER BY, or null for {@link #ORDER_NONE}
+     */
+    Comparator<Transaction> comparator() {
+        Comparator<Transaction> newestFirst = (a, b) -> {
+            int byDay = Integer.compare(EpochDays.parse(b.getDate()), EpochDays.parse(a.getDate()));
+            return byDay != 0 ? byDay : Long.compare(b.getId(), a.getId());
+        };
+        switch (order) {
+            case ORDER_NEWEST_FIRST:
+                return newestFirst;
+            case ORDER_OLDEST_FIRST:
+                return newestFirst.reversed();
+            case ORDER_LARGEST_FIRST:
+                return Comparator.<Transaction>comparingDouble(t -> -Math.abs(t.getAmount())).thenComparing(newestFirst);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @return WHERE clause with ? placeholders, including the keyword, or "" if nothing is filtered
+     */
+    String whereClause() {
+        List<String> terms = new ArrayList<>();
+        if (id >= 0) {
+            terms.add(DatabaseHelper.COLUMN_ID + " = ?");
+        }
+        if (type != null) {
+            terms.add(DatabaseHelper.COLUMN_TYPE + " = ?");
+        }
+        if (!categories.isEmpty()) {
+            StringBuilder in = new StringBuilder("LOWER(TRIM(" + DatabaseHelper.COLUMN_CATEGORY + ")) IN (");
+            for (int i = 0; i < categories.size(); i++) {
+                in.append(i == 0 ? "?" : ", ?");
+            }
+            terms.add(in.append(')').toString());
+        }
+        if (fromDay != EpochDays.INVALID) {
+            terms.add(DatabaseHelper.DAY_KEY_EXPR + " >= ?");
+        }
+        if (untilDay != EpochDays.INVALID) {
+            terms.add(DatabaseHelper.DAY_KEY_EXPR + " <= ?");
+        }
+        // ABS() has no affinity, so the bound text must be cast to compare as a number
+        if (!Double.isNaN(minAmount)) {
+            terms.add("ABS(" + DatabaseHelper.COLUMN_AMOUNT + ") >= CAST(? AS REAL)");
+        }
+        if (!Double.isNaN(maxAmount)) {
+            terms.add("ABS(" + DatabaseHelper.COLUMN_AMOUNT + ") <= CAST(? AS REAL)");
+        }
+        if (text != null) {
+            terms.add("(" + DatabaseHelper.COLUMN_CATEGORY + " LIKE ? ESCAPE '\\' OR "
+                    + DatabaseHelper.COLUMN_NOTE + " LIKE ? ESCAPE '\\')");
+        }
+        return terms.isEmpty() ? "" : " WHERE " + String.join(" AND ", terms);
+    }
+
+    /**
+     * @return Arguments for the placeholders of {@link #whereClause()}, in order
+     */
+    String[] whereArgs() {
+        List<String> args = new ArrayList<>();
+        if (id >= 0) {
+            args.add(String.valueOf(id));
+        }
+        if (type != null) {
+            args.add(type);
+        }
+        args.addAll(categories);
+        if (fromDay != EpochDays.INVALID) {
+            args.add(String.valueOf(EpochDays.toDayKey(fromDay)));
+        }
+        if (untilDay != EpochDays.INVALID) {
+            args.add(String.valueOf(EpochDays.toDayKey(untilDay)));
+        }
+        if (!Double.isNaN(minAmount)) {
+            args.add(String.valueOf(minAmount));
+        }
+        if (!Double.isNaN(maxAmount)) {
+            args.add(String.valueOf(maxAmount));
+        }
+        if (text != null) {
+            String pattern = "%" + escapeLike(text) + "%";
+            args.add(pattern);
+            args.add(pattern);
+        }
+        return args.toArray(new String[0]);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * @return Complete SELECT statement for the matching rows, from the plan cache when possible
+     */
+    public String toSql() {
+        String shape = shape();
+        synchronized (planCache) {
+            String sql = planCache.get(shape);
+            if (sql != null) {
+                planCacheHits++;
+                return sql;
+            }
+            planCacheMisses++;
+        }
+        StringBuilder sql = new StringBuilder("SELECT * FROM ").append(DatabaseHelper.TABLE_TRANSACTIONS)
+                .append(whereClause());
+        if (ORDER_BY[order] != null) {
+            sql.append(" ORDER BY ").append(ORDER_BY[order]);
+        }
+        if (limit >= 0) {
+            sql.append(" LIMIT ? OFFSET ?");
+        }
+        String compiled = sql.toString();
+        synchronized (planCache) {
+            planCache.put(shape, compiled);
+        }
+        return compiled;
+    }
+
+    /**
+     * @return Arguments for the placeholders of {@link #toSql()}, in order
+     */
+    public String[] toArgs() {
+        String[] where = whereArgs();
+        if (limit < 0) {
+            return where;
+        }
+        String[] args = new String[where.length + 2];
+        System.arraycopy(where, 0, args, 0, where.length);
+        args[where.length] = String.valueOf(limit);
+        args[where.length + 1] = String.valueOf(offset);
+        return args;
+    }
+
+    /**
+     * @return Number of {@link #toSql()} calls served from the plan cache
+     */
+    static int getPlanCacheHits() {
+        synchronized (planCache) {
+            return planCacheHits;
+        }
+    }
+
+    /**
+     * @return Number of {@link #toSql()} calls that had to compile the SQL
+     */
+    static int getPlanCacheMisses() {
+        synchronized (planCache) {
+            return planCacheMisses;
+        }
+    }
+}
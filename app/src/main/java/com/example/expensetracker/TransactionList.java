@@ -0,0 +1,401 @@
+package com.example.expensetracker;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Immutable list of transactions held as parallel primitive arrays
+ * One row per transaction: id, epoch day, amount, a type byte and an anomaly
+ * flag, plus references to category, note and currency strings that are
+ * interned while the list is built, so repeated values share one String. A row
+ * costs about 34 bytes instead of a Transaction object with its own date
+ * string, which more than halves the heap of a loaded result and leaves almost
+ * nothing for the collector when a result is dropped.
+ * Read rows through the column accessors or a {@link Row} flyweight; as a
+ * {@code List<Transaction>}, {@link #get(int)} builds a new Transaction on each
+ * call. Pure Java with no android.* dependencies
+ */
+public final class TransactionList extends AbstractList<Transaction> implements RandomAccess {
+    private static final TransactionList EMPTY = new Builder(0).build();
+
+    private final int size;
+    private final long[] ids;
+    private final int[] epochDays;
+    private final double[] amounts;   // as stored, sign included
+    private final byte[] types;       // index into typeNames
+    private final boolean[] anomalies;
+    private final String[] categories;
+    private final String[] notes;
+    private final String[] currencies;
+    private final String[] typeNames;
+    // Dates that did not parse, kept verbatim; empty for rows written by this app
+    private final Map<Integer, String> unparsedDates;
+
+    private TransactionList(Builder builder) {
+        size = builder.size;
+        ids = Arrays.copyOf(builder.ids, size);
+        epochDays = Arrays.copyOf(builder.epochDays, size);
+        amounts = Arrays.copyOf(builder.amounts, size);
+        types = Arrays.copyOf(builder.types, size);
+        anomalies = Arrays.copyOf(builder.anomalies, size);
+        categories = Arrays.copyOf(builder.categories, size);
+        notes = Arrays.copyOf(builder.notes, size);
+        currencies = Arrays.copyOf(builder.currencies, size);
+        typeNames = Arrays.copyOf(builder.typeNames, builder.typeLookup.size());
+        unparsedDates = builder.unparsedDates.isEmpty()
+                ? Collections.<Integer, String>emptyMap()
+                : new HashMap<>(builder.unparsedDates);
+    }
+
+    /**
+     * @return The empty list
+     */
+    public static TransactionList empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param transactions Transactions to copy
+     * @return The same list if it already is a TransactionList, otherwise a compact copy
+     */
+    public static TransactionList copyOf(Collection<Transaction> transactions) {
+        if (transactions instanceof TransactionList) {
+            return (TransactionList) transactions;
+        }
+        Builder builder = new Builder(transactions.size());
+        for (Transaction transaction : transactions) {
+            builder.add(transaction);
+        }
+        return builder.build();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Materializes one row. Allocates a Transaction; loops over many rows
+     * should use the column accessors or a {@link Row} instead
+     * @param index Row position
+     * @return New Transaction with the row's values
+     */
+    @Override
+    public Transaction get(int index) {
+        checkIndex(index);
+        Transaction transaction = new Transaction(ids[index], amounts[index], typeNames[types[index]],
+                categories[index], date(index), notes[index]);
+        transaction.setAnomaly(anomalies[index]);
+        transaction.setCurrency(currencies[index]);
+        return transaction;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+        }
+    }
+
+    public long id(int row) {
+        return ids[row];
+    }
+
+    /**
+     * @param row Row position
+     * @return Date as days since 1970-01-01, or {@link EpochDays#INVALID} if it did not parse
+     */
+    public int epochDay(int row) {
+        return epochDays[row];
+    }
+
+    /**
+     * @param row Row position
+     * @return Stored date text (dd/MM/yyyy); builds a new String
+     */
+    public String date(int row) {
+        int epochDay = epochDays[row];
+        return epochDay == EpochDays.INVALID ? unparsedDates.get(row) : EpochDays.format(epochDay);
+    }
+
+    /**
+     * @param row Row position
+     * @return Amount as stored, in the row's currency
+     */
+    public double amount(int row) {
+        return amounts[row];
+    }
+
+    public String type(int row) {
+        return typeNames[types[row]];
+    }
+
+    public boolean isIncome(int row) {
+        return "income".equalsIgnoreCase(typeNames[types[row]]);
+    }
+
+    public boolean isExpense(int row) {
+        return "expense".equalsIgnoreCase(typeNames[types[row]]);
+    }
+
+    public String category(int row) {
+        return categories[row];
+    }
+
+    public String note(int row) {
+        return notes[row];
+    }
+
+    public String currency(int row) {
+        return currencies[row];
+    }
+
+    public boolean isAnomaly(int row) {
+        return anomalies[row];
+    }
+
+    /**
+     * @return A flyweight positioned before the first row
+     */
+    public Row row() {
+        return new Row();
+    }
+
+    /**
+     * Reusable view of one row, read straight from the arrays
+     * Move it with {@link #moveTo(int)} instead of materializing a Transaction
+     * per row when binding or exporting
+     */
+    public final class Row {
+        private int position = -1;
+
+        private Row() {
+        }
+
+        /**
+         * @param row Row position
+         * @return This view, now showing that row
+         */
+        public Row moveTo(int row) {
+            checkIndex(row);
+            position = row;
+            return this;
+        }
+
+        public int getPosition() {
+            return position;
+        }
+
+        public long getId() {
+            return ids[position];
+        }
+
+        public int getEpochDay() {
+            return epochDays[position];
+        }
+
+        public String getDate() {
+            return date(position);
+        }
+
+        public double getAmount() {
+            return amounts[position];
+        }
+
+        public String getType() {
+            return typeNames[types[position]];
+        }
+
+        public String getCategory() {
+            return categories[position];
+        }
+
+        public String getDescription() {
+            return notes[position];
+        }
+
+        public String getCurrency() {
+            return currencies[position];
+        }
+
+        public boolean isAnomaly() {
+            return anomalies[position];
+        }
+
+        /**
+         * @return New Transaction with this row's values
+         */
+        public Transaction toTransaction() {
+            return get(position);
+        }
+    }
+
+    /**
+     * Appends rows and interns their strings; grows its arrays geometrically
+     */
+    public static final class Builder {
+        private int size;
+        private long[] ids;
+        private int[] epochDays;
+        private double[] amounts;
+        private byte[] types;
+        private boolean[] anomalies;
+        private String[] categories;
+        private String[] notes;
+        private String[] currencies;
+        private final Map<String, Byte> typeLookup = new HashMap<>();
+        private String[] typeNames = new String[2];
+        private final Map<Integer, String> unparsedDates = new HashMap<>();
+        // Only lives while building, so each distinct string is kept once per list
+        private final Map<String, String> strings = new HashMap<>();
+
+        public Builder() {
+            this(16);
+        }
+
+        /**
+         * @param expectedRows Initial capacity, e.g. the cursor's row count
+         */
+        public Builder(int expectedRows) {
+            int capacity = Math.max(0, expectedRows);
+            ids = new long[capacity];
+            epochDays = new int[capacity];
+            amounts = new double[capacity];
+            types = new byte[capacity];
+            anomalies = new boolean[capacity];
+            categories = new String[capacity];
+            notes = new String[capacity];
+            currencies = new String[capacity];
+        }
+
+        /**
+         * @param id Transaction id
+         * @param date Stored date (dd/MM/yyyy)
+         * @param amount Amount as stored
+         * @param type 'income' or 'expense'
+         * @param category Category
+         * @param note Note, may be null
+         * @param currency ISO 4217 code, or null for the base currency
+         * @param anomaly Whether the row was flagged as unusually high
+         * @return This builder
+         */
+        public Builder add(long id, String date, double amount, String type, String category,
+                           String note, String currency, boolean anomaly) {
+            int epochDay = date == null ? EpochDays.INVALID : EpochDays.parse(date);
+            if (epochDay == EpochDays.INVALID) {
+                unparsedDates.put(size, date);
+            }
+            return append(id, epochDay, amount, type, category, note, Money.normalize(currency), anomaly);
+        }
+
+        /**
+         * Appends a row whose date is already an epoch day, without formatting
+         * or parsing date text
+         * @param id Transaction id
+         * @param epochDay Date as days since 1970-01-01
+         * @param amount Amount as stored
+         * @param type 'income' or 'expense'
+         * @param category Category
+         * @param note Note, may be null
+         * @param currency ISO 4217 code, or null for the base currency
+         * @param anomaly Whether the row was flagged as unusually high
+         * @return This builder
+         */
+        public Builder add(long id, int epochDay, double amount, String type, String category,
+                           String note, String currency, boolean anomaly) {
+            if (epochDay == EpochDays.INVALID) {
+                throw new IllegalArgumentException("Invalid epoch day");
+            }
+            return append(id, epochDay, amount, type, category, note, Money.normalize(currency), anomaly);
+        }
+
+        private Builder append(long id, int epochDay, double amount, String type, String category,
+                            String note, String currency, boolean anomaly) {
+            if (size == ids.length) {
+                grow();
+            }
+            ids[size] = id;
+            epochDays[size] = epochDay;
+            amounts[size] = amount;
+            types[size] = encodeType(type);
+            anomalies[size] = anomaly;
+            categories[size] = intern(category);
+            notes[size] = intern(note);
+            currencies[size] = intern(currency);
+            size++;
+            return this;
+        }
+
+        /**
+         * @param transaction Transaction to append
+         * @return This builder
+         */
+        public Builder add(Transaction transaction) {
+            return add(transaction.getId(), transaction.getDate(), transaction.getAmount(), transaction.getType(),
+                    transaction.getCategory(), transaction.getDescription(), transaction.getCurrency(),
+                    transaction.isAnomaly());
+        }
+
+        /**
+         * Appends a row of another list without materializing it
+         * @param source List to copy from
+         * @param row Row position in that list
+         * @return This builder
+         */
+        public Builder add(TransactionList source, int row) {
+            if (source.epochDays[row] == EpochDays.INVALID) {
+                unparsedDates.put(size, source.unparsedDates.get(row));
+            }
+            return append(source.ids[row], source.epochDays[row], source.amounts[row], source.typeNames[source.types[row]],
+                    source.categories[row], source.notes[row], source.currencies[row], source.anomalies[row]);
+        }
+
+        private void grow() {
+            int capacity = Math.max(16, size + (size >> 1));
+            ids = Arrays.copyOf(ids, capacity);
+            epochDays = Arrays.copyOf(epochDays, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+            types = Arrays.copyOf(types, capacity);
+            anomalies = Arrays.copyOf(anomalies, capacity);
+            categories = Arrays.copyOf(categories, capacity);
+            notes = Arrays.copyOf(notes, capacity);
+            currencies = Arrays.copyOf(currencies, capacity);
+        }
+
+        private byte encodeType(String type) {
+            Byte code = typeLookup.get(type);
+            if (code == null) {
+                if (typeLookup.size() > Byte.MAX_VALUE) {
+                    throw new IllegalStateException("Too many transaction types");
+                }
+                code = (byte) typeLookup.size();
+                if (code == typeNames.length) {
+                    typeNames = Arrays.copyOf(typeNames, code * 2);
+                }
+                typeNames[code] = type;
+                typeLookup.put(type, code);
+            }
+            return code;
+        }
+
+        private String intern(String value) {
+            if (value == null) {
+                return null;
+            }
+            String shared = strings.putIfAbsent(value, value);
+            return shared != null ? shared : value;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public TransactionList build() {
+            return new TransactionList(this);
+        }
+    }
+}
@@ -10,15 +10,31 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+
+public class TransactionListActivity extends AppCompatActivity implements TransactionAdapter.OnTransactionClickListener,
+        TransactionAdapter.OnPageRequestListener, MonthFastScroller.OnMonthSelectedListener {
+    // Rows loaded per page; the list only ever loads the pages around what is on screen
+    private static final int PAGE_SIZE = 100;
+    // Above this many rows the list binds straight from a cursor instead of paged objects
+    private static final int CURSOR_MODE_THRESHOLD = 5000;
 
-public class TransactionListActivity extends AppCompatActivity implements TransactionAdapter.OnTransactionClickListener {
     private RecyclerView recyclerView;
+    private LinearLayoutManager layoutManager;
     private TransactionAdapter adapter;
+    private MonthHeaderDecoration headerDecoration;
+    private MonthFastScroller fastScroller;
     private DatabaseHelper dbHelper;
     private TextView emptyView;
     private String transactionType;
 
+    // Paging state, only touched on the main thread
+    private MonthIndex monthIndex = MonthIndex.empty();
+    private int generation;
+    private final Set<Integer> pagesInFlight = new HashSet<>();
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -45,20 +61,28 @@ public class TransactionListActivity extends AppCompatActivity implements Transa
         }
 
         // Initialize database helper
-        dbHelper = new DatabaseHelper(this);
+        dbHelper = DatabaseHelper.getInstance(this);
 
         // Initialize views
         recyclerView = findViewById(R.id.recyclerView);
         emptyView = findViewById(R.id.emptyView);
 
         // Set up RecyclerView
-        recyclerView.setLayoutManager(new LinearLayoutManager(this));
+        layoutManager = new LinearLayoutManager(this);
+        recyclerView.setLayoutManager(layoutManager);
         adapter = new TransactionAdapter();
         adapter.setOnTransactionClickListener(this);
+        adapter.setOnPageRequestListener(this);
         recyclerView.setAdapter(adapter);
 
-        // Load transactions
-        loadTransactions();
+        // Sticky month headers and month fast-scroll
+        headerDecoration = new MonthHeaderDecoration(this);
+        recyclerView.addItemDecoration(headerDecoration);
+        fastScroller = findViewById(R.id.monthFastScroller);
+        fastScroller.attachTo(recyclerView);
+        fastScroller.setOnMonthSelectedListener(this);
+
+        // Transactions are loaded in onResume
     }
 
     @Override
@@ -68,21 +92,115 @@ public class TransactionListActivity extends AppCompatActivity implements Transa
         loadTransactions();
     }
 
+    /**
+     * Gets the type filter for database queries
+     * @return 'income', 'expense', or null for all transactions
+     */
+    private String getTypeFilter() {
+        if (transactionType.equals("income") || transactionType.equals("expense")) {
+            return transactionType;
+        }
+        return null;
+    }
+
     private void loadTransactions() {
-        List<Transaction> transactions;
-        
-        // Get transactions based on type
-        if (transactionType.equals("income")) {
-            transactions = dbHelper.getTransactionsByType("income");
-        } else if (transactionType.equals("expense")) {
-            transactions = dbHelper.getTransactionsByType("expense");
-        } else {
-            transactions = dbHelper.getAllTransactions();
+        // Read before querying, so a write racing the load only causes one extra reload
+        final long dataVersion = dbHelper.getDataVersion();
+        if (adapter.isShowingDataVersion(dataVersion)) {
+            // The cursor on screen is still current; resuming needs no reload
+            return;
         }
+        final String type = getTypeFilter();
+        final int loadGeneration = ++generation;
+        final int anchor = Math.max(0, layoutManager.findFirstVisibleItemPosition());
+        pagesInFlight.clear();
+
+        AppExecutors.diskIO().execute(() -> {
+            // Month counts give the list size and section offsets without loading any rows
+            MonthIndex index = dbHelper.getMonthIndex(type);
+
+            if (index.getTotalCount() > CURSOR_MODE_THRESHOLD) {
+                // Counting the cursor fills its first window here rather than on the main thread
+                TransactionCursorList cursorList = new TransactionCursorList(dbHelper.getTransactionsCursor(type),
+                        dbHelper.getFxRates(), dataVersion);
+                AppExecutors.mainThread().execute(() -> showTransactions(index, cursorList, loadGeneration));
+                return;
+            }
+
+            TransactionPages pages = new TransactionPages(index.getTotalCount(), PAGE_SIZE, loadGeneration);
+
+            // Load only the pages around the current scroll position
+            int anchorPage = anchor / PAGE_SIZE;
+            for (int page = anchorPage; page <= anchorPage + 1; page++) {
+                if (page * PAGE_SIZE < index.getTotalCount()) {
+                    pages.putPage(page, loadPage(type, page));
+                }
+            }
+            AppExecutors.mainThread().execute(() -> showTransactions(index, pages));
+        });
+    }
+
+    /**
+     * Loads one page and formats its rows; runs on a background thread
+     */
+    private List<TransactionDisplayModel> loadPage(String type, int page) {
+        TransactionList transactions = dbHelper.getTransactionsPage(type, page * PAGE_SIZE, PAGE_SIZE);
+        // Format amounts, signs and colours once, off the main thread
+        return TransactionDisplayModel.fromTransactions(transactions, dbHelper.getFxRates());
+    }
 
-        // Update adapter and empty view visibility
-        adapter.setTransactions(transactions);
-        if (transactions.isEmpty()) {
+    @Override
+    public void onPageRequested(int pageGeneration, int pageIndex) {
+        if (pageGeneration != generation || !pagesInFlight.add(pageIndex)) {
+            return;
+        }
+        final String type = getTypeFilter();
+        AppExecutors.diskIO().execute(() -> {
+            List<TransactionDisplayModel> rows = loadPage(type, pageIndex);
+            AppExecutors.mainThread().execute(() -> {
+                if (pageGeneration == generation) {
+                    pagesInFlight.remove(pageIndex);
+                    adapter.onPageLoaded(pageGeneration, pageIndex, rows);
+                }
+            });
+        });
+    }
+
+    @Override
+    public void onMonthSelected(int section) {
+        // Rows at the new offset bind as placeholders and request just their page
+        layoutManager.scrollToPositionWithOffset(monthIndex.getOffset(section), 0);
+    }
+
+    private void showTransactions(MonthIndex index, TransactionCursorList cursorList, int loadGeneration) {
+        if (isFinishing() || isDestroyed() || loadGeneration != generation) {
+            cursorList.close();
+            return;
+        }
+        showMonthIndex(index);
+        adapter.setCursorList(cursorList);
+        updateEmptyView(cursorList.isEmpty());
+    }
+
+    private void showTransactions(MonthIndex index, TransactionPages pages) {
+        if (isFinishing() || isDestroyed() || pages.getGeneration() != generation) {
+            return;
+        }
+        showMonthIndex(index);
+        adapter.setPages(pages);
+        updateEmptyView(pages.isEmpty());
+    }
+
+    private void showMonthIndex(MonthIndex index) {
+        monthIndex = index;
+        headerDecoration.setMonthIndex(index);
+        fastScroller.setMonthIndex(index);
+        recyclerView.invalidateItemDecorations();
+    }
+
+    private void updateEmptyView(boolean isEmpty) {
+        // Update empty view visibility
+        if (isEmpty) {
             recyclerView.setVisibility(View.GONE);
             emptyView.setVisibility(View.VISIBLE);
             if (transactionType.equals("income")) {
@@ -98,6 +216,12 @@ public class TransactionListActivity extends AppCompatActivity implements Transa
         }
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        adapter.close();
+    }
+
     @Override
     public boolean onOptionsItemSelected(@NonNull MenuItem item) {
         if (item.getItemId() == android.R.id.home) {
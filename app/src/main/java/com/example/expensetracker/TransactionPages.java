@@ -0,0 +1,92 @@
+package com.example.expensetracker;
+
+import android.util.SparseArray;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * Sparse, page-backed view of a transaction list
+ * The list reports the full row count, but only holds the pages that have been
+ * loaded; unloaded rows read as {@code null} and are shown as placeholders.
+ * Instances are immutable: loading a page produces a new snapshot that shares
+ * the existing pages, so a diff running on a background thread is never
+ * affected by pages arriving on the main thread
+ */
+public final class TransactionPages extends AbstractList<TransactionDisplayModel> {
+    private final int size;
+    private final int pageSize;
+    private final int generation;
+    private final SparseArray<List<TransactionDisplayModel>> pages;
+
+    /**
+     * @param size Total number of rows in the list
+     * @param pageSize Number of rows per page
+     * @param generation Identifies the data load this snapshot belongs to
+     */
+    public TransactionPages(int size, int pageSize, int generation) {
+        this(size, pageSize, generation, new SparseArray<>());
+    }
+
+    private TransactionPages(int size, int pageSize, int generation,
+                             SparseArray<List<TransactionDisplayModel>> pages) {
+        this.size = size;
+        this.pageSize = pageSize;
+        this.generation = generation;
+        this.pages = pages;
+    }
+
+    /**
+     * Returns a snapshot that additionally contains the given page
+     * @param pageIndex Index of the page
+     * @param rows Rows of the page, at most {@link #getPageSize()} of them
+     * @return New snapshot sharing all previously loaded pages
+     */
+    public TransactionPages withPage(int pageIndex, List<TransactionDisplayModel> rows) {
+        SparseArray<List<TransactionDisplayModel>> copy = pages.clone();
+        copy.put(pageIndex, rows);
+        return new TransactionPages(size, pageSize, generation, copy);
+    }
+
+    /**
+     * Mutates this snapshot in place; only for use while building a snapshot
+     * on a background thread, before it is handed to the adapter
+     */
+    void putPage(int pageIndex, List<TransactionDisplayModel> rows) {
+        pages.put(pageIndex, rows);
+    }
+
+    @Override
+    public TransactionDisplayModel get(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Position " + position + ", size " + size);
+        }
+        List<TransactionDisplayModel> page = pages.get(position / pageSize);
+        int indexInPage = position % pageSize;
+        if (page == null || indexInPage >= page.size()) {
+            return null;
+        }
+        return page.get(indexInPage);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public int getGeneration() {
+        return generation;
+    }
+
+    public int pageForPosition(int position) {
+        return position / pageSize;
+    }
+
+    public boolean isPageLoaded(int pageIndex) {
+        return pages.get(pageIndex) != null;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.expensetracker;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link CategoryClassifier}
+ */
+public class CategoryClassifierTest {
+    private static CategoryClassifier trained() {
+        CategoryClassifier classifier = new CategoryClassifier(12, 10_000);
+        for (int i = 0; i < 5; i++) {
+            classifier.train("Weekly shop at Tesco", "expense:Groceries");
+            classifier.train("Lidl fruit and veg", "expense:Groceries");
+            classifier.train("Uber to the office", "expense:Transport");
+            classifier.train("Train ticket to Leeds", "expense:Transport");
+            classifier.train("Monthly salary", "income:Salary");
+        }
+        return classifier;
+    }
+
+    @Test
+    public void classify_ranksMatchingCategoryFirst() {
+        CategoryClassifier classifier = trained();
+        assertEquals("expense:Groceries", classifier.classify("tesco shop", 3, "").get(0));
+        assertEquals("expense:Transport", classifier.classify("UBER home", 3, "").get(0));
+        assertEquals(3, classifier.getLabelCount());
+        assertEquals(25, classifier.getTrainedCount());
+    }
+
+    @Test
+    public void classify_onlyReturnsLabelsWithPrefix() {
+        CategoryClassifier classifier = trained();
+        List<String> labels = classifier.classify("tesco train salary", 5, "expense:");
+        assertEquals(2, labels.size());
+        for (String label : labels) {
+            assertTrue(label.startsWith("expense:"));
+        }
+        assertEquals(Collections.singletonList("income:Salary"), classifier.classify("tesco train salary", 5, "income:"));
+    }
+
+    @Test
+    public void classify_emptyTextReturnsNothing() {
+        assertTrue(trained().classify("", 3, "").isEmpty());
+        assertTrue(new CategoryClassifier(12, 100).classify("tesco", 3, "").isEmpty());
+    }
+
+    @Test
+    public void writeTo_readFrom_roundTrips() throws IOException {
+        CategoryClassifier classifier = trained();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        classifier.writeTo(out);
+        CategoryClassifier copy = CategoryClassifier.readFrom(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(classifier.getPairCount(), copy.getPairCount());
+        assertEquals(classifier.getTrainedCount(), copy.getTrainedCount());
+        for (String text : new String[]{"tesco", "train to leeds", "salary", "unknown words"}) {
+            assertEquals(classifier.classify(text, 3, ""), copy.classify(text, 3, ""));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void readFrom_rejectsOtherData() throws IOException {
+        CategoryClassifier.readFrom(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5, 6, 7, 8}));
+    }
+
+    @Test
+    public void train_pruningKeepsPairsWithinCap() {
+        CategoryClassifier classifier = new CategoryClassifier(10, 500);
+        for (int i = 0; i < 5_000; i++) {
+            classifier.train("item" + i + " shop" + (i % 50), "expense:Cat" + (i % 20));
+            assertTrue(classifier.getPairCount() <= 500);
+        }
+        // Frequent words survive pruning
+        for (int i = 0; i < 30; i++) {
+            classifier.train("coffee", "expense:Cafe");
+        }
+        assertEquals("expense:Cafe", classifier.classify("coffee", 1, "").get(0));
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.expensetracker;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.ParameterizedRobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Latency and allocation of the key DatabaseHelper paths on large seeded ledgers
+ * Runs on Robolectric's SQLite, so it needs no device. Skipped unless enabled:
+ *   ./gradlew :app:testDebugUnitTest -PdbPerf --tests '*DatabasePerformanceTest'
+ * Sizes default to 10k, 100k and 1M rows; pick others with -PdbPerfRows=10000,100000.
+ * Each size is checked against db-perf-budgets.properties and written to
+ * build/reports/db-perf, with report.md listing every size measured so far.
+ * No baseline is checked in, since timings depend on the machine: the first
+ * run's report only lists its values. To compare later runs on the same machine,
+ * copy results.properties to app/src/test/resources/db-perf-baseline.properties.
+ * Allocation counts Java heap only; SQLite's native memory is not included
+ */
+@RunWith(ParameterizedRobolectricTestRunner.class)
+public class DatabasePerformanceTest {
+    private static final long SEED = 20240301L;
+    private static final int SEED_BATCH = 50_000;
+    private static final int SEED_YEARS = 10;
+    // Query runs after one warm-up; the median is kept
+    private static final int QUERY_RUNS = 3;
+    // Single-row writes timed per run, reported per operation
+    private static final int WRITE_OPERATIONS = 200;
+    // Timing may cost at most this fraction of a single-row insert. Robolectric's
+    // Trace is a no-op, so tracing is checked on a device by DbMetricsOverheadTest
+    private static final double MAX_METRICS_OVERHEAD = 0.01;
+    private static final int METRICS_CALLS = 100_000;
+    private static final String[] EXPENSE_CATEGORIES = {
+            "Groceries", "Rent", "Transport", "Eating out", "Utilities", "Health", "Gifts", "Travel"};
+    private static final String[] INCOME_CATEGORIES = {"Salary", "Freelance", "Refund"};
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final int rows;
+    private DatabaseHelper dbHelper;
+    private final PerfResults results = new PerfResults();
+
+    private interface Operation {
+        void run() throws Exception;
+    }
+
+    @ParameterizedRobolectricTestRunner.Parameters(name = "{0} rows")
+    public static Collection<Object[]> sizes() {
+        List<Object[]> sizes = new ArrayList<>();
+        for (String size : System.getProperty("dbPerf.rows", "10000,100000,1000000").split(",")) {
+            sizes.add(new Object[]{Integer.parseInt(size.trim())});
+        }
+        return sizes;
+    }
+
+    public DatabasePerformanceTest(int rows) {
+        this.rows = rows;
+    }
+
+    @Before
+    public void setUp() {
+        Assume.assumeTrue("Performance suite is off; run with -PdbPerf", Boolean.getBoolean("dbPerf"));
+        dbHelper = new DatabaseHelper(RuntimeEnvironment.getApplication());
+        assertEquals(rows, seed(dbHelper, rows));
+    }
+
+    @After
+    public void tearDown() {
+        if (dbHelper != null) {
+            dbHelper.close();
+        }
+    }
+
+    @Test
+    public void keyPathsStayWithinBudget() throws Exception {
+        measureQuery("getAllTransactions", () -> dbHelper.getAllTransactions());
+        measureQuery("getTransactionsByType", () -> dbHelper.getTransactionsByType("expense"));
+        measureQuery("getTotalBalance", () -> dbHelper.getTotalBalance());
+        measureQuery("exportToCSV", () -> assertTrue(dbHelper.exportToCSV()));
+
+        long[] ids = new long[WRITE_OPERATIONS];
+        Random random = new Random(SEED + 1);
+        measureWrites("addTransaction", i -> {
+            Transaction row = randomTransaction(random);
+            ids[i] = dbHelper.addTransaction(row.getAmount(), row.getType(), row.getCategory(),
+                    row.getDescription(), row.getDate());
+            assertNotEquals(-1, ids[i]);
+        });
+        measureWrites("updateTransaction", i -> {
+            Transaction row = randomTransaction(random);
+            assertTrue(dbHelper.updateTransaction(ids[i], row.getAmount(), row.getType(), row.getCategory(),
+                    row.getDescription(), row.getDate()));
+        });
+        measureWrites("deleteTransaction", i -> assertTrue(dbHelper.deleteTransaction(ids[i])));
+        double metricsMillis = measureMetricsOverhead();
+
+        List<String> overBudget = results.overBudget(loadProperties("db-perf-budgets.properties"));
+        writeReport();
+        assertTrue("Over budget at " + rows + " rows:\n" + String.join("\n", overBudget), overBudget.isEmpty());
+        double insertMillis = results.get("addTransaction", rows, PerfResults.MILLIS);
+        assertTrue(String.format(Locale.ROOT, "DbMetrics timing costs %.4f ms of a %.4f ms insert", metricsMillis, insertMillis),
+                metricsMillis < insertMillis * MAX_METRICS_OVERHEAD);
+    }
+
+    private void measureQuery(String name, Operation operation) throws Exception {
+        long[] millis = new long[QUERY_RUNS];
+        long[] allocated = new long[QUERY_RUNS];
+        for (int run = -1; run < QUERY_RUNS; run++) {
+            // Measure the query itself, not the result cache
+            dbHelper.getResultCache().clear();
+            long bytesBefore = allocatedBytes();
+            long start = System.nanoTime();
+            operation.run();
+            long elapsed = System.nanoTime() - start;
+            long bytes = allocatedBytes() - bytesBefore;
+            if (run >= 0) {
+                millis[run] = elapsed;
+                allocated[run] = bytes;
+            }
+        }
+        Arrays.sort(millis);
+        Arrays.sort(allocated);
+        results.put(name, rows, PerfResults.MILLIS, millis[QUERY_RUNS / 2] / 1e6);
+        results.put(name, rows, PerfResults.ALLOCATED_BYTES, allocated[QUERY_RUNS / 2]);
+    }
+
+    private interface WriteOperation {
+        void run(int index) throws Exception;
+    }
+
+    private void measureWrites(String name, WriteOperation operation) throws Exception {
+        long bytesBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < WRITE_OPERATIONS; i++) {
+            operation.run(i);
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytes = allocatedBytes() - bytesBefore;
+        results.put(name, rows, PerfResults.MILLIS, elapsed / 1e6 / WRITE_OPERATIONS);
+        results.put(name, rows, PerfResults.ALLOCATED_BYTES, (double) bytes / WRITE_OPERATIONS);
+    }
+
+    /**
+     * Times the DbMetrics begin/end pair that wraps every DatabaseHelper call,
+     * without the cost of android.os.Trace
+     * @return Milliseconds per pair
+     */
+    private double measureMetricsOverhead() {
+        OperationMetrics operation = new OperationMetrics("DatabasePerformanceTest.metrics");
+        long bytesBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < METRICS_CALLS; i++) {
+            DbMetrics.end(operation, DbMetrics.begin(operation));
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytes = allocatedBytes() - bytesBefore;
+        double millis = elapsed / 1e6 / METRICS_CALLS;
+        results.put("dbMetrics", rows, PerfResults.MILLIS, millis);
+        results.put("dbMetrics", rows, PerfResults.ALLOCATED_BYTES, (double) bytes / METRICS_CALLS);
+        return millis;
+    }
+
+    private static long allocatedBytes() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Saves this size's results, then rebuilds the report from every size saved so far
+     */
+    private void writeReport() throws IOException {
+        File reportDir = new File(System.getProperty("dbPerf.reportDir", "build/reports/db-perf"));
+        if (!reportDir.isDirectory() && !reportDir.mkdirs()) {
+            throw new IOException("Cannot create " + reportDir);
+        }
+        results.write(new File(reportDir, "results-" + rows + ".properties"));
+
+        PerfResults all = new PerfResults();
+        File[] saved = reportDir.listFiles((dir, name) -> name.matches("results-\\d+\\.properties"));
+        if (saved != null) {
+            for (File file : saved) {
+                all.putAll(PerfResults.read(file));
+            }
+        }
+        all.write(new File(reportDir, "results.properties"));
+
+        PerfResults baseline = new PerfResults();
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("db-perf-baseline.properties")) {
+            if (in != null) {
+                baseline = PerfResults.read(new InputStreamReader(in, StandardCharsets.UTF_8));
+            }
+        }
+        Files.write(new File(reportDir, "report.md").toPath(),
+                all.compareWith(baseline).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Properties loadProperties(String resource) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(resource)) {
+            assertNotNull("Missing test resource " + resource, in);
+            try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Seeds the same synthetic ledger for a given size every time, through the bulk insert path
+     * @return Number of rows inserted
+     */
+    private static long seed(DatabaseHelper dbHelper, int rows) {
+        LedgerGenerator generator = new LedgerGenerator.Builder()
+                .seed(SEED)
+                .rows(rows)
+                .years(SEED_YEARS)
+                .build();
+        return dbHelper.insertTransactions(generator.batches(SEED_BATCH));
+    }
+
+    private static Transaction randomTransaction(Random random) {
+        boolean income = random.nextInt(5) == 0;
+        String category = income
+                ? INCOME_CATEGORIES[random.nextInt(INCOME_CATEGORIES.length)]
+                : EXPENSE_CATEGORIES[random.nextInt(EXPENSE_CATEGORIES.length)];
+        double amount = (income ? 50_000 + random.nextInt(500_000) : 100 + random.nextInt(1_000_000)) / 100.0;
+        int day = EpochDays.of(2015, 1, 1) + random.nextInt(10 * 365);
+        String note = random.nextInt(3) == 0 ? "" : String.format(Locale.ROOT, "note %d", random.nextInt(10_000));
+        return new Transaction(-1, amount, income ? "income" : "expense", category, EpochDays.format(day), note);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.expensetracker;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link EpochDays}, checked against java.time for every
+ * day the four-digit formats can represent
+ */
+public class EpochDaysTest {
+    private static final DateTimeFormatter STORED = DateTimeFormatter.ofPattern("dd/MM/uuuu");
+    private static final DateTimeFormatter ISO = DateTimeFormatter.ofPattern("uuuu-MM-dd");
+
+    @Test
+    public void everyDay_matchesJavaTime() {
+        LocalDate date = LocalDate.of(1, 1, 1);
+        LocalDate end = LocalDate.of(9999, 12, 31);
+        while (!date.isAfter(end)) {
+            int epochDay = (int) date.toEpochDay();
+            int dayKey = date.getYear() * 10000 + date.getMonthValue() * 100 + date.getDayOfMonth();
+            String stored = date.format(STORED);
+            String iso = date.format(ISO);
+
+            if (EpochDays.of(date.getYear(), date.getMonthValue(), date.getDayOfMonth()) != epochDay
+                    || EpochDays.toDayKey(epochDay) != dayKey
+                    || EpochDays.fromDayKey(dayKey) != epochDay
+                    || !EpochDays.format(epochDay).equals(stored)
+                    || !EpochDays.formatIso(epochDay).equals(iso)
+                    || EpochDays.parse(stored) != epochDay
+                    || EpochDays.parse(iso) != epochDay) {
+                fail("Mismatch on " + iso);
+            }
+            date = date.plusDays(1);
+        }
+    }
+
+    @Test
+    public void parse_rejectsInvalidDates() {
+        String[] invalid = {
+                null, "", "1/1/2024", "01/01/24", "2024/01/01", "01-01-2024", "2024-1-01",
+                "32/01/2024", "00/01/2024", "29/02/2023", "31/04/2024", "01/13/2024", "01/00/2024",
+                "2023-02-29", "2100-02-29", "00/01/0000", "0000-01-01", "ab/cd/efgh", "2024-01-0x",
+                "01/01/2024 ", " 01/01/2024"
+        };
+        for (String text : invalid) {
+            assertEquals("Accepted " + text, EpochDays.INVALID, EpochDays.parse(text));
+            assertNull(EpochDays.normalize(text));
+        }
+        assertEquals(EpochDays.of(2000, 2, 29), EpochDays.parse("29/02/2000"));
+        assertEquals(EpochDays.of(2024, 2, 29), EpochDays.parse("2024-02-29"));
+    }
+
+    @Test
+    public void normalize_convertsToStoredFormat() {
+        assertEquals("05/03/2024", EpochDays.normalize("2024-03-05"));
+        assertEquals("05/03/2024", EpochDays.normalize("05/03/2024"));
+        assertEquals("05/03/2024", EpochDays.normalize(new StringBuilder("2024-03-05")));
+    }
+
+    @Test
+    public void fromDayKey_rejectsInvalidKeys() {
+        assertEquals(EpochDays.INVALID, EpochDays.fromDayKey(20230229));
+        assertEquals(EpochDays.INVALID, EpochDays.fromDayKey(20241301));
+        assertEquals(EpochDays.INVALID, EpochDays.fromDayKey(0));
+    }
+
+    @Test
+    public void fromMillis_floorsToUtcDay() {
+        assertEquals(0, EpochDays.fromMillis(0));
+        assertEquals(0, EpochDays.fromMillis(86_399_999L));
+        assertEquals(1, EpochDays.fromMillis(86_400_000L));
+        assertEquals(-1, EpochDays.fromMillis(-1));
+    }
+
+    @Test
+    public void daysInMonth_leapYears() {
+        assertEquals(29, EpochDays.daysInMonth(2024, 2));
+        assertEquals(28, EpochDays.daysInMonth(1900, 2));
+        assertEquals(29, EpochDays.daysInMonth(2000, 2));
+        assertEquals(30, EpochDays.daysInMonth(2024, 11));
+        assertEquals(31, EpochDays.daysInMonth(2024, 12));
+    }
+}
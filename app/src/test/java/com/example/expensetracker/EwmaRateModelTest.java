@@ -0,0 +1,55 @@
+package com.example.expensetracker;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link EwmaRateModel}
+ */
+public class EwmaRateModelTest {
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void constantSeries_returnsItsDailyAmount() {
+        EwmaRateModel model = new EwmaRateModel(30);
+        for (int day = 100; day < 110; day++) {
+            model.add("food", -12.5, day);
+        }
+        assertEquals(-12.5, model.dailyRate("food", 109), DELTA);
+    }
+
+    @Test
+    public void incrementalAdds_matchBatchOrderIndependently() {
+        EwmaRateModel forward = new EwmaRateModel(45);
+        EwmaRateModel backdated = new EwmaRateModel(45);
+        double[] amounts = {10, 0, 25, 5, 40, 0, 15};
+        for (int i = 0; i < amounts.length; i++) {
+            forward.add("rent", amounts[i], 200 + i);
+        }
+        for (int i = amounts.length - 1; i >= 0; i--) {
+            backdated.add("rent", amounts[i], 200 + i);
+        }
+        assertEquals(forward.dailyRate("rent", 210), backdated.dailyRate("rent", 210), 1e-9);
+    }
+
+    @Test
+    public void oldAmounts_decayByHalfLife() {
+        EwmaRateModel model = new EwmaRateModel(10);
+        model.add("salary", 100, 0);
+        model.add("other", 0, 0);
+        double atTen = model.dailyRate("salary", 10);
+        double atTwenty = model.dailyRate("salary", 20);
+        assertTrue(atTwenty < atTen);
+        assertEquals(0, model.dailyRate("missing", 20), DELTA);
+    }
+
+    @Test
+    public void totalRate_sumsSeries() {
+        EwmaRateModel model = new EwmaRateModel(60);
+        model.add("a", 10, 5);
+        model.add("b", -4, 5);
+        assertEquals(model.dailyRate("a", 5) + model.dailyRate("b", 5), model.totalDailyRate(5), DELTA);
+        assertEquals(2, model.getSeriesCount());
+    }
+}
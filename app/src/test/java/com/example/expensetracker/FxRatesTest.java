@@ -0,0 +1,73 @@
+package com.example.expensetracker;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link FxRates}
+ */
+public class FxRatesTest {
+    private static final int DAY = 19_800;
+
+    @Test
+    public void rateOn_usesLatestRateOnOrBeforeDay() {
+        FxRates rates = new FxRates();
+        rates.put("USD", DAY + 10, 0.90);
+        rates.put("USD", DAY, 0.95);
+        rates.put("usd", DAY + 20, 0.85);
+
+        assertEquals(0.95, rates.rateOn("USD", DAY - 5), 0);
+        assertEquals(0.95, rates.rateOn("USD", DAY + 9), 0);
+        assertEquals(0.90, rates.rateOn("USD", DAY + 10), 0);
+        assertEquals(0.85, rates.rateOn("USD", DAY + 100), 0);
+        assertEquals(0.85, rates.latestRate("USD"), 0);
+        assertEquals(1, rates.rateOn(Money.BASE_CURRENCY, DAY), 0);
+        assertTrue(Double.isNaN(rates.rateOn("JPY", DAY)));
+        assertEquals(3, rates.size());
+    }
+
+    @Test
+    public void rateOn_cachesRepeatedLookupsAndForgetsOnPut() {
+        FxRates rates = new FxRates();
+        rates.put("GBP", DAY, 1.15);
+        for (int i = 0; i < 10; i++) {
+            rates.rateOn("GBP", DAY + 1);
+        }
+        assertEquals(1, rates.getCacheMisses());
+        assertEquals(9, rates.getCacheHits());
+
+        rates.put("GBP", DAY + 1, 1.20);
+        assertEquals(1.20, rates.rateOn("GBP", DAY + 1), 0);
+        assertEquals(2, rates.getCacheMisses());
+    }
+
+    @Test
+    public void convertSums_convertsEachCurrencyOnce() {
+        FxRates rates = new FxRates();
+        rates.put("USD", DAY, 0.5);
+        Map<String, Double> sums = new HashMap<>();
+        sums.put("EUR", 10.0);
+        sums.put("USD", 40.0);
+        sums.put("CHF", 3.0);
+        // No CHF rate: counted at face value
+        assertEquals(10 + 20 + 3, rates.convertSums(sums), 1e-9);
+        assertEquals(Arrays.asList("EUR", "USD"), new ArrayList<>(rates.getCurrencies()));
+    }
+
+    @Test
+    public void readCsv_skipsHeaderAndBadLines() throws IOException {
+        FxRates rates = FxRates.readCsv(new StringReader(
+                "currency,date,rate\nUSD,2024-01-31,0.92\nGBP,31/01/2024,1.16\nUSD,bad,1\nXX,2024-01-31,2\nGBP,2024-02-01,-1\n"));
+        assertEquals(2, rates.size());
+        assertEquals(0.92, rates.latestRate("USD"), 0);
+        assertEquals(1.16, rates.latestRate("GBP"), 0);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.expensetracker;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link LatencyHistogram} and {@link OperationMetrics}
+ */
+public class LatencyHistogramTest {
+    @Test
+    public void buckets_coverEveryValueInOrder() {
+        assertEquals(0, LatencyHistogram.bucketOf(0));
+        assertEquals(7, LatencyHistogram.bucketOf(7));
+        assertEquals(8, LatencyHistogram.bucketOf(8));
+        int previous = 0;
+        for (long value = 1; value < (1L << 44); value += 1 + value / 5) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            assertTrue(bucket >= previous);
+            assertTrue(LatencyHistogram.lowerBound(bucket) <= value);
+            assertTrue(LatencyHistogram.lowerBound(bucket + 1) > value);
+            previous = bucket;
+        }
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void percentiles_areWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Random random = new Random(1);
+        long[] values = new long[20_000];
+        for (int i = 0; i < values.length; i++) {
+            // Log-normal around 200 µs, like database calls
+            values[i] = (long) (200_000 * Math.exp(random.nextGaussian()));
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(values.length, snapshot.getCount());
+        assertEquals(values[values.length - 1], snapshot.getMaxNanos());
+        for (double quantile : new double[]{0.5, 0.9, 0.99}) {
+            long exact = values[(int) Math.ceil(quantile * values.length) - 1];
+            assertEquals(exact, snapshot.getPercentileNanos(quantile), exact / 16.0);
+        }
+        assertEquals(Arrays.stream(values).sum(), snapshot.getTotalNanos());
+    }
+
+    @Test
+    public void emptyAndReset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.snapshot().getPercentileNanos(0.99));
+        assertEquals(0, histogram.snapshot().getMeanNanos(), 0);
+
+        histogram.record(-5);
+        histogram.record(1_000);
+        assertEquals(1_000, histogram.snapshot().getPercentileNanos(1));
+        assertEquals(500, histogram.snapshot().getMeanNanos(), 0);
+        histogram.reset();
+        assertEquals(0, histogram.snapshot().getCount());
+        assertEquals(0, histogram.snapshot().getMaxNanos());
+    }
+
+    @Test
+    public void record_fromManyThreadsLosesNothing() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int offset = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    histogram.record(1_000 + offset);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(200_000, snapshot.getCount());
+        assertEquals(1_003, snapshot.getMaxNanos());
+    }
+
+    @Test
+    public void operationMetrics_formatListsCalledOperations() {
+        OperationMetrics query = new OperationMetrics("DatabaseHelper.getTransactions");
+        query.record(2_000_000);
+        assertEquals(3, query.countRows(Arrays.asList(1, 2, 3)).size());
+        query.addBytes(120);
+        OperationMetrics unused = new OperationMetrics("DatabaseHelper.deleteBudget");
+
+        String table = OperationMetrics.format(Arrays.asList(query.snapshot(), unused.snapshot()));
+        String[] lines = table.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("operation"));
+        assertTrue(lines[1].startsWith("DatabaseHelper.getTransactions"));
+        assertTrue(lines[1].matches(".* 1 .* 2\\.000 .* 3 +120"));
+        assertEquals(3, query.snapshot().getRows());
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.expensetracker;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link LedgerColumns} and {@link LedgerAnalytics}
+ */
+public class LedgerAnalyticsTest {
+    private LedgerColumns columns;
+
+    @Before
+    public void setUp() {
+        columns = new LedgerColumns.Builder()
+                .add(EpochDays.of(2024, 1, 5), 1250, "Groceries", LedgerColumns.TYPE_EXPENSE)
+                .add(EpochDays.of(2024, 1, 20), 300000, "Salary", LedgerColumns.TYPE_INCOME)
+                .add(EpochDays.of(2024, 2, 3), 4000, "Groceries", LedgerColumns.TYPE_EXPENSE)
+                .add(EpochDays.of(2024, 3, 1), 90000, "Rent", LedgerColumns.TYPE_EXPENSE)
+                .build();
+    }
+
+    @Test
+    public void categories_areDictionaryEncoded() {
+        assertEquals(3, columns.categoryCount());
+        assertEquals(columns.categoryId(0), columns.categoryId(2));
+        assertEquals("Groceries", columns.categoryName(columns.categoryId(0)));
+        assertEquals(3, columns.monthSpan());
+    }
+
+    @Test
+    public void filterAndSum_selectExpensesOnly() {
+        int[] expenses = LedgerAnalytics.filter(columns, LedgerAnalytics.ofType(LedgerColumns.TYPE_EXPENSE));
+        assertArrayEquals(new int[]{0, 2, 3}, expenses);
+        assertEquals(95250, LedgerAnalytics.sum(columns, expenses));
+    }
+
+    @Test
+    public void sumByCategoryAndMonth_splitsGroceriesByMonth() {
+        GroupedSums sums = LedgerAnalytics.sumByCategoryAndMonth(columns, null);
+        int groceries = columns.categoryId("Groceries");
+        assertEquals(1250, sums.sum(groceries, LedgerColumns.monthOrdinal(2024, 1)));
+        assertEquals(4000, sums.sum(groceries, LedgerColumns.monthOrdinal(2024, 2)));
+        assertEquals(0, sums.sum(groceries, LedgerColumns.monthOrdinal(2024, 3)));
+    }
+
+    @Test
+    public void topN_returnsLargestFirst() {
+        int[] top = LedgerAnalytics.topN(columns, null, 2);
+        assertArrayEquals(new int[]{1, 3}, top);
+    }
+
+    @Test
+    public void parallelGrouping_matchesSequentialTotals() {
+        Random random = new Random(42);
+        LedgerColumns.Builder builder = new LedgerColumns.Builder();
+        long expected = 0;
+        int rows = LedgerAnalytics.PARALLEL_THRESHOLD * 4;
+        for (int i = 0; i < rows; i++) {
+            long cents = random.nextInt(10_000);
+            expected += cents;
+            builder.add(EpochDays.of(2020, 1, 1) + random.nextInt(1500), cents,
+                    "c" + random.nextInt(20), LedgerColumns.TYPE_EXPENSE);
+        }
+        LedgerColumns large = builder.build();
+
+        GroupedSums byMonth = LedgerAnalytics.sumByMonth(large, null);
+        long total = 0;
+        int count = 0;
+        for (int key = 0; key < byMonth.keyCount(); key++) {
+            total += byMonth.sum(key);
+            count += byMonth.count(key);
+        }
+        assertEquals(expected, total);
+        assertEquals(rows, count);
+    }
+}
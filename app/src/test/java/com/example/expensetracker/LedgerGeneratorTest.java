@@ -0,0 +1,123 @@
+package com.example.expensetracker;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link LedgerGenerator} and {@link TransactionBinaryFile}
+ */
+public class LedgerGeneratorTest {
+    private static LedgerGenerator generator(int rows) {
+        return new LedgerGenerator.Builder().seed(7).rows(rows).years(3).build();
+    }
+
+    @Test
+    public void generate_isDeterministicWhateverTheBatchSize() {
+        TransactionList whole = generator(5000).generate();
+        assertEquals(5000, whole.size());
+
+        Iterator<TransactionList> batches = generator(5000).batches(333);
+        int row = 0;
+        while (batches.hasNext()) {
+            TransactionList batch = batches.next();
+            for (int i = 0; i < batch.size(); i++, row++) {
+                assertEquals(whole.id(row), batch.id(i));
+                assertEquals(whole.epochDay(row), batch.epochDay(i));
+                assertEquals(whole.amount(row), batch.amount(i), 0);
+                assertEquals(whole.category(row), batch.category(i));
+                assertEquals(whole.note(row), batch.note(i));
+            }
+        }
+        assertEquals(5000, row);
+
+        TransactionList otherSeed = new LedgerGenerator.Builder().seed(8).rows(5000).years(3).build().generate();
+        assertNotEquals(whole.category(4999) + whole.amount(4999), otherSeed.category(4999) + otherSeed.amount(4999));
+    }
+
+    @Test
+    public void generate_looksLikeAPersonalLedger() {
+        TransactionList rows = generator(5000).generate();
+        int firstDay = rows.epochDay(0);
+        int lastDay = rows.epochDay(rows.size() - 1);
+        // About three years at the density asked for
+        assertTrue(lastDay - firstDay > 2 * 365 && lastDay - firstDay < 4 * 365);
+
+        Map<String, Integer> counts = new HashMap<>();
+        int[] giftsByMonth = new int[13];
+        int previousDay = Integer.MIN_VALUE;
+        for (int i = 0; i < rows.size(); i++) {
+            assertTrue("Rows are in date order", rows.epochDay(i) >= previousDay);
+            previousDay = rows.epochDay(i);
+            assertTrue(rows.amount(i) > 0);
+            counts.merge(rows.category(i), 1, Integer::sum);
+            if ("Gifts".equals(rows.category(i))) {
+                giftsByMonth[EpochDays.toDayKey(rows.epochDay(i)) / 100 % 100]++;
+            }
+        }
+        int months = (lastDay - firstDay) / 30;
+        // One salary and one rent a month
+        assertEquals(months, counts.get("Salary"), 2);
+        assertEquals(months, counts.get("Rent"), 2);
+        assertTrue(counts.get("Groceries") > counts.get("Books"));
+        // Gifts peak in December
+        assertTrue(giftsByMonth[12] > 2 * giftsByMonth[6]);
+        // A long tail: at least twenty categories in use
+        assertTrue(counts.size() >= 20);
+    }
+
+    @Test
+    public void writeCsv_readsBackWithCsvReader() throws IOException {
+        StringBuilder csv = new StringBuilder();
+        generator(500).writeCsv(csv, 100);
+        TransactionCsvReader reader = new TransactionCsvReader();
+        List<Transaction> rows = reader.read(new StringReader(csv.toString()));
+
+        TransactionList expected = generator(500).generate();
+        assertEquals(500, rows.size());
+        assertEquals(0, reader.getInvalidCount());
+        assertEquals(expected.date(123), rows.get(123).getDate());
+        assertEquals(expected.amount(123), rows.get(123).getAmount(), 1e-9);
+    }
+
+    @Test
+    public void binaryFile_roundTrips() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(2000, TransactionBinaryFile.write(out, generator(2000).batches(256)));
+        TransactionList read = TransactionBinaryFile.read(new ByteArrayInputStream(out.toByteArray()));
+
+        TransactionList expected = generator(2000).generate();
+        assertEquals(expected.size(), read.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.id(i), read.id(i));
+            assertEquals(expected.epochDay(i), read.epochDay(i));
+            assertEquals(expected.amount(i), read.amount(i), 0);
+            assertEquals(expected.type(i), read.type(i));
+            assertEquals(expected.category(i), read.category(i));
+            assertEquals(expected.note(i), read.note(i));
+            assertEquals(expected.currency(i), read.currency(i));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void binaryFile_rejectsOtherFiles() throws IOException {
+        TransactionBinaryFile.read(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5, 6, 7, 8}));
+    }
+
+    @Test
+    public void binaryFile_emptyLedger() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TransactionBinaryFile.write(out, Collections.<TransactionList>emptyIterator());
+        assertTrue(TransactionBinaryFile.read(new ByteArrayInputStream(out.toByteArray())).isEmpty());
+    }
+}
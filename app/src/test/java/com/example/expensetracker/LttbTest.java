@@ -0,0 +1,56 @@
+package com.example.expensetracker;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link Lttb}
+ */
+public class LttbTest {
+    @Test
+    public void shortSeries_isReturnedUnchanged() {
+        double[] x = {0, 1, 2, 3};
+        double[] y = {5, 1, 4, 2};
+        assertArrayEquals(new int[]{0, 1, 2, 3}, Lttb.downsample(x, y, 10));
+    }
+
+    @Test
+    public void longSeries_isCappedAndKeepsEndpoints() {
+        int length = 10_000;
+        double[] x = new double[length];
+        double[] y = new double[length];
+        for (int i = 0; i < length; i++) {
+            x[i] = i;
+            y[i] = Math.sin(i / 50.0);
+        }
+
+        int[] kept = Lttb.downsample(x, y, 200);
+
+        assertEquals(200, kept.length);
+        assertEquals(0, kept[0]);
+        assertEquals(length - 1, kept[kept.length - 1]);
+        for (int i = 1; i < kept.length; i++) {
+            assertTrue(kept[i] > kept[i - 1]);
+        }
+    }
+
+    @Test
+    public void spike_isPreserved() {
+        int length = 1000;
+        double[] x = new double[length];
+        double[] y = new double[length];
+        for (int i = 0; i < length; i++) {
+            x[i] = i;
+        }
+        y[537] = 1000;
+
+        int[] kept = Lttb.downsample(x, y, 20);
+
+        boolean found = false;
+        for (int index : kept) {
+            found |= index == 537;
+        }
+        assertTrue(found);
+    }
+}
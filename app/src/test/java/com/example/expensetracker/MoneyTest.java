@@ -0,0 +1,49 @@
+package com.example.expensetracker;
+
+import org.junit.Test;
+
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link Money}, checked against String.format for
+ * amounts entered in whole cents
+ */
+public class MoneyTest {
+    @Test
+    public void wholeCents_matchStringFormat() {
+        for (long cents = -100_000; cents <= 1_000_000; cents++) {
+            double amount = cents / 100.0;
+            String expected = "€" + String.format(Locale.UK, "%.2f", amount);
+            if (!Money.format(amount).equals(expected)) {
+                fail("Mismatch on " + expected + ": " + Money.format(amount));
+            }
+        }
+    }
+
+    @Test
+    public void appendTo_appendsToExistingText() {
+        StringBuilder out = new StringBuilder("Total ");
+        Money.appendTo(out, 1234.5, "usd");
+        assertEquals("Total $1234.50", out.toString());
+    }
+
+    @Test
+    public void fractionsOfACent_roundToNearestCent() {
+        assertEquals("€0.07", Money.format(0.066));
+        assertEquals("€12.34", Money.format(12.3449));
+        assertEquals("€0.00", Money.format(-0.001));
+    }
+
+    @Test
+    public void currencyWithoutSymbol_usesCode() {
+        assertEquals("CHF 5.00", Money.format(5, "CHF"));
+        assertEquals("XYZ 5.00", Money.format(5, "XYZ"));
+    }
+
+    @Test
+    public void notANumber_formatsLikeStringFormat() {
+        assertEquals("€NaN", Money.format(Double.NaN));
+    }
+}
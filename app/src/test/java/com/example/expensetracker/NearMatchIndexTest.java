@@ -0,0 +1,93 @@
+package com.example.expensetracker;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link NearMatchIndex}
+ */
+public class NearMatchIndexTest {
+    private static final int DAY = 20_000;
+
+    @Test
+    public void findMatch_withinWindowOnly() {
+        NearMatchIndex index = new NearMatchIndex(2);
+        index.add(7, "expense", "Groceries", 42.5, "EUR", DAY);
+
+        assertEquals(7, index.findMatch("expense", "groceries", 42.5, "EUR", DAY));
+        assertEquals(7, index.findMatch("expense", "Groceries ", -42.5, "EUR", DAY + 2));
+        assertEquals(7, index.findMatch("expense", "Groceries", 42.5, "EUR", DAY - 2));
+        assertEquals(NearMatchIndex.NO_MATCH, index.findMatch("expense", "Groceries", 42.5, "EUR", DAY + 3));
+        assertEquals(NearMatchIndex.NO_MATCH, index.findMatch("expense", "Groceries", 42.51, "EUR", DAY));
+        assertEquals(NearMatchIndex.NO_MATCH, index.findMatch("income", "Groceries", 42.5, "EUR", DAY));
+        assertEquals(NearMatchIndex.NO_MATCH, index.findMatch("expense", "Transport", 42.5, "EUR", DAY));
+        assertEquals(NearMatchIndex.NO_MATCH, index.findMatch("expense", "Groceries", 42.5, "USD", DAY));
+        assertEquals(7, index.findMatch("expense", "Groceries", 42.5, "eur", DAY));
+        assertEquals(7, index.findMatch("expense", "Groceries", 42.5, null, DAY));
+    }
+
+    @Test
+    public void addAll_copiesEveryRow() {
+        NearMatchIndex index = new NearMatchIndex(1);
+        index.add(1, "expense", "Rent", 900, "EUR", DAY);
+        NearMatchIndex added = new NearMatchIndex(1);
+        added.add(2, "expense", "Coffee", 3.2, "EUR", DAY);
+        added.add(3, "expense", "Coffee", 3.2, "EUR", DAY + 5);
+        index.addAll(added);
+        assertEquals(3, index.size());
+        assertEquals(1, index.findMatch("expense", "Rent", 900, "EUR", DAY));
+        assertEquals(2, index.findMatch("expense", "Coffee", 3.2, "EUR", DAY + 1));
+        assertEquals(3, index.findMatch("expense", "Coffee", 3.2, "EUR", DAY + 5));
+    }
+
+    @Test
+    public void findMatch_prefersClosestDay() {
+        NearMatchIndex index = new NearMatchIndex(3);
+        index.add(1, "expense", "Rent", 900, "EUR", DAY - 3);
+        index.add(2, "expense", "Rent", 900, "EUR", DAY + 1);
+        assertEquals(2, index.findMatch("expense", "Rent", 900, "EUR", DAY));
+    }
+
+    @Test
+    public void remove_dropsOnlyThatRow() {
+        NearMatchIndex index = new NearMatchIndex(0);
+        index.add(1, "expense", "Coffee", 3.2, "EUR", DAY);
+        index.add(2, "expense", "Coffee", 3.2, "EUR", DAY);
+        assertTrue(index.remove(2, "expense", "Coffee", 3.2, "EUR", DAY));
+        assertFalse(index.remove(2, "expense", "Coffee", 3.2, "EUR", DAY));
+        assertEquals(1, index.size());
+        assertEquals(1, index.findMatch("expense", "Coffee", 3.2, "EUR", DAY));
+        assertTrue(index.remove(1, "expense", "Coffee", 3.2, "EUR", DAY));
+        assertEquals(NearMatchIndex.NO_MATCH, index.findMatch("expense", "Coffee", 3.2, "EUR", DAY));
+    }
+
+    @Test
+    public void findMatch_agreesWithLinearScan() {
+        Random random = new Random(11);
+        int window = 2;
+        NearMatchIndex index = new NearMatchIndex(window);
+        int[] days = new int[2_000];
+        long[] cents = new long[days.length];
+        int[] categories = new int[days.length];
+        for (int i = 0; i < days.length; i++) {
+            days[i] = DAY + random.nextInt(200) - 100;
+            cents[i] = 100 * (1 + random.nextInt(20));
+            categories[i] = random.nextInt(5);
+            index.add(i, "expense", "Cat" + categories[i], cents[i] / 100.0, "EUR", days[i]);
+        }
+        for (int probe = 0; probe < 500; probe++) {
+            int day = DAY + random.nextInt(220) - 110;
+            long amount = 100 * (1 + random.nextInt(20));
+            int category = random.nextInt(5);
+            boolean expected = false;
+            for (int i = 0; i < days.length; i++) {
+                expected |= cents[i] == amount && categories[i] == category && Math.abs(days[i] - day) <= window;
+            }
+            long match = index.findMatch("expense", "Cat" + category, amount / 100.0, "EUR", day);
+            assertEquals(expected, match != NearMatchIndex.NO_MATCH);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.expensetracker;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link P2Quantile}
+ */
+public class P2QuantileTest {
+    @Test
+    public void getQuantile_exactForFewValues() {
+        P2Quantile median = new P2Quantile(0.5);
+        assertTrue(Double.isNaN(median.getQuantile()));
+        median.add(30);
+        median.add(10);
+        median.add(20);
+        assertEquals(20, median.getQuantile(), 1e-9);
+        median.add(40);
+        assertEquals(25, median.getQuantile(), 1e-9);
+
+        P2Quantile p90 = new P2Quantile(0.9);
+        for (double value : new double[]{5, 1, 4, 2, 3}) {
+            p90.add(value);
+        }
+        assertEquals(4.6, p90.getQuantile(), 1e-9);
+    }
+
+    @Test
+    public void getQuantile_closeToExactOnLargeStreams() {
+        Random random = new Random(7);
+        int n = 100_000;
+        double[] values = new double[n];
+        P2Quantile median = new P2Quantile(0.5);
+        P2Quantile p90 = new P2Quantile(0.9);
+        for (int i = 0; i < n; i++) {
+            // Skewed like real spending: many small amounts, a long tail of large ones
+            values[i] = Math.exp(random.nextGaussian()) * 20;
+            median.add(values[i]);
+            p90.add(values[i]);
+        }
+        Arrays.sort(values);
+        double exactMedian = values[n / 2];
+        double exactP90 = values[(int) (n * 0.9)];
+
+        assertEquals(n, median.getCount());
+        assertEquals(exactMedian, median.getQuantile(), exactMedian * 0.02);
+        assertEquals(exactP90, p90.getQuantile(), exactP90 * 0.02);
+    }
+
+    @Test
+    public void add_ignoresNaN() {
+        P2Quantile median = new P2Quantile(0.5);
+        median.add(Double.NaN);
+        median.add(4);
+        assertEquals(1, median.getCount());
+        assertEquals(4, median.getQuantile(), 1e-9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_rejectsOutOfRange() {
+        new P2Quantile(1.5);
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.expensetracker;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Measurements from a performance run, keyed "operation.rows.metric"
+ * Features:
+ * - Saved and loaded as properties files, so a run can be checked in as the baseline
+ * - Checked against budgets keyed the same way; "operation.metric" applies to every size
+ * - Compared with a baseline as a Markdown table of changes
+ */
+final class PerfResults {
+    static final String MILLIS = "millis";
+    static final String ALLOCATED_BYTES = "allocatedBytes";
+    // A metric this much worse than the baseline is marked as a regression
+    static final double REGRESSION_THRESHOLD = 0.10;
+
+    private final Map<String, Double> values = new TreeMap<>();
+
+    /**
+     * Records one metric
+     * @param operation Operation name, such as getAllTransactions
+     * @param rows Rows in the database when it was measured
+     * @param metric {@link #MILLIS} or {@link #ALLOCATED_BYTES}
+     * @param value Measured value
+     */
+    void put(String operation, int rows, String metric, double value) {
+        values.put(key(operation, rows, metric), value);
+    }
+
+    /**
+     * @return Measured value, or NaN if it was not measured
+     */
+    double get(String operation, int rows, String metric) {
+        Double value = values.get(key(operation, rows, metric));
+        return value == null ? Double.NaN : value;
+    }
+
+    private static String key(String operation, int rows, String metric) {
+        return operation + "." + rows + "." + metric;
+    }
+
+    /**
+     * Adds every measurement of another run, replacing equal keys
+     * @param other Measurements to add
+     */
+    void putAll(PerfResults other) {
+        values.putAll(other.values);
+    }
+
+    boolean isEmpty() {
+        return values.isEmpty();
+    }
+
+    /**
+     * Checks every measurement against its budget
+     * @param budgets Budgets keyed "operation.rows.metric" or "operation.metric"
+     * @return One line per measurement over its budget; empty if all are within
+     */
+    List<String> overBudget(Properties budgets) {
+        List<String> violations = new ArrayList<>();
+        for (Map.Entry<String, Double> entry : values.entrySet()) {
+            String budget = budgets.getProperty(entry.getKey());
+            if (budget == null) {
+                budget = budgets.getProperty(withoutRows(entry.getKey()));
+            }
+            if (budget != null && entry.getValue() > Double.parseDouble(budget.trim())) {
+                violations.add(String.format(Locale.ROOT, "%s = %.0f, budget %s",
+                        entry.getKey(), entry.getValue(), budget.trim()));
+            }
+        }
+        return violations;
+    }
+
+    private static String withoutRows(String key) {
+        int first = key.indexOf('.');
+        int last = key.lastIndexOf('.');
+        return first == last ? key : key.substring(0, first) + key.substring(last);
+    }
+
+    /**
+     * Renders a comparison with a previous run
+     * @param baseline Previous run, or an empty result if there is none
+     * @return Markdown table: one row per metric with both values and the change
+     */
+    String compareWith(PerfResults baseline) {
+        StringBuilder report = new StringBuilder("# Database performance\n\n");
+        if (baseline.isEmpty()) {
+            report.append("No baseline to compare with, so only this run's values are listed. To compare later runs ")
+                    .append("on this machine, copy results.properties to ")
+                    .append("app/src/test/resources/db-perf-baseline.properties.\n\n");
+        }
+        report.append("| Measurement | Baseline | Current | Change |\n");
+        report.append("|---|---:|---:|---:|\n");
+        for (Map.Entry<String, Double> entry : values.entrySet()) {
+            Double before = baseline.values.get(entry.getKey());
+            double now = entry.getValue();
+            report.append("| ").append(entry.getKey()).append(" | ")
+                    .append(before == null ? "-" : format(before)).append(" | ")
+                    .append(format(now)).append(" | ");
+            if (before != null && before > 0) {
+                double change = (now - before) / before;
+                report.append(String.format(Locale.ROOT, "%+.1f%%", change * 100));
+                if (change > REGRESSION_THRESHOLD) {
+                    report.append(" regression");
+                }
+            } else {
+                report.append("-");
+            }
+            report.append(" |\n");
+        }
+        return report.toString();
+    }
+
+    private static String format(double value) {
+        return value >= 100 ? String.format(Locale.ROOT, "%.0f", value) : String.format(Locale.ROOT, "%.2f", value);
+    }
+
+    /**
+     * @param reader Properties text; not closed
+     * @return Measurements read from it
+     * @throws IOException If it cannot be read
+     */
+    static PerfResults read(Reader reader) throws IOException {
+        Properties properties = new Properties();
+        properties.load(reader);
+        PerfResults results = new PerfResults();
+        for (String key : properties.stringPropertyNames()) {
+            results.values.put(key, Double.parseDouble(properties.getProperty(key).trim()));
+        }
+        return results;
+    }
+
+    /**
+     * @param file Properties file written by {@link #write(File)}
+     * @return Measurements in it, or an empty result if the file does not exist
+     * @throws IOException If it cannot be read
+     */
+    static PerfResults read(File file) throws IOException {
+        if (!file.isFile()) {
+            return new PerfResults();
+        }
+        try (Reader reader = new FileReader(file)) {
+            return read(reader);
+        }
+    }
+
+    /**
+     * @param writer Destination; not closed
+     * @throws IOException If writing fails
+     */
+    void write(Writer writer) throws IOException {
+        for (Map.Entry<String, Double> entry : values.entrySet()) {
+            writer.write(entry.getKey() + "=" + String.format(Locale.ROOT, "%.3f", entry.getValue()) + "\n");
+        }
+    }
+
+    /**
+     * @param file File to write, replacing it
+     * @throws IOException If writing fails
+     */
+    void write(File file) throws IOException {
+        try (Writer writer = new FileWriter(file)) {
+            write(writer);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.expensetracker;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link PerfResults}
+ */
+public class PerfResultsTest {
+    @Test
+    public void overBudget_prefersSizeSpecificBudget() {
+        PerfResults results = new PerfResults();
+        results.put("getAllTransactions", 10000, PerfResults.MILLIS, 120);
+        results.put("addTransaction", 10000, PerfResults.MILLIS, 3);
+        results.put("addTransaction", 100000, PerfResults.MILLIS, 30);
+
+        Properties budgets = new Properties();
+        budgets.setProperty("getAllTransactions.10000.millis", "100");
+        budgets.setProperty("getAllTransactions.millis", "1000");
+        budgets.setProperty("addTransaction.millis", "20");
+
+        List<String> violations = results.overBudget(budgets);
+        assertEquals(2, violations.size());
+        assertTrue(violations.get(0).startsWith("addTransaction.100000.millis = 30"));
+        assertTrue(violations.get(1).startsWith("getAllTransactions.10000.millis = 120"));
+    }
+
+    @Test
+    public void compareWith_marksRegressions() throws IOException {
+        PerfResults baseline = new PerfResults();
+        baseline.put("getTotalBalance", 10000, PerfResults.MILLIS, 10);
+        baseline.put("exportToCSV", 10000, PerfResults.MILLIS, 200);
+        StringWriter saved = new StringWriter();
+        baseline.write(saved);
+
+        PerfResults current = new PerfResults();
+        current.put("getTotalBalance", 10000, PerfResults.MILLIS, 12);
+        current.put("exportToCSV", 10000, PerfResults.MILLIS, 190);
+        current.put("deleteTransaction", 10000, PerfResults.MILLIS, 1.5);
+
+        String report = current.compareWith(PerfResults.read(new StringReader(saved.toString())));
+        assertTrue(report.contains("| getTotalBalance.10000.millis | 10.00 | 12.00 | +20.0% regression |"));
+        assertTrue(report.contains("| exportToCSV.10000.millis | 200 | 190 | -5.0% |"));
+        assertTrue(report.contains("| deleteTransaction.10000.millis | - | 1.50 | - |"));
+        assertFalse(report.contains("No baseline"));
+    }
+
+    @Test
+    public void compareWith_withoutBaseline() {
+        PerfResults current = new PerfResults();
+        current.put("getTotalBalance", 10000, PerfResults.MILLIS, 12);
+        assertTrue(current.compareWith(new PerfResults()).contains("No baseline"));
+        assertEquals(12, current.get("getTotalBalance", 10000, PerfResults.MILLIS), 0);
+        assertTrue(Double.isNaN(current.get("getTotalBalance", 1, PerfResults.MILLIS)));
+    }
+}
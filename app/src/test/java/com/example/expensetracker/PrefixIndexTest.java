@@ -0,0 +1,66 @@
+package com.example.expensetracker;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link PrefixIndex}
+ */
+public class PrefixIndexTest {
+    private static final int TODAY = 20_000;
+
+    @Test
+    public void lookup_matchesPrefixIgnoringCase() {
+        PrefixIndex index = new PrefixIndex();
+        index.add("Tesco", TODAY);
+        index.add("Taxi", TODAY);
+        index.add("Rent", TODAY);
+
+        assertEquals(Collections.singletonList("Tesco"), index.lookup("tes", 5, TODAY));
+        assertEquals(2, index.lookup("T", 5, TODAY).size());
+        assertTrue(index.lookup("x", 5, TODAY).isEmpty());
+        assertTrue(index.lookup("  ", 5, TODAY).isEmpty());
+    }
+
+    @Test
+    public void add_mergesCaseVariantsKeepingLatestSpelling() {
+        PrefixIndex index = new PrefixIndex();
+        index.add("tesco", TODAY - 10);
+        index.add("TESCO ", TODAY - 20);
+        index.add("Tesco", TODAY);
+
+        assertEquals(1, index.size());
+        assertEquals(Collections.singletonList("Tesco"), index.lookup("te", 5, TODAY));
+    }
+
+    @Test
+    public void lookup_ranksByFrequencyAndRecency() {
+        PrefixIndex index = new PrefixIndex();
+        index.add("Coffee", 10, TODAY);
+        index.add("Cinema", 2, TODAY);
+        index.add("Council tax", 12, TODAY - 365);
+
+        assertEquals(Arrays.asList("Coffee", "Cinema", "Council tax"), index.lookup("c", 5, TODAY));
+        assertEquals(Collections.singletonList("Coffee"), index.lookup("c", 1, TODAY));
+    }
+
+    @Test
+    public void add_outOfOrderKeepsKeysSorted() {
+        PrefixIndex index = new PrefixIndex();
+        String[] words = {"pear", "apple", "plum", "apricot", "peach", "banana", "pepper"};
+        for (String word : words) {
+            index.add(word, TODAY);
+        }
+        for (String word : words) {
+            assertEquals(Collections.singletonList(word), index.lookup(word, 1, TODAY));
+        }
+        List<String> pe = index.lookup("pe", 5, TODAY);
+        assertEquals(3, pe.size());
+        assertTrue(pe.containsAll(Arrays.asList("pear", "peach", "pepper")));
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.expensetracker;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link QueryResultCache}
+ */
+public class QueryResultCacheTest {
+    private static final TransactionFilter EXPENSES = new TransactionFilter.Builder().type("expense").build();
+
+    private static Transaction expense(long id, double amount, String date) {
+        return new Transaction(id, amount, "expense", "Groceries", date, "");
+    }
+
+    @Test
+    public void get_hitsOnlyAtStoredVersion() {
+        QueryResultCache cache = new QueryResultCache(100);
+        cache.put(EXPENSES, 3, Arrays.asList(expense(1, 10, "01/03/2024")));
+
+        assertNotNull(cache.get(new TransactionFilter.Builder().type("expense").build(), 3));
+        assertNull(cache.get(EXPENSES, 4));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0.5, cache.getHitRate(), 1e-9);
+    }
+
+    @Test
+    public void applyWrite_patchesInsertsInOrder() {
+        QueryResultCache cache = new QueryResultCache(100);
+        cache.put(EXPENSES, 1, Arrays.asList(expense(3, 10, "05/03/2024"), expense(1, 20, "01/03/2024")));
+
+        cache.applyWrite(null, expense(4, 30, "03/03/2024"), 2);
+        List<Transaction> rows = cache.get(EXPENSES, 2);
+        assertNotNull(rows);
+        assertEquals(Arrays.asList(3L, 4L, 1L), ids(rows));
+        assertEquals(1, cache.getPatches());
+
+        // An income does not match, so the result is carried forward unchanged
+        cache.applyWrite(null, new Transaction(5, 100, "income", "Salary", "04/03/2024", ""), 3);
+        assertSame(rows, cache.get(EXPENSES, 3));
+    }
+
+    @Test
+    public void applyWrite_updatesAndDeletes() {
+        QueryResultCache cache = new QueryResultCache(100);
+        Transaction old = expense(1, 20, "01/03/2024");
+        cache.put(EXPENSES, 1, Arrays.asList(expense(2, 10, "05/03/2024"), old));
+
+        Transaction moved = expense(1, 25, "09/03/2024");
+        cache.applyWrite(old, moved, 2);
+        assertEquals(Arrays.asList(1L, 2L), ids(cache.get(EXPENSES, 2)));
+
+        cache.applyWrite(moved, null, 3);
+        assertEquals(Arrays.asList(2L), ids(cache.get(EXPENSES, 3)));
+        assertEquals(1, cache.getCachedRows());
+    }
+
+    @Test
+    public void applyWrite_doesNotDuplicateRowAlreadyRead() {
+        QueryResultCache cache = new QueryResultCache(100);
+        Transaction added = expense(7, 10, "05/03/2024");
+        // Read after the insert committed, but stored under the version before it
+        cache.put(EXPENSES, 1, Arrays.asList(added));
+        cache.applyWrite(null, added, 2);
+        assertEquals(Arrays.asList(7L), ids(cache.get(EXPENSES, 2)));
+    }
+
+    @Test
+    public void applyWrite_dropsPagesAndStaleEntries() {
+        QueryResultCache cache = new QueryResultCache(100);
+        TransactionFilter page = new TransactionFilter.Builder().type("expense").limit(1, 0).build();
+        TransactionFilter incomes = new TransactionFilter.Builder().type("income").build();
+        cache.put(page, 5, Arrays.asList(expense(1, 10, "01/03/2024")));
+        cache.put(incomes, 4, new ArrayList<>());
+
+        cache.applyWrite(null, expense(2, 10, "02/03/2024"), 6);
+        assertNull(cache.get(page, 6));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void put_evictsLeastRecentlyUsedBeyondRowLimit() {
+        QueryResultCache cache = new QueryResultCache(3);
+        TransactionFilter incomes = new TransactionFilter.Builder().type("income").build();
+        TransactionFilter all = new TransactionFilter.Builder().build();
+        cache.put(EXPENSES, 1, Arrays.asList(expense(1, 1, "01/03/2024"), expense(2, 1, "01/03/2024")));
+        cache.put(incomes, 1, Arrays.asList(expense(3, 1, "01/03/2024")));
+        cache.get(EXPENSES, 1);
+        cache.put(all, 1, Arrays.asList(expense(4, 1, "01/03/2024")));
+
+        assertNotNull(cache.get(EXPENSES, 1));
+        assertNull(cache.get(incomes, 1));
+        assertEquals(1, cache.getEvictions());
+        assertEquals(3, cache.getCachedRows());
+
+        // Larger than the whole cache: returned but not kept
+        List<Transaction> big = cache.put(incomes, 1, Arrays.asList(expense(5, 1, "01/03/2024"),
+                expense(6, 1, "01/03/2024"), expense(7, 1, "01/03/2024"), expense(8, 1, "01/03/2024")));
+        assertEquals(4, big.size());
+        assertNull(cache.get(incomes, 1));
+    }
+
+    private static List<Long> ids(List<Transaction> rows) {
+        List<Long> ids = new ArrayList<>();
+        for (Transaction row : rows) {
+            ids.add(row.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.expensetracker;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link RangeSumIndex}
+ */
+public class RangeSumIndexTest {
+    private static final int DAY = 20_000;
+
+    @Test
+    public void sum_byTypeAndCategory() {
+        RangeSumIndex index = new RangeSumIndex();
+        index.add("expense", "Groceries", DAY, 40);
+        index.add("expense", "groceries ", DAY + 3, 10);
+        index.add("expense", "Rent", DAY + 1, 700);
+        index.add("income", "Salary", DAY + 2, 2000);
+
+        assertEquals(740, index.sum("expense", DAY, DAY + 2), 1e-9);
+        assertEquals(750, index.sum("Expense", DAY, DAY + 10), 1e-9);
+        assertEquals(50, index.sum("expense", "GROCERIES", DAY, DAY + 3), 1e-9);
+        assertEquals(10, index.sum("expense", "Groceries", DAY + 1, DAY + 3), 1e-9);
+        assertEquals(2000, index.sum("income", DAY - 100, DAY + 100), 1e-9);
+        assertEquals(0, index.sum("income", "Groceries", DAY, DAY + 3), 1e-9);
+        assertEquals(0, index.sum("expense", DAY + 3, DAY), 1e-9);
+        assertEquals(5, index.getSeriesCount());
+    }
+
+    @Test
+    public void add_negativeAmountRemovesRow() {
+        RangeSumIndex index = new RangeSumIndex();
+        index.add("expense", "Rent", DAY, 700);
+        index.add("expense", "Rent", DAY, -700);
+        index.add("expense", "Rent", DAY + 31, 720);
+
+        assertEquals(0, index.sum("expense", "Rent", DAY, DAY), 1e-9);
+        assertEquals(720, index.sum("expense", DAY, DAY + 31), 1e-9);
+    }
+
+    @Test
+    public void tree_growsInBothDirections() {
+        RangeSumIndex.DayFenwickTree tree = new RangeSumIndex.DayFenwickTree(DAY);
+        tree.add(DAY, 1);
+        tree.add(DAY + 5000, 2);
+        tree.add(DAY - 4000, 4);
+
+        assertTrue(tree.getOriginDay() <= DAY - 4000);
+        assertTrue(tree.getOriginDay() + tree.getCapacity() > DAY + 5000);
+        assertEquals(7, tree.rangeSum(DAY - 4000, DAY + 5000), 1e-9);
+        assertEquals(4, tree.rangeSum(DAY - 5000, DAY - 1), 1e-9);
+        assertEquals(3, tree.rangeSum(DAY, DAY + 9000), 1e-9);
+        assertEquals(1, tree.rangeSum(DAY, DAY + 4999), 1e-9);
+    }
+
+    @Test
+    public void rangeSum_matchesBruteForce() {
+        Random random = new Random(41);
+        RangeSumIndex.DayFenwickTree tree = new RangeSumIndex.DayFenwickTree(DAY);
+        int span = 3650;
+        double[] daily = new double[span];
+        for (int i = 0; i < 5000; i++) {
+            int offset = random.nextInt(span);
+            double amount = random.nextInt(10_000) / 100.0;
+            if (random.nextInt(5) == 0) {
+                amount = -daily[offset];
+            }
+            daily[offset] += amount;
+            tree.add(DAY - span / 2 + offset, amount);
+        }
+        for (int i = 0; i < 1000; i++) {
+            int a = random.nextInt(span);
+            int b = random.nextInt(span);
+            int from = Math.min(a, b);
+            int until = Math.max(a, b);
+            double expected = 0;
+            for (int d = from; d <= until; d++) {
+                expected += daily[d];
+            }
+            assertEquals(expected, tree.rangeSum(DAY - span / 2 + from, DAY - span / 2 + until), 1e-6);
+        }
+    }
+}
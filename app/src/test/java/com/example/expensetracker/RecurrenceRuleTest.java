@@ -0,0 +1,69 @@
+package com.example.expensetracker;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link RecurrenceRule}
+ */
+public class RecurrenceRuleTest {
+    private static RecurrenceRule rule(int unit, int interval, int startDay, int endDay, int nextIndex) {
+        return new RecurrenceRule(1, 950, "expense", "Rent", "", unit, interval, startDay, endDay, nextIndex);
+    }
+
+    @Test
+    public void monthly_clampsToShortMonths() {
+        RecurrenceRule rent = rule(RecurrenceRule.UNIT_MONTH, 1, EpochDays.of(2024, 1, 31), EpochDays.INVALID, 0);
+        assertEquals(EpochDays.of(2024, 2, 29), rent.occurrenceDay(1));
+        assertEquals(EpochDays.of(2024, 3, 31), rent.occurrenceDay(2));
+        assertEquals(EpochDays.of(2024, 4, 30), rent.occurrenceDay(3));
+        assertEquals(EpochDays.of(2025, 2, 28), rent.occurrenceDay(13));
+    }
+
+    @Test
+    public void countUntil_matchesStepping() {
+        int start = EpochDays.of(2023, 5, 30);
+        for (int unit = RecurrenceRule.UNIT_DAY; unit <= RecurrenceRule.UNIT_MONTH; unit++) {
+            for (int interval = 1; interval <= 3; interval++) {
+                RecurrenceRule r = rule(unit, interval, start, EpochDays.INVALID, 0);
+                for (int day = start - 5; day < start + 800; day++) {
+                    int expected = 0;
+                    while (r.occurrenceDay(expected) <= day) {
+                        expected++;
+                    }
+                    assertEquals("unit " + unit + " interval " + interval + " day " + day,
+                            expected, r.countUntil(day));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void endDate_limitsOccurrences() {
+        int start = EpochDays.of(2024, 1, 1);
+        RecurrenceRule weekly = rule(RecurrenceRule.UNIT_WEEK, 1, start, start + 20, 0);
+        assertEquals(3, weekly.countUntil(start + 365));
+    }
+
+    @Test
+    public void dueCount_catchesUpFromNextIndex() {
+        int start = EpochDays.of(2024, 1, 15);
+        RecurrenceRule salary = rule(RecurrenceRule.UNIT_MONTH, 1, start, EpochDays.INVALID, 2);
+        // Occurrences 2..5 (March to June) are due by mid June
+        assertEquals(4, salary.dueCount(EpochDays.of(2024, 6, 15)));
+        assertEquals(0, salary.withNextIndex(6).dueCount(EpochDays.of(2024, 6, 15)));
+    }
+
+    @Test
+    public void project_skipsMaterializedOccurrences() {
+        int start = EpochDays.of(2024, 1, 1);
+        RecurrenceRule daily = rule(RecurrenceRule.UNIT_DAY, 1, start, EpochDays.INVALID, 5);
+        List<Transaction> projected = daily.project(start, start + 9);
+        assertEquals(5, projected.size());
+        assertEquals("06/01/2024", projected.get(0).getDate());
+        assertEquals(5, daily.projectedCount(start, start + 9));
+    }
+}
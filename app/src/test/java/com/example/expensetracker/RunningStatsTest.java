@@ -0,0 +1,65 @@
+package com.example.expensetracker;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link RunningStats}
+ */
+public class RunningStatsTest {
+    @Test
+    public void add_matchesTwoPassStatistics() {
+        double[] values = {12.5, 40, 7.25, 19.99, 33, 8, 15.5};
+        RunningStats stats = new RunningStats();
+        double sum = 0;
+        for (double value : values) {
+            stats.add(value);
+            sum += value;
+        }
+        double mean = sum / values.length;
+        double squares = 0;
+        for (double value : values) {
+            squares += (value - mean) * (value - mean);
+        }
+        assertEquals(values.length, stats.getCount());
+        assertEquals(mean, stats.getMean(), 1e-9);
+        assertEquals(squares / (values.length - 1), stats.getVariance(), 1e-9);
+    }
+
+    @Test
+    public void remove_undoesAdd() {
+        Random random = new Random(7);
+        RunningStats stats = new RunningStats();
+        for (int i = 0; i < 100; i++) {
+            stats.add(random.nextDouble() * 100);
+        }
+        double mean = stats.getMean();
+        double variance = stats.getVariance();
+        stats.add(5000);
+        stats.remove(5000);
+        assertEquals(mean, stats.getMean(), 1e-9);
+        assertEquals(variance, stats.getVariance(), 1e-6);
+    }
+
+    @Test
+    public void isAnomaly_flagsOnlyFarAboveNormal() {
+        RunningStats stats = new RunningStats();
+        for (double value : new double[]{30, 35, 28, 40, 32, 36}) {
+            stats.add(value);
+        }
+        assertFalse(stats.isAnomaly(45));
+        assertTrue(stats.isAnomaly(400));
+        assertFalse(stats.isAnomaly(1));
+    }
+
+    @Test
+    public void isAnomaly_needsEnoughSamples() {
+        RunningStats stats = new RunningStats();
+        stats.add(10);
+        stats.add(11);
+        assertFalse(stats.isAnomaly(1000));
+    }
+}
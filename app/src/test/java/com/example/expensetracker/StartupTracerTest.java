@@ -0,0 +1,50 @@
+package com.example.expensetracker;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowTrace;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the time-to-data trace marker against Robolectric's record of trace sections
+ */
+@RunWith(RobolectricTestRunner.class)
+public class StartupTracerTest {
+    @Before
+    public void setUp() {
+        StartupTracer.reset();
+        ShadowTrace.reset();
+    }
+
+    @Test
+    public void timeToData_isOneClosedSectionPerProcess() {
+        // The first load and a resume before it finished
+        StartupTracer.beginTimeToData();
+        StartupTracer.beginTimeToData();
+        assertEquals(1, ShadowTrace.getCurrentAsyncSections().size());
+
+        StartupTracer.endTimeToData();
+        assertTrue(ShadowTrace.getCurrentAsyncSections().isEmpty());
+        assertEquals(1, ShadowTrace.getPreviousAsyncSections().size());
+        assertEquals("Startup.timeToData", ShadowTrace.getPreviousAsyncSections().get(0).getSectionName());
+        long dataReady = StartupTracer.getDataReadyMillis();
+        assertTrue(dataReady >= 0);
+
+        // Later resumes neither open a section nor move the milestone
+        StartupTracer.beginTimeToData();
+        StartupTracer.endTimeToData();
+        assertTrue(ShadowTrace.getCurrentAsyncSections().isEmpty());
+        assertEquals(1, ShadowTrace.getPreviousAsyncSections().size());
+        assertEquals(dataReady, StartupTracer.getDataReadyMillis());
+    }
+
+    @Test
+    public void endTimeToData_withoutBeginRecordsNothing() {
+        StartupTracer.endTimeToData();
+        assertEquals(-1, StartupTracer.getDataReadyMillis());
+        assertTrue(ShadowTrace.getPreviousAsyncSections().isEmpty());
+    }
+}
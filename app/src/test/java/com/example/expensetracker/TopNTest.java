@@ -0,0 +1,60 @@
+package com.example.expensetracker;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link TopN}
+ */
+public class TopNTest {
+    @Test
+    public void offer_keepsLargestInOrder() {
+        TopN<String> top = new TopN<>(3);
+        top.offer(12, "a");
+        top.offer(700, "rent");
+        top.offer(3, "b");
+        top.offer(85, "c");
+        top.offer(40, "d");
+
+        assertEquals(Arrays.asList("rent", "c", "d"), top.toList());
+        assertFalse(top.accepts(40));
+        assertTrue(top.accepts(41));
+    }
+
+    @Test
+    public void offer_fewerThanCapacity() {
+        TopN<String> top = new TopN<>(5);
+        assertTrue(top.toList().isEmpty());
+        top.offer(1, "x");
+        assertEquals(1, top.size());
+        assertTrue(top.accepts(-1000));
+    }
+
+    @Test
+    public void offer_matchesSortOnRandomStream() {
+        Random random = new Random(42);
+        TopN<Double> top = new TopN<>(10);
+        List<Double> all = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            double value = random.nextDouble() * 1000;
+            all.add(value);
+            if (top.accepts(value)) {
+                top.offer(value, value);
+            }
+        }
+        all.sort(Collections.reverseOrder());
+        assertEquals(all.subList(0, 10), top.toList());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_rejectsZeroCapacity() {
+        new TopN<String>(0);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.expensetracker;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link TransactionCsvReader}
+ */
+public class TransactionCsvReaderTest {
+    @Test
+    public void read_parsesExportFormat() throws IOException {
+        String csv = "ID,Type,Category,Amount,Date,Note\n"
+                + "1,expense,Groceries,€12.50,03/02/2024,\"Milk, eggs\"\n"
+                + "2,income,Salary,€2000.00,2024-02-28,\n"
+                + "3,expense,Gift,€-5.00,01/03/2024,\"Said \"\"thanks\"\"\non a card\"\r\n";
+        TransactionCsvReader reader = new TransactionCsvReader();
+        List<Transaction> rows = reader.read(new StringReader(csv));
+
+        assertEquals(3, rows.size());
+        assertEquals(0, reader.getInvalidCount());
+        Transaction groceries = rows.get(0);
+        assertEquals("expense", groceries.getType());
+        assertEquals("Groceries", groceries.getCategory());
+        assertEquals(12.5, groceries.getAmount(), 1e-9);
+        assertEquals("03/02/2024", groceries.getDate());
+        assertEquals("Milk, eggs", groceries.getDescription());
+        assertEquals("28/02/2024", rows.get(1).getDate());
+        assertNull(rows.get(1).getDescription());
+        assertEquals(-5, rows.get(2).getAmount(), 1e-9);
+        assertEquals("Said \"thanks\"\non a card", rows.get(2).getDescription());
+        assertEquals(Money.BASE_CURRENCY, rows.get(0).getCurrency());
+    }
+
+    @Test
+    public void read_keepsCurrencyColumn() throws IOException {
+        String csv = "ID,Type,Category,Amount,Date,Note,Currency\n"
+                + "1,expense,Hotel,$120.00,10/05/2024,,usd\n"
+                + "2,expense,Lunch,€9.00,10/05/2024,,\n";
+        List<Transaction> rows = new TransactionCsvReader().read(new StringReader(csv));
+        assertEquals("USD", rows.get(0).getCurrency());
+        assertEquals(120, rows.get(0).getAmount(), 1e-9);
+        assertEquals(Money.BASE_CURRENCY, rows.get(1).getCurrency());
+    }
+
+    @Test
+    public void read_findsColumnsByHeaderAndCountsBadRows() throws IOException {
+        String csv = "date,amount,category\n"
+                + "05/01/2024,-8.20,Taxi\n"
+                + "not a date,1.00,Taxi\n"
+                + "06/01/2024,abc,Taxi\n"
+                + "\n"
+                + "07/01/2024,30,Refund\n";
+        TransactionCsvReader reader = new TransactionCsvReader();
+        List<Transaction> rows = reader.read(new StringReader(csv));
+
+        assertEquals(2, rows.size());
+        assertEquals(2, reader.getInvalidCount());
+        assertEquals("expense", rows.get(0).getType());
+        assertEquals("Taxi", rows.get(0).getCategory());
+        assertEquals("income", rows.get(1).getType());
+    }
+
+    @Test
+    public void read_withoutHeaderAssumesExportOrder() throws IOException {
+        List<Transaction> rows = new TransactionCsvReader().read(
+                new StringReader("9,expense,Rent,€750.00,01/04/2024,April"));
+        assertEquals(1, rows.size());
+        assertEquals("Rent", rows.get(0).getCategory());
+        assertEquals("April", rows.get(0).getDescription());
+    }
+
+    @Test
+    public void read_roundTripsWriterOutput() throws IOException {
+        Transaction lunch = new Transaction(4, 8.4, "expense", "Food", "11/03/2024", "Soup, \"to go\"");
+        Transaction refund = new Transaction(5, 30, "income", "Refund", "12/03/2024", "");
+        refund.setCurrency("USD");
+        StringBuilder csv = new StringBuilder();
+        TransactionCsvWriter.write(csv, TransactionList.copyOf(Arrays.asList(lunch, refund)));
+
+        List<Transaction> rows = new TransactionCsvReader().read(new StringReader(csv.toString()));
+        assertEquals(2, rows.size());
+        assertEquals("Soup, \"to go\"", rows.get(0).getDescription());
+        assertEquals(8.4, rows.get(0).getAmount(), 1e-9);
+        assertEquals("11/03/2024", rows.get(0).getDate());
+        assertEquals("USD", rows.get(1).getCurrency());
+        assertEquals(30, rows.get(1).getAmount(), 1e-9);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.expensetracker;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link TransactionFilter}
+ */
+public class TransactionFilterTest {
+    private static final int DAY = EpochDays.of(2024, 3, 15);
+
+    @Test
+    public void emptyFilter_selectsEverythingNewestFirst() {
+        TransactionFilter filter = new TransactionFilter.Builder().build();
+
+        assertEquals("", filter.whereClause());
+        assertEquals(0, filter.toArgs().length);
+        assertTrue(filter.toSql().endsWith(" ORDER BY " + DatabaseHelper.ORDER_NEWEST_FIRST));
+    }
+
+    @Test
+    public void criteria_bindValuesInPlaceholderOrder() {
+        TransactionFilter filter = new TransactionFilter.Builder()
+                .type("expense")
+                .categories(Arrays.asList("Groceries", " groceries ", "Rent"))
+                .dateRange(DAY, DAY + 30)
+                .amountRange(10, Double.NaN)
+                .text("50%_off")
+                .order(TransactionFilter.ORDER_LARGEST_FIRST)
+                .limit(20, 40)
+                .build();
+
+        String sql = filter.toSql();
+        int placeholders = sql.length() - sql.replace("?", "").length();
+        String[] args = filter.toArgs();
+        assertEquals(placeholders, args.length);
+        assertArrayEquals(new String[]{"expense", "groceries", "rent", "20240315", "20240414", "10.0",
+                "%50\\%\\_off%", "%50\\%\\_off%", "20", "40"}, args);
+        assertTrue(sql.contains(" IN (?, ?)"));
+        assertFalse(sql.contains("<= CAST(? AS REAL)"));
+        assertTrue(sql.endsWith(" LIMIT ? OFFSET ?"));
+    }
+
+    @Test
+    public void sameShape_sharesCompiledSql() {
+        TransactionFilter first = new TransactionFilter.Builder().type("income").dateRange(DAY, DAY).build();
+        TransactionFilter second = new TransactionFilter.Builder().type("expense").dateRange(DAY - 9, DAY + 9).build();
+        TransactionFilter other = new TransactionFilter.Builder().type("expense").build();
+
+        String sql = first.toSql();
+        int hits = TransactionFilter.getPlanCacheHits();
+        assertSame(sql, second.toSql());
+        assertEquals(hits + 1, TransactionFilter.getPlanCacheHits());
+        assertNotEquals(first.shape(), other.shape());
+        assertNotEquals(sql, other.toSql());
+    }
+
+    @Test
+    public void orderNone_hasNoOrderBy() {
+        TransactionFilter filter = new TransactionFilter.Builder()
+                .id(7)
+                .order(TransactionFilter.ORDER_NONE)
+                .build();
+
+        assertFalse(filter.toSql().contains("ORDER BY"));
+        assertArrayEquals(new String[]{"7"}, filter.toArgs());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void order_rejectsUnknown() {
+        new TransactionFilter.Builder().order(9);
+    }
+}
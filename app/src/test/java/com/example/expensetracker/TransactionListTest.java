@@ -0,0 +1,85 @@
+package com.example.expensetracker;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link TransactionList}
+ */
+public class TransactionListTest {
+    @Test
+    public void get_roundTripsEveryField() {
+        Transaction original = new Transaction(9, -42.5, "expense", "Groceries", "07/03/2024", "weekly shop");
+        original.setCurrency("usd");
+        original.setAnomaly(true);
+
+        Transaction copy = TransactionList.copyOf(Arrays.asList(original)).get(0);
+        assertEquals(9, copy.getId());
+        assertEquals(-42.5, copy.getAmount(), 0);
+        assertEquals("expense", copy.getType());
+        assertEquals("Groceries", copy.getCategory());
+        assertEquals("Groceries", copy.getTitle());
+        assertEquals("07/03/2024", copy.getDate());
+        assertEquals("weekly shop", copy.getDescription());
+        assertEquals("USD", copy.getCurrency());
+        assertTrue(copy.isAnomaly());
+    }
+
+    @Test
+    public void builder_internsRepeatedStrings() {
+        TransactionList.Builder builder = new TransactionList.Builder();
+        builder.add(1, "01/03/2024", 10, "expense", new String("Rent"), null, null, false);
+        builder.add(2, "02/03/2024", 20, "income", new String("Rent"), new String("note"), "EUR", false);
+        builder.add(3, "03/03/2024", 30, "expense", "Food", new String("note"), "eur", false);
+        TransactionList list = builder.build();
+
+        assertSame(list.category(0), list.category(1));
+        assertSame(list.note(1), list.note(2));
+        assertSame(list.currency(0), list.currency(2));
+        assertEquals(Money.BASE_CURRENCY, list.currency(0));
+        assertNull(list.note(0));
+        assertTrue(list.isExpense(0));
+        assertTrue(list.isIncome(1));
+        assertEquals(EpochDays.of(2024, 3, 2), list.epochDay(1));
+    }
+
+    @Test
+    public void row_readsInPlace() {
+        TransactionList.Builder builder = new TransactionList.Builder(0);
+        for (int i = 0; i < 100; i++) {
+            builder.add(i, EpochDays.format(EpochDays.of(2024, 1, 1) + i), i, "expense", "c" + (i % 3), "", null, false);
+        }
+        TransactionList list = builder.build();
+        assertEquals(100, list.size());
+
+        TransactionList.Row row = list.row();
+        for (int i = 0; i < list.size(); i++) {
+            row.moveTo(i);
+            assertEquals(i, row.getId());
+            assertEquals(list.get(i).getDate(), row.getDate());
+            assertEquals("c" + (i % 3), row.getCategory());
+        }
+    }
+
+    @Test
+    public void builder_keepsUnparsedDatesVerbatim() {
+        TransactionList.Builder source = new TransactionList.Builder();
+        source.add(1, "sometime", 5, "expense", "Misc", "", null, false);
+        TransactionList list = source.build();
+        assertEquals(EpochDays.INVALID, list.epochDay(0));
+        assertEquals("sometime", list.get(0).getDate());
+
+        // Copying a row carries the original text along
+        TransactionList copy = new TransactionList.Builder().add(list, 0).build();
+        assertEquals("sometime", copy.date(0));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void list_isUnmodifiable() {
+        TransactionList.copyOf(Arrays.asList(new Transaction(1, 1, "income", "Pay", "01/01/2024", "")))
+                .remove(0);
+    }
+}
@@ -0,0 +1,52 @@
+// JMH benchmarks for the ledger core, run on a plain JVM:
+//   ./gradlew :benchmark:jmh
+// Results are written as JSON to benchmark/build/results/jmh/results.json
+plugins {
+    id("java")
+    id("me.champeau.jmh")
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+// Money uses currency symbols; Android builds already compile sources as UTF-8
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+// The app module is an Android application, so the benchmarks compile the
+// framework-free classes they measure straight from its sources
+sourceSets {
+    main {
+        java {
+            srcDir("../app/src/main/java")
+            include(
+                "com/example/expensetracker/EpochDays.java",
+                "com/example/expensetracker/FinancialSummary.java",
+                "com/example/expensetracker/LatencyHistogram.java",
+                "com/example/expensetracker/Money.java",
+                "com/example/expensetracker/OperationMetrics.java",
+                "com/example/expensetracker/Transaction.java",
+                "com/example/expensetracker/TransactionCsvWriter.java",
+                "com/example/expensetracker/TransactionList.java"
+            )
+        }
+    }
+}
+
+jmh {
+    jmhVersion.set("1.37")
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    timeUnit.set("ns")
+    benchmarkMode.set(listOf("avgt"))
+    // Allocation rate per operation alongside the timings
+    profilers.set(listOf("gc"))
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+    // Narrow a run with -Pjmh.includes=DateCodec
+    providers.gradleProperty("jmh.includes").orNull?.let { includes.set(listOf(it)) }
+}
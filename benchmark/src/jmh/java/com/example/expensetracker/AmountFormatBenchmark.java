@@ -0,0 +1,44 @@
+package com.example.expensetracker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * Amount text for a list row, as TransactionAdapter shows it
+ * The text is built by TransactionDisplayModel when a page loads: the
+ * magnitude with its currency symbol, prefixed with the sign for the type
+ */
+@State(Scope.Thread)
+public class AmountFormatBenchmark {
+    private static final int SAMPLES = 1024;
+
+    private final double[] amounts = new double[SAMPLES];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(11);
+        for (int i = 0; i < SAMPLES; i++) {
+            amounts[i] = Math.round(random.nextDouble() * 500_000) / 100.0;
+        }
+    }
+
+    private double nextAmount() {
+        next = (next + 1) & (SAMPLES - 1);
+        return amounts[next];
+    }
+
+    @Benchmark
+    public String baseCurrency() {
+        return "-" + Money.format(Math.abs(nextAmount()), Money.BASE_CURRENCY);
+    }
+
+    @Benchmark
+    public String foreignCurrency() {
+        return "+" + Money.format(Math.abs(nextAmount()), "USD");
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.expensetracker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeded, in-memory ledger shared by the benchmarks
+ * The same seed always gives the same rows, so runs compare like with like
+ */
+final class BenchmarkLedger {
+    private static final String[] EXPENSE_CATEGORIES = {
+            "Groceries", "Rent", "Transport", "Eating out", "Utilities", "Health", "Gifts", "Travel"};
+    private static final String[] INCOME_CATEGORIES = {"Salary", "Freelance", "Refund"};
+    private static final String[] NOTES = {
+            "", "", "weekly shop", "card payment", "split with friends", "monthly", "Paid \"in full\", thanks"};
+    private static final String[] CURRENCIES = {"EUR", "EUR", "EUR", "USD", "GBP"};
+
+    private BenchmarkLedger() {
+    }
+
+    /**
+     * @param rows Number of transactions
+     * @param seed Random seed
+     * @return Transactions spread over about five years, roughly one in five income
+     */
+    static List<Transaction> transactions(int rows, long seed) {
+        Random random = new Random(seed);
+        int firstDay = EpochDays.of(2020, 1, 1);
+        List<Transaction> transactions = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            boolean income = random.nextInt(5) == 0;
+            String category = income
+                    ? INCOME_CATEGORIES[random.nextInt(INCOME_CATEGORIES.length)]
+                    : EXPENSE_CATEGORIES[random.nextInt(EXPENSE_CATEGORIES.length)];
+            double amount = Math.round((income ? 500 + random.nextDouble() * 2500 : 1 + random.nextDouble() * 150) * 100) / 100.0;
+            Transaction transaction = new Transaction(i + 1, amount, income ? "income" : "expense", category,
+                    EpochDays.format(firstDay + random.nextInt(5 * 365)), NOTES[random.nextInt(NOTES.length)]);
+            transaction.setCurrency(CURRENCIES[random.nextInt(CURRENCIES.length)]);
+            transactions.add(transaction);
+        }
+        return transactions;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.expensetracker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+
+/**
+ * CSV serialization of a loaded ledger, as done by DatabaseHelper.exportToCSV
+ * Writes to a reused in-memory buffer, so only serialization is measured
+ */
+@State(Scope.Thread)
+public class CsvExportBenchmark {
+    @Param({"1000", "10000"})
+    public int rows;
+
+    private TransactionList transactions;
+    private TransactionList.Row row;
+    private StringBuilder out;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        transactions = TransactionList.copyOf(BenchmarkLedger.transactions(rows, 42));
+        row = transactions.row();
+        out = new StringBuilder(rows * 64);
+    }
+
+    @Benchmark
+    public int writeAll() throws IOException {
+        out.setLength(0);
+        TransactionCsvWriter.write(out, transactions);
+        return out.length();
+    }
+
+    @Benchmark
+    public int writeRow() throws IOException {
+        out.setLength(0);
+        next = next + 1 == rows ? 0 : next + 1;
+        TransactionCsvWriter.writeRow(out, row.moveTo(next));
+        return out.length();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.expensetracker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+/**
+ * Date parsing and formatting as done when saving a transaction
+ * {@link EpochDays} is what DatabaseHelper.addTransaction uses; the
+ * SimpleDateFormat variants are the per-call formatter it used before
+ */
+@State(Scope.Thread)
+public class DateCodecBenchmark {
+    private static final int SAMPLES = 1024;
+
+    private final String[] dates = new String[SAMPLES];
+    private final int[] epochDays = new int[SAMPLES];
+    private final long[] millis = new long[SAMPLES];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        int firstDay = EpochDays.of(2000, 1, 1);
+        for (int i = 0; i < SAMPLES; i++) {
+            epochDays[i] = firstDay + random.nextInt(40 * 365);
+            dates[i] = EpochDays.format(epochDays[i]);
+            millis[i] = epochDays[i] * 86_400_000L;
+        }
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (SAMPLES - 1);
+        return next;
+    }
+
+    @Benchmark
+    public int epochDaysParse() {
+        return EpochDays.parse(dates[nextIndex()]);
+    }
+
+    @Benchmark
+    public String epochDaysFormat() {
+        return EpochDays.format(epochDays[nextIndex()]);
+    }
+
+    @Benchmark
+    public String epochDaysNormalize() {
+        return EpochDays.normalize(dates[nextIndex()]);
+    }
+
+    @Benchmark
+    public Date simpleDateFormatParse() throws ParseException {
+        return newFormat().parse(dates[nextIndex()]);
+    }
+
+    @Benchmark
+    public String simpleDateFormatFormat() {
+        return newFormat().format(new Date(millis[nextIndex()]));
+    }
+
+    private static SimpleDateFormat newFormat() {
+        SimpleDateFormat format = new SimpleDateFormat("dd/MM/yyyy", Locale.getDefault());
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format;
+    }
+}
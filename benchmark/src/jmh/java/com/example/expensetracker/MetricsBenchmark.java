@@ -0,0 +1,64 @@
+package com.example.expensetracker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.Random;
+
+/**
+ * Cost of timing one call with OperationMetrics, as DbMetrics.begin/end do
+ * around every DatabaseHelper operation, without the android.os.Trace calls.
+ * Compare timedCall with addTransaction in the database performance suite:
+ * the insert path allows 1% of its time for this. DbMetricsOverheadTest
+ * checks the same budget on a device with tracing included
+ */
+@State(Scope.Benchmark)
+public class MetricsBenchmark {
+    private static final int SAMPLES = 1024;
+
+    private final OperationMetrics metrics = new OperationMetrics("benchmark");
+    private final long[] durations = new long[SAMPLES];
+
+    @State(Scope.Thread)
+    public static class Position {
+        int next;
+    }
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(5);
+        for (int i = 0; i < SAMPLES; i++) {
+            // Log-normal around 300 µs, like a single-row insert
+            durations[i] = (long) (300_000 * Math.exp(random.nextGaussian()));
+        }
+    }
+
+    private long nextDuration(Position position) {
+        position.next = (position.next + 1) & (SAMPLES - 1);
+        return durations[position.next];
+    }
+
+    @Benchmark
+    public void record(Position position) {
+        metrics.record(nextDuration(position));
+    }
+
+    @Benchmark
+    public void timedCall() {
+        long start = System.nanoTime();
+        metrics.record(System.nanoTime() - start);
+    }
+
+    /**
+     * Several threads recording into the same operation, as when the list
+     * binds rows while a background load queries the database
+     */
+    @Benchmark
+    @Threads(4)
+    public void recordContended(Position position) {
+        metrics.record(nextDuration(position));
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.expensetracker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * Income and expense totals over a loaded ledger, the figures
+ * MainActivity.updateFinancialSummary shows
+ * Compares summing Transaction objects with summing the columns of a
+ * {@link TransactionList}. Amounts are summed at face value
+ */
+@State(Scope.Thread)
+public class SummaryBenchmark {
+    @Param({"10000", "100000"})
+    public int rows;
+
+    private List<Transaction> objects;
+    private TransactionList columns;
+
+    @Setup
+    public void setUp() {
+        objects = BenchmarkLedger.transactions(rows, 42);
+        columns = TransactionList.copyOf(objects);
+    }
+
+    @Benchmark
+    public FinancialSummary transactionObjects() {
+        double income = 0;
+        double expense = 0;
+        for (Transaction transaction : objects) {
+            if ("income".equals(transaction.getType())) {
+                income += Math.abs(transaction.getAmount());
+            } else if ("expense".equals(transaction.getType())) {
+                expense += Math.abs(transaction.getAmount());
+            }
+        }
+        return new FinancialSummary(income, expense);
+    }
+
+    @Benchmark
+    public FinancialSummary transactionListColumns() {
+        double income = 0;
+        double expense = 0;
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.isIncome(i)) {
+                income += Math.abs(columns.amount(i));
+            } else if (columns.isExpense(i)) {
+                expense += Math.abs(columns.amount(i));
+            }
+        }
+        return new FinancialSummary(income, expense);
+    }
+}
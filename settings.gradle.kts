@@ -19,3 +19,4 @@ dependencyResolutionManagement {
 
 rootProject.name = "Expense Tracker"
 include(":app")
+include(":benchmark")